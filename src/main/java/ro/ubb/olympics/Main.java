@@ -29,34 +29,41 @@ public class Main {
      * Validators, repositories, services are instantiated.
      * A new controller is created using all of the above,
      * and a new Console is instantiated, which then starts waiting for user input.
+     * When the user exits, the resources held by the repositories and the report service are released.
      *
      * @param args command-line arguments for the program, currently unused.
      */
     public static void main(final String[] args) {
-        final ApplicationProperties applicationProperties = new ApplicationProperties("C:\\Users\\sdumi\\OneDrive\\Desktop\\InfoYear2\\Lab2_4Git\\lab2x-team-gamestonk\\data\\app.properties");
+        try (final ApplicationProperties applicationProperties = new ApplicationProperties("C:\\Users\\sdumi\\OneDrive\\Desktop\\InfoYear2\\Lab2_4Git\\lab2x-team-gamestonk\\data\\app.properties")) {
+            final Repository<Long, Athlete> athleteRepository = applicationProperties.getAthleteRepository();
+            final AthleteService athleteService = new AthleteService(athleteRepository);
 
-        final Repository<Long, Athlete> athleteRepository = applicationProperties.getAthleteRepository();
-        final AthleteService athleteService = new AthleteService(athleteRepository);
+            final Repository<Long, Competition> competitionRepository = applicationProperties.getCompetitionRepository();
+            final CompetitionService competitionService = new CompetitionService(competitionRepository);
 
-        final Repository<Long, Competition> competitionRepository = applicationProperties.getCompetitionRepository();
-        final CompetitionService competitionService = new CompetitionService(competitionRepository);
+            final Repository<Long, Participation> participationRepository = applicationProperties.getParticipationRepository();
+            final ParticipationService participationService = new ParticipationService(participationRepository);
 
-        final Repository<Long, Participation> participationRepository = applicationProperties.getParticipationRepository();
-        final ParticipationService participationService = new ParticipationService(participationRepository);
+            final Repository<Long, Sponsor> sponsorRepository = applicationProperties.getSponsorRepository();
+            final SponsorService sponsorService = new SponsorService(sponsorRepository);
 
-        final Repository<Long, Sponsor> sponsorRepository = applicationProperties.getSponsorRepository();
-        final SponsorService sponsorService = new SponsorService(sponsorRepository);
+            final Repository<Long, Sponsorship> sponsorshipRepository = applicationProperties.getSponsorshipRepository();
+            final SponsorshipService sponsorshipService = new SponsorshipService(sponsorshipRepository);
 
-        final Repository<Long, Sponsorship> sponsorshipRepository = applicationProperties.getSponsorshipRepository();
-        final SponsorshipService sponsorshipService = new SponsorshipService(sponsorshipRepository);
+            final FilterService filterService = new FilterService(athleteService, competitionService, participationService, sponsorService, sponsorshipService);
+            final ReportService reportService = applicationProperties.getReportService(
+                sponsorshipRepository,
+                sponsorRepository,
+                competitionRepository,
+                participationRepository,
+                athleteRepository
+            );
 
-        final FilterService filterService = new FilterService(athleteService, competitionService, participationService, sponsorService, sponsorshipService);
-        final ReportService reportService = new ReportService(sponsorshipRepository, sponsorRepository, competitionRepository, participationRepository, athleteRepository);
+            final Controller controller = new Controller(athleteService, competitionService, participationService, sponsorService, sponsorshipService, reportService, filterService);
 
-        final Controller controller = new Controller(athleteService, competitionService, participationService, sponsorService, sponsorshipService, reportService, filterService);
-
-        final Console console = new Console(controller);
-        console.run();
+            final Console console = new Console(controller);
+            console.run();
+        }
     }
 
     // TODO: prepare for Lab 5 (Alexandru)
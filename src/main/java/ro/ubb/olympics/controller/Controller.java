@@ -165,14 +165,7 @@ public class Controller {
             .getAthleteById(id)
             .orElseThrow(() -> new UnknownIdException("There is no athlete with the given ID."));
 
-        participationService
-            .getAllParticipations()
-            .forEach(participation -> {
-                Optional
-                    .of(participation)
-                    .filter(currentParticipation -> currentParticipation.getAthleteId().equals(id))
-                    .ifPresent(currentParticipation -> participationService.deleteParticipation(currentParticipation.getId()));
-            });
+        participationService.deleteParticipationsByAthleteId(id);
 
         return athleteService.deleteAthlete(id);
     }
@@ -189,23 +182,9 @@ public class Controller {
             .getCompetitionById(id)
             .orElseThrow(() -> new UnknownIdException("There is no competition with the given ID."));
 
-        participationService
-            .getAllParticipations()
-            .forEach(participation -> {
-                Optional
-                    .of(participation)
-                    .filter(currentParticipation -> currentParticipation.getCompetitionId().equals(id))
-                    .ifPresent(currentParticipation -> participationService.deleteParticipation(currentParticipation.getId()));
-            });
-
-        sponsorshipService
-            .getAllSponsorships()
-            .forEach(sponsorship -> {
-                Optional
-                    .of(sponsorship)
-                    .filter(currentSponsorship -> currentSponsorship.getCompetitionId().equals(id))
-                    .ifPresent(currentSponsorship -> sponsorshipService.deleteSponsorship(currentSponsorship.getId()));
-            });
+        participationService.deleteParticipationsByCompetitionId(id);
+
+        sponsorshipService.deleteSponsorshipsByCompetitionId(id);
 
         return competitionService.deleteCompetition(id);
     }
@@ -222,14 +201,7 @@ public class Controller {
             .getSponsorById(id)
             .orElseThrow(() -> new UnknownIdException("There is no sponsor with the given ID."));
 
-        sponsorshipService
-            .getAllSponsorships()
-            .forEach(sponsorship -> {
-                Optional
-                    .of(sponsorship)
-                    .filter(currentSponsorship -> currentSponsorship.getSponsorId().equals(id))
-                    .ifPresent(currentSponsorship -> sponsorshipService.deleteSponsorship(currentSponsorship.getId()));
-            });
+        sponsorshipService.deleteSponsorshipsBySponsorId(id);
 
         return sponsorService.deleteSponsor(id);
     }
@@ -0,0 +1,29 @@
+package ro.ubb.olympics.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * DTO holding every report, all generated at the same point in time.
+ */
+@Getter
+@AllArgsConstructor
+public class AllReportsDTO {
+
+    final SponsorContributionReportDTO sponsorContributionReport;
+    final CompetitionSponsorshipsReportDTO competitionSponsorshipsReport;
+    final AthleteParticipationReportDTO athleteParticipationReport;
+    final CompetitionParticipationReportDTO competitionParticipationReport;
+
+    @Override
+    public String toString() {
+        return String.join(
+            "\n\n",
+            sponsorContributionReport.toString(),
+            competitionSponsorshipsReport.toString(),
+            athleteParticipationReport.toString(),
+            competitionParticipationReport.toString()
+        );
+    }
+
+}
@@ -1,6 +1,7 @@
 package ro.ubb.olympics.dto;
 
 import lombok.AllArgsConstructor;
+import lombok.Getter;
 import ro.ubb.olympics.domain.Athlete;
 import ro.ubb.olympics.utils.Pair;
 
@@ -9,6 +10,7 @@ import java.util.List;
 /**
  * DTO for the report on the number of participations for each athlete.
  */
+@Getter
 @AllArgsConstructor
 public class AthleteParticipationReportDTO {
 
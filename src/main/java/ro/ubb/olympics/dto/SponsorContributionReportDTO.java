@@ -1,6 +1,7 @@
 package ro.ubb.olympics.dto;
 
 import lombok.AllArgsConstructor;
+import lombok.Getter;
 import ro.ubb.olympics.domain.Sponsor;
 import ro.ubb.olympics.utils.Pair;
 
@@ -9,6 +10,7 @@ import java.util.List;
 /**
  * DTO for the report on the amount of money contributed by each sponsor.
  */
+@Getter
 @AllArgsConstructor
 public class SponsorContributionReportDTO {
 
@@ -14,4 +14,13 @@ public class FileException extends RuntimeException {
         super(cause);
     }
 
+    /**
+     * Initializes the exception with the given message.
+     *
+     * @param message the message to be passed to the parent exception.
+     */
+    public FileException(final String message) {
+        super(message);
+    }
+
 }
\ No newline at end of file
@@ -13,43 +13,82 @@ import ro.ubb.olympics.domain.validators.SponsorValidator;
 import ro.ubb.olympics.domain.validators.SponsorshipValidator;
 import ro.ubb.olympics.domain.validators.Validator;
 import ro.ubb.olympics.repository.Repository;
+import ro.ubb.olympics.repository.columnar.ColumnarRepository;
+import ro.ubb.olympics.repository.file.AbstractFileRepository;
+import ro.ubb.olympics.repository.file.LogCompactor;
 import ro.ubb.olympics.repository.file.impl.AthleteFileRepository;
 import ro.ubb.olympics.repository.file.impl.CompetitionFileRepository;
 import ro.ubb.olympics.repository.file.impl.ParticipationFileRepository;
 import ro.ubb.olympics.repository.file.impl.SponsorFileRepository;
 import ro.ubb.olympics.repository.file.impl.SponsorshipFileRepository;
 import ro.ubb.olympics.repository.inmemory.InMemoryRepository;
+import ro.ubb.olympics.repository.inmemory.LongKeyedInMemoryRepository;
+import ro.ubb.olympics.repository.jdbc.AbstractJdbcRepository;
+import ro.ubb.olympics.repository.jdbc.CachedJdbcRepository;
+import ro.ubb.olympics.repository.jdbc.ConnectionPoolSettings;
 import ro.ubb.olympics.repository.jdbc.DatabaseProvider;
 import ro.ubb.olympics.repository.jdbc.impl.AthleteJdbcRepository;
 import ro.ubb.olympics.repository.jdbc.impl.CompetitionJdbcRepository;
 import ro.ubb.olympics.repository.jdbc.impl.ParticipationJdbcRepository;
 import ro.ubb.olympics.repository.jdbc.impl.SponsorJdbcRepository;
 import ro.ubb.olympics.repository.jdbc.impl.SponsorshipJdbcRepository;
+import ro.ubb.olympics.repository.jdbc.mapper.AthleteJdbcMapper;
+import ro.ubb.olympics.repository.jdbc.mapper.CompetitionJdbcMapper;
+import ro.ubb.olympics.repository.jdbc.mapper.ParticipationJdbcMapper;
+import ro.ubb.olympics.repository.jdbc.mapper.SponsorJdbcMapper;
+import ro.ubb.olympics.repository.jdbc.mapper.SponsorshipJdbcMapper;
+import ro.ubb.olympics.repository.mmap.MappedRepository;
+import ro.ubb.olympics.repository.row.mapper.ParticipationRowMapper;
+import ro.ubb.olympics.repository.row.mapper.SponsorshipRowMapper;
+import ro.ubb.olympics.repository.xml.AbstractXmlRepository;
 import ro.ubb.olympics.repository.xml.impl.AthleteXmlRepository;
 import ro.ubb.olympics.repository.xml.impl.CompetitionXmlRepository;
 import ro.ubb.olympics.repository.xml.impl.ParticipationXmlRepository;
 import ro.ubb.olympics.repository.xml.impl.SponsorXmlRepository;
 import ro.ubb.olympics.repository.xml.impl.SponsorshipXmlRepository;
+import ro.ubb.olympics.service.ReportService;
 
 import java.io.FileInputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Properties;
 
 /**
  * Class holding the properties of the application.
+ * <p>
+ * It owns the resources shared by the repositories it builds, and releases them when it is closed.
  */
-public class ApplicationProperties {
+public class ApplicationProperties implements AutoCloseable {
 
     private static final String IN_MEMORY = "inMemory";
+    private static final String IN_MEMORY_LONG_KEYED = "inMemoryLongKeyed";
     private static final String XML = "xml";
     private static final String CSV = "csv";
     private static final String JDBC = "jdbc";
+    private static final String JDBC_CACHED = "jdbcCached";
+    private static final String COLUMNAR = "columnar";
+    private static final String MAPPED = "mmap";
 
-    private static final String illegalRepositoryTypeErrorMessage =
-        String.format("The repository type should be %s, %s, %s or %s.", IN_MEMORY, XML, CSV, JDBC);
+    private static final String illegalRepositoryTypeErrorMessage = String.format(
+        "The repository type should be %s, %s, %s, %s, %s, %s or, for participations and sponsorships only, %s or %s.",
+        IN_MEMORY, IN_MEMORY_LONG_KEYED, XML, CSV, JDBC, JDBC_CACHED, COLUMNAR, MAPPED
+    );
 
     final Properties properties;
 
+    private final List<AbstractXmlRepository<?, ?>> xmlRepositories = new ArrayList<>();
+
+    private final List<MappedRepository<?>> mappedRepositories = new ArrayList<>();
+
+    private final List<ReportService> reportServices = new ArrayList<>();
+
+    private LogCompactor logCompactor;
+
+    private DatabaseProvider databaseProvider;
+
     /**
      * Loads the properties from a property file.
      *
@@ -76,9 +115,11 @@ public class ApplicationProperties {
 
         return switch (repositoryType) {
             case IN_MEMORY -> new InMemoryRepository<>(validator);
-            case XML -> new AthleteXmlRepository(validator, Objects.requireNonNull(pathToFile));
-            case CSV -> new AthleteFileRepository(validator, Objects.requireNonNull(pathToFile));
-            case JDBC -> new AthleteJdbcRepository(validator, getDatabaseProvider(), Objects.requireNonNull(tableName));
+            case IN_MEMORY_LONG_KEYED -> new LongKeyedInMemoryRepository<>(validator);
+            case XML -> closeOnExit(new AthleteXmlRepository(validator, Objects.requireNonNull(pathToFile), getXmlFlushBatchSize(), getXmlFlushInterval()));
+            case CSV -> withLogCompaction(new AthleteFileRepository(validator, Objects.requireNonNull(pathToFile), isFileAppendOnlyLogEnabled()));
+            case JDBC -> new AthleteJdbcRepository(validator, getDatabaseProvider(), Objects.requireNonNull(tableName), getJdbcBatchSize());
+            case JDBC_CACHED -> new CachedJdbcRepository<>(validator, getDatabaseProvider(), Objects.requireNonNull(tableName), new AthleteJdbcMapper(), getJdbcCacheSize(), getJdbcBatchSize());
             default -> throw new IllegalStateException(illegalRepositoryTypeErrorMessage);
         };
     }
@@ -98,9 +139,11 @@ public class ApplicationProperties {
 
         return switch (repositoryType) {
             case IN_MEMORY -> new InMemoryRepository<>(validator);
-            case XML -> new CompetitionXmlRepository(validator, Objects.requireNonNull(pathToFile));
-            case CSV -> new CompetitionFileRepository(validator, Objects.requireNonNull(pathToFile));
-            case JDBC -> new CompetitionJdbcRepository(validator, getDatabaseProvider(), Objects.requireNonNull(tableName));
+            case IN_MEMORY_LONG_KEYED -> new LongKeyedInMemoryRepository<>(validator);
+            case XML -> closeOnExit(new CompetitionXmlRepository(validator, Objects.requireNonNull(pathToFile), getXmlFlushBatchSize(), getXmlFlushInterval()));
+            case CSV -> withLogCompaction(new CompetitionFileRepository(validator, Objects.requireNonNull(pathToFile), isFileAppendOnlyLogEnabled()));
+            case JDBC -> new CompetitionJdbcRepository(validator, getDatabaseProvider(), Objects.requireNonNull(tableName), getJdbcBatchSize());
+            case JDBC_CACHED -> new CachedJdbcRepository<>(validator, getDatabaseProvider(), Objects.requireNonNull(tableName), new CompetitionJdbcMapper(), getJdbcCacheSize(), getJdbcBatchSize());
             default -> throw new IllegalStateException(illegalRepositoryTypeErrorMessage);
         };
     }
@@ -120,9 +163,13 @@ public class ApplicationProperties {
 
         return switch (repositoryType) {
             case IN_MEMORY -> new InMemoryRepository<>(validator);
-            case XML -> new ParticipationXmlRepository(validator, Objects.requireNonNull(pathToFile));
-            case CSV -> new ParticipationFileRepository(validator, Objects.requireNonNull(pathToFile));
-            case JDBC -> new ParticipationJdbcRepository(validator, getDatabaseProvider(), Objects.requireNonNull(tableName));
+            case IN_MEMORY_LONG_KEYED -> new LongKeyedInMemoryRepository<>(validator);
+            case XML -> closeOnExit(new ParticipationXmlRepository(validator, Objects.requireNonNull(pathToFile), getXmlFlushBatchSize(), getXmlFlushInterval()));
+            case CSV -> withLogCompaction(new ParticipationFileRepository(validator, Objects.requireNonNull(pathToFile), isFileAppendOnlyLogEnabled()));
+            case JDBC -> new ParticipationJdbcRepository(validator, getDatabaseProvider(), Objects.requireNonNull(tableName), getJdbcBatchSize());
+            case JDBC_CACHED -> new CachedJdbcRepository<>(validator, getDatabaseProvider(), Objects.requireNonNull(tableName), new ParticipationJdbcMapper(), getJdbcCacheSize(), getJdbcBatchSize());
+            case COLUMNAR -> new ColumnarRepository<>(validator, new ParticipationRowMapper(), getColumnarExpectedSize());
+            case MAPPED -> closeOnExit(new MappedRepository<>(validator, new ParticipationRowMapper(), Objects.requireNonNull(pathToFile)));
             default -> throw new IllegalStateException(illegalRepositoryTypeErrorMessage);
         };
     }
@@ -142,9 +189,11 @@ public class ApplicationProperties {
 
         return switch (repositoryType) {
             case IN_MEMORY -> new InMemoryRepository<>(validator);
-            case XML -> new SponsorXmlRepository(validator, Objects.requireNonNull(pathToFile));
-            case CSV -> new SponsorFileRepository(validator, Objects.requireNonNull(pathToFile));
-            case JDBC -> new SponsorJdbcRepository(validator, getDatabaseProvider(), Objects.requireNonNull(tableName));
+            case IN_MEMORY_LONG_KEYED -> new LongKeyedInMemoryRepository<>(validator);
+            case XML -> closeOnExit(new SponsorXmlRepository(validator, Objects.requireNonNull(pathToFile), getXmlFlushBatchSize(), getXmlFlushInterval()));
+            case CSV -> withLogCompaction(new SponsorFileRepository(validator, Objects.requireNonNull(pathToFile), isFileAppendOnlyLogEnabled()));
+            case JDBC -> new SponsorJdbcRepository(validator, getDatabaseProvider(), Objects.requireNonNull(tableName), getJdbcBatchSize());
+            case JDBC_CACHED -> new CachedJdbcRepository<>(validator, getDatabaseProvider(), Objects.requireNonNull(tableName), new SponsorJdbcMapper(), getJdbcCacheSize(), getJdbcBatchSize());
             default -> throw new IllegalStateException(illegalRepositoryTypeErrorMessage);
         };
     }
@@ -164,23 +213,232 @@ public class ApplicationProperties {
 
         return switch (repositoryType) {
             case IN_MEMORY -> new InMemoryRepository<>(validator);
-            case XML -> new SponsorshipXmlRepository(validator, Objects.requireNonNull(pathToFile));
-            case CSV -> new SponsorshipFileRepository(validator, Objects.requireNonNull(pathToFile));
-            case JDBC -> new SponsorshipJdbcRepository(validator, getDatabaseProvider(), Objects.requireNonNull(tableName));
+            case IN_MEMORY_LONG_KEYED -> new LongKeyedInMemoryRepository<>(validator);
+            case XML -> closeOnExit(new SponsorshipXmlRepository(validator, Objects.requireNonNull(pathToFile), getXmlFlushBatchSize(), getXmlFlushInterval()));
+            case CSV -> withLogCompaction(new SponsorshipFileRepository(validator, Objects.requireNonNull(pathToFile), isFileAppendOnlyLogEnabled()));
+            case JDBC -> new SponsorshipJdbcRepository(validator, getDatabaseProvider(), Objects.requireNonNull(tableName), getJdbcBatchSize());
+            case JDBC_CACHED -> new CachedJdbcRepository<>(validator, getDatabaseProvider(), Objects.requireNonNull(tableName), new SponsorshipJdbcMapper(), getJdbcCacheSize(), getJdbcBatchSize());
+            case COLUMNAR -> new ColumnarRepository<>(validator, new SponsorshipRowMapper(), getColumnarExpectedSize());
+            case MAPPED -> closeOnExit(new MappedRepository<>(validator, new SponsorshipRowMapper(), Objects.requireNonNull(pathToFile)));
             default -> throw new IllegalStateException(illegalRepositoryTypeErrorMessage);
         };
     }
 
     /**
-     * Build a DatabaseProvider with the properties specified in the configuration.
+     * Determine the number of entities each columnar repository is sized for when it is built.
+     *
+     * @return the configured expected size.
+     */
+    private int getColumnarExpectedSize() {
+        return Integer.parseInt(properties.getProperty("columnarRepositoryExpectedSize", String.valueOf(ColumnarRepository.DEFAULT_EXPECTED_SIZE)));
+    }
+
+    /**
+     * Build a report service over the given repositories, scanning them with the parallelism specified in the
+     * configuration, and keep track of it, so that its threads are stopped when the properties are closed.
+     *
+     * @param sponsorshipRepository   the repository of the sponsorships.
+     * @param sponsorRepository       the repository of the sponsors.
+     * @param competitionRepository   the repository of the competitions.
+     * @param participationRepository the repository of the participations.
+     * @param athleteRepository       the repository of the athletes.
+     * @return the report service.
+     */
+    public ReportService getReportService(
+        final Repository<Long, Sponsorship> sponsorshipRepository,
+        final Repository<Long, Sponsor> sponsorRepository,
+        final Repository<Long, Competition> competitionRepository,
+        final Repository<Long, Participation> participationRepository,
+        final Repository<Long, Athlete> athleteRepository
+    ) {
+        final ReportService reportService = new ReportService(
+            sponsorshipRepository,
+            sponsorRepository,
+            competitionRepository,
+            participationRepository,
+            athleteRepository,
+            getReportParallelism()
+        );
+        reportServices.add(reportService);
+        return reportService;
+    }
+
+    /**
+     * Determine the number of threads scanning the repositories to generate the reports.
+     *
+     * @return the configured parallelism.
+     */
+    private int getReportParallelism() {
+        return Integer.parseInt(properties.getProperty("reportParallelism", String.valueOf(ReportService.DEFAULT_PARALLELISM)));
+    }
+
+    /**
+     * Determine whether the file repositories persist their mutations in an append-only log.
+     *
+     * @return true if the append-only log is enabled, false otherwise (the default).
+     */
+    private boolean isFileAppendOnlyLogEnabled() {
+        return Boolean.parseBoolean(properties.getProperty("fileRepositoryAppendOnlyLog", "false"));
+    }
+
+    /**
+     * Register a file repository for background compaction if it persists its mutations in an append-only log.
+     *
+     * @param repository the file repository.
+     * @param <R>        the type of the file repository.
+     * @return the given repository.
+     */
+    private <R extends AbstractFileRepository<?, ?>> R withLogCompaction(final R repository) {
+        Optional
+            .of(repository)
+            .filter(AbstractFileRepository::isAppendOnlyLog)
+            .ifPresent(fileRepository -> getLogCompactor().register(fileRepository));
+
+        return repository;
+    }
+
+    /**
+     * Get the compactor shared by the file repositories, building it with the properties specified in the configuration
+     * the first time it is required.
+     *
+     * @return the log compactor.
+     */
+    public LogCompactor getLogCompactor() {
+        return Optional
+            .ofNullable(logCompactor)
+            .orElseGet(() -> logCompactor = new LogCompactor(
+                Duration.ofMillis(Long.parseLong(properties.getProperty("fileRepositoryCompactionIntervalMillis", "60000"))),
+                Long.parseLong(properties.getProperty("fileRepositoryCompactionLogSizeThreshold", "1048576")),
+                Double.parseDouble(properties.getProperty("fileRepositoryCompactionLogToDataRatio", "1.0"))
+            ));
+    }
+
+    /**
+     * Determine whether the XML repositories coalesce their mutations into periodic or batched rewrites.
+     *
+     * @return true if write-behind is enabled, false otherwise (the default).
+     */
+    private boolean isXmlWriteBehindEnabled() {
+        return Boolean.parseBoolean(properties.getProperty("xmlRepositoryWriteBehind", "false"));
+    }
+
+    /**
+     * Determine the number of pending mutations which triggers a rewrite of an XML file.
+     *
+     * @return the configured batch size if write-behind is enabled, 1 otherwise.
+     */
+    private int getXmlFlushBatchSize() {
+        return Optional
+            .of(isXmlWriteBehindEnabled())
+            .filter(Boolean::booleanValue)
+            .map(unused -> Integer.parseInt(properties.getProperty("xmlRepositoryFlushBatchSize", "1000")))
+            .orElse(1);
+    }
+
+    /**
+     * Determine the time between two periodic rewrites of an XML file.
+     *
+     * @return the configured interval if write-behind is enabled, zero (no periodic rewrites) otherwise.
+     */
+    private Duration getXmlFlushInterval() {
+        return Optional
+            .of(isXmlWriteBehindEnabled())
+            .filter(Boolean::booleanValue)
+            .map(unused -> Duration.ofMillis(Long.parseLong(properties.getProperty("xmlRepositoryFlushIntervalMillis", "1000"))))
+            .orElse(Duration.ZERO);
+    }
+
+    /**
+     * Keep track of an XML repository, so that its pending mutations are flushed when the properties are closed.
+     *
+     * @param repository the XML repository.
+     * @param <R>        the type of the XML repository.
+     * @return the given repository.
+     */
+    private <R extends AbstractXmlRepository<?, ?>> R closeOnExit(final R repository) {
+        xmlRepositories.add(repository);
+        return repository;
+    }
+
+    /**
+     * Keep track of a memory-mapped repository, so that its file is written and closed when the properties are closed.
+     *
+     * @param repository the memory-mapped repository.
+     * @param <R>        the type of the memory-mapped repository.
+     * @return the given repository.
+     */
+    private <R extends MappedRepository<?>> R closeOnExit(final R repository) {
+        mappedRepositories.add(repository);
+        return repository;
+    }
+
+    /**
+     * Release the resources shared by the repositories: stop the threads of the report services, flush the pending
+     * mutations of the XML repositories, close the memory-mapped files, stop the background compaction of the file
+     * repositories and close the database connections.
+     */
+    @Override
+    public void close() {
+        reportServices.forEach(ReportService::close);
+        xmlRepositories.forEach(AbstractXmlRepository::close);
+        mappedRepositories.forEach(MappedRepository::close);
+        Optional
+            .ofNullable(logCompactor)
+            .ifPresent(LogCompactor::close);
+        Optional
+            .ofNullable(databaseProvider)
+            .ifPresent(DatabaseProvider::close);
+    }
+
+    /**
+     * Get the DatabaseProvider shared by the JDBC repositories, building it with the properties specified in the
+     * configuration the first time it is required, so that all the repositories borrow from the same connection pool.
      *
      * @return a DatabaseProvider with the required properties.
      */
-    private DatabaseProvider getDatabaseProvider() {
-        return new DatabaseProvider(
-            System.getProperty("url"),
-            System.getProperty("user"),
-            System.getProperty("password")
+    public DatabaseProvider getDatabaseProvider() {
+        return Optional
+            .ofNullable(databaseProvider)
+            .orElseGet(() -> databaseProvider = new DatabaseProvider(
+                System.getProperty("url"),
+                System.getProperty("user"),
+                System.getProperty("password"),
+                getConnectionPoolSettings(),
+                Integer.parseInt(properties.getProperty("jdbcFetchSize", String.valueOf(DatabaseProvider.DEFAULT_FETCH_SIZE)))
+            ));
+    }
+
+    /**
+     * Determine the number of commands the JDBC repositories send in a batch in their bulk operations.
+     *
+     * @return the configured batch size.
+     */
+    private int getJdbcBatchSize() {
+        return Integer.parseInt(properties.getProperty("jdbcBatchSize", String.valueOf(AbstractJdbcRepository.DEFAULT_BATCH_SIZE)));
+    }
+
+    /**
+     * Determine the number of entities each read-through JDBC repository keeps in its cache.
+     *
+     * @return the configured cache size.
+     */
+    private int getJdbcCacheSize() {
+        return Integer.parseInt(properties.getProperty("jdbcCachedRepositoryCacheSize", String.valueOf(CachedJdbcRepository.DEFAULT_CACHE_SIZE)));
+    }
+
+    /**
+     * Build the settings of the database connection pool with the properties specified in the configuration.
+     *
+     * @return the settings of the connection pool.
+     */
+    private ConnectionPoolSettings getConnectionPoolSettings() {
+        return new ConnectionPoolSettings(
+            Integer.parseInt(properties.getProperty("jdbcConnectionPoolMaximumSize", "10")),
+            Duration.ofMillis(Long.parseLong(properties.getProperty("jdbcConnectionPoolMaximumWaitMillis", "30000"))),
+            Duration.ofMillis(Long.parseLong(properties.getProperty("jdbcConnectionPoolIdleTimeoutMillis", "600000"))),
+            Duration.ofMillis(Long.parseLong(properties.getProperty("jdbcConnectionPoolValidationIntervalMillis", "500"))),
+            Duration.ofMillis(Long.parseLong(properties.getProperty("jdbcConnectionPoolValidationTimeoutMillis", "5000"))),
+            Integer.parseInt(properties.getProperty("jdbcConnectionPoolStatementCacheSize", "32"))
         );
     }
 
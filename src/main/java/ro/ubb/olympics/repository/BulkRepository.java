@@ -0,0 +1,112 @@
+package ro.ubb.olympics.repository;
+
+import ro.ubb.olympics.domain.BaseEntity;
+import ro.ubb.olympics.domain.validators.ValidatorException;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Extension of the {@link Repository} interface with operations on many entities at once.
+ * <p>
+ * The default implementations apply the single-entity operations one by one; repositories for which each operation has
+ * a fixed cost (a round trip to the database, a rewrite of a file) override them to pay it once for the whole batch.
+ *
+ * @param <ID> the type of the ID of the stored entities
+ * @param <T>  the type of the stored entities
+ */
+public interface BulkRepository<ID, T extends BaseEntity<ID>> extends Repository<ID, T> {
+
+    /**
+     * View a repository as a bulk repository: the repository itself if it supports bulk operations, a view applying the
+     * single-entity operations one by one otherwise.
+     *
+     * @param repository the repository.
+     * @param <ID>       the type of the ID of the stored entities
+     * @param <T>        the type of the stored entities
+     * @return the bulk repository.
+     */
+    @SuppressWarnings("unchecked")
+    static <ID, T extends BaseEntity<ID>> BulkRepository<ID, T> of(final Repository<ID, T> repository) {
+        return Optional
+            .of(repository)
+            .filter(BulkRepository.class::isInstance)
+            .map(bulkRepository -> (BulkRepository<ID, T>) bulkRepository)
+            .orElseGet(() -> new BulkRepository<>() {
+                @Override
+                public Optional<T> findOne(final ID id) {
+                    return repository.findOne(id);
+                }
+
+                @Override
+                public Iterable<T> findAll() {
+                    return repository.findAll();
+                }
+
+                @Override
+                public Optional<T> save(final T entity) throws ValidatorException {
+                    return repository.save(entity);
+                }
+
+                @Override
+                public Optional<T> delete(final ID id) {
+                    return repository.delete(id);
+                }
+
+                @Override
+                public Optional<T> update(final T entity) throws ValidatorException {
+                    return repository.update(entity);
+                }
+            });
+    }
+
+    /**
+     * Saves the given entities.
+     *
+     * @param entities must not be null, nor contain null entities.
+     * @return the entities which were not saved because their id already exists, in the given order.
+     * @throws IllegalArgumentException if the given entities are null.
+     * @throws ValidatorException       if any of the entities is not valid.
+     */
+    default List<T> saveAll(final Collection<T> entities) throws ValidatorException {
+        return entities
+            .stream()
+            .map(this::save)
+            .flatMap(Optional::stream)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Removes the entities with the given ids.
+     *
+     * @param ids must not be null, nor contain null ids.
+     * @return the removed entities.
+     * @throws IllegalArgumentException if any of the given ids is null.
+     */
+    default List<T> deleteAll(final Collection<ID> ids) {
+        return ids
+            .stream()
+            .map(this::delete)
+            .flatMap(Optional::stream)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Updates the given entities.
+     *
+     * @param entities must not be null, nor contain null entities.
+     * @return the entities which were updated, in the given order.
+     * @throws IllegalArgumentException if the given entities are null.
+     * @throws ValidatorException       if any of the entities is not valid.
+     */
+    default List<T> updateAll(final Collection<T> entities) throws ValidatorException {
+        return entities
+            .stream()
+            .map(this::update)
+            .flatMap(Optional::stream)
+            .collect(Collectors.toList());
+    }
+
+}
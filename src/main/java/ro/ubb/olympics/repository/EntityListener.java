@@ -0,0 +1,35 @@
+package ro.ubb.olympics.repository;
+
+import ro.ubb.olympics.domain.BaseEntity;
+
+/**
+ * Listener notified of the changes made to the entities of an {@link ObservableRepository}.
+ *
+ * @param <ID> the type of the ID of the entities
+ * @param <T>  the type of the entities
+ */
+public interface EntityListener<ID, T extends BaseEntity<ID>> {
+
+    /**
+     * Called after an entity was saved.
+     *
+     * @param entity the saved entity.
+     */
+    void onSave(final T entity);
+
+    /**
+     * Called after an entity was updated.
+     *
+     * @param oldEntity the entity stored before the update.
+     * @param newEntity the entity stored after the update.
+     */
+    void onUpdate(final T oldEntity, final T newEntity);
+
+    /**
+     * Called after an entity was removed.
+     *
+     * @param entity the removed entity.
+     */
+    void onDelete(final T entity);
+
+}
@@ -0,0 +1,24 @@
+package ro.ubb.olympics.repository;
+
+import ro.ubb.olympics.domain.BaseEntity;
+
+/**
+ * Extension of the {@link Repository} interface for repositories which notify listeners of the changes made to their
+ * entities, so that derived structures such as indexes can be kept up to date without scanning the repository.
+ *
+ * @param <ID> the type of the ID of the stored entities
+ * @param <T>  the type of the stored entities
+ */
+public interface ObservableRepository<ID, T extends BaseEntity<ID>> extends Repository<ID, T> {
+
+    /**
+     * Register a listener to be notified of the changes made to the entities.
+     * <p>
+     * The listener is first notified of the save of every entity already stored, so that it starts from the current
+     * contents of the repository.
+     *
+     * @param listener the listener.
+     */
+    void addListener(final EntityListener<ID, T> listener);
+
+}
@@ -0,0 +1,89 @@
+package ro.ubb.olympics.repository;
+
+import ro.ubb.olympics.domain.BaseEntity;
+import ro.ubb.olympics.utils.IterableUtils;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable view of the entities of a repository at a point in time, which later changes of the repository do not
+ * affect.
+ *
+ * @param <ID> the type of the ID of the entities
+ * @param <T>  the type of the entities
+ */
+public class RepositorySnapshot<ID, T extends BaseEntity<ID>> {
+
+    private final Supplier<Set<T>> entitiesSupplier;
+    private volatile Set<T> entities;
+    private volatile Map<ID, T> entitiesById;
+
+    /**
+     * Initializes the snapshot.
+     *
+     * @param entities the unmodifiable set of the entities of the repository.
+     */
+    public RepositorySnapshot(final Set<T> entities) {
+        this(() -> entities);
+    }
+
+    /**
+     * Initializes a snapshot whose entities are only built the first time they are required, for the snapshots which
+     * hold their data in another form.
+     *
+     * @param entitiesSupplier the function building the unmodifiable set of the entities.
+     */
+    protected RepositorySnapshot(final Supplier<Set<T>> entitiesSupplier) {
+        this.entitiesSupplier = entitiesSupplier;
+    }
+
+    /**
+     * Take a snapshot of a repository: the snapshot maintained by the repository if it supports snapshots, a copy of its
+     * entities otherwise.
+     *
+     * @param repository the repository.
+     * @param <ID>       the type of the ID of the entities
+     * @param <T>        the type of the entities
+     * @return the snapshot.
+     */
+    @SuppressWarnings("unchecked")
+    public static <ID, T extends BaseEntity<ID>> RepositorySnapshot<ID, T> of(final Repository<ID, T> repository) {
+        return Optional
+            .of(repository)
+            .filter(SnapshotRepository.class::isInstance)
+            .map(snapshotRepository -> ((SnapshotRepository<ID, T>) snapshotRepository).snapshot())
+            .orElseGet(() -> new RepositorySnapshot<>(IterableUtils.asSet(repository.findAll())));
+    }
+
+    /**
+     * @return the unmodifiable set of the entities.
+     */
+    public Set<T> findAll() {
+        return Optional
+            .ofNullable(entities)
+            .orElseGet(() -> entities = entitiesSupplier.get());
+    }
+
+    /**
+     * Find the entity with the given ID. The entities are indexed by their ID on the first lookup.
+     *
+     * @param id the ID of the entity.
+     * @return the entity with the given ID, if it was stored when the snapshot was taken.
+     */
+    public Optional<T> findOne(final ID id) {
+        return Optional.ofNullable(
+            Optional
+                .ofNullable(entitiesById)
+                .orElseGet(() -> entitiesById = findAll()
+                    .stream()
+                    .collect(Collectors.toUnmodifiableMap(BaseEntity::getId, Function.identity())))
+                .get(id)
+        );
+    }
+
+}
@@ -0,0 +1,24 @@
+package ro.ubb.olympics.repository;
+
+import ro.ubb.olympics.domain.BaseEntity;
+
+/**
+ * Extension of the {@link Repository} interface for repositories which maintain immutable snapshots of their entities,
+ * so that a snapshot can be taken without copying them.
+ *
+ * @param <ID> the type of the ID of the stored entities
+ * @param <T>  the type of the stored entities
+ */
+public interface SnapshotRepository<ID, T extends BaseEntity<ID>> extends Repository<ID, T> {
+
+    /**
+     * Take a snapshot of the entities.
+     * <p>
+     * Taking the snapshots of several repositories inside {@link VersionClock#readConsistently} makes them observe the
+     * same point in time.
+     *
+     * @return the snapshot.
+     */
+    RepositorySnapshot<ID, T> snapshot();
+
+}
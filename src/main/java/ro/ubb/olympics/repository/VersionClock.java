@@ -0,0 +1,113 @@
+package ro.ubb.olympics.repository;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Clock shared by the in-memory repositories, which counts the changes made to any of them, so that readers can observe
+ * several repositories at the same point in time.
+ * <p>
+ * A consistent read is first run without blocking anyone: it is accepted if no change was in progress when it started
+ * and no change started while it was running, and it is repeated otherwise. After a few rejected attempts, it is run
+ * while the changes are held back, so a reader cannot be starved by a steady stream of writers.
+ */
+public class VersionClock {
+
+    private static final VersionClock DEFAULT_CLOCK = new VersionClock();
+
+    private static final int MAXIMUM_OPTIMISTIC_ATTEMPTS = 4;
+
+    private final AtomicLong startedChanges = new AtomicLong();
+    private final AtomicLong finishedChanges = new AtomicLong();
+
+    /**
+     * Held in shared mode by the changes, which do not exclude each other, and in exclusive mode by the consistent
+     * reads which could not complete optimistically.
+     */
+    private final ReentrantReadWriteLock changeLock = new ReentrantReadWriteLock();
+
+    /**
+     * @return the clock shared by all the repositories of the application.
+     */
+    public static VersionClock getDefault() {
+        return DEFAULT_CLOCK;
+    }
+
+    /**
+     * Run a change, recording that it is in progress.
+     *
+     * @param change the change.
+     * @param <R>    the type of the result of the change.
+     * @return the result of the change.
+     */
+    public <R> R change(final Supplier<R> change) {
+        final Lock lock = changeLock.readLock();
+        lock.lock();
+        startedChanges.incrementAndGet();
+        try {
+            return change.get();
+        } finally {
+            finishedChanges.incrementAndGet();
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Run a read which observes no change in progress: every change is either entirely visible to it or not at all.
+     *
+     * @param read the read, which must not return null.
+     * @param <R>  the type of the result of the read.
+     * @return the result of the read.
+     */
+    public <R> R readConsistently(final Supplier<R> read) {
+        return Stream
+            .generate(() -> tryReadOptimistically(read))
+            .limit(MAXIMUM_OPTIMISTIC_ATTEMPTS)
+            .flatMap(Optional::stream)
+            .findFirst()
+            .orElseGet(() -> readExclusively(read));
+    }
+
+    /**
+     * Run a read without blocking the changes.
+     * <p>
+     * The finished changes are counted before the started ones, so if both counts are equal, no change was in progress
+     * when the started ones were counted.
+     *
+     * @param read the read.
+     * @param <R>  the type of the result of the read.
+     * @return the result of the read, if no change was in progress or started while it was running.
+     */
+    private <R> Optional<R> tryReadOptimistically(final Supplier<R> read) {
+        final long finished = finishedChanges.get();
+        final long started = startedChanges.get();
+
+        return Optional
+            .of(started)
+            .filter(unused -> started == finished)
+            .map(unused -> read.get())
+            .filter(unused -> startedChanges.get() == started);
+    }
+
+    /**
+     * Run a read while the changes are held back.
+     *
+     * @param read the read.
+     * @param <R>  the type of the result of the read.
+     * @return the result of the read.
+     */
+    private <R> R readExclusively(final Supplier<R> read) {
+        final Lock lock = changeLock.writeLock();
+        lock.lock();
+        try {
+            return read.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+}
@@ -0,0 +1,22 @@
+package ro.ubb.olympics.repository;
+
+import ro.ubb.olympics.domain.BaseEntity;
+
+/**
+ * Extension of the {@link Repository} interface for repositories which keep a modification version, so that a reader
+ * can tell whether their entities changed without reading them.
+ *
+ * @param <ID> the type of the ID of the stored entities
+ * @param <T>  the type of the stored entities
+ */
+public interface VersionedRepository<ID, T extends BaseEntity<ID>> extends Repository<ID, T> {
+
+    /**
+     * Get the modification version of the repository, which is advanced by every change of its entities and never goes
+     * back, so two reads returning the same version observed the same entities.
+     *
+     * @return the current version.
+     */
+    long getVersion();
+
+}
@@ -0,0 +1,49 @@
+package ro.ubb.olympics.repository.columnar;
+
+import ro.ubb.olympics.domain.BaseEntity;
+import ro.ubb.olympics.repository.RepositorySnapshot;
+import ro.ubb.olympics.repository.row.RowMapper;
+import ro.ubb.olympics.repository.row.SplittableRowSource;
+import ro.ubb.olympics.repository.row.RowVisitor;
+
+import java.util.Collections;
+import java.util.stream.Collectors;
+
+/**
+ * Snapshot of a {@link ColumnarRepository}, holding a copy of its columns.
+ * <p>
+ * The rows can be scanned directly, and the entities are only built the first time they are required.
+ *
+ * @param <T> the type of the entities
+ */
+public class ColumnarSnapshot<T extends BaseEntity<Long>> extends RepositorySnapshot<Long, T> implements SplittableRowSource {
+
+    private final Columns columns;
+
+    /**
+     * Initializes the snapshot.
+     *
+     * @param columns the copy of the columns of the repository, which must not be changed afterwards.
+     * @param mapper  the mapping between the entities and the rows.
+     */
+    ColumnarSnapshot(final Columns columns, final RowMapper<T> mapper) {
+        super(() -> Collections.unmodifiableSet(
+            columns
+                .slots((id, firstKey, secondKey, value) -> true)
+                .mapToObj(slot -> columns.toEntity(slot, mapper))
+                .collect(Collectors.toSet())
+        ));
+        this.columns = columns;
+    }
+
+    @Override
+    public int getPositionCount() {
+        return columns.size();
+    }
+
+    @Override
+    public void forEachRow(final int from, final int to, final RowVisitor visitor) {
+        columns.forEachRow(from, to, visitor);
+    }
+
+}
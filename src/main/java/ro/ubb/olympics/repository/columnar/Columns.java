@@ -0,0 +1,192 @@
+package ro.ubb.olympics.repository.columnar;
+
+import ro.ubb.olympics.domain.BaseEntity;
+import ro.ubb.olympics.repository.row.RowFilter;
+import ro.ubb.olympics.repository.row.RowMapper;
+import ro.ubb.olympics.repository.row.RowVisitor;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+/**
+ * Rows stored as parallel primitive columns, the row of slot {@code i} being made of the {@code i}-th element of each
+ * column. The first {@code size} slots are used, without gaps, so a scan walks the columns sequentially.
+ * <p>
+ * The columns are not thread-safe: they are guarded by the lock of the repository owning them.
+ */
+final class Columns {
+
+    private static final int MINIMUM_CAPACITY = 8;
+
+    private long[] ids;
+    private long[] firstKeys;
+    private long[] secondKeys;
+    private int[] values;
+    private int size;
+
+    /**
+     * Initializes empty columns.
+     *
+     * @param capacity the number of rows the columns can hold before they are grown.
+     */
+    Columns(final int capacity) {
+        final int initialCapacity = Math.max(capacity, MINIMUM_CAPACITY);
+
+        ids = new long[initialCapacity];
+        firstKeys = new long[initialCapacity];
+        secondKeys = new long[initialCapacity];
+        values = new int[initialCapacity];
+    }
+
+    /**
+     * Initializes columns holding the given rows.
+     *
+     * @param ids        the column of the IDs.
+     * @param firstKeys  the column of the first keys.
+     * @param secondKeys the column of the second keys.
+     * @param values     the column of the values.
+     * @param size       the number of rows.
+     */
+    private Columns(final long[] ids, final long[] firstKeys, final long[] secondKeys, final int[] values, final int size) {
+        this.ids = ids;
+        this.firstKeys = firstKeys;
+        this.secondKeys = secondKeys;
+        this.values = values;
+        this.size = size;
+    }
+
+    /**
+     * @return the number of rows.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @param slot the slot of a row.
+     * @return the ID of the row.
+     */
+    long getId(final int slot) {
+        return ids[slot];
+    }
+
+    /**
+     * @param slot the slot of a row.
+     * @return the value of the row.
+     */
+    int getValue(final int slot) {
+        return values[slot];
+    }
+
+    /**
+     * Append a row, growing the columns if they are full.
+     *
+     * @param id        the ID of the entity.
+     * @param firstKey  the first key of the row.
+     * @param secondKey the second key of the row.
+     * @param value     the value of the row.
+     * @return the slot of the row.
+     */
+    int append(final long id, final long firstKey, final long secondKey, final int value) {
+        Optional
+            .of(size)
+            .filter(numberOfRows -> numberOfRows == ids.length)
+            .ifPresent(numberOfRows -> grow(2 * numberOfRows));
+
+        set(size, id, firstKey, secondKey, value);
+        return size++;
+    }
+
+    /**
+     * Overwrite a row.
+     *
+     * @param slot      the slot of the row.
+     * @param id        the ID of the entity.
+     * @param firstKey  the first key of the row.
+     * @param secondKey the second key of the row.
+     * @param value     the value of the row.
+     */
+    void set(final int slot, final long id, final long firstKey, final long secondKey, final int value) {
+        ids[slot] = id;
+        firstKeys[slot] = firstKey;
+        secondKeys[slot] = secondKey;
+        values[slot] = value;
+    }
+
+    /**
+     * Remove a row by moving the last row into its slot, so the used slots stay contiguous.
+     *
+     * @param slot the slot of the removed row.
+     * @return the ID of the row now stored in the slot, which is the ID of the removed row if it was the last one.
+     */
+    long removeByMovingLast(final int slot) {
+        size--;
+        set(slot, ids[size], firstKeys[size], secondKeys[size], values[size]);
+        return ids[slot];
+    }
+
+    /**
+     * Resize the columns.
+     *
+     * @param capacity the new number of rows the columns can hold, at least the number of rows.
+     */
+    private void grow(final int capacity) {
+        ids = Arrays.copyOf(ids, capacity);
+        firstKeys = Arrays.copyOf(firstKeys, capacity);
+        secondKeys = Arrays.copyOf(secondKeys, capacity);
+        values = Arrays.copyOf(values, capacity);
+    }
+
+    /**
+     * @return a copy of the columns, trimmed to the number of rows.
+     */
+    Columns copy() {
+        return new Columns(Arrays.copyOf(ids, size), Arrays.copyOf(firstKeys, size), Arrays.copyOf(secondKeys, size), Arrays.copyOf(values, size), size);
+    }
+
+    /**
+     * Build the entity of a row.
+     *
+     * @param slot   the slot of the row.
+     * @param mapper the mapping between the entities and the rows.
+     * @param <T>    the type of the entities
+     * @return the entity.
+     */
+    <T extends BaseEntity<Long>> T toEntity(final int slot, final RowMapper<T> mapper) {
+        return mapper.toEntity(ids[slot], firstKeys[slot], secondKeys[slot], values[slot]);
+    }
+
+    /**
+     * Visit every row, in slot order.
+     *
+     * @param visitor the visitor.
+     */
+    void forEachRow(final RowVisitor visitor) {
+        forEachRow(0, size, visitor);
+    }
+
+    /**
+     * Visit the rows of a range of slots, in slot order.
+     *
+     * @param from    the first slot of the range.
+     * @param to      the slot after the last slot of the range.
+     * @param visitor the visitor.
+     */
+    void forEachRow(final int from, final int to, final RowVisitor visitor) {
+        IntStream
+            .range(from, to)
+            .forEach(slot -> visitor.visit(ids[slot], firstKeys[slot], secondKeys[slot], values[slot]));
+    }
+
+    /**
+     * @param filter the filter.
+     * @return a stream over the slots of the rows accepted by the filter, in slot order.
+     */
+    IntStream slots(final RowFilter filter) {
+        return IntStream
+            .range(0, size)
+            .filter(slot -> filter.test(ids[slot], firstKeys[slot], secondKeys[slot], values[slot]));
+    }
+
+}
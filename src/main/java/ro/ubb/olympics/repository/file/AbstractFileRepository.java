@@ -6,19 +6,35 @@ import ro.ubb.olympics.domain.validators.ValidatorException;
 import ro.ubb.olympics.exception.FileException;
 import ro.ubb.olympics.repository.inmemory.InMemoryRepository;
 import ro.ubb.olympics.utils.FileUtils;
+import ro.ubb.olympics.utils.IterableUtils;
 
 import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Predicate;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
+import java.util.stream.Stream;
 
 /**
  * Abstract file repository.
+ * <p>
+ * By default every mutation rewrites the whole file. In append-only log mode, every mutation is appended as a single
+ * record (operation, ID, entity) to a log file stored next to the data file, and the log is replayed on top of the data
+ * file when the repository is loaded. The log is folded back into the data file by {@link #compact()}, and is deleted
+ * by the first rewrite of the whole file once a repository left in log mode is opened in the default mode.
  *
  * @param <ID> the type of the ID of the stored entities
  * @param <T>  the type of the entity to be stored
@@ -30,17 +46,56 @@ public abstract class AbstractFileRepository<ID, T extends BaseEntity<ID>> exten
      */
     protected static final String SEPARATOR = "|";
 
+    /**
+     * Extension appended to the name of the data file in order to obtain the name of the log file.
+     */
+    private static final String LOG_FILE_EXTENSION = ".log";
+
+    /**
+     * Extension appended to the name of the log file while its records are being folded into the data file.
+     */
+    private static final String COMPACTING_LOG_FILE_EXTENSION = ".compacting";
+
+    /**
+     * Extension appended to the name of the data file in order to obtain the name of the file written before it
+     * atomically replaces the data file.
+     */
+    private static final String TEMPORARY_FILE_EXTENSION = ".tmp";
+
+    private static final int NUMBER_OF_LOG_RECORD_FIELDS = 3;
+
     private final String fileName;
+    private final String logFileName;
+    private final String compactingLogFileName;
+    private final boolean appendOnlyLog;
+
+    private final ReentrantLock compactionLock = new ReentrantLock();
 
     /**
      * Initializes the repository with the given validator and filename and loads the data from the file.
+     * Every mutation rewrites the whole file.
      *
      * @param validator the validator used to validate the stored entities.
      * @param fileName  the name of the file in which the data is persisted.
      */
     public AbstractFileRepository(final Validator<T> validator, final String fileName) {
+        this(validator, fileName, false);
+    }
+
+    /**
+     * Initializes the repository with the given validator and filename and loads the data from the file, replaying the
+     * append-only log on top of it.
+     *
+     * @param validator     the validator used to validate the stored entities.
+     * @param fileName      the name of the file in which the data is persisted.
+     * @param appendOnlyLog whether mutations are appended to the log instead of rewriting the whole file.
+     */
+    public AbstractFileRepository(final Validator<T> validator, final String fileName, final boolean appendOnlyLog) {
         super(validator);
         this.fileName = fileName;
+        this.logFileName = fileName + LOG_FILE_EXTENSION;
+        this.compactingLogFileName = logFileName + COMPACTING_LOG_FILE_EXTENSION;
+        this.appendOnlyLog = appendOnlyLog;
         FileUtils.createFileIfNotExists(fileName);
         loadData();
     }
@@ -71,36 +126,349 @@ public abstract class AbstractFileRepository<ID, T extends BaseEntity<ID>> exten
     protected abstract String writeEntity(final T entity);
 
     /**
-     * Load the data from a file and save it in the parent InMemoryRepository class.
+     * Load the data from a file and save it in the parent InMemoryRepository class, then replay the log on top of it.
+     * <p>
+     * A log left over by an interrupted compaction is replayed before the current log. Replaying records whose effects
+     * are already part of the data file leaves the final state unchanged, so no record is lost or applied twice.
      */
     private void loadData() {
-        try {
-            Files
-                .lines(Paths.get(fileName))
+        try (final Stream<String> lines = Files.lines(Paths.get(fileName))) {
+            lines
                 .filter(Predicate.not(String::isEmpty))
                 .forEach(line -> super.save(readEntity(line)));
         } catch (final IOException ioException) {
             throw new FileException(ioException);
         }
+
+        Stream
+            .of(compactingLogFileName, logFileName)
+            .map(Paths::get)
+            .filter(Files::exists)
+            .forEach(this::replayLog);
+    }
+
+    /**
+     * Replay the records of a log, in order, on the parent InMemoryRepository class.
+     * <p>
+     * A crash while a record was appended leaves it torn at the end of the log: it lacks its line terminator, or it
+     * cannot be parsed. Such a last record was never acknowledged to the writer, so it is dropped and cut from the log,
+     * while a malformed record before it means the log is corrupted.
+     *
+     * @param logFile the path of the log to be replayed.
+     * @throws FileException      if an I/O error occurs while reading or truncating the log.
+     * @throws ValidatorException if a record before the last one is malformed or holds an invalid entity.
+     */
+    private void replayLog(final Path logFile) throws FileException, ValidatorException {
+        final String log = readLog(logFile);
+        final int lastRecordStart = log.lastIndexOf('\n', log.length() - 2) + 1;
+        final String completeRecords = log.substring(0, lastRecordStart);
+
+        completeRecords
+            .lines()
+            .filter(Predicate.not(String::isEmpty))
+            .forEach(this::replayLogRecord);
+
+        Optional
+            .of(log.substring(lastRecordStart))
+            .filter(Predicate.not(String::isEmpty))
+            .filter(lastRecord -> !lastRecord.endsWith("\n") || !tryReplayLogRecord(lastRecord.lines().findFirst().orElse("")))
+            .ifPresent(tornRecord -> truncateFile(logFile, completeRecords.getBytes(StandardCharsets.UTF_8).length));
+    }
+
+    /**
+     * Read a whole log.
+     *
+     * @param logFile the path of the log.
+     * @return the contents of the log.
+     * @throws FileException if an I/O error occurs while reading the log.
+     */
+    private static String readLog(final Path logFile) throws FileException {
+        try {
+            return Files.readString(logFile);
+        } catch (final IOException ioException) {
+            throw new FileException(ioException);
+        }
+    }
+
+    /**
+     * Apply the last record of a log, unless it is torn.
+     *
+     * @param record the log record, possibly empty.
+     * @return whether the record was applied, or was empty.
+     */
+    private boolean tryReplayLogRecord(final String record) {
+        try {
+            Optional
+                .of(record)
+                .filter(Predicate.not(String::isEmpty))
+                .ifPresent(this::replayLogRecord);
+            return true;
+        } catch (final RuntimeException exception) {
+            return false;
+        }
+    }
+
+    /**
+     * Cut a file to a given size.
+     *
+     * @param file the path of the file.
+     * @param size the size in bytes the file is cut to.
+     * @throws FileException if an I/O error occurs while truncating the file.
+     */
+    private static void truncateFile(final Path file, final long size) throws FileException {
+        try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(size);
+            channel.force(true);
+        } catch (final IOException ioException) {
+            throw new FileException(ioException);
+        }
+    }
+
+    /**
+     * Apply a single log record on the parent InMemoryRepository class.
+     *
+     * @param record the log record, in the format operation|ID|entity.
+     * @throws ValidatorException if the record is malformed or the entity it holds is not valid.
+     */
+    private void replayLogRecord(final String record) throws ValidatorException {
+        final List<String> tokens = Arrays.asList(record.split(Pattern.quote(SEPARATOR), NUMBER_OF_LOG_RECORD_FIELDS));
+        final StringBuilder errorMessageBuilder = new StringBuilder();
+
+        Validator.validateProperty(
+            tokens.size(),
+            size -> size != NUMBER_OF_LOG_RECORD_FIELDS,
+            String.format("The log record should contain %d fields.", NUMBER_OF_LOG_RECORD_FIELDS),
+            errorMessageBuilder
+        );
+
+        Validator.validateDoesNotThrowException(
+            () -> LogOperation.valueOf(tokens.get(0)),
+            String.format("The operation should be one of %s.", Arrays.toString(LogOperation.values())),
+            errorMessageBuilder
+        );
+
+        Optional
+            .of(errorMessageBuilder.toString())
+            .filter(errorMessage -> !errorMessage.isEmpty())
+            .ifPresent(errorMessage -> {
+                throw new ValidatorException(String.format("Error while replaying log record: %s", errorMessage));
+            });
+
+        final LogOperation operation = LogOperation.valueOf(tokens.get(0));
+        final T entity = readEntity(tokens.get(2));
+
+        final Optional<T> ignored = switch (operation) {
+            case SAVE -> super.save(entity);
+            case UPDATE -> super.update(entity);
+            case DELETE -> super.delete(entity.getId());
+        };
+    }
+
+    /**
+     * Append the records describing a mutation of several entities to the log, in a single write, which reaches the disk
+     * before the mutation is acknowledged.
+     *
+     * @param operation the operation that has been applied.
+     * @param entities  the entities affected by the operation; for deletions, the entities that have been removed.
+     * @throws FileException if an I/O error occurs while appending the records.
+     */
+    private void appendToLog(final LogOperation operation, final Collection<T> entities) throws FileException {
+        try {
+            Files.write(
+                Paths.get(logFileName),
+                entities
+                    .stream()
+                    .map(entity -> String.join(SEPARATOR, operation.name(), entity.getId().toString(), writeEntity(entity)))
+                    .collect(Collectors.toList()),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND,
+                StandardOpenOption.DSYNC
+            );
+        } catch (final IOException ioException) {
+            throw new FileException(ioException);
+        }
+    }
+
+    /**
+     * Persist a mutation, either by appending it to the log or by rewriting the whole file.
+     *
+     * @param operation the operation that has been applied.
+     * @param entity    the entity affected by the operation.
+     * @throws FileException if an I/O error occurs while persisting the mutation.
+     */
+    private void persist(final LogOperation operation, final T entity) throws FileException {
+        persistAll(operation, Collections.singletonList(entity));
+    }
+
+    /**
+     * Persist a mutation of several entities at once, either by appending it to the log or by rewriting the whole file.
+     * Nothing is written if no entity has been affected.
+     *
+     * @param operation the operation that has been applied.
+     * @param entities  the entities affected by the operation.
+     * @throws FileException if an I/O error occurs while persisting the mutation.
+     */
+    private void persistAll(final LogOperation operation, final Collection<T> entities) throws FileException {
+        Optional
+            .of(entities)
+            .filter(Predicate.not(Collection::isEmpty))
+            .ifPresent(affectedEntities -> Optional
+                .of(appendOnlyLog)
+                .filter(Boolean::booleanValue)
+                .ifPresentOrElse(
+                    unused -> appendToLog(operation, affectedEntities),
+                    this::saveData
+                ));
     }
 
     /**
-     * Save the data stored in memory to the file.
+     * Save the data stored in memory to the file, then delete the logs, whose records are all part of the data written,
+     * so they are not replayed on top of it when the repository is loaded again.
      *
      * @throws FileException if an I/O error occurs during the process of saving the data.
      */
     private void saveData() throws FileException {
+        writeData(IterableUtils.asSet(super.findAll()));
+
+        try {
+            Files.deleteIfExists(Paths.get(compactingLogFileName));
+            Files.deleteIfExists(Paths.get(logFileName));
+        } catch (final IOException ioException) {
+            throw new FileException(ioException);
+        }
+    }
+
+    /**
+     * Write the given entities to a temporary file, synchronously, then atomically replace the data file with it.
+     *
+     * @param entities the entities to be written.
+     * @throws FileException if an I/O error occurs during the process of writing the data.
+     */
+    private void writeData(final Collection<T> entities) throws FileException {
+        final Path temporaryFile = Paths.get(fileName + TEMPORARY_FILE_EXTENSION);
+
         try {
             Files.write(
-                Paths.get(fileName),
+                temporaryFile,
                 Collections.singleton(
-                    StreamSupport
-                        .stream(super.findAll().spliterator(), false)
-                        .collect(Collectors.toSet())
+                    entities
                         .stream()
                         .map(this::writeEntity)
-                        .collect(Collectors.joining("\n")))
+                        .collect(Collectors.joining("\n"))),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.DSYNC
             );
+            Files.move(temporaryFile, Paths.get(fileName), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (final IOException ioException) {
+            throw new FileException(ioException);
+        }
+    }
+
+    /**
+     * Fold the log into the data file: write a fresh snapshot of the entities stored in memory and truncate the log.
+     * <p>
+     * Writers are only blocked while the entities are copied and the log is set aside; the snapshot itself is written
+     * while new mutations keep being appended to a fresh log.
+     *
+     * @return the duration of the compaction and the number of bytes reclaimed.
+     * @throws FileException if an I/O error occurs during the compaction.
+     */
+    public CompactionResult compact() throws FileException {
+        compactionLock.lock();
+        try {
+            final long startTime = System.nanoTime();
+            final Path compactingLogFile = Paths.get(compactingLogFileName);
+
+            final Collection<T> entities = withWriteLock(() -> {
+                Optional
+                    .of(Paths.get(logFileName))
+                    .filter(Files::exists)
+                    .filter(unused -> Files.notExists(compactingLogFile))
+                    .ifPresent(logFile -> moveFile(logFile, compactingLogFile));
+
+                return IterableUtils.asSet(super.findAll());
+            });
+
+            final long sizeBeforeCompaction = sizeOf(Paths.get(fileName)) + sizeOf(compactingLogFile);
+            writeData(entities);
+            Files.deleteIfExists(compactingLogFile);
+            final long sizeAfterCompaction = sizeOf(Paths.get(fileName));
+
+            return new CompactionResult(
+                fileName,
+                Duration.ofNanos(System.nanoTime() - startTime),
+                sizeBeforeCompaction - sizeAfterCompaction
+            );
+        } catch (final IOException ioException) {
+            throw new FileException(ioException);
+        } finally {
+            compactionLock.unlock();
+        }
+    }
+
+    /**
+     * @return the name of the file in which the data is persisted.
+     */
+    public String getFileName() {
+        return fileName;
+    }
+
+    /**
+     * @return whether mutations are appended to the log instead of rewriting the whole file.
+     */
+    public boolean isAppendOnlyLog() {
+        return appendOnlyLog;
+    }
+
+    /**
+     * @return the size in bytes of the data file.
+     * @throws FileException if an I/O error occurs while reading the size.
+     */
+    public long getDataSize() throws FileException {
+        return sizeOf(Paths.get(fileName));
+    }
+
+    /**
+     * @return the size in bytes of the log, including a log left over by an interrupted compaction.
+     * @throws FileException if an I/O error occurs while reading the size.
+     */
+    public long getLogSize() throws FileException {
+        return sizeOf(Paths.get(logFileName)) + sizeOf(Paths.get(compactingLogFileName));
+    }
+
+    /**
+     * Get the size of a file.
+     *
+     * @param file the path of the file.
+     * @return the size in bytes of the file, or 0 if it does not exist.
+     * @throws FileException if an I/O error occurs while reading the size.
+     */
+    private static long sizeOf(final Path file) throws FileException {
+        return Optional
+            .of(file)
+            .filter(Files::exists)
+            .map(existingFile -> {
+                try {
+                    return Files.size(existingFile);
+                } catch (final IOException ioException) {
+                    throw new FileException(ioException);
+                }
+            })
+            .orElse(0L);
+    }
+
+    /**
+     * Atomically move a file.
+     *
+     * @param source the path of the file to be moved.
+     * @param target the path to which the file is moved.
+     * @throws FileException if an I/O error occurs while moving the file.
+     */
+    private static void moveFile(final Path source, final Path target) throws FileException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
         } catch (final IOException ioException) {
             throw new FileException(ioException);
         }
@@ -108,38 +476,67 @@ public abstract class AbstractFileRepository<ID, T extends BaseEntity<ID>> exten
 
     @Override
     public Optional<T> save(final T entity) throws ValidatorException {
-        final Optional<T> optional = super.save(entity);
+        return withWriteLock(() -> {
+            final Optional<T> optional = super.save(entity);
 
-        Optional
-            .of(optional)
-            .filter(Optional::isEmpty)
-            .ifPresent(unused -> saveData());
+            Optional
+                .of(optional)
+                .filter(Optional::isEmpty)
+                .ifPresent(unused -> persist(LogOperation.SAVE, entity));
 
-        return optional;
+            return optional;
+        });
     }
 
     @Override
     public Optional<T> delete(final ID id) {
-        final Optional<T> optional = super.delete(id);
+        return withWriteLock(() -> {
+            final Optional<T> optional = super.delete(id);
 
-        Optional
-            .of(optional)
-            .filter(Optional::isPresent)
-            .ifPresent(unused -> saveData());
+            optional.ifPresent(removedEntity -> persist(LogOperation.DELETE, removedEntity));
 
-        return optional;
+            return optional;
+        });
     }
 
     @Override
     public Optional<T> update(final T entity) throws ValidatorException {
-        final Optional<T> optional = super.update(entity);
+        return withWriteLock(() -> {
+            final Optional<T> optional = super.update(entity);
 
-        Optional
-            .of(optional)
-            .filter(Optional::isPresent)
-            .ifPresent(unused -> saveData());
+            optional.ifPresent(updatedEntity -> persist(LogOperation.UPDATE, updatedEntity));
 
-        return optional;
+            return optional;
+        });
+    }
+
+    /**
+     * Removes the entities with the given ids, then persists the removal once: a single rewrite of the file, or a single
+     * append to the log.
+     */
+    @Override
+    public List<T> deleteAll(final Collection<ID> ids) {
+        Validator.validateNonNull(ids);
+        ids.forEach(Validator::validateNonNull);
+
+        return withWriteLock(() -> {
+            final List<T> removedEntities = ids
+                .stream()
+                .map(super::delete)
+                .flatMap(Optional::stream)
+                .collect(Collectors.toList());
+
+            persistAll(LogOperation.DELETE, removedEntities);
+
+            return removedEntities;
+        });
+    }
+
+    /**
+     * The operations that can be recorded in the log.
+     */
+    private enum LogOperation {
+        SAVE, UPDATE, DELETE
     }
 
 }
\ No newline at end of file
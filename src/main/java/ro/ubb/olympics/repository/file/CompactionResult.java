@@ -0,0 +1,21 @@
+package ro.ubb.olympics.repository.file;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Duration;
+
+/**
+ * The outcome of folding the log of a file repository into its data file.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class CompactionResult {
+
+    private final String fileName;
+    private final Duration duration;
+    private final long bytesReclaimed;
+
+}
@@ -0,0 +1,175 @@
+package ro.ubb.olympics.repository.file;
+
+import ro.ubb.olympics.exception.FileException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Background compactor for file repositories running in append-only log mode.
+ * <p>
+ * The registered repositories are checked periodically, and a repository is compacted once its log reaches either the
+ * configured size or the configured ratio to the size of its data file. Every compaction is logged with its duration
+ * and the number of bytes it reclaimed, and these are also accumulated to be queried at any time.
+ */
+public class LogCompactor implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(LogCompactor.class.getName());
+
+    private final List<AbstractFileRepository<?, ?>> repositories = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService scheduler;
+
+    private final long logSizeThreshold;
+    private final double logToDataRatioThreshold;
+
+    private final AtomicLong numberOfCompactions = new AtomicLong();
+    private final AtomicLong totalBytesReclaimed = new AtomicLong();
+    private final AtomicLong totalCompactionTimeNanos = new AtomicLong();
+    private final AtomicReference<CompactionResult> lastCompactionResult = new AtomicReference<>();
+    private final AtomicReference<RuntimeException> lastCompactionFailure = new AtomicReference<>();
+
+    /**
+     * Initializes the compactor and starts checking the registered repositories periodically on a daemon thread.
+     *
+     * @param checkInterval           the time between two consecutive checks of the registered repositories.
+     * @param logSizeThreshold        the size in bytes of the log from which a repository is compacted.
+     * @param logToDataRatioThreshold the ratio between the size of the log and the size of the data file from which a
+     *                                repository is compacted.
+     */
+    public LogCompactor(final Duration checkInterval, final long logSizeThreshold, final double logToDataRatioThreshold) {
+        this.logSizeThreshold = logSizeThreshold;
+        this.logToDataRatioThreshold = logToDataRatioThreshold;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "log-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleWithFixedDelay(
+            this::compactRepositories,
+            checkInterval.toMillis(),
+            checkInterval.toMillis(),
+            TimeUnit.MILLISECONDS
+        );
+    }
+
+    /**
+     * Register a repository to be compacted in the background.
+     *
+     * @param repository the repository to be compacted.
+     */
+    public void register(final AbstractFileRepository<?, ?> repository) {
+        repositories.add(repository);
+    }
+
+    /**
+     * Compact every registered repository whose log has reached one of the thresholds.
+     * <p>
+     * A failure to check or compact one repository does not prevent the others from being compacted. It is logged and
+     * kept to be queried, and never escapes, as it would cancel the following periodic checks.
+     */
+    public void compactRepositories() {
+        repositories.forEach(repository -> {
+            try {
+                Optional
+                    .of(repository)
+                    .filter(this::needsCompaction)
+                    .ifPresent(this::compact);
+            } catch (final RuntimeException exception) {
+                lastCompactionFailure.set(exception);
+                LOGGER.log(Level.WARNING, exception, () -> String.format("Failed to compact %s.", repository.getFileName()));
+            }
+        });
+    }
+
+    /**
+     * Compact a repository and account for the result.
+     *
+     * @param repository the repository to be compacted.
+     * @return the result of the compaction.
+     * @throws FileException if an I/O error occurs during the compaction.
+     */
+    public CompactionResult compact(final AbstractFileRepository<?, ?> repository) throws FileException {
+        final CompactionResult compactionResult = repository.compact();
+
+        numberOfCompactions.incrementAndGet();
+        totalBytesReclaimed.addAndGet(compactionResult.getBytesReclaimed());
+        totalCompactionTimeNanos.addAndGet(compactionResult.getDuration().toNanos());
+        lastCompactionResult.set(compactionResult);
+        LOGGER.info(() -> String.format(
+            "Compacted %s in %d ms, reclaiming %d bytes (%d bytes in %d ms over %d compactions).",
+            compactionResult.getFileName(),
+            compactionResult.getDuration().toMillis(),
+            compactionResult.getBytesReclaimed(),
+            getTotalBytesReclaimed(),
+            getTotalCompactionTime().toMillis(),
+            getNumberOfCompactions()
+        ));
+
+        return compactionResult;
+    }
+
+    /**
+     * Check whether the log of a repository has reached one of the thresholds.
+     *
+     * @param repository the repository to be checked.
+     * @return true if the repository should be compacted, false otherwise.
+     */
+    private boolean needsCompaction(final AbstractFileRepository<?, ?> repository) {
+        final long logSize = repository.getLogSize();
+
+        return logSize > 0 && (logSize >= logSizeThreshold || logSize >= logToDataRatioThreshold * repository.getDataSize());
+    }
+
+    /**
+     * @return the number of compactions performed so far.
+     */
+    public long getNumberOfCompactions() {
+        return numberOfCompactions.get();
+    }
+
+    /**
+     * @return the total number of bytes reclaimed by the compactions performed so far.
+     */
+    public long getTotalBytesReclaimed() {
+        return totalBytesReclaimed.get();
+    }
+
+    /**
+     * @return the total time spent compacting so far.
+     */
+    public Duration getTotalCompactionTime() {
+        return Duration.ofNanos(totalCompactionTimeNanos.get());
+    }
+
+    /**
+     * @return the result of the most recent compaction, if any.
+     */
+    public Optional<CompactionResult> getLastCompactionResult() {
+        return Optional.ofNullable(lastCompactionResult.get());
+    }
+
+    /**
+     * @return the most recent failure to check or compact a repository in the background, if any.
+     */
+    public Optional<RuntimeException> getLastCompactionFailure() {
+        return Optional.ofNullable(lastCompactionFailure.get());
+    }
+
+    /**
+     * Stop checking the registered repositories.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdown();
+    }
+
+}
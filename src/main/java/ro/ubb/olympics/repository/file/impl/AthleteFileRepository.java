@@ -25,6 +25,18 @@ public class AthleteFileRepository extends AbstractFileRepository<Long, Athlete>
         super(validator, fileName);
     }
 
+    /**
+     * Initializes the repository with the given validator and filename, optionally persisting the mutations in an
+     * append-only log.
+     *
+     * @param validator     the validator used to validate the stored entities.
+     * @param fileName      the name of the file in which the data is persisted.
+     * @param appendOnlyLog whether mutations are appended to the log instead of rewriting the whole file.
+     */
+    public AthleteFileRepository(final Validator<Athlete> validator, final String fileName, final boolean appendOnlyLog) {
+        super(validator, fileName, appendOnlyLog);
+    }
+
     @Override
     protected Athlete readEntity(final String line) {
         final List<String> tokens = Arrays.asList(line.split(Pattern.quote(SEPARATOR)));
@@ -29,6 +29,18 @@ public class CompetitionFileRepository extends AbstractFileRepository<Long, Comp
         super(validator, fileName);
     }
 
+    /**
+     * Initializes the repository with the given validator and filename, optionally persisting the mutations in an
+     * append-only log.
+     *
+     * @param validator     the validator used to validate the stored entities.
+     * @param fileName      the name of the file in which the data is persisted.
+     * @param appendOnlyLog whether mutations are appended to the log instead of rewriting the whole file.
+     */
+    public CompetitionFileRepository(final Validator<Competition> validator, final String fileName, final boolean appendOnlyLog) {
+        super(validator, fileName, appendOnlyLog);
+    }
+
     @SneakyThrows
     @Override
     protected Competition readEntity(final String line) {
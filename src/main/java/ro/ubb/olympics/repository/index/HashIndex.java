@@ -0,0 +1,104 @@
+package ro.ubb.olympics.repository.index;
+
+import ro.ubb.olympics.domain.BaseEntity;
+import ro.ubb.olympics.repository.EntityListener;
+import ro.ubb.olympics.repository.ObservableRepository;
+import ro.ubb.olympics.repository.Repository;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Hash index over the entities of an observable repository, kept up to date as the entities are saved, updated and
+ * removed. A lookup costs in proportion to the number of entities found, instead of the number of entities stored.
+ * <p>
+ * The key each entity was indexed under is remembered, so the index stays consistent even if an entity is modified in
+ * place before being updated.
+ * <p>
+ * The index is kept in concurrent maps, so it can be searched by many threads while the repository updates it.
+ *
+ * @param <ID> the type of the ID of the entities
+ * @param <T>  the type of the entities
+ * @param <K>  the type of the key
+ */
+public class HashIndex<ID, T extends BaseEntity<ID>, K> implements Index<K, T>, EntityListener<ID, T> {
+
+    private final Function<T, K> keyExtractor;
+    private final Map<K, Map<ID, T>> entitiesByKey = new ConcurrentHashMap<>();
+    private final Map<ID, K> keysById = new ConcurrentHashMap<>();
+
+    /**
+     * Initializes an empty index.
+     *
+     * @param keyExtractor the function deriving the key of an entity.
+     */
+    public HashIndex(final Function<T, K> keyExtractor) {
+        this.keyExtractor = keyExtractor;
+    }
+
+    /**
+     * Build an index over a repository: a hash index registered as a listener if the repository is observable, an index
+     * scanning the repository otherwise.
+     *
+     * @param repository   the repository to be indexed.
+     * @param keyExtractor the function deriving the key of an entity.
+     * @param <ID>         the type of the ID of the entities
+     * @param <T>          the type of the entities
+     * @param <K>          the type of the key
+     * @return the index.
+     */
+    @SuppressWarnings("unchecked")
+    public static <ID, T extends BaseEntity<ID>, K> Index<K, T> on(final Repository<ID, T> repository, final Function<T, K> keyExtractor) {
+        return Optional
+            .of(repository)
+            .filter(ObservableRepository.class::isInstance)
+            .map(observableRepository -> {
+                final HashIndex<ID, T, K> index = new HashIndex<>(keyExtractor);
+                ((ObservableRepository<ID, T>) observableRepository).addListener(index);
+                return (Index<K, T>) index;
+            })
+            .orElseGet(() -> new ScanIndex<>(repository, keyExtractor));
+    }
+
+    @Override
+    public Set<T> find(final K key) {
+        return Optional
+            .ofNullable(entitiesByKey.get(key))
+            .map(entities -> new HashSet<>(entities.values()))
+            .orElseGet(HashSet::new);
+    }
+
+    @Override
+    public void onSave(final T entity) {
+        final K key = keyExtractor.apply(entity);
+
+        keysById.put(entity.getId(), key);
+        entitiesByKey
+            .computeIfAbsent(key, unused -> new ConcurrentHashMap<>())
+            .put(entity.getId(), entity);
+    }
+
+    @Override
+    public void onUpdate(final T oldEntity, final T newEntity) {
+        onDelete(oldEntity);
+        onSave(newEntity);
+    }
+
+    @Override
+    public void onDelete(final T entity) {
+        Optional
+            .ofNullable(keysById.remove(entity.getId()))
+            .ifPresent(key -> entitiesByKey.computeIfPresent(key, (unused, entities) -> {
+                entities.remove(entity.getId());
+                return Optional
+                    .of(entities)
+                    .filter(remainingEntities -> !remainingEntities.isEmpty())
+                    .orElse(null);
+            }));
+    }
+
+}
@@ -0,0 +1,21 @@
+package ro.ubb.olympics.repository.index;
+
+import java.util.Set;
+
+/**
+ * Secondary index over the entities of a repository, finding the entities by a key derived from them.
+ *
+ * @param <K> the type of the key
+ * @param <T> the type of the entities
+ */
+public interface Index<K, T> {
+
+    /**
+     * Find the entities with a given key.
+     *
+     * @param key the key.
+     * @return a new set containing the entities whose key equals the given one.
+     */
+    Set<T> find(final K key);
+
+}
@@ -0,0 +1,46 @@
+package ro.ubb.olympics.repository.index;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Secondary index over the entities of a repository, finding the entities by ranges of an integer key derived from them.
+ *
+ * @param <T> the type of the entities
+ */
+public interface RangeIndex<T> extends Index<Integer, T> {
+
+    /**
+     * Find the entities whose key is greater than or equal to a given value.
+     *
+     * @param minimum the smallest key found, inclusive.
+     * @return a new set containing the required entities.
+     */
+    Set<T> findAtLeast(final int minimum);
+
+    /**
+     * Find the entities whose key is less than or equal to a given value.
+     *
+     * @param maximum the largest key found, inclusive.
+     * @return a new set containing the required entities.
+     */
+    Set<T> findAtMost(final int maximum);
+
+    /**
+     * Find the entities whose key is between two values.
+     *
+     * @param minimum the smallest key found, inclusive.
+     * @param maximum the largest key found, inclusive.
+     * @return a new set containing the required entities, empty if the minimum is greater than the maximum.
+     */
+    Set<T> findBetween(final int minimum, final int maximum);
+
+    /**
+     * Find the entities with the largest keys.
+     *
+     * @param count the maximum number of entities found.
+     * @return a new list containing at most {@code count} entities, in descending order of their keys.
+     */
+    List<T> findTop(final int count);
+
+}
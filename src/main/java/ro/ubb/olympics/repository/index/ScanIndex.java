@@ -0,0 +1,46 @@
+package ro.ubb.olympics.repository.index;
+
+import ro.ubb.olympics.domain.BaseEntity;
+import ro.ubb.olympics.repository.Repository;
+
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * Index answering its lookups by scanning the whole repository.
+ * <p>
+ * It is the fallback for repositories which do not notify the changes made to their entities, and thus cannot have a
+ * maintained index.
+ *
+ * @param <ID> the type of the ID of the entities
+ * @param <T>  the type of the entities
+ * @param <K>  the type of the key
+ */
+public class ScanIndex<ID, T extends BaseEntity<ID>, K> implements Index<K, T> {
+
+    private final Repository<ID, T> repository;
+    private final Function<T, K> keyExtractor;
+
+    /**
+     * Initializes the index over the given repository.
+     *
+     * @param repository   the repository scanned by the lookups.
+     * @param keyExtractor the function deriving the key of an entity.
+     */
+    public ScanIndex(final Repository<ID, T> repository, final Function<T, K> keyExtractor) {
+        this.repository = repository;
+        this.keyExtractor = keyExtractor;
+    }
+
+    @Override
+    public Set<T> find(final K key) {
+        return StreamSupport
+            .stream(repository.findAll().spliterator(), false)
+            .filter(entity -> Objects.equals(keyExtractor.apply(entity), key))
+            .collect(Collectors.toSet());
+    }
+
+}
@@ -0,0 +1,83 @@
+package ro.ubb.olympics.repository.index;
+
+import ro.ubb.olympics.domain.BaseEntity;
+import ro.ubb.olympics.repository.Repository;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.IntPredicate;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Range index answering its lookups by scanning the whole repository.
+ * <p>
+ * It is the fallback for repositories which do not notify the changes made to their entities, and thus cannot have a
+ * maintained index.
+ *
+ * @param <ID> the type of the ID of the entities
+ * @param <T>  the type of the entities
+ */
+public class ScanRangeIndex<ID, T extends BaseEntity<ID>> extends ScanIndex<ID, T, Integer> implements RangeIndex<T> {
+
+    private final Repository<ID, T> repository;
+    private final ToIntFunction<T> keyExtractor;
+
+    /**
+     * Initializes the index over the given repository.
+     *
+     * @param repository   the repository scanned by the lookups.
+     * @param keyExtractor the function deriving the key of an entity.
+     */
+    public ScanRangeIndex(final Repository<ID, T> repository, final ToIntFunction<T> keyExtractor) {
+        super(repository, keyExtractor::applyAsInt);
+        this.repository = repository;
+        this.keyExtractor = keyExtractor;
+    }
+
+    @Override
+    public Set<T> findAtLeast(final int minimum) {
+        return findByKey(key -> key >= minimum);
+    }
+
+    @Override
+    public Set<T> findAtMost(final int maximum) {
+        return findByKey(key -> key <= maximum);
+    }
+
+    @Override
+    public Set<T> findBetween(final int minimum, final int maximum) {
+        return findByKey(key -> minimum <= key && key <= maximum);
+    }
+
+    @Override
+    public List<T> findTop(final int count) {
+        return entities()
+            .sorted(Comparator.comparingInt(keyExtractor).reversed())
+            .limit(count)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Find the entities whose key matches a predicate.
+     *
+     * @param keyPredicate the predicate on the key.
+     * @return a new set containing the required entities.
+     */
+    private Set<T> findByKey(final IntPredicate keyPredicate) {
+        return entities()
+            .filter(entity -> keyPredicate.test(keyExtractor.applyAsInt(entity)))
+            .collect(Collectors.toSet());
+    }
+
+    /**
+     * @return a stream over all the entities of the repository.
+     */
+    private Stream<T> entities() {
+        return StreamSupport.stream(repository.findAll().spliterator(), false);
+    }
+
+}
@@ -0,0 +1,152 @@
+package ro.ubb.olympics.repository.index;
+
+import ro.ubb.olympics.domain.BaseEntity;
+import ro.ubb.olympics.repository.EntityListener;
+import ro.ubb.olympics.repository.ObservableRepository;
+import ro.ubb.olympics.repository.Repository;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Ordered index over an integer key of the entities of an observable repository, kept up to date as the entities are
+ * saved, updated and removed.
+ * <p>
+ * The entities are grouped by key in a concurrent skip list, so a range or top query finds its first key in logarithmic
+ * time and then only visits the entities it returns, and the index can be searched by many threads while the repository
+ * updates it.
+ *
+ * @param <ID> the type of the ID of the entities
+ * @param <T>  the type of the entities
+ */
+public class SortedIndex<ID, T extends BaseEntity<ID>> implements RangeIndex<T>, EntityListener<ID, T> {
+
+    private final ToIntFunction<T> keyExtractor;
+    private final NavigableMap<Integer, Map<ID, T>> entitiesByKey = new ConcurrentSkipListMap<>();
+    private final Map<ID, Integer> keysById = new ConcurrentHashMap<>();
+
+    /**
+     * Initializes an empty index.
+     *
+     * @param keyExtractor the function deriving the key of an entity.
+     */
+    public SortedIndex(final ToIntFunction<T> keyExtractor) {
+        this.keyExtractor = keyExtractor;
+    }
+
+    /**
+     * Build a range index over a repository: a sorted index registered as a listener if the repository is observable,
+     * an index scanning the repository otherwise.
+     *
+     * @param repository   the repository to be indexed.
+     * @param keyExtractor the function deriving the key of an entity.
+     * @param <ID>         the type of the ID of the entities
+     * @param <T>          the type of the entities
+     * @return the index.
+     */
+    @SuppressWarnings("unchecked")
+    public static <ID, T extends BaseEntity<ID>> RangeIndex<T> on(final Repository<ID, T> repository, final ToIntFunction<T> keyExtractor) {
+        return Optional
+            .of(repository)
+            .filter(ObservableRepository.class::isInstance)
+            .map(observableRepository -> {
+                final SortedIndex<ID, T> index = new SortedIndex<>(keyExtractor);
+                ((ObservableRepository<ID, T>) observableRepository).addListener(index);
+                return (RangeIndex<T>) index;
+            })
+            .orElseGet(() -> new ScanRangeIndex<>(repository, keyExtractor));
+    }
+
+    @Override
+    public Set<T> find(final Integer key) {
+        return Optional
+            .ofNullable(entitiesByKey.get(key))
+            .map(entities -> new HashSet<>(entities.values()))
+            .orElseGet(HashSet::new);
+    }
+
+    @Override
+    public Set<T> findAtLeast(final int minimum) {
+        return collect(entitiesByKey.tailMap(minimum, true));
+    }
+
+    @Override
+    public Set<T> findAtMost(final int maximum) {
+        return collect(entitiesByKey.headMap(maximum, true));
+    }
+
+    @Override
+    public Set<T> findBetween(final int minimum, final int maximum) {
+        return Optional
+            .of(minimum)
+            .filter(unused -> minimum <= maximum)
+            .map(unused -> collect(entitiesByKey.subMap(minimum, true, maximum, true)))
+            .orElseGet(HashSet::new);
+    }
+
+    @Override
+    public List<T> findTop(final int count) {
+        return entitiesByKey
+            .descendingMap()
+            .values()
+            .stream()
+            .map(Map::values)
+            .flatMap(Collection::stream)
+            .limit(count)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Collect the entities of a range of keys.
+     *
+     * @param range the view of the skip list restricted to the range.
+     * @return a new set containing the entities of the range.
+     */
+    private Set<T> collect(final Map<Integer, Map<ID, T>> range) {
+        return range
+            .values()
+            .stream()
+            .map(Map::values)
+            .flatMap(Collection::stream)
+            .collect(Collectors.toSet());
+    }
+
+    @Override
+    public void onSave(final T entity) {
+        final int key = keyExtractor.applyAsInt(entity);
+
+        keysById.put(entity.getId(), key);
+        entitiesByKey
+            .computeIfAbsent(key, unused -> new ConcurrentHashMap<>())
+            .put(entity.getId(), entity);
+    }
+
+    @Override
+    public void onUpdate(final T oldEntity, final T newEntity) {
+        onDelete(oldEntity);
+        onSave(newEntity);
+    }
+
+    @Override
+    public void onDelete(final T entity) {
+        Optional
+            .ofNullable(keysById.remove(entity.getId()))
+            .ifPresent(key -> entitiesByKey.computeIfPresent(key, (unused, entities) -> {
+                entities.remove(entity.getId());
+                return Optional
+                    .of(entities)
+                    .filter(remainingEntities -> !remainingEntities.isEmpty())
+                    .orElse(null);
+            }));
+    }
+
+}
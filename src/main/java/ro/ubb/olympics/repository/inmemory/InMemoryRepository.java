@@ -3,22 +3,55 @@ package ro.ubb.olympics.repository.inmemory;
 import ro.ubb.olympics.domain.BaseEntity;
 import ro.ubb.olympics.domain.validators.Validator;
 import ro.ubb.olympics.domain.validators.ValidatorException;
-import ro.ubb.olympics.repository.Repository;
+import ro.ubb.olympics.repository.BulkRepository;
+import ro.ubb.olympics.repository.EntityListener;
+import ro.ubb.olympics.repository.ObservableRepository;
+import ro.ubb.olympics.repository.RepositorySnapshot;
+import ro.ubb.olympics.repository.SnapshotRepository;
+import ro.ubb.olympics.repository.VersionClock;
+import ro.ubb.olympics.repository.VersionedRepository;
+import ro.ubb.olympics.utils.Pair;
 
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * In-memory repository for generic CRUD operations on a repository for a specific type.
+ * <p>
+ * The registered listeners are notified of every change, which lets secondary indexes follow the contents of the
+ * repository. The bulk operations are applied one entity at a time; the persistent repositories built on top of it
+ * override them to persist the whole batch at once.
+ * <p>
+ * {@link #findAll()} returns an unmodifiable snapshot of the entities, which is built on the first call after a change
+ * and shared by all the following calls until the next change, so repeated reads of unchanged data copy nothing.
+ * <p>
+ * The repository is thread-safe. The changes are made by a single writer at a time, holding a write lock which the
+ * persistent subclasses also hold while persisting a change, so the changes reach the storage in the order they are
+ * made. Reads take no lock: {@link #findOne(Object)} reads a concurrent map, and {@link #findAll()} returns a snapshot
+ * tagged with the version of the repository it was built from, which is discarded once a writer changes the version.
+ * <p>
+ * Every change is recorded by the shared {@link VersionClock}, so the snapshots of several repositories taken inside
+ * {@link VersionClock#readConsistently} observe all of them at the same point in time.
  *
  * @author radu.
  */
-public class InMemoryRepository<ID, T extends BaseEntity<ID>> implements Repository<ID, T> {
+public class InMemoryRepository<ID, T extends BaseEntity<ID>> implements ObservableRepository<ID, T>, BulkRepository<ID, T>, SnapshotRepository<ID, T>, VersionedRepository<ID, T> {
 
     private final Map<ID, T> entities;
     private final Validator<T> validator;
+    private final List<EntityListener<ID, T>> listeners = new CopyOnWriteArrayList<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final VersionClock clock = VersionClock.getDefault();
+    private volatile long version;
+    private volatile Pair<Long, RepositorySnapshot<ID, T>> snapshot = new Pair<>(-1L, new RepositorySnapshot<>(Collections.emptySet()));
 
     /**
      * Initializes the repository with the given entity validator and an empty collection of entities.
@@ -26,8 +59,43 @@ public class InMemoryRepository<ID, T extends BaseEntity<ID>> implements Reposit
      * @param validator the validator used to validate entities
      */
     public InMemoryRepository(final Validator<T> validator) {
+        this(validator, new ConcurrentHashMap<>());
+    }
+
+    /**
+     * Initializes the repository with the given entity validator, storing the entities in the given map.
+     *
+     * @param validator the validator used to validate entities
+     * @param entities  the empty map in which the entities are stored, which must support reads concurrent with a writer
+     */
+    protected InMemoryRepository(final Validator<T> validator, final Map<ID, T> entities) {
         this.validator = validator;
-        entities = new HashMap<>();
+        this.entities = entities;
+    }
+
+    /**
+     * Run an action while holding the lock which serializes the changes made to the repository. The lock is reentrant,
+     * so the persistent subclasses hold it around both the change and its persistence.
+     *
+     * @param action the action to be run.
+     * @param <R>    the type of the result of the action.
+     * @return the result of the action.
+     */
+    protected <R> R withWriteLock(final Supplier<R> action) {
+        writeLock.lock();
+        try {
+            return action.get();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void addListener(final EntityListener<ID, T> listener) {
+        withWriteLock(() -> {
+            entities.values().forEach(listener::onSave);
+            return listeners.add(listener);
+        });
     }
 
     @Override
@@ -38,25 +106,79 @@ public class InMemoryRepository<ID, T extends BaseEntity<ID>> implements Reposit
 
     @Override
     public Iterable<T> findAll() {
-        return new HashSet<>(entities.values());
+        return snapshot().findAll();
+    }
+
+    @Override
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    public RepositorySnapshot<ID, T> snapshot() {
+        final long currentVersion = version;
+
+        return Optional
+            .of(snapshot)
+            .filter(currentSnapshot -> currentSnapshot.getFirst() == currentVersion)
+            .map(Pair::getSecond)
+            .orElseGet(() -> {
+                final RepositorySnapshot<ID, T> entitiesSnapshot = new RepositorySnapshot<>(Collections.unmodifiableSet(new HashSet<>(entities.values())));
+                snapshot = new Pair<>(currentVersion, entitiesSnapshot);
+                return entitiesSnapshot;
+            });
+    }
+
+    /**
+     * Notify the listeners of a change and advance the version of the repository, which discards the snapshot returned
+     * by {@link #findAll()}. Called by the writer, while holding the write lock, inside the change recorded by the clock.
+     *
+     * @param notification the notification sent to every listener.
+     */
+    private void onChange(final Consumer<EntityListener<ID, T>> notification) {
+        listeners.forEach(notification);
+        version++;
     }
 
     @Override
     public Optional<T> save(final T entity) throws ValidatorException {
         validator.validate(entity);
-        return Optional.ofNullable(entities.putIfAbsent(entity.getId(), entity));
+
+        return withWriteLock(() -> clock.change(() -> {
+            final Optional<T> optional = Optional.ofNullable(entities.putIfAbsent(entity.getId(), entity));
+
+            Optional
+                .of(optional)
+                .filter(Optional::isEmpty)
+                .ifPresent(unused -> onChange(listener -> listener.onSave(entity)));
+
+            return optional;
+        }));
     }
 
     @Override
     public Optional<T> delete(final ID id) {
         Validator.validateNonNull(id);
-        return Optional.ofNullable(entities.remove(id));
+
+        return withWriteLock(() -> clock.change(() -> {
+            final Optional<T> optional = Optional.ofNullable(entities.remove(id));
+
+            optional.ifPresent(removedEntity -> onChange(listener -> listener.onDelete(removedEntity)));
+
+            return optional;
+        }));
     }
 
     @Override
     public Optional<T> update(final T entity) throws ValidatorException {
         validator.validate(entity);
-        return Optional.ofNullable(entities.computeIfPresent(entity.getId(), (k, v) -> entity));
+
+        return withWriteLock(() -> clock.change(() -> Optional
+            .ofNullable(entities.replace(entity.getId(), entity))
+            .map(oldEntity -> {
+                onChange(listener -> listener.onUpdate(oldEntity, entity));
+                return entity;
+            })));
     }
 
-}
\ No newline at end of file
+}
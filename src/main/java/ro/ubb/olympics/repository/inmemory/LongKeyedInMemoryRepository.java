@@ -0,0 +1,36 @@
+package ro.ubb.olympics.repository.inmemory;
+
+import ro.ubb.olympics.domain.BaseEntity;
+import ro.ubb.olympics.domain.validators.Validator;
+
+/**
+ * In-memory repository for entities with Long IDs, storing them in a {@link LongKeyedMap} instead of a HashMap.
+ * <p>
+ * The IDs are kept as primitive longs in an open addressing table, so an entity costs no boxed ID and no map node, and
+ * finding an entity by its ID probes consecutive array slots instead of following pointers.
+ *
+ * @param <T> the type of the entity to be stored
+ */
+public class LongKeyedInMemoryRepository<T extends BaseEntity<Long>> extends InMemoryRepository<Long, T> {
+
+    /**
+     * Initializes the repository with the given entity validator and an empty collection of entities.
+     *
+     * @param validator the validator used to validate entities
+     */
+    public LongKeyedInMemoryRepository(final Validator<T> validator) {
+        this(validator, LongKeyedMap.DEFAULT_EXPECTED_SIZE);
+    }
+
+    /**
+     * Initializes the repository with the given entity validator and an empty collection of entities, sized for the
+     * given number of entities.
+     *
+     * @param validator    the validator used to validate entities
+     * @param expectedSize the number of entities the repository can hold before its storage is resized
+     */
+    public LongKeyedInMemoryRepository(final Validator<T> validator, final int expectedSize) {
+        super(validator, new LongKeyedMap<>(expectedSize));
+    }
+
+}
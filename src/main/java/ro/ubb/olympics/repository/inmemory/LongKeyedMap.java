@@ -0,0 +1,459 @@
+package ro.ubb.olympics.repository.inmemory;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Map from primitive long keys to non-null values, stored with open addressing in two parallel arrays.
+ * <p>
+ * Unlike a {@link java.util.HashMap}, an entry costs no boxed key and no node object: only a slot in a long array and
+ * a slot in a reference array, and a lookup probes consecutive slots of the arrays instead of following pointers.
+ * Removed entries leave a tombstone behind, which is dropped the next time the arrays are rebuilt.
+ * <p>
+ * The map is thread-safe. The changes are exclusive, while the lookups are optimistic: they take no lock, and are only
+ * repeated under a read lock if a change happened meanwhile. The arrays are rebuilt into new ones which are published
+ * at once, so a lookup always probes a pair of arrays which belong together, and which always has an empty slot.
+ *
+ * @param <V> the type of the values
+ */
+public class LongKeyedMap<V> extends AbstractMap<Long, V> {
+
+    /**
+     * The number of entries the map is sized for when none is specified.
+     */
+    public static final int DEFAULT_EXPECTED_SIZE = 16;
+
+    private static final int MINIMUM_CAPACITY = 8;
+
+    /**
+     * Marker left in the slot of a removed entry, so that the lookups of the keys stored after it keep probing.
+     */
+    private static final Object TOMBSTONE = new Object();
+
+    private final StampedLock lock = new StampedLock();
+
+    private volatile Table table;
+    private volatile int size;
+    private int usedSlots;
+
+    /**
+     * Initializes an empty map sized for the default number of entries.
+     */
+    public LongKeyedMap() {
+        this(DEFAULT_EXPECTED_SIZE);
+    }
+
+    /**
+     * Initializes an empty map sized for the given number of entries.
+     *
+     * @param expectedSize the number of entries the map can hold before its arrays are rebuilt.
+     */
+    public LongKeyedMap(final int expectedSize) {
+        table = new Table(capacityFor(expectedSize));
+    }
+
+    /**
+     * Compute the number of slots needed for a number of entries: the smallest power of two keeping the map at most half
+     * full.
+     *
+     * @param numberOfEntries the number of entries.
+     * @return the number of slots.
+     */
+    private static int capacityFor(final int numberOfEntries) {
+        return Integer.highestOneBit(Math.max(2 * numberOfEntries, MINIMUM_CAPACITY) - 1) << 1;
+    }
+
+    /**
+     * Find the slot of a key in a table: the slot holding it if it is stored, otherwise the first empty slot of its
+     * probe sequence. There is always an empty slot, since a table is rebuilt before it gets full.
+     * <p>
+     * Most lookups end in the first slot probed, so it is checked before the rest of the probe sequence is walked.
+     *
+     * @param table the table.
+     * @param key   the key.
+     * @return the index of the slot.
+     */
+    private static int findSlot(final Table table, final long key) {
+        final int mask = table.values.length - 1;
+        final long hash = key * 0x9E3779B97F4A7C15L;
+        final int firstSlot = (int) (hash ^ (hash >>> 32)) & mask;
+
+        return Optional
+            .of(firstSlot)
+            .filter(slot -> table.isSlotOf(slot, key))
+            .orElseGet(() -> IntStream
+                .iterate((firstSlot + 1) & mask, slot -> (slot + 1) & mask)
+                .filter(slot -> table.isSlotOf(slot, key))
+                .findFirst()
+                .getAsInt());
+    }
+
+    /**
+     * @param slotContent the content of a slot.
+     * @return whether the slot holds an entry, as opposed to being empty or holding a tombstone.
+     */
+    private static boolean isEntry(final Object slotContent) {
+        return slotContent != null && slotContent != TOMBSTONE;
+    }
+
+    /**
+     * Run a lookup without locking, and run it again under the read lock if the map has been changed meanwhile.
+     *
+     * @param lookup the lookup, which must not return null.
+     * @param <R>    the type of the result of the lookup.
+     * @return the result of the lookup.
+     */
+    private <R> R readOptimistically(final Supplier<R> lookup) {
+        final long stamp = lock.tryOptimisticRead();
+        final R result = lookup.get();
+
+        return Optional
+            .of(result)
+            .filter(unused -> lock.validate(stamp))
+            .orElseGet(() -> read(lookup));
+    }
+
+    /**
+     * Run a lookup under the read lock.
+     *
+     * @param lookup the lookup.
+     * @param <R>    the type of the result of the lookup.
+     * @return the result of the lookup.
+     */
+    private <R> R read(final Supplier<R> lookup) {
+        final long stamp = lock.readLock();
+        try {
+            return lookup.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Run a change under the write lock.
+     *
+     * @param change the change.
+     * @param <R>    the type of the result of the change.
+     * @return the result of the change.
+     */
+    private <R> R write(final Supplier<R> change) {
+        final long stamp = lock.writeLock();
+        try {
+            return change.get();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Store an entry in an empty slot of the current table and rebuild the table if too few empty slots are left.
+     * Called while holding the write lock.
+     *
+     * @param slot  the index of an empty slot, returned by {@link #findSlot(Table, long)}.
+     * @param key   the key.
+     * @param value the value.
+     */
+    private void fillSlot(final int slot, final long key, final Object value) {
+        table.store(slot, key, value);
+        size++;
+        usedSlots++;
+
+        Optional
+            .of(usedSlots)
+            .filter(numberOfUsedSlots -> 4 * numberOfUsedSlots > 3 * table.values.length)
+            .ifPresent(unused -> rebuild());
+    }
+
+    /**
+     * Copy the entries into a new table sized for the current number of entries, dropping the tombstones, then publish
+     * it. Called while holding the write lock.
+     */
+    private void rebuild() {
+        final Table oldTable = table;
+        final Table newTable = new Table(capacityFor(size));
+
+        IntStream
+            .range(0, oldTable.values.length)
+            .filter(slot -> isEntry(oldTable.values[slot]))
+            .forEach(slot -> newTable.store(findSlot(newTable, oldTable.keys[slot]), oldTable.keys[slot], oldTable.values[slot]));
+
+        usedSlots = size;
+        table = newTable;
+    }
+
+    /**
+     * Get the value associated with a primitive key, without boxing it.
+     *
+     * @param key the key.
+     * @return the value, or null if the key is not stored.
+     */
+    public V getValue(final long key) {
+        return readOptimistically(() -> {
+            final Table currentTable = table;
+            return Optional.ofNullable(currentTable.<V>valueAt(findSlot(currentTable, key)));
+        }).orElse(null);
+    }
+
+    /**
+     * Determine whether a primitive key is stored, without boxing it.
+     *
+     * @param key the key.
+     * @return true if the key is stored, false otherwise.
+     */
+    public boolean containsKey(final long key) {
+        return readOptimistically(() -> {
+            final Table currentTable = table;
+            return currentTable.values[findSlot(currentTable, key)] != null;
+        });
+    }
+
+    /**
+     * Convert a key given as an object into a primitive key.
+     *
+     * @param key the key.
+     * @return the primitive key, if the given key is a Long.
+     */
+    private static Optional<Long> asLongKey(final Object key) {
+        return Optional
+            .ofNullable(key)
+            .filter(Long.class::isInstance)
+            .map(Long.class::cast);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public V get(final Object key) {
+        return asLongKey(key)
+            .map(this::getValue)
+            .orElse(null);
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return asLongKey(key)
+            .filter(this::containsKey)
+            .isPresent();
+    }
+
+    @Override
+    public V put(final Long key, final V value) {
+        Objects.requireNonNull(value);
+
+        return write(() -> {
+            final int slot = findSlot(table, key);
+            final Optional<V> previousValue = Optional.ofNullable(table.valueAt(slot));
+
+            previousValue.ifPresentOrElse(
+                unused -> table.values[slot] = value,
+                () -> fillSlot(slot, key, value)
+            );
+
+            return previousValue.orElse(null);
+        });
+    }
+
+    @Override
+    public V putIfAbsent(final Long key, final V value) {
+        Objects.requireNonNull(value);
+
+        return write(() -> {
+            final int slot = findSlot(table, key);
+            final Optional<V> currentValue = Optional.ofNullable(table.valueAt(slot));
+
+            Optional
+                .of(currentValue)
+                .filter(Optional::isEmpty)
+                .ifPresent(unused -> fillSlot(slot, key, value));
+
+            return currentValue.orElse(null);
+        });
+    }
+
+    @Override
+    public V replace(final Long key, final V value) {
+        Objects.requireNonNull(value);
+
+        return write(() -> {
+            final int slot = findSlot(table, key);
+            final Optional<V> previousValue = Optional.ofNullable(table.valueAt(slot));
+
+            previousValue.ifPresent(unused -> table.values[slot] = value);
+
+            return previousValue.orElse(null);
+        });
+    }
+
+    @Override
+    public V remove(final Object key) {
+        return asLongKey(key)
+            .flatMap(longKey -> write(() -> {
+                final int slot = findSlot(table, longKey);
+                final Optional<V> removedValue = Optional.ofNullable(table.valueAt(slot));
+
+                removedValue.ifPresent(unused -> {
+                    table.values[slot] = TOMBSTONE;
+                    size--;
+                });
+
+                return removedValue;
+            }))
+            .orElse(null);
+    }
+
+    @Override
+    public void clear() {
+        write(() -> {
+            table = new Table(MINIMUM_CAPACITY);
+            size = 0;
+            usedSlots = 0;
+            return null;
+        });
+    }
+
+    /**
+     * Copy the entries of the map, under the read lock.
+     *
+     * @param entryBuilder the function building an element of the copy from a key and its value.
+     * @param <E>          the type of the elements of the copy.
+     * @return the list of elements built from the entries, in slot order.
+     */
+    private <E> List<E> copyEntries(final EntryBuilder<V, E> entryBuilder) {
+        return read(() -> {
+            final Table currentTable = table;
+
+            return IntStream
+                .range(0, currentTable.values.length)
+                .filter(slot -> isEntry(currentTable.values[slot]))
+                .mapToObj(slot -> entryBuilder.build(currentTable.keys[slot], currentTable.valueAt(slot)))
+                .collect(Collectors.toList());
+        });
+    }
+
+    @Override
+    public Collection<V> values() {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<V> iterator() {
+                return copyEntries((key, value) -> value).iterator();
+            }
+
+            @Override
+            public Stream<V> stream() {
+                return copyEntries((key, value) -> value).stream();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public Set<Entry<Long, V>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<Long, V>> iterator() {
+                return LongKeyedMap.this
+                    .<Entry<Long, V>>copyEntries(SimpleImmutableEntry::new)
+                    .iterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * Function building an object from an entry of the map, without boxing its key.
+     *
+     * @param <V> the type of the values
+     * @param <E> the type of the object built
+     */
+    @FunctionalInterface
+    private interface EntryBuilder<V, E> {
+
+        /**
+         * Build an object from an entry.
+         *
+         * @param key   the key of the entry.
+         * @param value the value of the entry.
+         * @return the object built.
+         */
+        E build(final long key, final V value);
+
+    }
+
+    /**
+     * The pair of parallel arrays holding the keys and the values, which are always replaced together.
+     */
+    private static final class Table {
+
+        private final long[] keys;
+        private final Object[] values;
+
+        /**
+         * Initializes an empty table.
+         *
+         * @param capacity the number of slots, a power of two.
+         */
+        private Table(final int capacity) {
+            keys = new long[capacity];
+            values = new Object[capacity];
+        }
+
+        /**
+         * @param slot the index of a slot.
+         * @param key  the key.
+         * @return whether the probe sequence of the key ends in the slot: the slot is empty or holds the key.
+         */
+        private boolean isSlotOf(final int slot, final long key) {
+            final Object slotContent = values[slot];
+            return slotContent == null || (slotContent != TOMBSTONE && keys[slot] == key);
+        }
+
+        /**
+         * Get the value stored in a slot returned by {@link #findSlot(Table, long)}.
+         *
+         * @param slot the index of the slot.
+         * @param <V>  the type of the value.
+         * @return the value, or null if the slot is empty.
+         */
+        @SuppressWarnings("unchecked")
+        private <V> V valueAt(final int slot) {
+            return (V) values[slot];
+        }
+
+        /**
+         * Store an entry in a slot.
+         *
+         * @param slot  the index of the slot.
+         * @param key   the key.
+         * @param value the value.
+         */
+        private void store(final int slot, final long key, final Object value) {
+            keys[slot] = key;
+            values[slot] = value;
+        }
+
+    }
+
+}
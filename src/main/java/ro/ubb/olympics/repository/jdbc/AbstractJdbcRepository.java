@@ -3,25 +3,36 @@ package ro.ubb.olympics.repository.jdbc;
 import ro.ubb.olympics.domain.BaseEntity;
 import ro.ubb.olympics.domain.validators.Validator;
 import ro.ubb.olympics.domain.validators.ValidatorException;
-import ro.ubb.olympics.exception.SqlException;
+import ro.ubb.olympics.repository.BulkRepository;
 import ro.ubb.olympics.repository.inmemory.InMemoryRepository;
-import ro.ubb.olympics.utils.Pair;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.stream.IntStream;
+import java.util.stream.Collectors;
 
 /**
  * Abstract JDBC repository.
+ * <p>
+ * The whole table is mirrored in the parent InMemoryRepository, so reads never reach the database.
+ * <p>
+ * The bulk operations send their commands in JDBC batches of a configurable size, inside a single transaction, and only
+ * apply the changes to the cached InMemoryRepository once the transaction is committed.
+ * <p>
+ * Every change is persisted while holding the write lock of the InMemoryRepository, so the database receives the
+ * changes in the same order as the in-memory copy.
  *
  * @param <ID> the type of the ID of the stored entities
  * @param <T>  the type of the entity to be stored
  */
-public abstract class AbstractJdbcRepository<ID, T extends BaseEntity<ID>> extends InMemoryRepository<ID, T> {
+public abstract class AbstractJdbcRepository<ID, T extends BaseEntity<ID>> extends InMemoryRepository<ID, T> implements BulkRepository<ID, T> {
+
+    /**
+     * The number of commands sent in a JDBC batch when none is specified.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 500;
 
     /**
      * The database provider used for database interaction.
@@ -33,18 +44,50 @@ public abstract class AbstractJdbcRepository<ID, T extends BaseEntity<ID>> exten
      */
     protected final String tableName;
 
+    private final JdbcEntityMapper<ID, T> mapper;
+
+    private final String insertSql;
+    private final String updateSql;
+    private final String deleteSql;
+
+    private final Validator<T> validator;
+    private final int batchSize;
+
     /**
-     * Initializes the JDBC repository by creating the table if it does not exist and loading the data into the cached
-     * InMemoryRepository.
+     * Initializes the JDBC repository, sending the bulk operations in batches of the default size.
      *
      * @param validator        the validator used to validate the entities stored.
      * @param databaseProvider the database provider used in the repository.
      * @param tableName        the name of the table on which the repository operates.
+     * @param mapper           the mapping between the entities and the rows of the table.
      */
-    public AbstractJdbcRepository(final Validator<T> validator, final DatabaseProvider databaseProvider, final String tableName) {
+    public AbstractJdbcRepository(final Validator<T> validator, final DatabaseProvider databaseProvider, final String tableName, final JdbcEntityMapper<ID, T> mapper) {
+        this(validator, databaseProvider, tableName, mapper, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Initializes the JDBC repository by building its SQL commands, creating the table if it does not exist and loading
+     * the data into the cached InMemoryRepository.
+     * <p>
+     * The SQL commands are built once, here, and only their parameters are computed for each entity, so that the
+     * statements can be reused from the statement cache of the pooled connections.
+     *
+     * @param validator        the validator used to validate the entities stored.
+     * @param databaseProvider the database provider used in the repository.
+     * @param tableName        the name of the table on which the repository operates.
+     * @param mapper           the mapping between the entities and the rows of the table.
+     * @param batchSize        the number of commands sent in a JDBC batch by the bulk operations.
+     */
+    public AbstractJdbcRepository(final Validator<T> validator, final DatabaseProvider databaseProvider, final String tableName, final JdbcEntityMapper<ID, T> mapper, final int batchSize) {
         super(validator);
         this.databaseProvider = databaseProvider;
         this.tableName = tableName;
+        this.mapper = mapper;
+        this.validator = validator;
+        this.batchSize = batchSize;
+        this.insertSql = mapper.buildInsertSql(tableName);
+        this.updateSql = mapper.buildUpdateSql(tableName);
+        this.deleteSql = mapper.buildDeleteSql(tableName);
         initializeTableIfNotExists();
         loadData();
     }
@@ -53,153 +96,143 @@ public abstract class AbstractJdbcRepository<ID, T extends BaseEntity<ID>> exten
      * Create the table used by the repository if it does not exist.
      */
     private void initializeTableIfNotExists() {
-        final Pair<Connection, PreparedStatement> connectionAndStatement = getCreateTableIfNotExistsStatement();
-        try (
-            final Connection ignored = connectionAndStatement.getFirst();
-            final PreparedStatement preparedStatement = connectionAndStatement.getSecond()
-        ) {
-            preparedStatement.executeUpdate();
-        } catch (SQLException sqlException) {
-            throw new SqlException(sqlException);
-        }
+        databaseProvider.executeUpdate(mapper.buildCreateTableIfNotExistsSql(tableName));
     }
 
     /**
      * Load the data from the database and save it in the parent InMemoryRepository class.
+     * <p>
+     * The rows are streamed from the database and saved one at a time, so the memory used during the load stays close to
+     * the memory used by the loaded entities.
      */
     private void loadData() {
-        final String selectAllSql = String.format("SELECT * FROM %s", tableName);
-        final Pair<Connection, PreparedStatement> connectionAndStatement = databaseProvider.createPreparedStatement(selectAllSql);
-        try (
-            final Connection ignored = connectionAndStatement.getFirst();
-            final PreparedStatement preparedStatement = connectionAndStatement.getSecond();
-            final ResultSet resultSet = preparedStatement.executeQuery()
-        ) {
-            final AtomicBoolean finishedLoading = new AtomicBoolean(false);
-            IntStream.generate(() -> 0)
-                .takeWhile(unused -> !finishedLoading.get())
-                .forEach(e -> {
-                    try {
-                        boolean isDone = !resultSet.next();
-                        finishedLoading.set(isDone);
-
-                        Optional
-                            .of(isDone)
-                            .filter(done -> !done)
-                            .ifPresent(x -> super.save(loadEntity(resultSet)));
-
-                    } catch (SQLException sqlException) {
-                        throw new SqlException(sqlException);
-                    }
-                });
-        } catch (SQLException sqlException) {
-            throw new SqlException(sqlException);
-        }
+        databaseProvider.executeQuery(mapper.buildSelectAllSql(tableName), resultSet -> super.save(mapper.loadEntity(resultSet)));
     }
 
-    /**
-     * Load and build an entity from the result set.
-     *
-     * @param resultSet the result set used to build the entity
-     * @return the entity built from the result set.
-     */
-    protected abstract T loadEntity(final ResultSet resultSet);
+    @Override
+    public Optional<T> save(final T entity) throws ValidatorException {
+        return withWriteLock(() -> {
+            final Optional<T> optional = super.save(entity);
 
-    /**
-     * Build a PreparedStatement representing the SQL CREATE TABLE command used to create the table if it does not exist.
-     *
-     * @return a pair containing a PreparedStatement and its associated connection representing the SQL CREATE TABLE command.
-     */
-    protected abstract Pair<Connection, PreparedStatement> getCreateTableIfNotExistsStatement();
+            Optional
+                .of(optional)
+                .filter(Optional::isEmpty)
+                .ifPresent(unused -> databaseProvider.executeUpdate(insertSql, mapper.getInsertParameters(entity)));
 
-    /**
-     * Build a PreparedStatement representing the SQL INSERT command for a given entity.
-     *
-     * @param entity the entity to be inserted
-     * @return a pair containing a PreparedStatement and its associated connection representing the SQL INSERT command.
-     */
-    protected abstract Pair<Connection, PreparedStatement> getInsertStatement(final T entity);
+            return optional;
+        });
+    }
 
-    /**
-     * Build a PreparedStatement representing the SQL DELETE command for a given entity ID.
-     *
-     * @param id the id of the entity to be deleted
-     * @return a pair containing a PreparedStatement and its associated connection representing the SQL DELETE command.
-     */
-    protected abstract Pair<Connection, PreparedStatement> getDeleteStatement(final ID id);
+    @Override
+    public Optional<T> delete(final ID id) {
+        return withWriteLock(() -> {
+            final Optional<T> optional = super.delete(id);
+
+            Optional
+                .of(optional)
+                .filter(Optional::isPresent)
+                .ifPresent(unused -> databaseProvider.executeUpdate(deleteSql, mapper.getDeleteParameters(id)));
+
+            return optional;
+        });
+    }
+
+    @Override
+    public Optional<T> update(final T entity) throws ValidatorException {
+        return withWriteLock(() -> {
+            final Optional<T> optional = super.update(entity);
+
+            Optional
+                .of(optional)
+                .filter(Optional::isPresent)
+                .ifPresent(unused -> databaseProvider.executeUpdate(updateSql, mapper.getUpdateParameters(entity)));
+
+            return optional;
+        });
+    }
 
     /**
-     * Build a PreparedStatement representing the SQL UPDATE command for a given entity.
-     *
-     * @param entity the entity to be updated
-     * @return a pair containing a PreparedStatement and its associated connection representing the SQL UPDATE command.
+     * Saves the given entities with a batch of INSERT commands, in a single transaction.
+     * <p>
+     * All the entities are validated before anything is sent to the database. Entities whose id already exists, either
+     * in the repository or earlier in the given collection, are not saved.
      */
-    protected abstract Pair<Connection, PreparedStatement> getUpdateStatement(final T entity);
-
     @Override
-    public Optional<T> save(final T entity) throws ValidatorException {
-        final Optional<T> optional = super.save(entity);
-
-        Optional
-            .of(optional)
-            .filter(Optional::isEmpty)
-            .ifPresent(unused -> {
-                final Pair<Connection, PreparedStatement> connectionAndStatement = getInsertStatement(entity);
-                try (
-                    final Connection ignored = connectionAndStatement.getFirst();
-                    final PreparedStatement preparedStatement = connectionAndStatement.getSecond()
-                ) {
-                    preparedStatement.executeUpdate();
-                } catch (SQLException sqlException) {
-                    throw new SqlException(sqlException);
-                }
-            });
-
-        return optional;
+    public List<T> saveAll(final Collection<T> entities) throws ValidatorException {
+        Validator.validateNonNull(entities);
+        entities.forEach(validator::validate);
+
+        return withWriteLock(() -> {
+            final Map<ID, T> newEntities = new LinkedHashMap<>();
+            final List<T> rejectedEntities = entities
+                .stream()
+                .filter(entity -> findOne(entity.getId()).isPresent() || newEntities.putIfAbsent(entity.getId(), entity) != null)
+                .collect(Collectors.toList());
+
+            databaseProvider.executeBatch(
+                insertSql,
+                batchSize,
+                newEntities.values().stream().map(mapper::getInsertParameters).collect(Collectors.toList())
+            );
+            newEntities.values().forEach(super::save);
+
+            return rejectedEntities;
+        });
     }
 
+    /**
+     * Removes the entities with the given ids with a batch of DELETE commands, in a single transaction.
+     */
     @Override
-    public Optional<T> delete(final ID id) {
-        final Optional<T> optional = super.delete(id);
-
-        Optional
-            .of(optional)
-            .filter(Optional::isPresent)
-            .ifPresent(unused -> {
-                final Pair<Connection, PreparedStatement> connectionAndStatement = getDeleteStatement(id);
-                try (
-                    final Connection ignored = connectionAndStatement.getFirst();
-                    final PreparedStatement preparedStatement = connectionAndStatement.getSecond()
-                ) {
-                    preparedStatement.executeUpdate();
-                } catch (SQLException sqlException) {
-                    throw new SqlException(sqlException);
-                }
-            });
-
-        return optional;
+    public List<T> deleteAll(final Collection<ID> ids) {
+        Validator.validateNonNull(ids);
+        ids.forEach(Validator::validateNonNull);
+
+        return withWriteLock(() -> {
+            final List<T> removedEntities = ids
+                .stream()
+                .distinct()
+                .map(this::findOne)
+                .flatMap(Optional::stream)
+                .collect(Collectors.toList());
+
+            databaseProvider.executeBatch(
+                deleteSql,
+                batchSize,
+                removedEntities.stream().map(entity -> mapper.getDeleteParameters(entity.getId())).collect(Collectors.toList())
+            );
+            removedEntities.forEach(entity -> super.delete(entity.getId()));
+
+            return removedEntities;
+        });
     }
 
+    /**
+     * Updates the given entities with a batch of UPDATE commands, in a single transaction.
+     * <p>
+     * All the entities are validated before anything is sent to the database. Entities whose id does not exist are not
+     * updated.
+     */
     @Override
-    public Optional<T> update(final T entity) throws ValidatorException {
-        final Optional<T> optional = super.update(entity);
-
-        Optional
-            .of(optional)
-            .filter(Optional::isPresent)
-            .ifPresent(unused -> {
-                final Pair<Connection, PreparedStatement> connectionAndStatement = getUpdateStatement(entity);
-                try (
-                    final Connection ignored = connectionAndStatement.getFirst();
-                    final PreparedStatement preparedStatement = connectionAndStatement.getSecond()
-                ) {
-                    preparedStatement.executeUpdate();
-                } catch (SQLException sqlException) {
-                    throw new SqlException(sqlException);
-                }
-            });
-
-        return optional;
+    public List<T> updateAll(final Collection<T> entities) throws ValidatorException {
+        Validator.validateNonNull(entities);
+        entities.forEach(validator::validate);
+
+        return withWriteLock(() -> {
+            final List<T> existingEntities = entities
+                .stream()
+                .filter(entity -> findOne(entity.getId()).isPresent())
+                .collect(Collectors.toList());
+
+            databaseProvider.executeBatch(
+                updateSql,
+                batchSize,
+                existingEntities.stream().map(mapper::getUpdateParameters).collect(Collectors.toList())
+            );
+            existingEntities.forEach(super::update);
+
+            return existingEntities;
+        });
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,421 @@
+package ro.ubb.olympics.repository.jdbc;
+
+import ro.ubb.olympics.domain.BaseEntity;
+import ro.ubb.olympics.domain.validators.Validator;
+import ro.ubb.olympics.domain.validators.ValidatorException;
+import ro.ubb.olympics.exception.SqlException;
+import ro.ubb.olympics.repository.BulkRepository;
+import ro.ubb.olympics.repository.VersionClock;
+import ro.ubb.olympics.repository.VersionedRepository;
+import ro.ubb.olympics.utils.Pair;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Read-through JDBC repository.
+ * <p>
+ * Unlike the {@link AbstractJdbcRepository}, it does not mirror the table in memory: the entities recently found or
+ * written are kept in a bounded least recently used cache, and the other ones are looked up in the database by their ID.
+ * {@link #findAll()} reads the table from the database without going through the cache, by pages of consecutive IDs,
+ * so the memory used by the repository is bounded by the size of the cache and of a page, regardless of the size of
+ * the table.
+ * <p>
+ * The cache assumes the repository is the only writer of the table, and so does the version of the repository, which
+ * only counts the changes made through it. Every change is recorded by the shared {@link VersionClock}, so reads made
+ * inside {@link VersionClock#readConsistently} do not observe a change in progress.
+ * <p>
+ * Filling the cache on a miss and every write of an entity are done under a lock of its ID, taken from a fixed set of
+ * locks by the hash of the ID. A lookup therefore never puts back in the cache an entity deleted or updated while it
+ * was reading the row, and concurrent saves of the same new entity insert it only once. The writes take the lock after
+ * entering {@link VersionClock#change}, so the locks are always taken in the same order.
+ *
+ * @param <ID> the type of the ID of the stored entities
+ * @param <T>  the type of the entity to be stored
+ */
+public class CachedJdbcRepository<ID, T extends BaseEntity<ID>> implements BulkRepository<ID, T>, VersionedRepository<ID, T> {
+
+    /**
+     * The number of entities kept in the cache when none is specified.
+     */
+    public static final int DEFAULT_CACHE_SIZE = 10000;
+
+    /**
+     * The maximum number of entities read by a query when iterating over all of them.
+     */
+    public static final int PAGE_SIZE = 1000;
+
+    /**
+     * The number of locks the IDs are spread over.
+     */
+    private static final int NUMBER_OF_ID_LOCKS = 64;
+
+    private final Validator<T> validator;
+    private final DatabaseProvider databaseProvider;
+    private final JdbcEntityMapper<ID, T> mapper;
+
+    private final String selectFirstPageSql;
+    private final String selectNextPageSql;
+    private final String selectByIdSql;
+    private final String insertSql;
+    private final String updateSql;
+    private final String deleteSql;
+
+    private final VersionClock clock = VersionClock.getDefault();
+    private final int batchSize;
+    private final Lock[] idLocks = Stream
+        .generate(ReentrantLock::new)
+        .limit(NUMBER_OF_ID_LOCKS)
+        .toArray(Lock[]::new);
+
+    private final Map<ID, T> cache;
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong cacheMisses = new AtomicLong();
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * Initializes the repository, sending the bulk operations in batches of the default size.
+     *
+     * @param validator        the validator used to validate the entities stored.
+     * @param databaseProvider the database provider used in the repository.
+     * @param tableName        the name of the table on which the repository operates.
+     * @param mapper           the mapping between the entities and the rows of the table.
+     * @param cacheSize        the maximum number of entities kept in the cache.
+     */
+    public CachedJdbcRepository(final Validator<T> validator, final DatabaseProvider databaseProvider, final String tableName, final JdbcEntityMapper<ID, T> mapper, final int cacheSize) {
+        this(validator, databaseProvider, tableName, mapper, cacheSize, AbstractJdbcRepository.DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Initializes the repository by building its SQL commands and creating the table if it does not exist.
+     * No entity is loaded until it is required.
+     *
+     * @param validator        the validator used to validate the entities stored.
+     * @param databaseProvider the database provider used in the repository.
+     * @param tableName        the name of the table on which the repository operates.
+     * @param mapper           the mapping between the entities and the rows of the table.
+     * @param cacheSize        the maximum number of entities kept in the cache.
+     * @param batchSize        the number of commands sent in a JDBC batch by the bulk operations.
+     */
+    public CachedJdbcRepository(final Validator<T> validator, final DatabaseProvider databaseProvider, final String tableName, final JdbcEntityMapper<ID, T> mapper, final int cacheSize, final int batchSize) {
+        this.validator = validator;
+        this.databaseProvider = databaseProvider;
+        this.mapper = mapper;
+        this.batchSize = batchSize;
+        this.selectFirstPageSql = mapper.buildSelectFirstPageSql(tableName);
+        this.selectNextPageSql = mapper.buildSelectNextPageSql(tableName);
+        this.selectByIdSql = mapper.buildSelectByIdSql(tableName);
+        this.insertSql = mapper.buildInsertSql(tableName);
+        this.updateSql = mapper.buildUpdateSql(tableName);
+        this.deleteSql = mapper.buildDeleteSql(tableName);
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<ID, T> eldest) {
+                return size() > cacheSize;
+            }
+        });
+
+        databaseProvider.executeUpdate(mapper.buildCreateTableIfNotExistsSql(tableName));
+    }
+
+    /**
+     * Looks up the entity in the cache, and on a miss looks it up in the database and caches it, holding the lock of its
+     * ID while doing so.
+     */
+    @Override
+    public Optional<T> findOne(final ID id) {
+        Validator.validateNonNull(id);
+
+        return findCached(id).or(() -> withIdLock(id, () -> findCached(id).or(() -> {
+            cacheMisses.incrementAndGet();
+            final Optional<T> entity = selectById(id);
+            entity.ifPresent(foundEntity -> cache.put(id, foundEntity));
+            return entity;
+        })));
+    }
+
+    /**
+     * Look up an entity in the cache.
+     *
+     * @param id the ID of the entity.
+     * @return an {@code Optional} encapsulating the cached entity with the given id.
+     */
+    private Optional<T> findCached(final ID id) {
+        return Optional
+            .ofNullable(cache.get(id))
+            .map(entity -> {
+                cacheHits.incrementAndGet();
+                return entity;
+            });
+    }
+
+    /**
+     * Execute some work on an entity while holding the lock of its ID.
+     *
+     * @param id     the ID of the entity.
+     * @param action the work to be executed.
+     * @param <R>    the type of the result of the work.
+     * @return the result of the work.
+     */
+    private <R> R withIdLock(final ID id, final Supplier<R> action) {
+        return withIdLocks(List.of(id), action);
+    }
+
+    /**
+     * Execute some work on several entities while holding the locks of their IDs, taken in the order of the locks so
+     * that two callers never wait for each other.
+     *
+     * @param ids    the IDs of the entities.
+     * @param action the work to be executed.
+     * @param <R>    the type of the result of the work.
+     * @return the result of the work.
+     */
+    private <R> R withIdLocks(final Collection<ID> ids, final Supplier<R> action) {
+        final List<Lock> locks = ids
+            .stream()
+            .map(id -> Math.floorMod(id.hashCode(), idLocks.length))
+            .distinct()
+            .sorted()
+            .map(index -> idLocks[index])
+            .collect(Collectors.toList());
+
+        locks.forEach(Lock::lock);
+        try {
+            return action.get();
+        } finally {
+            locks.forEach(Lock::unlock);
+        }
+    }
+
+    /**
+     * Look up an entity in the database by its ID.
+     *
+     * @param id the ID of the entity.
+     * @return an {@code Optional} encapsulating the entity with the given id.
+     * @throws SqlException if the query fails.
+     */
+    @SuppressWarnings("try")
+    private Optional<T> selectById(final ID id) throws SqlException {
+        final Pair<Connection, PreparedStatement> connectionAndStatement = databaseProvider.createPreparedStatement(selectByIdSql, id);
+        try (
+            final Connection ignored = connectionAndStatement.getFirst();
+            final PreparedStatement preparedStatement = connectionAndStatement.getSecond();
+            final ResultSet resultSet = preparedStatement.executeQuery()
+        ) {
+            return Optional
+                .of(resultSet.next())
+                .filter(Boolean::booleanValue)
+                .map(unused -> mapper.loadEntity(resultSet));
+        } catch (SQLException sqlException) {
+            throw new SqlException(sqlException);
+        }
+    }
+
+    /**
+     * Find all the entities in the database.
+     * <p>
+     * The entities are read by pages of {@link #PAGE_SIZE} entities in ascending order of their IDs, each page selected
+     * by its own query after the last ID of the previous one. No connection is held between the pages, so an iterator
+     * which is not exhausted does not keep one open, and the action passed to {@link Iterable#forEach(Consumer)} may use
+     * the database, including this repository. The entities are not all held in memory, and are not added to the cache.
+     * <p>
+     * The pages are not read at the same point in time: an entity changed while iterating is seen either before or
+     * after the change, and one saved or deleted while iterating may or may not be seen.
+     *
+     * @return all entities.
+     */
+    @Override
+    public Iterable<T> findAll() {
+        return PageIterator::new;
+    }
+
+    /**
+     * Iterator over all the entities of the table, holding a single page of them at a time.
+     */
+    private class PageIterator implements Iterator<T> {
+
+        private Iterator<T> page = Collections.emptyIterator();
+        private Optional<ID> lastId = Optional.empty();
+        private boolean lastPage = false;
+
+        @Override
+        public boolean hasNext() {
+            return page.hasNext() || (!lastPage && nextPage().hasNext());
+        }
+
+        @Override
+        public T next() {
+            return Optional
+                .of(this)
+                .filter(PageIterator::hasNext)
+                .map(unused -> page.next())
+                .orElseThrow(NoSuchElementException::new);
+        }
+
+        /**
+         * Read the page following the entities read so far.
+         *
+         * @return an iterator over the entities of the page.
+         * @throws SqlException if the query fails.
+         */
+        private Iterator<T> nextPage() throws SqlException {
+            final List<T> entities = new ArrayList<>(PAGE_SIZE);
+            final DatabaseProvider.RowConsumer addEntity = resultSet -> entities.add(mapper.loadEntity(resultSet));
+
+            lastId.ifPresentOrElse(
+                id -> databaseProvider.executeQuery(selectNextPageSql, addEntity, id, PAGE_SIZE),
+                () -> databaseProvider.executeQuery(selectFirstPageSql, addEntity, PAGE_SIZE)
+            );
+
+            lastPage = entities.size() < PAGE_SIZE;
+            lastId = entities
+                .stream()
+                .reduce((first, second) -> second)
+                .map(BaseEntity::getId)
+                .or(() -> lastId);
+            page = entities.iterator();
+
+            return page;
+        }
+
+    }
+
+    @Override
+    public Optional<T> save(final T entity) throws ValidatorException {
+        validator.validate(entity);
+
+        return clock.change(() -> withIdLock(entity.getId(), () -> {
+            final Optional<T> optional = findOne(entity.getId());
+
+            Optional
+                .of(optional)
+                .filter(Optional::isEmpty)
+                .ifPresent(unused -> {
+                    databaseProvider.executeUpdate(insertSql, mapper.getInsertParameters(entity));
+                    cache.put(entity.getId(), entity);
+                    version.incrementAndGet();
+                });
+
+            return optional;
+        }));
+    }
+
+    @Override
+    public Optional<T> delete(final ID id) {
+        Validator.validateNonNull(id);
+
+        return clock.change(() -> withIdLock(id, () -> {
+            final Optional<T> optional = findOne(id);
+
+            Optional
+                .of(optional)
+                .filter(Optional::isPresent)
+                .ifPresent(unused -> {
+                    databaseProvider.executeUpdate(deleteSql, mapper.getDeleteParameters(id));
+                    cache.remove(id);
+                    version.incrementAndGet();
+                });
+
+            return optional;
+        }));
+    }
+
+    /**
+     * Removes the entities with the given ids with a batch of DELETE commands, in a single transaction.
+     */
+    @Override
+    public List<T> deleteAll(final Collection<ID> ids) {
+        Validator.validateNonNull(ids);
+        ids.forEach(Validator::validateNonNull);
+
+        return clock.change(() -> withIdLocks(ids, () -> {
+            final List<T> removedEntities = ids
+                .stream()
+                .distinct()
+                .map(this::findOne)
+                .flatMap(Optional::stream)
+                .collect(Collectors.toList());
+
+            databaseProvider.executeBatch(
+                deleteSql,
+                batchSize,
+                removedEntities.stream().map(entity -> mapper.getDeleteParameters(entity.getId())).collect(Collectors.toList())
+            );
+            removedEntities.forEach(entity -> cache.remove(entity.getId()));
+            Optional
+                .of(removedEntities)
+                .filter(entities -> !entities.isEmpty())
+                .ifPresent(unused -> version.incrementAndGet());
+
+            return removedEntities;
+        }));
+    }
+
+    @Override
+    public Optional<T> update(final T entity) throws ValidatorException {
+        validator.validate(entity);
+
+        return clock.change(() -> withIdLock(entity.getId(), () -> {
+            final int updatedRows = databaseProvider.executeUpdate(updateSql, mapper.getUpdateParameters(entity));
+
+            final Optional<T> optional = Optional
+                .of(entity)
+                .filter(unused -> updatedRows > 0);
+
+            optional.ifPresentOrElse(
+                updatedEntity -> {
+                    cache.put(updatedEntity.getId(), updatedEntity);
+                    version.incrementAndGet();
+                },
+                () -> cache.remove(entity.getId())
+            );
+
+            return optional;
+        }));
+    }
+
+    @Override
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * @return the number of entities currently cached.
+     */
+    public int getCacheSize() {
+        return cache.size();
+    }
+
+    /**
+     * @return the number of lookups served from the cache so far.
+     */
+    public long getCacheHits() {
+        return cacheHits.get();
+    }
+
+    /**
+     * @return the number of lookups which went to the database so far.
+     */
+    public long getCacheMisses() {
+        return cacheMisses.get();
+    }
+
+}
@@ -0,0 +1,680 @@
+package ro.ubb.olympics.repository.jdbc;
+
+import ro.ubb.olympics.exception.SqlException;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Bounded pool of database connections.
+ * <p>
+ * At most {@link ConnectionPoolSettings#getMaximumPoolSize()} connections are opened at the same time, and a caller
+ * waits at most {@link ConnectionPoolSettings#getMaximumWait()} for one of them to be returned. The connections handed
+ * out are proxies: closing them returns the underlying connection to the pool instead of closing it, so the callers keep
+ * using try-with-resources as with plain JDBC connections.
+ * <p>
+ * A connection which stayed idle for longer than the validation interval is validated before being handed out, and the
+ * connections idle for longer than the idle timeout are closed in the background.
+ * <p>
+ * Each connection keeps the statements prepared on it in a least recently used cache keyed by their SQL text, so
+ * preparing the same SQL again on the same connection reuses the statement already parsed by the driver and the
+ * server. Closing a cached statement closes its result set, clears its parameters, restores the settings a caller may
+ * have changed and keeps it open for the next caller. Returning a connection
+ * takes back the statements its caller did not close, and the statements handed out through it cannot be used anymore.
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    /**
+     * Factory opening the physical connections of the pool.
+     */
+    @FunctionalInterface
+    public interface ConnectionFactory {
+
+        /**
+         * Open a new physical connection.
+         *
+         * @return the connection opened.
+         * @throws SQLException if a database access error occurs.
+         */
+        Connection create() throws SQLException;
+
+    }
+
+    private static final String CONNECTION_RETURNED_MESSAGE = "The connection was already returned to the pool.";
+    private static final String STATEMENT_CLOSED_MESSAGE = "The statement was already closed.";
+
+    private final ConnectionFactory connectionFactory;
+    private final ConnectionPoolSettings settings;
+
+    private final Semaphore permits;
+    private final BlockingDeque<PooledConnection> idleConnections = new LinkedBlockingDeque<>();
+    private final ScheduledExecutorService evictor;
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
+    private final AtomicInteger activeConnections = new AtomicInteger();
+    private final AtomicLong numberOfAcquisitions = new AtomicLong();
+    private final AtomicLong numberOfTimeouts = new AtomicLong();
+    private final AtomicLong numberOfCreatedConnections = new AtomicLong();
+    private final AtomicLong numberOfEvictedConnections = new AtomicLong();
+    private final AtomicLong numberOfBrokenConnections = new AtomicLong();
+    private final AtomicLong totalWaitTimeNanos = new AtomicLong();
+    private final AtomicLong maximumWaitTimeNanos = new AtomicLong();
+    private final AtomicLong numberOfPreparedStatements = new AtomicLong();
+    private final AtomicLong numberOfReusedStatements = new AtomicLong();
+
+    /**
+     * Initializes the pool and starts evicting its idle connections periodically on a daemon thread.
+     * No connection is opened until one is required.
+     *
+     * @param connectionFactory the factory opening the physical connections.
+     * @param settings          the settings of the pool.
+     */
+    public ConnectionPool(final ConnectionFactory connectionFactory, final ConnectionPoolSettings settings) {
+        this.connectionFactory = connectionFactory;
+        this.settings = settings;
+        this.permits = new Semaphore(settings.getMaximumPoolSize(), true);
+        this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "connection-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        final long evictionPeriodMillis = Math.max(1, settings.getIdleTimeout().toMillis() / 2);
+        this.evictor.scheduleWithFixedDelay(
+            this::evictIdleConnections,
+            evictionPeriodMillis,
+            evictionPeriodMillis,
+            TimeUnit.MILLISECONDS
+        );
+    }
+
+    /**
+     * Borrow a connection from the pool, reusing an idle one if possible and opening a new one otherwise.
+     * The connection must be closed to be returned to the pool.
+     *
+     * @return the connection borrowed.
+     * @throws SqlException if the pool is closed, if no connection became available within the maximum wait or if a new
+     *                      connection cannot be opened.
+     */
+    public Connection getConnection() throws SqlException {
+        Optional
+            .of(closed.get())
+            .filter(isClosed -> !isClosed)
+            .orElseThrow(() -> new SqlException(new SQLException("The connection pool is closed.")));
+
+        final long waitStart = System.nanoTime();
+        Optional
+            .of(acquirePermit())
+            .filter(Boolean::booleanValue)
+            .orElseThrow(() -> {
+                numberOfTimeouts.incrementAndGet();
+                return new SqlException(new SQLTimeoutException(String.format(
+                    "No connection became available within %d ms.", settings.getMaximumWait().toMillis()
+                )));
+            });
+        final long waitTimeNanos = System.nanoTime() - waitStart;
+
+        numberOfAcquisitions.incrementAndGet();
+        totalWaitTimeNanos.addAndGet(waitTimeNanos);
+        maximumWaitTimeNanos.accumulateAndGet(waitTimeNanos, Math::max);
+
+        try {
+            final PooledConnection pooledConnection = takeIdleConnection().orElseGet(this::openConnection);
+            activeConnections.incrementAndGet();
+            return pooledConnection.borrow();
+        } catch (final SqlException sqlException) {
+            permits.release();
+            throw sqlException;
+        }
+    }
+
+    /**
+     * Wait at most the maximum wait for the permission to hold a connection.
+     *
+     * @return true if the permission was acquired, false if the maximum wait elapsed.
+     * @throws SqlException if the thread is interrupted while waiting.
+     */
+    private boolean acquirePermit() throws SqlException {
+        try {
+            return permits.tryAcquire(settings.getMaximumWait().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (final InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            throw new SqlException(interruptedException);
+        }
+    }
+
+    /**
+     * Take the most recently returned healthy idle connection, discarding the broken ones met along the way.
+     *
+     * @return the idle connection, or an empty optional if there is none.
+     */
+    private Optional<PooledConnection> takeIdleConnection() {
+        return Stream
+            .generate(idleConnections::pollFirst)
+            .takeWhile(Objects::nonNull)
+            .filter(this::isHealthy)
+            .findFirst();
+    }
+
+    /**
+     * Check whether an idle connection can be handed out, closing it if it cannot.
+     * Connections idle for less than the validation interval are trusted without a round trip to the database.
+     *
+     * @param pooledConnection the idle connection.
+     * @return true if the connection can be handed out, false otherwise.
+     */
+    private boolean isHealthy(final PooledConnection pooledConnection) {
+        final boolean healthy = pooledConnection.getIdleTime().compareTo(settings.getValidationInterval()) < 0
+            || isValid(pooledConnection.getPhysicalConnection());
+
+        Optional
+            .of(healthy)
+            .filter(isHealthy -> !isHealthy)
+            .ifPresent(unused -> {
+                numberOfBrokenConnections.incrementAndGet();
+                closePhysicalConnection(pooledConnection);
+            });
+
+        return healthy;
+    }
+
+    /**
+     * Validate a physical connection against the database.
+     *
+     * @param connection the physical connection.
+     * @return true if the connection is still usable, false otherwise.
+     */
+    private boolean isValid(final Connection connection) {
+        try {
+            return connection.isValid((int) Math.max(1, settings.getValidationTimeout().toSeconds()));
+        } catch (final SQLException sqlException) {
+            return false;
+        }
+    }
+
+    /**
+     * Open a new physical connection.
+     *
+     * @return the new connection, wrapped to be pooled.
+     * @throws SqlException if the connection cannot be opened.
+     */
+    private PooledConnection openConnection() throws SqlException {
+        try {
+            final PooledConnection pooledConnection = new PooledConnection(connectionFactory.create());
+            numberOfCreatedConnections.incrementAndGet();
+            return pooledConnection;
+        } catch (final SQLException sqlException) {
+            throw new SqlException(sqlException);
+        }
+    }
+
+    /**
+     * Take back a borrowed connection. It is kept for reuse if it can be reset to its initial state and the pool is still
+     * open, and closed otherwise.
+     *
+     * @param pooledConnection the connection returned.
+     */
+    private void release(final PooledConnection pooledConnection) {
+        activeConnections.decrementAndGet();
+        try {
+            Optional
+                .of(resetConnection(pooledConnection))
+                .filter(reusable -> reusable && !closed.get())
+                .ifPresentOrElse(
+                    unused -> {
+                        pooledConnection.touch();
+                        idleConnections.offerFirst(pooledConnection);
+                    },
+                    () -> closePhysicalConnection(pooledConnection)
+                );
+
+            // the pool may have been closed while the connection was being returned
+            Optional
+                .of(closed.get())
+                .filter(Boolean::booleanValue)
+                .ifPresent(unused -> closeIdleConnections());
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Roll back the transaction left open on a returned connection, if any, and restore its auto-commit mode.
+     *
+     * @param pooledConnection the connection returned.
+     * @return true if the connection was reset, false if it is broken.
+     */
+    private boolean resetConnection(final PooledConnection pooledConnection) {
+        final Connection connection = pooledConnection.getPhysicalConnection();
+        try {
+            Optional
+                .of(connection.getAutoCommit())
+                .filter(autoCommit -> !autoCommit)
+                .ifPresent(unused -> {
+                    try {
+                        connection.rollback();
+                        connection.setAutoCommit(true);
+                    } catch (final SQLException sqlException) {
+                        throw new SqlException(sqlException);
+                    }
+                });
+            return true;
+        } catch (final SQLException | SqlException exception) {
+            numberOfBrokenConnections.incrementAndGet();
+            return false;
+        }
+    }
+
+    /**
+     * Close the connections which stayed idle for longer than the idle timeout.
+     */
+    private void evictIdleConnections() {
+        idleConnections
+            .stream()
+            .filter(pooledConnection -> pooledConnection.getIdleTime().compareTo(settings.getIdleTimeout()) >= 0)
+            .collect(Collectors.toList())
+            .stream()
+            .filter(idleConnections::remove)
+            .forEach(pooledConnection -> {
+                numberOfEvictedConnections.incrementAndGet();
+                closePhysicalConnection(pooledConnection);
+            });
+    }
+
+    /**
+     * Close all the idle connections.
+     */
+    private void closeIdleConnections() {
+        Stream
+            .generate(idleConnections::pollFirst)
+            .takeWhile(Objects::nonNull)
+            .forEach(this::closePhysicalConnection);
+    }
+
+    /**
+     * Close a physical connection which is discarded from the pool.
+     * A failure is ignored, as the connection is not going to be used anymore.
+     *
+     * @param pooledConnection the connection to be closed.
+     */
+    private void closePhysicalConnection(final PooledConnection pooledConnection) {
+        try {
+            pooledConnection.getPhysicalConnection().close();
+        } catch (final SQLException ignored) {
+            // the connection is discarded anyway
+        }
+    }
+
+    /**
+     * @return a snapshot of the usage of the pool.
+     */
+    public ConnectionPoolMetrics getMetrics() {
+        return new ConnectionPoolMetrics(
+            activeConnections.get(),
+            idleConnections.size(),
+            numberOfAcquisitions.get(),
+            numberOfTimeouts.get(),
+            numberOfCreatedConnections.get(),
+            numberOfEvictedConnections.get(),
+            numberOfBrokenConnections.get(),
+            Duration.ofNanos(totalWaitTimeNanos.get()),
+            Duration.ofNanos(maximumWaitTimeNanos.get()),
+            numberOfPreparedStatements.get(),
+            numberOfReusedStatements.get()
+        );
+    }
+
+    /**
+     * Stop evicting idle connections and close them. The borrowed connections are closed when they are returned.
+     */
+    @Override
+    public void close() {
+        closed.set(true);
+        evictor.shutdown();
+        closeIdleConnections();
+    }
+
+    /**
+     * Forward a call made on a proxy handed out by the pool to the object it wraps.
+     *
+     * @param target        the wrapped object.
+     * @param closed        whether the proxy was already closed.
+     * @param closedMessage the message of the exception thrown if the proxy was already closed.
+     * @param method        the method called.
+     * @param arguments     the arguments of the call.
+     * @return the result of the call.
+     * @throws Throwable the exception thrown by the wrapped object, or an SQLException if the proxy was already closed.
+     */
+    private static Object forward(final Object target, final BooleanSupplier closed, final String closedMessage, final Method method, final Object[] arguments) throws Throwable {
+        Optional
+            .of(closed.getAsBoolean())
+            .filter(isClosed -> !isClosed)
+            .orElseThrow(() -> new SQLException(closedMessage));
+        try {
+            return method.invoke(target, arguments);
+        } catch (final InvocationTargetException invocationTargetException) {
+            throw invocationTargetException.getCause();
+        }
+    }
+
+    /**
+     * A physical connection held by the pool, along with the moment it was last returned and its cached statements.
+     * The cache is only used by the thread which borrowed the connection, so it needs no synchronization.
+     */
+    private class PooledConnection {
+
+        private final Connection physicalConnection;
+        private volatile long lastReturnedNanos;
+
+        private final Set<CachedStatement> checkedOutStatements = new HashSet<>();
+
+        private final Map<String, CachedStatement> statementCache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, CachedStatement> eldest) {
+                final boolean full = size() > settings.getStatementCacheSize();
+
+                Optional
+                    .of(full)
+                    .filter(Boolean::booleanValue)
+                    .ifPresent(unused -> eldest.getValue().evict());
+
+                return full;
+            }
+        };
+
+        /**
+         * Wraps a newly opened physical connection.
+         *
+         * @param physicalConnection the physical connection.
+         */
+        private PooledConnection(final Connection physicalConnection) {
+            this.physicalConnection = physicalConnection;
+            touch();
+        }
+
+        private Connection getPhysicalConnection() {
+            return physicalConnection;
+        }
+
+        /**
+         * Mark the connection as returned now.
+         */
+        private void touch() {
+            lastReturnedNanos = System.nanoTime();
+        }
+
+        /**
+         * @return the time since the connection was last returned.
+         */
+        private Duration getIdleTime() {
+            return Duration.ofNanos(System.nanoTime() - lastReturnedNanos);
+        }
+
+        /**
+         * Hand out the connection through a proxy which returns it to the pool when closed. Every borrow gets its own
+         * proxy, so a caller holding on to a connection it already closed cannot use it anymore.
+         *
+         * @return the proxy of the connection.
+         */
+        private Connection borrow() {
+            final AtomicBoolean returned = new AtomicBoolean(false);
+
+            return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, arguments) -> switch (method.getName()) {
+                    case "close" -> {
+                        Optional
+                            .of(returned.compareAndSet(false, true))
+                            .filter(Boolean::booleanValue)
+                            .ifPresent(unused -> {
+                                checkInStatements();
+                                release(this);
+                            });
+                        yield null;
+                    }
+                    case "isClosed" -> returned.get() || physicalConnection.isClosed();
+                    case "equals" -> proxy == arguments[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "toString" -> "Pooled" + physicalConnection;
+                    case "prepareStatement" -> prepareStatement((Connection) proxy, returned, method, arguments);
+                    default -> forward(physicalConnection, returned::get, CONNECTION_RETURNED_MESSAGE, method, arguments);
+                }
+            );
+        }
+
+        /**
+         * Take back the statements handed out during the current borrow which their caller did not close.
+         */
+        private void checkInStatements() {
+            checkedOutStatements
+                .stream()
+                .filter(CachedStatement::isInUse)
+                .forEach(CachedStatement::checkIn);
+            checkedOutStatements.clear();
+        }
+
+        /**
+         * Prepare a statement on a borrowed connection. Statements prepared from the SQL text alone go through the
+         * statement cache, while the ones requesting specific result set or key generation options are not cached.
+         *
+         * @param connectionProxy the borrowed connection.
+         * @param returned        whether the borrowed connection was already returned to the pool.
+         * @param method          the prepareStatement overload called.
+         * @param arguments       the arguments of the call.
+         * @return the prepared statement.
+         * @throws Throwable the exception thrown by the physical connection, or an SQLException if the connection was
+         *                   already returned.
+         */
+        private Object prepareStatement(final Connection connectionProxy, final AtomicBoolean returned, final Method method, final Object[] arguments) throws Throwable {
+            return switch (arguments.length) {
+                case 1 -> checkOutStatement(connectionProxy, returned, (String) arguments[0]);
+                default -> forward(physicalConnection, returned::get, CONNECTION_RETURNED_MESSAGE, method, arguments);
+            };
+        }
+
+        /**
+         * Hand out the cached statement for an SQL text, preparing and caching it if it is not cached yet. If the cached
+         * statement is still used by the same caller, a new one is prepared and closed once it is no longer used.
+         *
+         * @param connectionProxy the borrowed connection.
+         * @param returned        whether the borrowed connection was already returned to the pool.
+         * @param sql             the SQL text of the statement.
+         * @return the prepared statement.
+         * @throws SQLException if the statement cannot be prepared, or if the connection was already returned.
+         */
+        private PreparedStatement checkOutStatement(final Connection connectionProxy, final AtomicBoolean returned, final String sql) throws SQLException {
+            Optional
+                .of(returned.get())
+                .filter(isReturned -> !isReturned)
+                .orElseThrow(() -> new SQLException(CONNECTION_RETURNED_MESSAGE));
+            try {
+                final CachedStatement statement = Optional
+                    .ofNullable(statementCache.get(sql))
+                    .filter(cachedStatement -> !cachedStatement.isInUse())
+                    .map(cachedStatement -> {
+                        numberOfReusedStatements.incrementAndGet();
+                        return cachedStatement;
+                    })
+                    .orElseGet(() -> prepareAndCacheStatement(sql));
+                checkedOutStatements.add(statement);
+
+                return statement.checkOut(connectionProxy, returned);
+            } catch (final SqlException sqlException) {
+                throw (SQLException) sqlException.getCause();
+            }
+        }
+
+        /**
+         * Prepare a statement on the physical connection and cache it, unless a statement with the same SQL text is
+         * already cached.
+         *
+         * @param sql the SQL text of the statement.
+         * @return the statement prepared, already marked as in use.
+         * @throws SqlException if the statement cannot be prepared.
+         */
+        private CachedStatement prepareAndCacheStatement(final String sql) throws SqlException {
+            try {
+                final CachedStatement cachedStatement = new CachedStatement(physicalConnection.prepareStatement(sql));
+                numberOfPreparedStatements.incrementAndGet();
+
+                Optional
+                    .ofNullable(statementCache.putIfAbsent(sql, cachedStatement))
+                    .ifPresent(unused -> cachedStatement.evict());
+
+                return cachedStatement;
+            } catch (final SQLException sqlException) {
+                throw new SqlException(sqlException);
+            }
+        }
+
+    }
+
+    /**
+     * A statement kept open on a physical connection, which is handed out to one caller at a time.
+     * It is only used by the thread which borrowed its connection.
+     */
+    private static class CachedStatement {
+
+        private final PreparedStatement physicalStatement;
+        private final int defaultFetchSize;
+        private final int defaultMaxRows;
+        private final int defaultQueryTimeout;
+        private boolean inUse = true;
+        private boolean evicted = false;
+
+        /**
+         * Wraps a newly prepared statement, which is in use by the caller who prepared it, and remembers the settings it
+         * was prepared with.
+         *
+         * @param physicalStatement the statement prepared on the physical connection.
+         * @throws SQLException if the settings of the statement cannot be read.
+         */
+        private CachedStatement(final PreparedStatement physicalStatement) throws SQLException {
+            this.physicalStatement = physicalStatement;
+            this.defaultFetchSize = physicalStatement.getFetchSize();
+            this.defaultMaxRows = physicalStatement.getMaxRows();
+            this.defaultQueryTimeout = physicalStatement.getQueryTimeout();
+        }
+
+        private boolean isInUse() {
+            return inUse;
+        }
+
+        /**
+         * Hand out the statement through a proxy which keeps it open when closed. The proxy cannot be used anymore once it
+         * is closed or once its connection is returned, as the statement is then taken back by the pool.
+         *
+         * @param connectionProxy the borrowed connection, returned by the statement as its connection.
+         * @param returned        whether the borrowed connection was already returned to the pool.
+         * @return the proxy of the statement.
+         */
+        private PreparedStatement checkOut(final Connection connectionProxy, final AtomicBoolean returned) {
+            final AtomicBoolean closed = new AtomicBoolean(false);
+            final BooleanSupplier unusable = () -> closed.get() || returned.get();
+            inUse = true;
+
+            return (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                (proxy, method, arguments) -> switch (method.getName()) {
+                    case "close" -> {
+                        Optional
+                            .of(!returned.get() && closed.compareAndSet(false, true))
+                            .filter(Boolean::booleanValue)
+                            .ifPresent(unused -> checkIn());
+                        yield null;
+                    }
+                    case "isClosed" -> unusable.getAsBoolean() || physicalStatement.isClosed();
+                    case "getConnection" -> connectionProxy;
+                    case "equals" -> proxy == arguments[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "toString" -> "Cached" + physicalStatement;
+                    default -> forward(physicalStatement, unusable, STATEMENT_CLOSED_MESSAGE, method, arguments);
+                }
+            );
+        }
+
+        /**
+         * Take back the statement from its caller, closing its current result set, clearing its parameters and pending
+         * batch, and restoring its fetch size, maximum number of rows and query timeout, so that nothing carries over to
+         * the next caller. A statement which cannot be reset, or which was evicted from the cache while in use, is closed.
+         */
+        private void checkIn() {
+            try {
+                Optional
+                    .ofNullable(physicalStatement.getResultSet())
+                    .ifPresent(resultSet -> {
+                        try {
+                            resultSet.close();
+                        } catch (final SQLException sqlException) {
+                            throw new SqlException(sqlException);
+                        }
+                    });
+                physicalStatement.clearParameters();
+                physicalStatement.clearBatch();
+                physicalStatement.setFetchSize(defaultFetchSize);
+                physicalStatement.setMaxRows(defaultMaxRows);
+                physicalStatement.setQueryTimeout(defaultQueryTimeout);
+            } catch (final SQLException | SqlException exception) {
+                evicted = true;
+            }
+            inUse = false;
+
+            Optional
+                .of(evicted)
+                .filter(Boolean::booleanValue)
+                .ifPresent(unused -> closePhysicalStatement());
+        }
+
+        /**
+         * Mark the statement as removed from the cache, closing it if no caller uses it anymore.
+         */
+        private void evict() {
+            evicted = true;
+
+            Optional
+                .of(inUse)
+                .filter(isInUse -> !isInUse)
+                .ifPresent(unused -> closePhysicalStatement());
+        }
+
+        /**
+         * Close the statement on the physical connection.
+         * A failure is ignored, as the statement is not going to be used anymore.
+         */
+        private void closePhysicalStatement() {
+            try {
+                physicalStatement.close();
+            } catch (final SQLException ignored) {
+                // the statement is discarded anyway
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,36 @@
+package ro.ubb.olympics.repository.jdbc;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Duration;
+
+/**
+ * A snapshot of the usage of a connection pool.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ConnectionPoolMetrics {
+
+    private final int activeConnections;
+    private final int idleConnections;
+    private final long numberOfAcquisitions;
+    private final long numberOfTimeouts;
+    private final long numberOfCreatedConnections;
+    private final long numberOfEvictedConnections;
+    private final long numberOfBrokenConnections;
+    private final Duration totalWaitTime;
+    private final Duration maximumWaitTime;
+    private final long numberOfPreparedStatements;
+    private final long numberOfReusedStatements;
+
+    /**
+     * @return the average time a caller waited for a connection, or zero if no connection was acquired yet.
+     */
+    public Duration getAverageWaitTime() {
+        return Duration.ofNanos(totalWaitTime.toNanos() / Math.max(1, numberOfAcquisitions));
+    }
+
+}
@@ -0,0 +1,65 @@
+package ro.ubb.olympics.repository.jdbc;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Duration;
+
+/**
+ * The settings of a connection pool.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ConnectionPoolSettings {
+
+    /**
+     * The maximum number of connections opened at the same time, borrowed or idle.
+     */
+    private final int maximumPoolSize;
+
+    /**
+     * The maximum time a caller waits for a connection when all of them are borrowed.
+     */
+    private final Duration maximumWait;
+
+    /**
+     * The time after which an idle connection is closed.
+     */
+    private final Duration idleTimeout;
+
+    /**
+     * The time a connection may stay idle before it is validated again when it is borrowed.
+     */
+    private final Duration validationInterval;
+
+    /**
+     * The maximum time a validation query may take before the connection is considered broken.
+     */
+    private final Duration validationTimeout;
+
+    /**
+     * The maximum number of prepared statements kept open for reuse on each connection, 0 to disable the cache.
+     */
+    private final int statementCacheSize;
+
+    /**
+     * Build the settings used when none are specified: at most 10 connections, a 30 seconds wait, a 10 minutes idle
+     * timeout, validation of the connections idle for more than half a second, with a 5 seconds timeout, and up to 32
+     * cached statements per connection.
+     *
+     * @return the default settings.
+     */
+    public static ConnectionPoolSettings defaults() {
+        return new ConnectionPoolSettings(
+            10,
+            Duration.ofSeconds(30),
+            Duration.ofMinutes(10),
+            Duration.ofMillis(500),
+            Duration.ofSeconds(5),
+            32
+        );
+    }
+
+}
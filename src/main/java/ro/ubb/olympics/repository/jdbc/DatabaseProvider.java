@@ -1,26 +1,133 @@
 package ro.ubb.olympics.repository.jdbc;
 
-import lombok.Data;
+import lombok.Getter;
 import ro.ubb.olympics.exception.SqlException;
 import ro.ubb.olympics.utils.Pair;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 /**
  * Database provider.
  * It holds the database credentials and useful methods for DB interaction.
+ * <p>
+ * The connections are borrowed from a bounded pool, so the statements do not pay for a new connection each; closing a
+ * connection returns it to the pool. Each pooled connection caches its prepared statements by SQL text, so preparing
+ * the same SQL again reuses the statement already parsed. The pool is released when the provider is closed.
+ * <p>
+ * Queries are streamed: their rows are fetched a few at a time through a server-side cursor instead of being buffered
+ * by the driver all at once.
  */
-@Data
-public class DatabaseProvider {
+public class DatabaseProvider implements AutoCloseable {
 
+    @Getter
     private final String url;
+
+    @Getter
     private final String user;
+
+    @Getter
     private final String password;
 
+    /**
+     * The number of rows fetched in a round trip when none is specified.
+     */
+    public static final int DEFAULT_FETCH_SIZE = 1000;
+
+    private final ConnectionPool connectionPool;
+
+    @Getter
+    private final int fetchSize;
+
+    /**
+     * Work done on a connection inside a transaction.
+     */
+    @FunctionalInterface
+    public interface Transaction {
+
+        /**
+         * Execute the work of the transaction.
+         *
+         * @param connection the connection on which the transaction is open.
+         * @throws SQLException if a database access error occurs.
+         */
+        void execute(final Connection connection) throws SQLException;
+
+    }
+
+    /**
+     * Consumer of the rows of a query.
+     */
+    @FunctionalInterface
+    public interface RowConsumer {
+
+        /**
+         * Consume the current row of a result set.
+         *
+         * @param resultSet the result set, positioned on the row to be consumed.
+         * @throws SQLException if a database access error occurs.
+         */
+        void accept(final ResultSet resultSet) throws SQLException;
+
+    }
+
+    /**
+     * Initializes the provider with a connection pool using the default settings.
+     *
+     * @param url      the URL of the database.
+     * @param user     the user connecting to the database.
+     * @param password the password of the user.
+     */
+    public DatabaseProvider(final String url, final String user, final String password) {
+        this(url, user, password, ConnectionPoolSettings.defaults());
+    }
+
+    /**
+     * Initializes the provider with a connection pool using the given settings.
+     *
+     * @param url                    the URL of the database.
+     * @param user                   the user connecting to the database.
+     * @param password               the password of the user.
+     * @param connectionPoolSettings the settings of the connection pool.
+     */
+    public DatabaseProvider(final String url, final String user, final String password, final ConnectionPoolSettings connectionPoolSettings) {
+        this(url, user, password, connectionPoolSettings, DEFAULT_FETCH_SIZE);
+    }
+
+    /**
+     * Initializes the provider with a connection pool using the given settings and the given fetch size for queries.
+     *
+     * @param url                    the URL of the database.
+     * @param user                   the user connecting to the database.
+     * @param password               the password of the user.
+     * @param connectionPoolSettings the settings of the connection pool.
+     * @param fetchSize              the number of rows fetched in a round trip when streaming the rows of a query.
+     */
+    public DatabaseProvider(final String url, final String user, final String password, final ConnectionPoolSettings connectionPoolSettings, final int fetchSize) {
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.fetchSize = fetchSize;
+        this.connectionPool = new ConnectionPool(() -> DriverManager.getConnection(url, user, password), connectionPoolSettings);
+    }
+
+    /**
+     * Borrow a connection from the pool. It must be closed to be returned to the pool.
+     *
+     * @return the connection borrowed.
+     * @throws SqlException if no connection is available.
+     */
+    public Connection getConnection() throws SqlException {
+        return connectionPool.getConnection();
+    }
+
     /**
      * Create and return a PreparedStatement and its associated connection based on an SQL string and the
      * list of values that will replace the placeholders in the SQL string.
@@ -30,24 +137,199 @@ public class DatabaseProvider {
      * @return a pair containing a PreparedStatement and its associated connection representing the required SQL string
      */
     public Pair<Connection, PreparedStatement> createPreparedStatement(final String sql, final Object... values) {
+        final Connection connection = connectionPool.getConnection();
         try {
-            final Connection connection = DriverManager.getConnection(url, user, password);
             final PreparedStatement preparedStatement = connection.prepareStatement(sql);
-
-            IntStream
-                .rangeClosed(1, values.length)
-                .forEach(index -> {
-                    try {
-                        preparedStatement.setObject(index, values[index - 1]);
-                    } catch (SQLException sqlException) {
-                        throw new SqlException(sqlException);
-                    }
-                });
+            setParameters(preparedStatement, values);
 
             return new Pair<>(connection, preparedStatement);
+        } catch (SQLException sqlException) {
+            closeQuietly(connection);
+            throw new SqlException(sqlException);
+        } catch (SqlException sqlException) {
+            closeQuietly(connection);
+            throw sqlException;
+        }
+    }
+
+    /**
+     * Replace the placeholders of a PreparedStatement with the given values.
+     *
+     * @param preparedStatement the statement.
+     * @param values            the values to replace the placeholders, in order.
+     * @throws SqlException if a value cannot be set.
+     */
+    public static void setParameters(final PreparedStatement preparedStatement, final Object... values) throws SqlException {
+        IntStream
+            .rangeClosed(1, values.length)
+            .forEach(index -> {
+                try {
+                    preparedStatement.setObject(index, values[index - 1]);
+                } catch (SQLException sqlException) {
+                    throw new SqlException(sqlException);
+                }
+            });
+    }
+
+    /**
+     * Execute some work on a single connection, inside a transaction which is committed if the work completes and rolled
+     * back if it fails.
+     *
+     * @param transaction the work to be executed.
+     * @throws SqlException if the work fails or the transaction cannot be committed.
+     */
+    public void executeInTransaction(final Transaction transaction) throws SqlException {
+        try (final Connection connection = connectionPool.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                transaction.execute(connection);
+                connection.commit();
+            } catch (final SQLException | RuntimeException exception) {
+                connection.rollback();
+                throw exception;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (final SQLException sqlException) {
+            throw new SqlException(sqlException);
+        }
+    }
+
+    /**
+     * Execute an SQL command which does not return a result set.
+     *
+     * @param sql    the SQL command.
+     * @param values the values to replace the placeholders in the SQL command.
+     * @return the number of rows affected by the command.
+     * @throws SqlException if the command fails.
+     */
+    @SuppressWarnings("try")
+    public int executeUpdate(final String sql, final Object... values) throws SqlException {
+        final Pair<Connection, PreparedStatement> connectionAndStatement = createPreparedStatement(sql, values);
+        try (
+            final Connection ignored = connectionAndStatement.getFirst();
+            final PreparedStatement preparedStatement = connectionAndStatement.getSecond()
+        ) {
+            return preparedStatement.executeUpdate();
+        } catch (SQLException sqlException) {
+            throw new SqlException(sqlException);
+        }
+    }
+
+    /**
+     * Execute an SQL command once for each set of values, in JDBC batches, inside a single transaction.
+     *
+     * @param sql                 the SQL command.
+     * @param batchSize           the number of commands sent to the database at once.
+     * @param valuesOfEachCommand the values to replace the placeholders in the SQL command, for each execution.
+     * @throws SqlException if any of the commands fails, in which case none of them is applied.
+     */
+    public void executeBatch(final String sql, final int batchSize, final List<Object[]> valuesOfEachCommand) throws SqlException {
+        Optional
+            .of(valuesOfEachCommand)
+            .filter(commands -> !commands.isEmpty())
+            .ifPresent(commands -> executeInTransaction(connection -> {
+                try (final PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+                    IntStream
+                        .rangeClosed(1, commands.size())
+                        .forEach(count -> {
+                            try {
+                                setParameters(preparedStatement, commands.get(count - 1));
+                                preparedStatement.addBatch();
+
+                                Optional
+                                    .of(count)
+                                    .filter(batchedCommands -> batchedCommands % batchSize == 0 || batchedCommands == commands.size())
+                                    .ifPresent(unused -> {
+                                        try {
+                                            preparedStatement.executeBatch();
+                                        } catch (SQLException sqlException) {
+                                            throw new SqlException(sqlException);
+                                        }
+                                    });
+                            } catch (SQLException sqlException) {
+                                throw new SqlException(sqlException);
+                            }
+                        });
+                }
+            }));
+    }
+
+    /**
+     * Execute a query and pass each of its rows to a consumer, as they are fetched.
+     * <p>
+     * The query runs inside a transaction with a fetch size set on its statement, which makes the PostgreSQL driver read
+     * the rows through a cursor, fetch size rows at a time, instead of buffering the whole result set before returning
+     * the first row.
+     *
+     * @param sql         the SQL query.
+     * @param rowConsumer the consumer of the rows.
+     * @param values      the values to replace the placeholders in the SQL query.
+     * @throws SqlException if the query fails or a row cannot be consumed.
+     */
+    public void executeQuery(final String sql, final RowConsumer rowConsumer, final Object... values) throws SqlException {
+        executeInTransaction(connection -> {
+            try (final PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+                setParameters(preparedStatement, values);
+                preparedStatement.setFetchSize(fetchSize);
+
+                try (final ResultSet resultSet = preparedStatement.executeQuery()) {
+                    Stream
+                        .generate(() -> nextRow(resultSet))
+                        .takeWhile(Boolean::booleanValue)
+                        .forEach(unused -> {
+                            try {
+                                rowConsumer.accept(resultSet);
+                            } catch (SQLException sqlException) {
+                                throw new SqlException(sqlException);
+                            }
+                        });
+                }
+            }
+        });
+    }
+
+    /**
+     * Move a result set to its next row.
+     *
+     * @param resultSet the result set.
+     * @return true if the result set is positioned on a row, false if there are no more rows.
+     * @throws SqlException if a database access error occurs.
+     */
+    private static boolean nextRow(final ResultSet resultSet) throws SqlException {
+        try {
+            return resultSet.next();
         } catch (SQLException sqlException) {
             throw new SqlException(sqlException);
         }
     }
 
-}
\ No newline at end of file
+    /**
+     * Return a connection to the pool after a failure, keeping the original failure as the one reported.
+     *
+     * @param connection the connection to be returned.
+     */
+    private static void closeQuietly(final Connection connection) {
+        try {
+            connection.close();
+        } catch (final SQLException ignored) {
+            // the original failure is more relevant
+        }
+    }
+
+    /**
+     * @return a snapshot of the usage of the connection pool.
+     */
+    public ConnectionPoolMetrics getConnectionPoolMetrics() {
+        return connectionPool.getMetrics();
+    }
+
+    /**
+     * Close the connection pool.
+     */
+    @Override
+    public void close() {
+        connectionPool.close();
+    }
+
+}
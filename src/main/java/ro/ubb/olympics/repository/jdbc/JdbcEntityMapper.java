@@ -0,0 +1,119 @@
+package ro.ubb.olympics.repository.jdbc;
+
+import ro.ubb.olympics.domain.BaseEntity;
+
+import java.sql.ResultSet;
+
+/**
+ * Mapping between the entities of a type and the rows of a table: the SQL commands operating on the table and the
+ * conversion of entities to command parameters and of rows to entities.
+ * <p>
+ * The SQL commands only depend on the name of the table, so the repositories build them once and only compute their
+ * parameters for each entity, which lets the statements be reused from the statement cache of the pooled connections.
+ *
+ * @param <ID> the type of the ID of the entities
+ * @param <T>  the type of the entities
+ */
+public interface JdbcEntityMapper<ID, T extends BaseEntity<ID>> {
+
+    /**
+     * Load and build an entity from the result set.
+     *
+     * @param resultSet the result set used to build the entity, positioned on a row selected by one of the SELECT
+     *                  commands of this mapper.
+     * @return the entity built from the result set.
+     */
+    T loadEntity(final ResultSet resultSet);
+
+    /**
+     * Build the SQL CREATE TABLE command used to create the table if it does not exist.
+     *
+     * @param tableName the name of the table.
+     * @return the SQL CREATE TABLE command.
+     */
+    String buildCreateTableIfNotExistsSql(final String tableName);
+
+    /**
+     * Build the SQL SELECT command used to load all the entities, listing the columns explicitly in the order of the
+     * column indexes used by {@link #loadEntity(ResultSet)}.
+     *
+     * @param tableName the name of the table.
+     * @return the SQL SELECT command.
+     */
+    String buildSelectAllSql(final String tableName);
+
+    /**
+     * Build the SQL SELECT command used to load the first page of the entities, in ascending order of their IDs, with a
+     * placeholder for the maximum number of entities of the page.
+     *
+     * @param tableName the name of the table.
+     * @return the SQL SELECT command.
+     */
+    String buildSelectFirstPageSql(final String tableName);
+
+    /**
+     * Build the SQL SELECT command used to load the page of the entities following a given ID, in ascending order of
+     * their IDs, with placeholders for the ID and for the maximum number of entities of the page.
+     *
+     * @param tableName the name of the table.
+     * @return the SQL SELECT command.
+     */
+    String buildSelectNextPageSql(final String tableName);
+
+    /**
+     * Build the SQL SELECT command used to load the entity with a given ID, with a placeholder for the ID.
+     *
+     * @param tableName the name of the table.
+     * @return the SQL SELECT command.
+     */
+    String buildSelectByIdSql(final String tableName);
+
+    /**
+     * Build the SQL INSERT command, with placeholders for the fields of the entity.
+     *
+     * @param tableName the name of the table.
+     * @return the SQL INSERT command.
+     */
+    String buildInsertSql(final String tableName);
+
+    /**
+     * Compute the values to replace the placeholders of the SQL INSERT command for a given entity.
+     *
+     * @param entity the entity to be inserted
+     * @return the values of the placeholders, in order.
+     */
+    Object[] getInsertParameters(final T entity);
+
+    /**
+     * Build the SQL DELETE command, with a placeholder for the ID of the entity.
+     *
+     * @param tableName the name of the table.
+     * @return the SQL DELETE command.
+     */
+    String buildDeleteSql(final String tableName);
+
+    /**
+     * Compute the values to replace the placeholders of the SQL DELETE command for a given entity ID.
+     *
+     * @param id the id of the entity to be deleted
+     * @return the values of the placeholders, in order.
+     */
+    Object[] getDeleteParameters(final ID id);
+
+    /**
+     * Build the SQL UPDATE command, with placeholders for the fields of the entity.
+     *
+     * @param tableName the name of the table.
+     * @return the SQL UPDATE command.
+     */
+    String buildUpdateSql(final String tableName);
+
+    /**
+     * Compute the values to replace the placeholders of the SQL UPDATE command for a given entity.
+     *
+     * @param entity the entity to be updated
+     * @return the values of the placeholders, in order.
+     */
+    Object[] getUpdateParameters(final T entity);
+
+}
@@ -0,0 +1,189 @@
+package ro.ubb.olympics.repository.jdbc.mapper;
+
+import ro.ubb.olympics.domain.Athlete;
+import ro.ubb.olympics.exception.SqlException;
+import ro.ubb.olympics.repository.jdbc.JdbcEntityMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Mapping between athlete entities and the rows of a athlete table.
+ */
+public class AthleteJdbcMapper implements JdbcEntityMapper<Long, Athlete> {
+
+    @Override
+    public Athlete loadEntity(final ResultSet resultSet) {
+        try {
+            return new Athlete(
+                resultSet.getLong(EntityFieldColumnNames.ID.getColumnIndex()),
+                resultSet.getString(EntityFieldColumnNames.FIRST_NAME.getColumnIndex()),
+                resultSet.getString(EntityFieldColumnNames.LAST_NAME.getColumnIndex()),
+                resultSet.getString(EntityFieldColumnNames.COUNTRY.getColumnIndex()),
+                resultSet.getInt(EntityFieldColumnNames.AGE.getColumnIndex())
+            );
+        } catch (SQLException sqlException) {
+            throw new SqlException(sqlException);
+        }
+    }
+
+    @Override
+    public String buildCreateTableIfNotExistsSql(final String tableName) {
+        return String.format(
+            "CREATE TABLE IF NOT EXISTS %s (" +
+                "   %s %s," +
+                "   %s %s," +
+                "   %s %s," +
+                "   %s %s, " +
+                "   %s %s" +
+                ");",
+            tableName,
+            EntityFieldColumnNames.ID.getColumnName(), EntityFieldColumnNames.ID.getProperties(),
+            EntityFieldColumnNames.FIRST_NAME.getColumnName(), EntityFieldColumnNames.FIRST_NAME.getProperties(),
+            EntityFieldColumnNames.LAST_NAME.getColumnName(), EntityFieldColumnNames.LAST_NAME.getProperties(),
+            EntityFieldColumnNames.COUNTRY.getColumnName(), EntityFieldColumnNames.COUNTRY.getProperties(),
+            EntityFieldColumnNames.AGE.getColumnName(), EntityFieldColumnNames.AGE.getProperties()
+        );
+    }
+
+    @Override
+    public String buildSelectAllSql(final String tableName) {
+        return String.format(
+            "SELECT %s, %s, %s, %s, %s FROM %s",
+            EntityFieldColumnNames.ID.getColumnName(),
+            EntityFieldColumnNames.FIRST_NAME.getColumnName(),
+            EntityFieldColumnNames.LAST_NAME.getColumnName(),
+            EntityFieldColumnNames.COUNTRY.getColumnName(),
+            EntityFieldColumnNames.AGE.getColumnName(),
+            tableName
+        );
+    }
+
+    @Override
+    public String buildSelectFirstPageSql(final String tableName) {
+        return buildSelectAllSql(tableName) + String.format(
+            " ORDER BY %s LIMIT ?",
+            EntityFieldColumnNames.ID.getColumnName()
+        );
+    }
+
+    @Override
+    public String buildSelectNextPageSql(final String tableName) {
+        return buildSelectAllSql(tableName) + String.format(
+            " WHERE %s > ? ORDER BY %s LIMIT ?",
+            EntityFieldColumnNames.ID.getColumnName(),
+            EntityFieldColumnNames.ID.getColumnName()
+        );
+    }
+
+    @Override
+    public String buildSelectByIdSql(final String tableName) {
+        return String.format(
+            "SELECT %s, %s, %s, %s, %s FROM %s WHERE %s = ?",
+            EntityFieldColumnNames.ID.getColumnName(),
+            EntityFieldColumnNames.FIRST_NAME.getColumnName(),
+            EntityFieldColumnNames.LAST_NAME.getColumnName(),
+            EntityFieldColumnNames.COUNTRY.getColumnName(),
+            EntityFieldColumnNames.AGE.getColumnName(),
+            tableName,
+            EntityFieldColumnNames.ID.getColumnName()
+        );
+    }
+
+    @Override
+    public String buildInsertSql(final String tableName) {
+        return String.format(
+            "INSERT INTO %s (%s, %s, %s, %s, %s) VALUES (?, ?, ?, ?, ?)",
+            tableName,
+            EntityFieldColumnNames.ID.getColumnName(),
+            EntityFieldColumnNames.FIRST_NAME.getColumnName(),
+            EntityFieldColumnNames.LAST_NAME.getColumnName(),
+            EntityFieldColumnNames.COUNTRY.getColumnName(),
+            EntityFieldColumnNames.AGE.getColumnName()
+        );
+    }
+
+    @Override
+    public Object[] getInsertParameters(final Athlete entity) {
+        return new Object[]{
+            entity.getId(),
+            entity.getFirstName(),
+            entity.getLastName(),
+            entity.getCountry(),
+            entity.getAge()
+        };
+    }
+
+    @Override
+    public String buildDeleteSql(final String tableName) {
+        return String.format(
+            "DELETE FROM %s WHERE %s = ?",
+            tableName,
+            EntityFieldColumnNames.ID.getColumnName()
+        );
+    }
+
+    @Override
+    public Object[] getDeleteParameters(final Long id) {
+        return new Object[]{
+            id
+        };
+    }
+
+    @Override
+    public String buildUpdateSql(final String tableName) {
+        return String.format(
+            "UPDATE %s SET %s = ?, %s = ?, %s = ?, %s=?  WHERE %s = ?",
+            tableName,
+            EntityFieldColumnNames.FIRST_NAME.getColumnName(),
+            EntityFieldColumnNames.LAST_NAME.getColumnName(),
+            EntityFieldColumnNames.COUNTRY.getColumnName(),
+            EntityFieldColumnNames.AGE.getColumnName(),
+            EntityFieldColumnNames.ID.getColumnName()
+        );
+    }
+
+    @Override
+    public Object[] getUpdateParameters(final Athlete entity) {
+        return new Object[]{
+            entity.getFirstName(),
+            entity.getLastName(),
+            entity.getCountry(),
+            entity.getAge(),
+            entity.getId()
+        };
+    }
+
+    private enum EntityFieldColumnNames {
+
+        ID(1, "id", "INT PRIMARY KEY NOT NULL"),
+        FIRST_NAME(2, "firstName", "VARCHAR(20) NOT NULL"),
+        LAST_NAME(3, "lastName", "VARCHAR(20) NOT NULL"),
+        COUNTRY(4, "country", "VARCHAR(20) NOT NULL"),
+        AGE(5, "age", "INT NOT NULL");
+
+        private final String columnName;
+        private final String properties;
+        private final int columnIndex;
+
+        EntityFieldColumnNames(final int columnIndex, final String columnName, final String properties) {
+            this.columnName = columnName;
+            this.properties = properties;
+            this.columnIndex = columnIndex;
+        }
+
+        public String getColumnName() {
+            return columnName;
+        }
+
+        public String getProperties() {
+            return properties;
+        }
+
+        public int getColumnIndex() {
+            return columnIndex;
+        }
+
+    }
+
+}
@@ -0,0 +1,183 @@
+package ro.ubb.olympics.repository.jdbc.mapper;
+
+import ro.ubb.olympics.domain.Competition;
+import ro.ubb.olympics.exception.SqlException;
+import ro.ubb.olympics.repository.jdbc.JdbcEntityMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Mapping between competition entities and the rows of a competition table.
+ */
+public class CompetitionJdbcMapper implements JdbcEntityMapper<Long, Competition> {
+
+    @Override
+    public Competition loadEntity(final ResultSet resultSet) {
+        try {
+            return new Competition(
+                resultSet.getLong(EntityFieldColumnNames.ID.getColumnName()),
+                new java.util.Date(resultSet.getDate(EntityFieldColumnNames.DATE.getColumnName()).getTime()),
+                resultSet.getString(EntityFieldColumnNames.LOCATION.getColumnName()),
+                resultSet.getString(EntityFieldColumnNames.NAME.getColumnName()),
+                resultSet.getString(EntityFieldColumnNames.DESCRIPTION.getColumnName())
+            );
+        } catch (SQLException sqlException) {
+            throw new SqlException(sqlException);
+        }
+    }
+
+    @Override
+    public String buildCreateTableIfNotExistsSql(final String tableName) {
+        return String.format(
+            "CREATE TABLE IF NOT EXISTS %s (" +
+                "   %s %s," +
+                "   %s %s," +
+                "   %s %s," +
+                "   %s %s," +
+                "   %s %s" +
+                ");",
+            tableName,
+            EntityFieldColumnNames.ID.getColumnName(), EntityFieldColumnNames.ID.getProperties(),
+            EntityFieldColumnNames.DATE.getColumnName(), EntityFieldColumnNames.DATE.getProperties(),
+            EntityFieldColumnNames.LOCATION.getColumnName(), EntityFieldColumnNames.LOCATION.getProperties(),
+            EntityFieldColumnNames.NAME.getColumnName(), EntityFieldColumnNames.NAME.getProperties(),
+            EntityFieldColumnNames.DESCRIPTION.getColumnName(), EntityFieldColumnNames.DESCRIPTION.getProperties()
+        );
+    }
+
+    @Override
+    public String buildSelectAllSql(final String tableName) {
+        return String.format(
+            "SELECT %s, %s, %s, %s, %s FROM %s",
+            EntityFieldColumnNames.ID.getColumnName(),
+            EntityFieldColumnNames.DATE.getColumnName(),
+            EntityFieldColumnNames.LOCATION.getColumnName(),
+            EntityFieldColumnNames.NAME.getColumnName(),
+            EntityFieldColumnNames.DESCRIPTION.getColumnName(),
+            tableName
+        );
+    }
+
+    @Override
+    public String buildSelectFirstPageSql(final String tableName) {
+        return buildSelectAllSql(tableName) + String.format(
+            " ORDER BY %s LIMIT ?",
+            EntityFieldColumnNames.ID.getColumnName()
+        );
+    }
+
+    @Override
+    public String buildSelectNextPageSql(final String tableName) {
+        return buildSelectAllSql(tableName) + String.format(
+            " WHERE %s > ? ORDER BY %s LIMIT ?",
+            EntityFieldColumnNames.ID.getColumnName(),
+            EntityFieldColumnNames.ID.getColumnName()
+        );
+    }
+
+    @Override
+    public String buildSelectByIdSql(final String tableName) {
+        return String.format(
+            "SELECT %s, %s, %s, %s, %s FROM %s WHERE %s = ?",
+            EntityFieldColumnNames.ID.getColumnName(),
+            EntityFieldColumnNames.DATE.getColumnName(),
+            EntityFieldColumnNames.LOCATION.getColumnName(),
+            EntityFieldColumnNames.NAME.getColumnName(),
+            EntityFieldColumnNames.DESCRIPTION.getColumnName(),
+            tableName,
+            EntityFieldColumnNames.ID.getColumnName()
+        );
+    }
+
+    @Override
+    public String buildInsertSql(final String tableName) {
+        return String.format(
+            "INSERT INTO %s (%s, %s, %s, %s, %s) VALUES (?, ?, ?, ?, ?)",
+            tableName,
+            EntityFieldColumnNames.ID.getColumnName(),
+            EntityFieldColumnNames.DATE.getColumnName(),
+            EntityFieldColumnNames.LOCATION.getColumnName(),
+            EntityFieldColumnNames.NAME.getColumnName(),
+            EntityFieldColumnNames.DESCRIPTION.getColumnName()
+        );
+    }
+
+    @Override
+    public Object[] getInsertParameters(final Competition entity) {
+        return new Object[]{
+            entity.getId(),
+            new java.sql.Date(entity.getDate().getTime()),
+            entity.getLocation(),
+            entity.getName(),
+            entity.getDescription()
+        };
+    }
+
+    @Override
+    public String buildDeleteSql(final String tableName) {
+        return String.format(
+            "DELETE FROM %s WHERE %s = ?",
+            tableName,
+            EntityFieldColumnNames.ID.getColumnName()
+        );
+    }
+
+    @Override
+    public Object[] getDeleteParameters(final Long id) {
+        return new Object[]{
+            id
+        };
+    }
+
+    @Override
+    public String buildUpdateSql(final String tableName) {
+        return String.format(
+            "UPDATE %s SET %s = ?, %s = ?, %s = ?, %s = ? WHERE %s = ?",
+            tableName,
+            EntityFieldColumnNames.DATE.getColumnName(),
+            EntityFieldColumnNames.LOCATION.getColumnName(),
+            EntityFieldColumnNames.NAME.getColumnName(),
+            EntityFieldColumnNames.DESCRIPTION.getColumnName(),
+            EntityFieldColumnNames.ID.getColumnName()
+        );
+    }
+
+    @Override
+    public Object[] getUpdateParameters(final Competition entity) {
+        return new Object[]{
+            new java.sql.Date(entity.getDate().getTime()),
+            entity.getLocation(),
+            entity.getName(),
+            entity.getDescription(),
+            entity.getId()
+        };
+    }
+
+    private enum EntityFieldColumnNames {
+
+        ID("id", "INT PRIMARY KEY NOT NULL"),
+        DATE("competitionDate", "DATE NOT NULL"),
+        LOCATION("location", "VARCHAR(255) NOT NULL"),
+        NAME("name", "VARCHAR(255) NOT NULL"),
+        DESCRIPTION("description", "VARCHAR(255) NOT NULL");
+
+        private final String columnName;
+        private final String properties;
+
+        EntityFieldColumnNames(final String columnName, final String properties) {
+            this.columnName = columnName;
+            this.properties = properties;
+        }
+
+        public String getColumnName() {
+            return columnName;
+        }
+
+        public String getProperties() {
+            return properties;
+        }
+
+    }
+
+}
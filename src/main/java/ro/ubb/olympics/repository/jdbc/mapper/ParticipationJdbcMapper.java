@@ -0,0 +1,179 @@
+package ro.ubb.olympics.repository.jdbc.mapper;
+
+import ro.ubb.olympics.domain.Participation;
+import ro.ubb.olympics.exception.SqlException;
+import ro.ubb.olympics.repository.jdbc.JdbcEntityMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Mapping between participation entities and the rows of a participation table.
+ */
+public class ParticipationJdbcMapper implements JdbcEntityMapper<Long, Participation> {
+
+    @Override
+    public Participation loadEntity(final ResultSet resultSet) {
+        try {
+            return new Participation(
+                resultSet.getLong(EntityFieldColumnNames.ID.getColumnIndex()),
+                resultSet.getLong(EntityFieldColumnNames.ATHLETE_ID.getColumnIndex()),
+                resultSet.getLong(EntityFieldColumnNames.COMPETITION_ID.getColumnIndex()),
+                resultSet.getInt(EntityFieldColumnNames.RANK.getColumnIndex())
+            );
+        } catch (SQLException sqlException) {
+            throw new SqlException(sqlException);
+        }
+    }
+
+    @Override
+    public String buildCreateTableIfNotExistsSql(final String tableName) {
+        return String.format(
+            "CREATE TABLE IF NOT EXISTS %s (" +
+                "   %s %s," +
+                "   %s %s," +
+                "   %s %s," +
+                "   %s %s" +
+                ");",
+            tableName,
+            EntityFieldColumnNames.ID.getColumnName(), EntityFieldColumnNames.ID.getProperties(),
+            EntityFieldColumnNames.ATHLETE_ID.getColumnName(), EntityFieldColumnNames.ATHLETE_ID.getProperties(),
+            EntityFieldColumnNames.COMPETITION_ID.getColumnName(), EntityFieldColumnNames.COMPETITION_ID.getProperties(),
+            EntityFieldColumnNames.RANK.getColumnName(), EntityFieldColumnNames.RANK.getProperties()
+        );
+    }
+
+    @Override
+    public String buildSelectAllSql(final String tableName) {
+        return String.format(
+            "SELECT %s, %s, %s, %s FROM %s",
+            EntityFieldColumnNames.ID.getColumnName(),
+            EntityFieldColumnNames.COMPETITION_ID.getColumnName(),
+            EntityFieldColumnNames.ATHLETE_ID.getColumnName(),
+            EntityFieldColumnNames.RANK.getColumnName(),
+            tableName
+        );
+    }
+
+    @Override
+    public String buildSelectFirstPageSql(final String tableName) {
+        return buildSelectAllSql(tableName) + String.format(
+            " ORDER BY %s LIMIT ?",
+            EntityFieldColumnNames.ID.getColumnName()
+        );
+    }
+
+    @Override
+    public String buildSelectNextPageSql(final String tableName) {
+        return buildSelectAllSql(tableName) + String.format(
+            " WHERE %s > ? ORDER BY %s LIMIT ?",
+            EntityFieldColumnNames.ID.getColumnName(),
+            EntityFieldColumnNames.ID.getColumnName()
+        );
+    }
+
+    @Override
+    public String buildSelectByIdSql(final String tableName) {
+        return String.format(
+            "SELECT %s, %s, %s, %s FROM %s WHERE %s = ?",
+            EntityFieldColumnNames.ID.getColumnName(),
+            EntityFieldColumnNames.COMPETITION_ID.getColumnName(),
+            EntityFieldColumnNames.ATHLETE_ID.getColumnName(),
+            EntityFieldColumnNames.RANK.getColumnName(),
+            tableName,
+            EntityFieldColumnNames.ID.getColumnName()
+        );
+    }
+
+    @Override
+    public String buildInsertSql(final String tableName) {
+        return String.format(
+            "INSERT INTO %s (%s, %s, %s, %s) VALUES (?, ?, ?, ?)",
+            tableName,
+            EntityFieldColumnNames.ID.getColumnName(),
+            EntityFieldColumnNames.ATHLETE_ID.getColumnName(),
+            EntityFieldColumnNames.COMPETITION_ID.getColumnName(),
+            EntityFieldColumnNames.RANK.getColumnName()
+        );
+    }
+
+    @Override
+    public Object[] getInsertParameters(final Participation entity) {
+        return new Object[]{
+            entity.getId(),
+            entity.getAthleteId(),
+            entity.getCompetitionId(),
+            entity.getRank()
+        };
+    }
+
+    @Override
+    public String buildDeleteSql(final String tableName) {
+        return String.format(
+            "DELETE FROM %s WHERE %s = ?",
+            tableName,
+            EntityFieldColumnNames.ID.getColumnName()
+        );
+    }
+
+    @Override
+    public Object[] getDeleteParameters(final Long id) {
+        return new Object[]{
+            id
+        };
+    }
+
+    @Override
+    public String buildUpdateSql(final String tableName) {
+        return String.format(
+            "UPDATE %s SET %s = ?, %s = ?, %s = ? WHERE %s = ?",
+            tableName,
+            EntityFieldColumnNames.ATHLETE_ID.getColumnName(),
+            EntityFieldColumnNames.COMPETITION_ID.getColumnName(),
+            EntityFieldColumnNames.RANK.getColumnName(),
+            EntityFieldColumnNames.ID.getColumnName()
+        );
+    }
+
+    @Override
+    public Object[] getUpdateParameters(final Participation entity) {
+        return new Object[]{
+            entity.getAthleteId(),
+            entity.getCompetitionId(),
+            entity.getRank(),
+            entity.getId()
+        };
+    }
+
+    private enum EntityFieldColumnNames {
+
+        ID(1, "id", "INT PRIMARY KEY NOT NULL"),
+        ATHLETE_ID(3, "athleteId", "INT NOT NULL REFERENCES Athlete"),
+        COMPETITION_ID(2, "competitionId", "INT NOT NULL REFERENCES Competition"),
+        RANK(4, "rank", "INT NOT NULL");
+
+        private final String columnName;
+        private final String properties;
+        private final int columnIndex;
+
+        EntityFieldColumnNames(final int columnIndex, final String columnName, final String properties) {
+            this.columnName = columnName;
+            this.properties = properties;
+            this.columnIndex = columnIndex;
+        }
+
+        public String getColumnName() {
+            return columnName;
+        }
+
+        public String getProperties() {
+            return properties;
+        }
+
+        public int getColumnIndex() {
+            return columnIndex;
+        }
+
+    }
+
+}
@@ -0,0 +1,163 @@
+package ro.ubb.olympics.repository.jdbc.mapper;
+
+import ro.ubb.olympics.domain.Sponsor;
+import ro.ubb.olympics.exception.SqlException;
+import ro.ubb.olympics.repository.jdbc.JdbcEntityMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Mapping between sponsor entities and the rows of a sponsor table.
+ */
+public class SponsorJdbcMapper implements JdbcEntityMapper<Long, Sponsor> {
+
+    @Override
+    public Sponsor loadEntity(final ResultSet resultSet) {
+        try {
+            return new Sponsor(
+                resultSet.getLong(EntityFieldColumnNames.ID.getColumnName()),
+                resultSet.getString(EntityFieldColumnNames.NAME.getColumnName()),
+                resultSet.getString(EntityFieldColumnNames.COUNTRY.getColumnName())
+            );
+        } catch (SQLException exception) {
+            throw new SqlException(exception);
+        }
+    }
+
+    @Override
+    public String buildCreateTableIfNotExistsSql(final String tableName) {
+        return String.format(
+            "CREATE TABLE IF NOT EXISTS %s (" +
+                "   %s %s," +
+                "   %s %s," +
+                "   %s %s" +
+                ");",
+            tableName,
+            EntityFieldColumnNames.ID.getColumnName(), EntityFieldColumnNames.ID.getProperties(),
+            EntityFieldColumnNames.NAME.getColumnName(), EntityFieldColumnNames.NAME.getProperties(),
+            EntityFieldColumnNames.COUNTRY.getColumnName(), EntityFieldColumnNames.COUNTRY.getProperties()
+        );
+    }
+
+    @Override
+    public String buildSelectAllSql(final String tableName) {
+        return String.format(
+            "SELECT %s, %s, %s FROM %s",
+            EntityFieldColumnNames.ID.getColumnName(),
+            EntityFieldColumnNames.NAME.getColumnName(),
+            EntityFieldColumnNames.COUNTRY.getColumnName(),
+            tableName
+        );
+    }
+
+    @Override
+    public String buildSelectFirstPageSql(final String tableName) {
+        return buildSelectAllSql(tableName) + String.format(
+            " ORDER BY %s LIMIT ?",
+            EntityFieldColumnNames.ID.getColumnName()
+        );
+    }
+
+    @Override
+    public String buildSelectNextPageSql(final String tableName) {
+        return buildSelectAllSql(tableName) + String.format(
+            " WHERE %s > ? ORDER BY %s LIMIT ?",
+            EntityFieldColumnNames.ID.getColumnName(),
+            EntityFieldColumnNames.ID.getColumnName()
+        );
+    }
+
+    @Override
+    public String buildSelectByIdSql(final String tableName) {
+        return String.format(
+            "SELECT %s, %s, %s FROM %s WHERE %s = ?",
+            EntityFieldColumnNames.ID.getColumnName(),
+            EntityFieldColumnNames.NAME.getColumnName(),
+            EntityFieldColumnNames.COUNTRY.getColumnName(),
+            tableName,
+            EntityFieldColumnNames.ID.getColumnName()
+        );
+    }
+
+    @Override
+    public String buildInsertSql(final String tableName) {
+        return String.format(
+            "INSERT INTO %s (%s, %s, %s) VALUES (?, ?, ?)",
+            tableName,
+            EntityFieldColumnNames.ID.getColumnName(),
+            EntityFieldColumnNames.NAME.getColumnName(),
+            EntityFieldColumnNames.COUNTRY.getColumnName()
+        );
+    }
+
+    @Override
+    public Object[] getInsertParameters(final Sponsor entity) {
+        return new Object[]{
+            entity.getId(),
+            entity.getName(),
+            entity.getCountry()
+        };
+    }
+
+    @Override
+    public String buildDeleteSql(final String tableName) {
+        return String.format(
+            "DELETE FROM %s WHERE %s = ?",
+            tableName,
+            EntityFieldColumnNames.ID.getColumnName()
+        );
+    }
+
+    @Override
+    public Object[] getDeleteParameters(final Long id) {
+        return new Object[]{
+            id
+        };
+    }
+
+    @Override
+    public String buildUpdateSql(final String tableName) {
+        return String.format(
+            "UPDATE %s SET %s = ?, %s = ? WHERE %s = ?",
+            tableName,
+            EntityFieldColumnNames.NAME.getColumnName(),
+            EntityFieldColumnNames.COUNTRY.getColumnName(),
+            EntityFieldColumnNames.ID.getColumnName()
+        );
+    }
+
+    @Override
+    public Object[] getUpdateParameters(final Sponsor entity) {
+        return new Object[]{
+            entity.getName(),
+            entity.getCountry(),
+            entity.getId()
+        };
+    }
+
+    private enum EntityFieldColumnNames {
+
+        ID("id", "INT PRIMARY KEY NOT NULL"),
+        NAME("name", "VARCHAR(255) NOT NULL"),
+        COUNTRY("country", "VARCHAR(255) NOT NULL");
+
+        private final String columnName;
+        private final String properties;
+
+        EntityFieldColumnNames(final String columnName, final String properties) {
+            this.columnName = columnName;
+            this.properties = properties;
+        }
+
+        public String getColumnName() {
+            return columnName;
+        }
+
+        public String getProperties() {
+            return properties;
+        }
+
+    }
+
+}
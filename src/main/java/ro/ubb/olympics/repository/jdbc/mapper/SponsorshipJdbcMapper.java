@@ -0,0 +1,179 @@
+package ro.ubb.olympics.repository.jdbc.mapper;
+
+import ro.ubb.olympics.domain.Sponsorship;
+import ro.ubb.olympics.exception.SqlException;
+import ro.ubb.olympics.repository.jdbc.JdbcEntityMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Mapping between sponsorship entities and the rows of a sponsorship table.
+ */
+public class SponsorshipJdbcMapper implements JdbcEntityMapper<Long, Sponsorship> {
+
+    @Override
+    public Sponsorship loadEntity(final ResultSet resultSet) {
+        try {
+            return new Sponsorship(
+                resultSet.getLong(EntityFieldColumnNames.ID.getColumnIndex()),
+                resultSet.getLong(EntityFieldColumnNames.COMPETITION_ID.getColumnIndex()),
+                resultSet.getLong(EntityFieldColumnNames.SPONSOR_ID.getColumnIndex()),
+                resultSet.getInt(EntityFieldColumnNames.MONEY_CONTRIBUTION.getColumnIndex())
+            );
+        } catch (SQLException sqlException) {
+            throw new SqlException(sqlException);
+        }
+    }
+
+    @Override
+    public String buildCreateTableIfNotExistsSql(final String tableName) {
+        return String.format(
+            "CREATE TABLE IF NOT EXISTS %s (" +
+                "   %s %s," +
+                "   %s %s," +
+                "   %s %s," +
+                "   %s %s" +
+                ");",
+            tableName,
+            EntityFieldColumnNames.ID.getColumnName(), EntityFieldColumnNames.ID.getProperties(),
+            EntityFieldColumnNames.COMPETITION_ID.getColumnName(), EntityFieldColumnNames.COMPETITION_ID.getProperties(),
+            EntityFieldColumnNames.SPONSOR_ID.getColumnName(), EntityFieldColumnNames.SPONSOR_ID.getProperties(),
+            EntityFieldColumnNames.MONEY_CONTRIBUTION.getColumnName(), EntityFieldColumnNames.MONEY_CONTRIBUTION.getProperties()
+        );
+    }
+
+    @Override
+    public String buildSelectAllSql(final String tableName) {
+        return String.format(
+            "SELECT %s, %s, %s, %s FROM %s",
+            EntityFieldColumnNames.ID.getColumnName(),
+            EntityFieldColumnNames.COMPETITION_ID.getColumnName(),
+            EntityFieldColumnNames.SPONSOR_ID.getColumnName(),
+            EntityFieldColumnNames.MONEY_CONTRIBUTION.getColumnName(),
+            tableName
+        );
+    }
+
+    @Override
+    public String buildSelectFirstPageSql(final String tableName) {
+        return buildSelectAllSql(tableName) + String.format(
+            " ORDER BY %s LIMIT ?",
+            EntityFieldColumnNames.ID.getColumnName()
+        );
+    }
+
+    @Override
+    public String buildSelectNextPageSql(final String tableName) {
+        return buildSelectAllSql(tableName) + String.format(
+            " WHERE %s > ? ORDER BY %s LIMIT ?",
+            EntityFieldColumnNames.ID.getColumnName(),
+            EntityFieldColumnNames.ID.getColumnName()
+        );
+    }
+
+    @Override
+    public String buildSelectByIdSql(final String tableName) {
+        return String.format(
+            "SELECT %s, %s, %s, %s FROM %s WHERE %s = ?",
+            EntityFieldColumnNames.ID.getColumnName(),
+            EntityFieldColumnNames.COMPETITION_ID.getColumnName(),
+            EntityFieldColumnNames.SPONSOR_ID.getColumnName(),
+            EntityFieldColumnNames.MONEY_CONTRIBUTION.getColumnName(),
+            tableName,
+            EntityFieldColumnNames.ID.getColumnName()
+        );
+    }
+
+    @Override
+    public String buildInsertSql(final String tableName) {
+        return String.format(
+            "INSERT INTO %s (%s, %s, %s, %s) VALUES (?, ?, ?, ?)",
+            tableName,
+            EntityFieldColumnNames.ID.getColumnName(),
+            EntityFieldColumnNames.COMPETITION_ID.getColumnName(),
+            EntityFieldColumnNames.SPONSOR_ID.getColumnName(),
+            EntityFieldColumnNames.MONEY_CONTRIBUTION.getColumnName()
+        );
+    }
+
+    @Override
+    public Object[] getInsertParameters(final Sponsorship entity) {
+        return new Object[]{
+            entity.getId(),
+            entity.getCompetitionId(),
+            entity.getSponsorId(),
+            entity.getMoneyContribution()
+        };
+    }
+
+    @Override
+    public String buildDeleteSql(final String tableName) {
+        return String.format(
+            "DELETE FROM %s WHERE %s = ?",
+            tableName,
+            EntityFieldColumnNames.ID.getColumnName()
+        );
+    }
+
+    @Override
+    public Object[] getDeleteParameters(final Long id) {
+        return new Object[]{
+            id
+        };
+    }
+
+    @Override
+    public String buildUpdateSql(final String tableName) {
+        return String.format(
+            "UPDATE %s SET %s = ?, %s = ?, %s = ? WHERE %s = ?",
+            tableName,
+            EntityFieldColumnNames.COMPETITION_ID.getColumnName(),
+            EntityFieldColumnNames.SPONSOR_ID.getColumnName(),
+            EntityFieldColumnNames.MONEY_CONTRIBUTION.getColumnName(),
+            EntityFieldColumnNames.ID.getColumnName()
+        );
+    }
+
+    @Override
+    public Object[] getUpdateParameters(final Sponsorship entity) {
+        return new Object[]{
+            entity.getCompetitionId(),
+            entity.getSponsorId(),
+            entity.getMoneyContribution(),
+            entity.getId()
+        };
+    }
+
+    private enum EntityFieldColumnNames {
+
+        ID(1, "id", "INT PRIMARY KEY NOT NULL"),
+        COMPETITION_ID(2, "competitionId", "INT NOT NULL REFERENCES Competition"),
+        SPONSOR_ID(3, "sponsorId", "INT NOT NULL REFERENCES Sponsor"),
+        MONEY_CONTRIBUTION(4, "moneyContribution", "INT NOT NULL");
+
+        private final String columnName;
+        private final String properties;
+        private final int columnIndex;
+
+        EntityFieldColumnNames(final int columnIndex, final String columnName, final String properties) {
+            this.columnName = columnName;
+            this.properties = properties;
+            this.columnIndex = columnIndex;
+        }
+
+        public String getColumnName() {
+            return columnName;
+        }
+
+        public String getProperties() {
+            return properties;
+        }
+
+        public int getColumnIndex() {
+            return columnIndex;
+        }
+
+    }
+
+}
@@ -0,0 +1,255 @@
+package ro.ubb.olympics.repository.mmap;
+
+import ro.ubb.olympics.domain.BaseEntity;
+import ro.ubb.olympics.repository.row.RowFilter;
+import ro.ubb.olympics.repository.row.RowMapper;
+import ro.ubb.olympics.repository.row.RowVisitor;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.stream.IntStream;
+
+/**
+ * View of the fixed-width records of a memory-mapped file, as they were at a given version of the repository.
+ * <p>
+ * The file starts with the number of records, followed by the records, each made of the ID, the first key, the second
+ * key, the version which deleted the record and the value of a row, padded to 40 bytes so the version is aligned and
+ * can be read and written atomically. A record which is still stored holds {@link #LIVE} as its deletion version.
+ * <p>
+ * A record is never changed once written, except for its deletion version, so a view sees the records written before
+ * it was taken and not yet deleted at its version, while the repository keeps appending and deleting records.
+ */
+final class MappedRecords {
+
+    /**
+     * The size of the header of the file, holding the number of records.
+     */
+    static final int HEADER_SIZE = 8;
+
+    /**
+     * The size of a record.
+     */
+    static final int RECORD_SIZE = 40;
+
+    /**
+     * The deletion version of the records which are still stored.
+     */
+    static final long LIVE = Long.MAX_VALUE;
+
+    /**
+     * The byte order of the file.
+     */
+    static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    private static final int ID_OFFSET = 0;
+    private static final int FIRST_KEY_OFFSET = 8;
+    private static final int SECOND_KEY_OFFSET = 16;
+    private static final int DELETED_AT_OFFSET = 24;
+    private static final int VALUE_OFFSET = 32;
+
+    private static final VarHandle LONG_VIEW = MethodHandles.byteBufferViewVarHandle(long[].class, BYTE_ORDER);
+
+    private final ByteBuffer buffer;
+    private final int count;
+    private final long version;
+
+    /**
+     * Initializes the view.
+     *
+     * @param buffer  the mapping of the file.
+     * @param count   the number of records written when the view is taken.
+     * @param version the version of the repository when the view is taken.
+     */
+    MappedRecords(final ByteBuffer buffer, final int count, final long version) {
+        this.buffer = buffer;
+        this.count = count;
+        this.version = version;
+    }
+
+    /**
+     * @param record the index of a record.
+     * @return the position of the record in the file.
+     */
+    private static int offsetOf(final int record) {
+        return HEADER_SIZE + record * RECORD_SIZE;
+    }
+
+    /**
+     * @param buffer the mapping of a file.
+     * @return the number of records stored in the header of the file.
+     */
+    static long readCount(final ByteBuffer buffer) {
+        return buffer.getLong(0);
+    }
+
+    /**
+     * Store the number of records in the header of a file.
+     *
+     * @param buffer the mapping of the file.
+     * @param count  the number of records.
+     */
+    static void writeCount(final ByteBuffer buffer, final int count) {
+        buffer.putLong(0, count);
+    }
+
+    /**
+     * Write a record which is still stored.
+     *
+     * @param buffer    the mapping of the file.
+     * @param record    the index of the record.
+     * @param id        the ID of the entity.
+     * @param firstKey  the first key of the row.
+     * @param secondKey the second key of the row.
+     * @param value     the value of the row.
+     */
+    static void write(final ByteBuffer buffer, final int record, final long id, final long firstKey, final long secondKey, final int value) {
+        final int offset = offsetOf(record);
+
+        buffer.putLong(offset + ID_OFFSET, id);
+        buffer.putLong(offset + FIRST_KEY_OFFSET, firstKey);
+        buffer.putLong(offset + SECOND_KEY_OFFSET, secondKey);
+        buffer.putInt(offset + VALUE_OFFSET, value);
+        LONG_VIEW.setRelease(buffer, offset + DELETED_AT_OFFSET, LIVE);
+    }
+
+    /**
+     * Mark a record as deleted from a given version on.
+     *
+     * @param buffer  the mapping of the file.
+     * @param record  the index of the record.
+     * @param version the version which deleted the record.
+     */
+    static void markDeleted(final ByteBuffer buffer, final int record, final long version) {
+        LONG_VIEW.setRelease(buffer, offsetOf(record) + DELETED_AT_OFFSET, version);
+    }
+
+    /**
+     * Copy a record over another one.
+     *
+     * @param buffer the mapping of the file.
+     * @param source the index of the copied record.
+     * @param target the index of the overwritten record.
+     */
+    static void copy(final ByteBuffer buffer, final int source, final int target) {
+        buffer.put(offsetOf(target), buffer, offsetOf(source), RECORD_SIZE);
+    }
+
+    /**
+     * @param record the index of a record.
+     * @return the ID of the record.
+     */
+    long getId(final int record) {
+        return buffer.getLong(offsetOf(record) + ID_OFFSET);
+    }
+
+    /**
+     * @param record the index of a record.
+     * @return the value of the record.
+     */
+    int getValue(final int record) {
+        return buffer.getInt(offsetOf(record) + VALUE_OFFSET);
+    }
+
+    /**
+     * @param record the index of a record.
+     * @return whether the record is still stored, regardless of the version of the view.
+     */
+    boolean isLive(final int record) {
+        return deletedAt(record) == LIVE;
+    }
+
+    /**
+     * @param record the index of a record.
+     * @return whether the record was not yet deleted at the version of the view.
+     */
+    private boolean isVisible(final int record) {
+        return deletedAt(record) > version;
+    }
+
+    /**
+     * @param record the index of a record.
+     * @return the version which deleted the record.
+     */
+    private long deletedAt(final int record) {
+        return (long) LONG_VIEW.getAcquire(buffer, offsetOf(record) + DELETED_AT_OFFSET);
+    }
+
+    /**
+     * @param filter the filter.
+     * @return a stream over the indexes of the visible records accepted by the filter, in file order.
+     */
+    IntStream records(final RowFilter filter) {
+        return IntStream
+            .range(0, count)
+            .filter(this::isVisible)
+            .filter(record -> {
+                final int offset = offsetOf(record);
+                return filter.test(
+                    buffer.getLong(offset + ID_OFFSET),
+                    buffer.getLong(offset + FIRST_KEY_OFFSET),
+                    buffer.getLong(offset + SECOND_KEY_OFFSET),
+                    buffer.getInt(offset + VALUE_OFFSET)
+                );
+            });
+    }
+
+    /**
+     * @return the number of records written when the view was taken, including the deleted ones.
+     */
+    int count() {
+        return count;
+    }
+
+    /**
+     * Visit every visible record, in file order, reading it directly from the mapping.
+     *
+     * @param visitor the visitor.
+     */
+    void forEachRow(final RowVisitor visitor) {
+        forEachRow(0, count, visitor);
+    }
+
+    /**
+     * Visit the visible records of a range, in file order, reading them directly from the mapping.
+     *
+     * @param from    the index of the first record of the range.
+     * @param to      the index after the last record of the range.
+     * @param visitor the visitor.
+     */
+    void forEachRow(final int from, final int to, final RowVisitor visitor) {
+        IntStream
+            .range(from, to)
+            .filter(this::isVisible)
+            .forEach(record -> {
+                final int offset = offsetOf(record);
+                visitor.visit(
+                    buffer.getLong(offset + ID_OFFSET),
+                    buffer.getLong(offset + FIRST_KEY_OFFSET),
+                    buffer.getLong(offset + SECOND_KEY_OFFSET),
+                    buffer.getInt(offset + VALUE_OFFSET)
+                );
+            });
+    }
+
+    /**
+     * Build the entity of a record.
+     *
+     * @param record the index of the record.
+     * @param mapper the mapping between the entities and the rows.
+     * @param <T>    the type of the entities
+     * @return the entity.
+     */
+    <T extends BaseEntity<Long>> T toEntity(final int record, final RowMapper<T> mapper) {
+        final int offset = offsetOf(record);
+
+        return mapper.toEntity(
+            buffer.getLong(offset + ID_OFFSET),
+            buffer.getLong(offset + FIRST_KEY_OFFSET),
+            buffer.getLong(offset + SECOND_KEY_OFFSET),
+            buffer.getInt(offset + VALUE_OFFSET)
+        );
+    }
+
+}
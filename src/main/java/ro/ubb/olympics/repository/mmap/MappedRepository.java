@@ -0,0 +1,365 @@
+package ro.ubb.olympics.repository.mmap;
+
+import ro.ubb.olympics.domain.BaseEntity;
+import ro.ubb.olympics.domain.validators.Validator;
+import ro.ubb.olympics.domain.validators.ValidatorException;
+import ro.ubb.olympics.exception.FileException;
+import ro.ubb.olympics.repository.BulkRepository;
+import ro.ubb.olympics.repository.RepositorySnapshot;
+import ro.ubb.olympics.repository.SnapshotRepository;
+import ro.ubb.olympics.repository.VersionClock;
+import ro.ubb.olympics.repository.VersionedRepository;
+import ro.ubb.olympics.repository.row.LongIntHashMap;
+import ro.ubb.olympics.repository.row.RowFilter;
+import ro.ubb.olympics.repository.row.RowMapper;
+import ro.ubb.olympics.repository.row.RowRepository;
+import ro.ubb.olympics.repository.row.RowVisitor;
+import ro.ubb.olympics.repository.row.TopRows;
+import ro.ubb.olympics.utils.Pair;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Repository for entities which fit in a row made of their ID, two long keys and an int value, storing them as
+ * fixed-width records in a memory-mapped file, outside the heap.
+ * <p>
+ * Only the index from the IDs to the positions of the records is kept on the heap, as primitive arrays. Opening the
+ * file builds the index by reading the IDs of the records, without parsing them into entities, and the entities are
+ * only built when they are returned. The scans, the snapshots and the reports read the records directly from the
+ * mapping.
+ * <p>
+ * A record is never moved or overwritten while the file is open: a save appends a record, an update appends the new
+ * record before marking the old one deleted at the new version of the repository, and a delete only marks the record.
+ * The snapshots are therefore taken without copying anything, and keep seeing the records of their version while the
+ * repository changes. The deleted records are dropped when the file is opened again.
+ * <p>
+ * The changes hold a write lock and are recorded by the shared {@link VersionClock}. The lookups hold a read lock, while
+ * the scans only hold it to take a view of the records, and read the mapping without blocking the writers.
+ * <p>
+ * A single mapping can hold at most 2 GB, about 53 million records.
+ *
+ * @param <T> the type of the entity to be stored
+ */
+public class MappedRepository<T extends BaseEntity<Long>> implements BulkRepository<Long, T>, SnapshotRepository<Long, T>, VersionedRepository<Long, T>, RowRepository<T>, AutoCloseable {
+
+    /**
+     * The number of records a new file is sized for.
+     */
+    public static final int DEFAULT_INITIAL_CAPACITY = 1024;
+
+    private static final int MAXIMUM_CAPACITY = (Integer.MAX_VALUE - MappedRecords.HEADER_SIZE) / MappedRecords.RECORD_SIZE;
+
+    private static final RowFilter ALL_ROWS = (id, firstKey, secondKey, value) -> true;
+
+    private final Validator<T> validator;
+    private final RowMapper<T> mapper;
+    private final FileChannel channel;
+    private final LongIntHashMap recordsById;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final VersionClock clock = VersionClock.getDefault();
+    private MappedByteBuffer buffer;
+    private int count;
+    private long version;
+    private volatile Pair<Long, RepositorySnapshot<Long, T>> snapshot;
+
+    /**
+     * Initializes the repository by mapping the given file, creating it if it does not exist, dropping its deleted
+     * records and indexing the remaining ones.
+     *
+     * @param validator the validator used to validate entities
+     * @param mapper    the mapping between the entities and the rows
+     * @param fileName  the path of the file
+     * @throws FileException if the file cannot be opened or mapped, or its header is corrupted.
+     */
+    public MappedRepository(final Validator<T> validator, final RowMapper<T> mapper, final String fileName) throws FileException {
+        this.validator = validator;
+        this.mapper = mapper;
+
+        try {
+            this.channel = FileChannel.open(Path.of(fileName), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.buffer = map(Math.max(channel.size(), sizeFor(DEFAULT_INITIAL_CAPACITY)));
+        } catch (final IOException ioException) {
+            throw new FileException(ioException);
+        }
+
+        this.count = Optional
+            .of(MappedRecords.readCount(buffer))
+            .filter(numberOfRecords -> 0 <= numberOfRecords && numberOfRecords <= capacity())
+            .map(Long::intValue)
+            .orElseThrow(() -> new FileException(String.format("The header of the file %s is corrupted.", fileName)));
+        this.recordsById = new LongIntHashMap(count);
+        compact();
+        this.snapshot = new Pair<>(version, new MappedSnapshot<>(records(), mapper));
+    }
+
+    /**
+     * @param capacity a number of records.
+     * @return the size of a file holding the given number of records.
+     */
+    private static long sizeFor(final long capacity) {
+        return MappedRecords.HEADER_SIZE + capacity * MappedRecords.RECORD_SIZE;
+    }
+
+    /**
+     * @return the number of records the current mapping can hold.
+     */
+    private int capacity() {
+        return (buffer.capacity() - MappedRecords.HEADER_SIZE) / MappedRecords.RECORD_SIZE;
+    }
+
+    /**
+     * Map the file, growing it to the given size if it is smaller.
+     *
+     * @param size the size of the mapping.
+     * @return the mapping.
+     * @throws FileException if the size exceeds the maximum size of a mapping, or the file cannot be mapped.
+     */
+    private MappedByteBuffer map(final long size) throws FileException {
+        final long mappedSize = Optional
+            .of(size)
+            .filter(requiredSize -> requiredSize <= Integer.MAX_VALUE)
+            .orElseThrow(() -> new FileException(String.format("A mapped file cannot hold more than %d records.", MAXIMUM_CAPACITY)));
+
+        try {
+            final MappedByteBuffer mappedByteBuffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, mappedSize);
+            mappedByteBuffer.order(MappedRecords.BYTE_ORDER);
+            return mappedByteBuffer;
+        } catch (final IOException ioException) {
+            throw new FileException(ioException);
+        }
+    }
+
+    /**
+     * Drop the records deleted before the file was closed, moving the remaining ones to the start of the file, and index
+     * them. If a record was updated but not yet marked deleted, the last record with its ID is kept.
+     */
+    private void compact() {
+        final MappedRecords records = records();
+
+        IntStream
+            .range(0, count)
+            .filter(records::isLive)
+            .forEach(record -> recordsById.put(records.getId(record), record));
+
+        final AtomicInteger liveRecords = new AtomicInteger();
+        IntStream
+            .range(0, count)
+            .filter(record -> recordsById.get(records.getId(record)) == record)
+            .forEach(record -> {
+                final int target = liveRecords.getAndIncrement();
+                MappedRecords.copy(buffer, record, target);
+                recordsById.put(records.getId(target), target);
+            });
+
+        count = liveRecords.get();
+        MappedRecords.writeCount(buffer, count);
+    }
+
+    /**
+     * Run a read under the read lock.
+     *
+     * @param read the read.
+     * @param <R>  the type of the result of the read.
+     * @return the result of the read.
+     */
+    private <R> R read(final Supplier<R> read) {
+        final Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            return read.get();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Run a change under the write lock, recording it with the shared {@link VersionClock}.
+     * <p>
+     * The change is recorded by the clock before the write lock is taken, as a consistent read which holds the changes
+     * back takes the read lock while holding the clock, so taking them in the opposite order could deadlock.
+     *
+     * @param change the change.
+     * @param <R>    the type of the result of the change.
+     * @return the result of the change.
+     */
+    private <R> R write(final Supplier<R> change) {
+        return clock.change(() -> {
+            final Lock writeLock = lock.writeLock();
+            writeLock.lock();
+            try {
+                return change.get();
+            } finally {
+                writeLock.unlock();
+            }
+        });
+    }
+
+    /**
+     * @return a view of the records at the current version. Called while holding the lock.
+     */
+    private MappedRecords records() {
+        return new MappedRecords(buffer, count, version);
+    }
+
+    /**
+     * Find the record of an entity. Called while holding the lock.
+     *
+     * @param id the ID of the entity.
+     * @return the index of the record of the entity, if it is stored.
+     */
+    private Optional<Integer> findRecord(final long id) {
+        return Optional
+            .of(recordsById.get(id))
+            .filter(record -> record != LongIntHashMap.MISSING);
+    }
+
+    /**
+     * Append the record of an entity, growing the mapping if it is full. Called while holding the write lock.
+     *
+     * @param entity the entity.
+     */
+    private void append(final T entity) {
+        Optional
+            .of(capacity())
+            .filter(currentCapacity -> count == currentCapacity)
+            .ifPresent(currentCapacity -> buffer = map(sizeFor(Math.min(2L * currentCapacity, Math.max(MAXIMUM_CAPACITY, currentCapacity + 1L)))));
+
+        MappedRecords.write(buffer, count, entity.getId(), mapper.getFirstKey(entity), mapper.getSecondKey(entity), mapper.getValue(entity));
+        recordsById.put(entity.getId(), count);
+        count++;
+        MappedRecords.writeCount(buffer, count);
+    }
+
+    @Override
+    public Optional<T> findOne(final Long id) {
+        Validator.validateNonNull(id);
+        return read(() -> findRecord(id).map(record -> records().toEntity(record, mapper)));
+    }
+
+    @Override
+    public Iterable<T> findAll() {
+        return snapshot().findAll();
+    }
+
+    @Override
+    public long getVersion() {
+        return read(() -> version);
+    }
+
+    @Override
+    public RepositorySnapshot<Long, T> snapshot() {
+        return read(() -> Optional
+            .of(snapshot)
+            .filter(currentSnapshot -> currentSnapshot.getFirst() == version)
+            .map(Pair::getSecond)
+            .orElseGet(() -> {
+                final RepositorySnapshot<Long, T> recordsSnapshot = new MappedSnapshot<>(records(), mapper);
+                snapshot = new Pair<>(version, recordsSnapshot);
+                return recordsSnapshot;
+            }));
+    }
+
+    @Override
+    public void forEachRow(final RowVisitor visitor) {
+        read(this::records).forEachRow(visitor);
+    }
+
+    @Override
+    public Set<T> findRows(final RowFilter filter) {
+        final MappedRecords records = read(this::records);
+
+        return records
+            .records(filter)
+            .mapToObj(record -> records.toEntity(record, mapper))
+            .collect(Collectors.toSet());
+    }
+
+    @Override
+    public List<T> findTopRows(final int count) {
+        final MappedRecords records = read(this::records);
+
+        return TopRows
+            .select(records.records(ALL_ROWS), records::getValue, count)
+            .mapToObj(record -> records.toEntity(record, mapper))
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public Optional<T> save(final T entity) throws ValidatorException {
+        validator.validate(entity);
+
+        return write(() -> {
+            final Optional<T> existingEntity = findRecord(entity.getId()).map(record -> records().toEntity(record, mapper));
+
+            Optional
+                .of(existingEntity)
+                .filter(Optional::isEmpty)
+                .ifPresent(unused -> {
+                    append(entity);
+                    version++;
+                });
+
+            return existingEntity;
+        });
+    }
+
+    @Override
+    public Optional<T> delete(final Long id) {
+        Validator.validateNonNull(id);
+
+        return write(() -> findRecord(id).map(record -> {
+            final T removedEntity = records().toEntity(record, mapper);
+
+            version++;
+            MappedRecords.markDeleted(buffer, record, version);
+            recordsById.remove(id);
+
+            return removedEntity;
+        }));
+    }
+
+    @Override
+    public Optional<T> update(final T entity) throws ValidatorException {
+        validator.validate(entity);
+
+        return write(() -> findRecord(entity.getId()).map(record -> {
+            version++;
+            append(entity);
+            MappedRecords.markDeleted(buffer, record, version);
+
+            return entity;
+        }));
+    }
+
+    /**
+     * Write the changes of the mapping to the file and close it. The repository must not be used afterwards.
+     *
+     * @throws FileException if an I/O error occurs.
+     */
+    @Override
+    public void close() throws FileException {
+        write(() -> {
+            buffer.force();
+            try {
+                channel.close();
+            } catch (final IOException ioException) {
+                throw new FileException(ioException);
+            }
+            return null;
+        });
+    }
+
+}
@@ -0,0 +1,51 @@
+package ro.ubb.olympics.repository.mmap;
+
+import ro.ubb.olympics.domain.BaseEntity;
+import ro.ubb.olympics.repository.RepositorySnapshot;
+import ro.ubb.olympics.repository.row.RowMapper;
+import ro.ubb.olympics.repository.row.SplittableRowSource;
+import ro.ubb.olympics.repository.row.RowVisitor;
+
+import java.util.Collections;
+import java.util.stream.Collectors;
+
+/**
+ * Snapshot of a {@link MappedRepository}, reading the records of the mapped file as they were at the version it was
+ * taken at.
+ * <p>
+ * Taking the snapshot copies nothing: the rows are scanned directly from the mapping, and the entities are only built
+ * the first time they are required.
+ *
+ * @param <T> the type of the entities
+ */
+public class MappedSnapshot<T extends BaseEntity<Long>> extends RepositorySnapshot<Long, T> implements SplittableRowSource {
+
+    private final MappedRecords records;
+
+    /**
+     * Initializes the snapshot.
+     *
+     * @param records the view of the records at the version of the snapshot.
+     * @param mapper  the mapping between the entities and the rows.
+     */
+    MappedSnapshot(final MappedRecords records, final RowMapper<T> mapper) {
+        super(() -> Collections.unmodifiableSet(
+            records
+                .records((id, firstKey, secondKey, value) -> true)
+                .mapToObj(record -> records.toEntity(record, mapper))
+                .collect(Collectors.toSet())
+        ));
+        this.records = records;
+    }
+
+    @Override
+    public int getPositionCount() {
+        return records.count();
+    }
+
+    @Override
+    public void forEachRow(final int from, final int to, final RowVisitor visitor) {
+        records.forEachRow(from, to, visitor);
+    }
+
+}
@@ -0,0 +1,41 @@
+package ro.ubb.olympics.repository.row;
+
+import ro.ubb.olympics.domain.BaseEntity;
+
+import java.util.List;
+
+/**
+ * Rows of a list of entities, mapped from the entities as they are visited, so that the entities of the repositories
+ * which are not stored as rows can be scanned by ranges as well.
+ *
+ * @param <T> the type of the entities
+ */
+public class EntityRows<T extends BaseEntity<Long>> implements SplittableRowSource {
+
+    private final List<T> entities;
+    private final RowMapper<T> mapper;
+
+    /**
+     * Initializes the rows.
+     *
+     * @param entities the entities, in a list with constant-time positional access, which must not be changed afterwards.
+     * @param mapper   the mapping between the entities and the rows.
+     */
+    public EntityRows(final List<T> entities, final RowMapper<T> mapper) {
+        this.entities = entities;
+        this.mapper = mapper;
+    }
+
+    @Override
+    public int getPositionCount() {
+        return entities.size();
+    }
+
+    @Override
+    public void forEachRow(final int from, final int to, final RowVisitor visitor) {
+        entities
+            .subList(from, to)
+            .forEach(entity -> mapper.visit(entity, visitor));
+    }
+
+}
@@ -0,0 +1,37 @@
+package ro.ubb.olympics.repository.row;
+
+/**
+ * The key columns of a row.
+ */
+public enum KeyColumn {
+
+    /**
+     * The first key of the row.
+     */
+    FIRST {
+        @Override
+        public long of(final long firstKey, final long secondKey) {
+            return firstKey;
+        }
+    },
+
+    /**
+     * The second key of the row.
+     */
+    SECOND {
+        @Override
+        public long of(final long firstKey, final long secondKey) {
+            return secondKey;
+        }
+    };
+
+    /**
+     * Select the key of this column.
+     *
+     * @param firstKey  the first key of a row.
+     * @param secondKey the second key of a row.
+     * @return the key of this column.
+     */
+    public abstract long of(final long firstKey, final long secondKey);
+
+}
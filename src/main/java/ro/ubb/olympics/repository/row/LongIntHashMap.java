@@ -0,0 +1,218 @@
+package ro.ubb.olympics.repository.row;
+
+import java.util.Optional;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/**
+ * Map from primitive long keys to non-negative int values, stored with open addressing in two parallel arrays, used to
+ * find the position of a row by the ID of its entity, and to accumulate totals by ID without boxing.
+ * <p>
+ * An entry costs a slot in a long array and a slot in an int array, without any boxing. The values are stored
+ * incremented by one, so an empty slot holds zero and a removed entry leaves a negative tombstone behind, which is
+ * dropped the next time the arrays are rebuilt.
+ * <p>
+ * The map is not thread-safe: it is guarded by the lock of the repository owning it, or confined to a single thread.
+ */
+public class LongIntHashMap {
+
+    /**
+     * The value returned for the keys which are not stored.
+     */
+    public static final int MISSING = -1;
+
+    private static final int EMPTY = 0;
+    private static final int TOMBSTONE = -1;
+    private static final int MINIMUM_CAPACITY = 8;
+
+    private long[] keys;
+    private int[] storedValues;
+    private int size;
+    private int usedSlots;
+
+    /**
+     * Initializes an empty map sized for the given number of entries.
+     *
+     * @param expectedSize the number of entries the map can hold before its arrays are rebuilt.
+     */
+    public LongIntHashMap(final int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * Compute the number of slots needed for a number of entries: the smallest power of two keeping the map at most half
+     * full.
+     *
+     * @param numberOfEntries the number of entries.
+     * @return the number of slots.
+     */
+    private static int capacityFor(final int numberOfEntries) {
+        return Integer.highestOneBit(Math.max(2 * numberOfEntries, MINIMUM_CAPACITY) - 1) << 1;
+    }
+
+    /**
+     * Replace the arrays with empty ones.
+     *
+     * @param capacity the number of slots, a power of two.
+     */
+    private void allocate(final int capacity) {
+        keys = new long[capacity];
+        storedValues = new int[capacity];
+    }
+
+    /**
+     * @param slot the index of a slot.
+     * @param key  the key.
+     * @return whether the probe sequence of the key ends in the slot: the slot is empty or holds the key.
+     */
+    private boolean isSlotOf(final int slot, final long key) {
+        final int storedValue = storedValues[slot];
+        return storedValue == EMPTY || (storedValue > EMPTY && keys[slot] == key);
+    }
+
+    /**
+     * Find the slot of a key: the slot holding it if it is stored, otherwise the first empty slot of its probe sequence.
+     * There is always an empty slot, since the arrays are rebuilt before they get full.
+     *
+     * @param key the key.
+     * @return the index of the slot.
+     */
+    private int findSlot(final long key) {
+        final int mask = storedValues.length - 1;
+        final long hash = key * 0x9E3779B97F4A7C15L;
+        final int firstSlot = (int) (hash ^ (hash >>> 32)) & mask;
+
+        return Optional
+            .of(firstSlot)
+            .filter(slot -> isSlotOf(slot, key))
+            .orElseGet(() -> IntStream
+                .iterate((firstSlot + 1) & mask, slot -> (slot + 1) & mask)
+                .filter(slot -> isSlotOf(slot, key))
+                .findFirst()
+                .getAsInt());
+    }
+
+    /**
+     * @return the number of entries.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the value associated with a key.
+     *
+     * @param key the key.
+     * @return the value, or {@link #MISSING} if the key is not stored.
+     */
+    public int get(final long key) {
+        return storedValues[findSlot(key)] - 1;
+    }
+
+    /**
+     * Get the value associated with a key, or a default value if the key is not stored.
+     *
+     * @param key          the key.
+     * @param defaultValue the default value.
+     * @return the value.
+     */
+    public int getOrDefault(final long key, final int defaultValue) {
+        return Optional
+            .of(get(key))
+            .filter(value -> value != MISSING)
+            .orElse(defaultValue);
+    }
+
+    /**
+     * Associate a value with a key.
+     *
+     * @param key   the key.
+     * @param value the value, which must not be negative.
+     * @return the previous value of the key, or {@link #MISSING} if the key was not stored.
+     */
+    public int put(final long key, final int value) {
+        final int slot = findSlot(key);
+        final int previousValue = storedValues[slot] - 1;
+
+        storedValues[slot] = value + 1;
+        Optional
+            .of(previousValue)
+            .filter(unused -> previousValue == MISSING)
+            .ifPresent(unused -> {
+                keys[slot] = key;
+                size++;
+                usedSlots++;
+                Optional
+                    .of(usedSlots)
+                    .filter(numberOfUsedSlots -> 4 * numberOfUsedSlots > 3 * storedValues.length)
+                    .ifPresent(numberOfUsedSlots -> rebuild());
+            });
+
+        return previousValue;
+    }
+
+    /**
+     * Add an amount to the value associated with a key, as if the keys which are not stored were associated with zero.
+     *
+     * @param key    the key.
+     * @param amount the amount, which must not make the value negative.
+     * @return the new value of the key.
+     */
+    public int add(final long key, final int amount) {
+        final int value = getOrDefault(key, 0) + amount;
+        put(key, value);
+        return value;
+    }
+
+    /**
+     * @return a stream over the stored keys, in no particular order.
+     */
+    public LongStream keys() {
+        return IntStream
+            .range(0, storedValues.length)
+            .filter(slot -> storedValues[slot] > EMPTY)
+            .mapToLong(slot -> keys[slot]);
+    }
+
+    /**
+     * Remove a key.
+     *
+     * @param key the key.
+     * @return the value of the key, or {@link #MISSING} if the key was not stored.
+     */
+    public int remove(final long key) {
+        final int slot = findSlot(key);
+        final int previousValue = storedValues[slot] - 1;
+
+        Optional
+            .of(previousValue)
+            .filter(unused -> previousValue != MISSING)
+            .ifPresent(unused -> {
+                storedValues[slot] = TOMBSTONE;
+                size--;
+            });
+
+        return previousValue;
+    }
+
+    /**
+     * Copy the entries into new arrays sized for the current number of entries, dropping the tombstones.
+     */
+    private void rebuild() {
+        final long[] oldKeys = keys;
+        final int[] oldStoredValues = storedValues;
+        allocate(capacityFor(size));
+
+        IntStream
+            .range(0, oldStoredValues.length)
+            .filter(slot -> oldStoredValues[slot] > EMPTY)
+            .forEach(slot -> {
+                final int newSlot = findSlot(oldKeys[slot]);
+                keys[newSlot] = oldKeys[slot];
+                storedValues[newSlot] = oldStoredValues[slot];
+            });
+
+        usedSlots = size;
+    }
+
+}
@@ -0,0 +1,21 @@
+package ro.ubb.olympics.repository.row;
+
+/**
+ * Predicate on the rows of a {@link RowSource}, which receives the columns of a row as primitives, without any entity
+ * being built.
+ */
+@FunctionalInterface
+public interface RowFilter {
+
+    /**
+     * Test a row.
+     *
+     * @param id        the ID of the entity.
+     * @param firstKey  the first key of the row.
+     * @param secondKey the second key of the row.
+     * @param value     the value of the row.
+     * @return true if the row is accepted, false otherwise.
+     */
+    boolean test(final long id, final long firstKey, final long secondKey, final int value);
+
+}
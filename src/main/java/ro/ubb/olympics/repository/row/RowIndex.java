@@ -0,0 +1,61 @@
+package ro.ubb.olympics.repository.row;
+
+import ro.ubb.olympics.domain.BaseEntity;
+import ro.ubb.olympics.repository.Repository;
+import ro.ubb.olympics.repository.index.HashIndex;
+import ro.ubb.olympics.repository.index.Index;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Index over a key column of a {@link RowRepository}, answering its lookups by scanning the rows.
+ * <p>
+ * The scan reads the rows sequentially and only builds the entities found, so it keeps no entity in memory
+ * between the lookups, unlike a {@link HashIndex}, which would hold every entity of the repository.
+ *
+ * @param <T> the type of the entities
+ */
+public class RowIndex<T extends BaseEntity<Long>> implements Index<Long, T> {
+
+    private final RowRepository<T> repository;
+    private final KeyColumn column;
+
+    /**
+     * Initializes the index over the given repository.
+     *
+     * @param repository the repository scanned by the lookups.
+     * @param column     the key column of the index.
+     */
+    public RowIndex(final RowRepository<T> repository, final KeyColumn column) {
+        this.repository = repository;
+        this.column = column;
+    }
+
+    /**
+     * Build an index over a repository: an index scanning the key column if the repository stores rows, an index
+     * built with {@link HashIndex#on} otherwise.
+     *
+     * @param repository   the repository to be indexed.
+     * @param column       the key column holding the key, if the repository stores rows.
+     * @param keyExtractor the function deriving the key of an entity, otherwise.
+     * @param <T>          the type of the entities
+     * @return the index.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends BaseEntity<Long>> Index<Long, T> on(final Repository<Long, T> repository, final KeyColumn column, final Function<T, Long> keyExtractor) {
+        return Optional
+            .of(repository)
+            .filter(RowRepository.class::isInstance)
+            .map(rowRepository -> (Index<Long, T>) new RowIndex<>((RowRepository<T>) rowRepository, column))
+            .orElseGet(() -> HashIndex.on(repository, keyExtractor));
+    }
+
+    @Override
+    public Set<T> find(final Long key) {
+        final long searchedKey = key;
+        return repository.findRows((id, firstKey, secondKey, value) -> column.of(firstKey, secondKey) == searchedKey);
+    }
+
+}
@@ -0,0 +1,91 @@
+package ro.ubb.olympics.repository.row;
+
+import ro.ubb.olympics.domain.BaseEntity;
+import ro.ubb.olympics.repository.RepositorySnapshot;
+
+import java.util.ArrayList;
+import java.util.Optional;
+
+/**
+ * Mapping between entities and fixed-width rows made of their ID, two long keys and an int value.
+ * <p>
+ * The entities which are only references between other entities, such as the participations and the sponsorships, fit
+ * in such a row, so they can be stored as primitive columns or fixed-width records instead of objects.
+ *
+ * @param <T> the type of the entities
+ */
+public interface RowMapper<T extends BaseEntity<Long>> {
+
+    /**
+     * @param entity the entity.
+     * @return the first key of the row of the entity.
+     */
+    long getFirstKey(final T entity);
+
+    /**
+     * @param entity the entity.
+     * @return the second key of the row of the entity.
+     */
+    long getSecondKey(final T entity);
+
+    /**
+     * @param entity the entity.
+     * @return the value of the row of the entity.
+     */
+    int getValue(final T entity);
+
+    /**
+     * Build an entity from a row.
+     *
+     * @param id        the ID of the entity.
+     * @param firstKey  the first key of the row.
+     * @param secondKey the second key of the row.
+     * @param value     the value of the row.
+     * @return the entity.
+     */
+    T toEntity(final long id, final long firstKey, final long secondKey, final int value);
+
+    /**
+     * Visit the row of an entity.
+     *
+     * @param entity  the entity.
+     * @param visitor the visitor.
+     */
+    default void visit(final T entity, final RowVisitor visitor) {
+        visitor.visit(entity.getId(), getFirstKey(entity), getSecondKey(entity), getValue(entity));
+    }
+
+    /**
+     * Visit the rows of the entities of a snapshot: directly, if the snapshot is stored as rows, or by mapping each of
+     * its entities to a row otherwise.
+     *
+     * @param snapshot the snapshot.
+     * @param visitor  the visitor.
+     */
+    default void forEachRow(final RepositorySnapshot<Long, T> snapshot, final RowVisitor visitor) {
+        Optional
+            .of(snapshot)
+            .filter(RowSource.class::isInstance)
+            .map(RowSource.class::cast)
+            .ifPresentOrElse(
+                rowSource -> rowSource.forEachRow(visitor),
+                () -> snapshot.findAll().forEach(entity -> visit(entity, visitor))
+            );
+    }
+
+    /**
+     * Get the rows of the entities of a snapshot, as a source which can be scanned by ranges: the snapshot itself, if it
+     * is stored as such rows, or the rows of a list of its entities otherwise.
+     *
+     * @param snapshot the snapshot.
+     * @return the rows of the snapshot.
+     */
+    default SplittableRowSource rowsOf(final RepositorySnapshot<Long, T> snapshot) {
+        return Optional
+            .of(snapshot)
+            .filter(SplittableRowSource.class::isInstance)
+            .map(SplittableRowSource.class::cast)
+            .orElseGet(() -> new EntityRows<>(new ArrayList<>(snapshot.findAll()), this));
+    }
+
+}
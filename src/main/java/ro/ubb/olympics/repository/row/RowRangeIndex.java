@@ -0,0 +1,82 @@
+package ro.ubb.olympics.repository.row;
+
+import ro.ubb.olympics.domain.BaseEntity;
+import ro.ubb.olympics.repository.Repository;
+import ro.ubb.olympics.repository.index.RangeIndex;
+import ro.ubb.olympics.repository.index.SortedIndex;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+
+/**
+ * Range index over the value column of a {@link RowRepository}, answering its lookups by scanning the rows.
+ * <p>
+ * The scan reads the rows sequentially and only builds the entities found, so it keeps no entity in memory
+ * between the lookups, unlike a {@link SortedIndex}, which would hold every entity of the repository.
+ *
+ * @param <T> the type of the entities
+ */
+public class RowRangeIndex<T extends BaseEntity<Long>> implements RangeIndex<T> {
+
+    private final RowRepository<T> repository;
+
+    /**
+     * Initializes the index over the given repository.
+     *
+     * @param repository the repository scanned by the lookups.
+     */
+    public RowRangeIndex(final RowRepository<T> repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Build a range index over a repository: an index scanning the value column if the repository stores rows, an index
+     * built with {@link SortedIndex#on} otherwise.
+     *
+     * @param repository   the repository to be indexed.
+     * @param keyExtractor the function deriving the key of an entity, if the repository does not store rows.
+     * @param <T>          the type of the entities
+     * @return the index.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends BaseEntity<Long>> RangeIndex<T> on(final Repository<Long, T> repository, final ToIntFunction<T> keyExtractor) {
+        return Optional
+            .of(repository)
+            .filter(RowRepository.class::isInstance)
+            .map(rowRepository -> (RangeIndex<T>) new RowRangeIndex<>((RowRepository<T>) rowRepository))
+            .orElseGet(() -> SortedIndex.on(repository, keyExtractor));
+    }
+
+    @Override
+    public Set<T> find(final Integer key) {
+        return findBetween(key, key);
+    }
+
+    @Override
+    public Set<T> findAtLeast(final int minimum) {
+        return findBetween(minimum, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public Set<T> findAtMost(final int maximum) {
+        return findBetween(Integer.MIN_VALUE, maximum);
+    }
+
+    @Override
+    public Set<T> findBetween(final int minimum, final int maximum) {
+        return Optional
+            .of(minimum)
+            .filter(unused -> minimum <= maximum)
+            .map(unused -> repository.findRows((id, firstKey, secondKey, value) -> minimum <= value && value <= maximum))
+            .orElseGet(HashSet::new);
+    }
+
+    @Override
+    public List<T> findTop(final int count) {
+        return repository.findTopRows(count);
+    }
+
+}
@@ -0,0 +1,33 @@
+package ro.ubb.olympics.repository.row;
+
+import ro.ubb.olympics.domain.BaseEntity;
+import ro.ubb.olympics.repository.Repository;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Extension of the {@link Repository} interface for repositories storing their entities as rows, which answer the
+ * searches by scanning the rows and only build the entities found.
+ *
+ * @param <T> the type of the stored entities
+ */
+public interface RowRepository<T extends BaseEntity<Long>> extends Repository<Long, T>, RowSource {
+
+    /**
+     * Find the entities whose rows are accepted by a filter.
+     *
+     * @param filter the filter.
+     * @return a new set containing the entities found.
+     */
+    Set<T> findRows(final RowFilter filter);
+
+    /**
+     * Find the entities with the largest values.
+     *
+     * @param count the maximum number of entities found.
+     * @return a new list containing at most {@code count} entities, in descending order of their values.
+     */
+    List<T> findTopRows(final int count);
+
+}
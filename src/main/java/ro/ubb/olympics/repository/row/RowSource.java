@@ -0,0 +1,15 @@
+package ro.ubb.olympics.repository.row;
+
+/**
+ * Source of entities stored as rows, which can be scanned without building the entities.
+ */
+public interface RowSource {
+
+    /**
+     * Visit every row, in storage order.
+     *
+     * @param visitor the visitor.
+     */
+    void forEachRow(final RowVisitor visitor);
+
+}
@@ -0,0 +1,20 @@
+package ro.ubb.olympics.repository.row;
+
+/**
+ * Action performed on the rows of a {@link RowSource}, which receives the columns of a row as primitives, without any
+ * entity being built.
+ */
+@FunctionalInterface
+public interface RowVisitor {
+
+    /**
+     * Visit a row.
+     *
+     * @param id        the ID of the entity.
+     * @param firstKey  the first key of the row.
+     * @param secondKey the second key of the row.
+     * @param value     the value of the row.
+     */
+    void visit(final long id, final long firstKey, final long secondKey, final int value);
+
+}
@@ -0,0 +1,28 @@
+package ro.ubb.olympics.repository.row;
+
+/**
+ * Source of rows stored at numbered positions, which can be scanned by ranges of positions, so that several threads
+ * can scan disjoint parts of it.
+ */
+public interface SplittableRowSource extends RowSource {
+
+    /**
+     * @return the number of positions, some of which may hold no row.
+     */
+    int getPositionCount();
+
+    /**
+     * Visit the rows stored in a range of positions, in storage order.
+     *
+     * @param from    the first position of the range.
+     * @param to      the position after the last position of the range.
+     * @param visitor the visitor.
+     */
+    void forEachRow(final int from, final int to, final RowVisitor visitor);
+
+    @Override
+    default void forEachRow(final RowVisitor visitor) {
+        forEachRow(0, getPositionCount(), visitor);
+    }
+
+}
@@ -0,0 +1,35 @@
+package ro.ubb.olympics.repository.row;
+
+import ro.ubb.olympics.utils.SelectionUtils;
+
+import java.util.Comparator;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+
+/**
+ * Selection of the rows with the largest values, for the {@link RowRepository} implementations.
+ */
+public final class TopRows {
+
+    private TopRows() {
+    }
+
+    /**
+     * Select the rows with the largest values, keeping the positions of the best rows found so far in a bounded heap,
+     * so the selection costs memory in proportion to the number of rows selected instead of the number of rows scanned.
+     *
+     * @param positions the positions of the rows scanned.
+     * @param valueOf   the function reading the value of the row at a position.
+     * @param count     the maximum number of rows selected.
+     * @return the positions of at most {@code count} rows, in descending order of their values.
+     */
+    public static IntStream select(final IntStream positions, final IntUnaryOperator valueOf, final int count) {
+        final Comparator<Integer> byDescendingValue = Comparator.<Integer>comparingInt(valueOf::applyAsInt).reversed();
+
+        return SelectionUtils
+            .first(positions.boxed(), byDescendingValue, count)
+            .stream()
+            .mapToInt(Integer::intValue);
+    }
+
+}
@@ -0,0 +1,32 @@
+package ro.ubb.olympics.repository.row.mapper;
+
+import ro.ubb.olympics.domain.Participation;
+import ro.ubb.olympics.repository.row.RowMapper;
+
+/**
+ * Mapping between participation entities and rows: the athlete ID is the first key, the competition ID the second key
+ * and the rank the value.
+ */
+public class ParticipationRowMapper implements RowMapper<Participation> {
+
+    @Override
+    public long getFirstKey(final Participation participation) {
+        return participation.getAthleteId();
+    }
+
+    @Override
+    public long getSecondKey(final Participation participation) {
+        return participation.getCompetitionId();
+    }
+
+    @Override
+    public int getValue(final Participation participation) {
+        return participation.getRank();
+    }
+
+    @Override
+    public Participation toEntity(final long id, final long athleteId, final long competitionId, final int rank) {
+        return new Participation(id, athleteId, competitionId, rank);
+    }
+
+}
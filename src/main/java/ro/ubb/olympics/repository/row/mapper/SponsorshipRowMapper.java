@@ -0,0 +1,32 @@
+package ro.ubb.olympics.repository.row.mapper;
+
+import ro.ubb.olympics.domain.Sponsorship;
+import ro.ubb.olympics.repository.row.RowMapper;
+
+/**
+ * Mapping between sponsorship entities and rows: the competition ID is the first key, the sponsor ID the second key and
+ * the money contribution the value.
+ */
+public class SponsorshipRowMapper implements RowMapper<Sponsorship> {
+
+    @Override
+    public long getFirstKey(final Sponsorship sponsorship) {
+        return sponsorship.getCompetitionId();
+    }
+
+    @Override
+    public long getSecondKey(final Sponsorship sponsorship) {
+        return sponsorship.getSponsorId();
+    }
+
+    @Override
+    public int getValue(final Sponsorship sponsorship) {
+        return sponsorship.getMoneyContribution();
+    }
+
+    @Override
+    public Sponsorship toEntity(final long id, final long competitionId, final long sponsorId, final int moneyContribution) {
+        return new Sponsorship(id, competitionId, sponsorId, moneyContribution);
+    }
+
+}
@@ -1,200 +1,483 @@
 package ro.ubb.olympics.repository.xml;
 
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.SAXException;
 import ro.ubb.olympics.domain.BaseEntity;
 import ro.ubb.olympics.domain.validators.Validator;
 import ro.ubb.olympics.domain.validators.ValidatorException;
 import ro.ubb.olympics.exception.XmlException;
 import ro.ubb.olympics.repository.inmemory.InMemoryRepository;
 import ro.ubb.olympics.utils.FileUtils;
+import ro.ubb.olympics.utils.IterableUtils;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
-import java.io.File;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.IntStream;
-import java.util.stream.StreamSupport;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Abstract XML repository.
+ * <p>
+ * Mutations mark the repository as dirty, and the file is rewritten once the number of pending mutations reaches the
+ * flush batch size, or periodically, every flush interval. With a batch size of 1 and no flush interval (the default),
+ * every mutation rewrites the file; otherwise many mutations are coalesced into a single rewrite, and {@link #flush()}
+ * or {@link #close()} must be called to persist the pending mutations.
  *
  * @param <ID> the type of the ID of the stored entities
  * @param <T>  the type of the entity to be stored
  */
-public abstract class AbstractXmlRepository<ID, T extends BaseEntity<ID>> extends InMemoryRepository<ID, T> {
+public abstract class AbstractXmlRepository<ID, T extends BaseEntity<ID>> extends InMemoryRepository<ID, T> implements AutoCloseable {
+
+    /**
+     * Tag of the root element, containing the entity nodes.
+     */
+    private static final String ROOT_TAG = "entities";
+
+    /**
+     * Extension appended to the name of the file in order to obtain the name of the file written before it atomically
+     * replaces the file.
+     */
+    private static final String TEMPORARY_FILE_EXTENSION = ".tmp";
 
     private final String fileName;
+    private final int flushBatchSize;
+    private final ScheduledExecutorService flushScheduler;
+
+    private final XMLInputFactory xmlInputFactory = createXmlInputFactory();
+    private final XMLOutputFactory xmlOutputFactory = XMLOutputFactory.newInstance();
+
+    private final AtomicInteger pendingMutations = new AtomicInteger();
+    private final AtomicReference<XmlException> lastFlushFailure = new AtomicReference<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
 
     /**
      * Initializes the repository with the given validator and filename and loads the data from the file.
+     * Every mutation rewrites the file.
      *
      * @param validator the validator used to validate the stored entities.
      * @param fileName  the name of the file in which the data is persisted.
      */
     public AbstractXmlRepository(final Validator<T> validator, final String fileName) {
+        this(validator, fileName, 1, Duration.ZERO);
+    }
+
+    /**
+     * Initializes the repository with the given validator, filename and write-behind settings and loads the data from
+     * the file.
+     *
+     * @param validator      the validator used to validate the stored entities.
+     * @param fileName       the name of the file in which the data is persisted.
+     * @param flushBatchSize the number of pending mutations which triggers a rewrite of the file.
+     * @param flushInterval  the time between two periodic rewrites of the file, or zero to disable periodic rewrites.
+     */
+    public AbstractXmlRepository(final Validator<T> validator, final String fileName, final int flushBatchSize, final Duration flushInterval) {
         super(validator);
         this.fileName = fileName;
+        this.flushBatchSize = flushBatchSize;
         FileUtils.createXmlFileIfNotExists(fileName);
         loadData();
+        this.flushScheduler = Optional
+            .of(flushInterval)
+            .filter(interval -> !interval.isZero())
+            .map(this::startFlushScheduler)
+            .orElse(null);
+    }
+
+    /**
+     * Start flushing the pending mutations periodically on a daemon thread.
+     *
+     * @param flushInterval the time between two periodic rewrites of the file.
+     * @return the scheduler running the periodic flushes.
+     */
+    private ScheduledExecutorService startFlushScheduler(final Duration flushInterval) {
+        final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, String.format("xml-flusher-%s", fileName));
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        scheduler.scheduleWithFixedDelay(
+            () -> {
+                try {
+                    flush();
+                } catch (final XmlException xmlException) {
+                    lastFlushFailure.set(xmlException);
+                }
+            },
+            flushInterval.toMillis(),
+            flushInterval.toMillis(),
+            TimeUnit.MILLISECONDS
+        );
+
+        return scheduler;
+    }
+
+    /**
+     * Write the start tag of an element.
+     *
+     * @param writer  the writer to which the tag is written.
+     * @param tagName the tag of the element.
+     * @throws XmlException if the tag cannot be written.
+     */
+    protected static void writeStartElement(final XMLStreamWriter writer, final String tagName) throws XmlException {
+        try {
+            writer.writeStartElement(tagName);
+        } catch (final XMLStreamException xmlStreamException) {
+            throw new XmlException(xmlStreamException);
+        }
     }
 
     /**
-     * Add a child to a node and set its text content.
+     * Write the end tag of the most recently started element.
      *
-     * @param document    the document on which the node is added.
-     * @param parent      the parent node to which the child node should be added.
-     * @param tagName     the tag of the child node.
-     * @param textContent the text content of the child node.
+     * @param writer the writer to which the tag is written.
+     * @throws XmlException if the tag cannot be written.
      */
-    protected static void addChildWithTextContent(final Document document, final Element parent, final String tagName, final String textContent) {
-        final Element childElement = document.createElement(tagName);
-        childElement.setTextContent(textContent);
-        parent.appendChild(childElement);
+    protected static void writeEndElement(final XMLStreamWriter writer) throws XmlException {
+        try {
+            writer.writeEndElement();
+        } catch (final XMLStreamException xmlStreamException) {
+            throw new XmlException(xmlStreamException);
+        }
+    }
+
+    /**
+     * Write a child element with the given text content.
+     *
+     * @param writer      the writer to which the child element is written.
+     * @param tagName     the tag of the child element.
+     * @param textContent the text content of the child element.
+     * @throws XmlException if the element cannot be written.
+     */
+    protected static void writeChildWithTextContent(final XMLStreamWriter writer, final String tagName, final String textContent) throws XmlException {
+        try {
+            writer.writeStartElement(tagName);
+            writer.writeCharacters(textContent);
+            writer.writeEndElement();
+        } catch (final XMLStreamException xmlStreamException) {
+            throw new XmlException(xmlStreamException);
+        }
     }
 
     /**
      * Get the text content of a given node determined by its tag.
      *
-     * @param element the parent node where the tag is to be searched
-     * @param tag     the tag that is to be searched
+     * @param node the child tags of the entity node, mapped to their text content
+     * @param tag  the tag that is to be searched
      * @return the text content of the tag
+     * @throws java.util.NoSuchElementException if the node does not contain the tag
      */
-    protected static String getTextContentOfTag(final Element element, final String tag) {
-        return element.getElementsByTagName(tag).item(0).getTextContent();
+    protected static String getTextContentOfTag(final Map<String, String> node, final String tag) {
+        return Optional
+            .ofNullable(node.get(tag))
+            .orElseThrow();
     }
 
     /**
      * Validate if a node represents a valid entity.
      *
-     * @param element the element to be validated.
-     * @throws ValidatorException if the element does not represent a proper entity.
+     * @param node the child tags of the entity node to be validated, mapped to their text content.
+     * @throws ValidatorException if the node does not represent a proper entity.
      */
-    protected abstract void validateEntityNode(final Element element) throws ValidatorException;
+    protected abstract void validateEntityNode(final Map<String, String> node) throws ValidatorException;
 
     /**
-     * Create a node from an entity.
+     * Write the node representing an entity.
      *
-     * @param entity   the entity to be turned into a node.
-     * @param document the document to which the node will be added.
-     * @return the Node representing the entity.
+     * @param entity the entity to be written.
+     * @param writer the writer to which the node is written.
+     * @throws XmlException if the node cannot be written.
      */
-    protected abstract Node createNodeFromEntity(final T entity, final Document document);
+    protected abstract void writeEntityNode(final T entity, final XMLStreamWriter writer) throws XmlException;
 
     /**
      * Create an entity from a node.
      *
-     * @param element the node from which the entity is to be created.
+     * @param node the child tags of the entity node, mapped to their text content.
      * @return the entity built from the given node.
-     * @throws ValidatorException if the element does not represent a proper entity.
+     * @throws ValidatorException if the node does not represent a proper entity.
      */
-    protected abstract T createEntityFromNode(final Element element);
+    protected abstract T createEntityFromNode(final Map<String, String> node);
 
     /**
-     * Add an entity to a document.
+     * Load the data from a file and save it in the parent InMemoryRepository class.
+     * <p>
+     * The file is streamed, so only the entity currently being read is held in memory besides the loaded entities.
+     */
+    private void loadData() {
+        try (final InputStream inputStream = new BufferedInputStream(Files.newInputStream(Paths.get(fileName)))) {
+            final XMLStreamReader reader = xmlInputFactory.createXMLStreamReader(inputStream);
+
+            try {
+                reader.nextTag();
+
+                Stream
+                    .generate(() -> readNextEntityNode(reader))
+                    .takeWhile(Optional::isPresent)
+                    .map(Optional::get)
+                    .forEach(node -> super.save(createEntityFromNode(node)));
+            } finally {
+                reader.close();
+            }
+        } catch (final XMLStreamException | IOException exception) {
+            throw new XmlException(exception);
+        }
+    }
+
+    /**
+     * Read the next entity node of the file.
      *
-     * @param entity   the entity to be added.
-     * @param document the document to which the entity shall be added.
+     * @param reader the reader positioned on the root element or on the end of the previous entity node.
+     * @return the child tags of the entity node mapped to their text content, or an empty Optional if the end of the
+     * root element has been reached.
+     * @throws XmlException if the file is not well-formed.
      */
-    private void addEntityToDom(final T entity, final Document document) {
-        final Element root = document.getDocumentElement();
-        final Node entityNode = createNodeFromEntity(entity, document);
-        root.appendChild(entityNode);
+    private Optional<Map<String, String>> readNextEntityNode(final XMLStreamReader reader) throws XmlException {
+        return Optional
+            .of(nextTag(reader))
+            .filter(event -> event == XMLStreamConstants.START_ELEMENT)
+            .map(unused -> {
+                final Map<String, String> node = new HashMap<>();
+
+                Stream
+                    .generate(() -> nextTag(reader))
+                    .takeWhile(event -> event == XMLStreamConstants.START_ELEMENT)
+                    .forEach(unusedEvent -> node.putIfAbsent(reader.getLocalName(), getElementText(reader)));
+
+                return node;
+            });
     }
 
     /**
-     * Load the data from a file and save it in the parent InMemoryRepository class.
+     * Advance the reader to the next start or end tag, skipping whitespace and comments.
+     *
+     * @param reader the reader to be advanced.
+     * @return the type of the event reached.
+     * @throws XmlException if the file is not well-formed.
      */
-    private void loadData() {
+    private static int nextTag(final XMLStreamReader reader) throws XmlException {
         try {
-            final DocumentBuilder db = DocumentBuilderFactory.newInstance().newDocumentBuilder();
-            final Document root = db.parse(fileName);
-            final Element xmlEntitiesContainer = root.getDocumentElement();
-            final NodeList xmlEntitiesNodeList = xmlEntitiesContainer.getChildNodes();
-
-            IntStream
-                .range(0, xmlEntitiesNodeList.getLength())
-                .mapToObj(xmlEntitiesNodeList::item)
-                .filter(node -> node instanceof Element)
-                .forEach(node -> super.save(createEntityFromNode((Element) node)));
-
-        } catch (ParserConfigurationException | SAXException | IOException exception) {
-            throw new XmlException(exception);
+            return reader.nextTag();
+        } catch (final XMLStreamException xmlStreamException) {
+            throw new XmlException(xmlStreamException);
         }
     }
 
     /**
-     * Save the data stored in memory to the file.
+     * Read the text content of the current element and advance the reader to its end tag.
      *
-     * @throws XmlException if an I/O error occurs during the process of saving the data.
+     * @param reader the reader positioned on a start tag.
+     * @return the text content of the element.
+     * @throws XmlException if the element contains other elements or the file is not well-formed.
      */
-    private void saveData() throws XmlException {
+    private static String getElementText(final XMLStreamReader reader) throws XmlException {
         try {
-            final DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
-            final DocumentBuilder documentBuilder = documentBuilderFactory.newDocumentBuilder();
-            final Document document = documentBuilder.newDocument();
-            document.appendChild(document.createElement("entities"));
-
-            StreamSupport
-                .stream(super.findAll().spliterator(), false)
-                .forEach(entity -> addEntityToDom(entity, document));
-
-            final TransformerFactory transformerFactory = TransformerFactory.newInstance();
-            final Transformer transformer = transformerFactory.newTransformer();
-
-            transformer.transform(
-                new DOMSource(document),
-                new StreamResult(new File(fileName))
-            );
-        } catch (final ParserConfigurationException | TransformerException exception) {
+            return reader.getElementText();
+        } catch (final XMLStreamException xmlStreamException) {
+            throw new XmlException(xmlStreamException);
+        }
+    }
+
+    /**
+     * Create the factory of the readers used to stream the file, with DTDs and external entities disabled.
+     *
+     * @return the factory of XML stream readers.
+     */
+    private static XMLInputFactory createXmlInputFactory() {
+        final XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    /**
+     * Save the given entities to the file.
+     * <p>
+     * The entities are streamed to a temporary file, which is forced to the disk before it atomically replaces the file,
+     * so a crash right after the replacement cannot leave the file empty or truncated.
+     *
+     * @param entities the entities to be saved.
+     * @throws XmlException if an I/O error occurs during the process of saving the data.
+     */
+    private void saveData(final Collection<T> entities) throws XmlException {
+        final Path temporaryFile = Paths.get(fileName + TEMPORARY_FILE_EXTENSION);
+
+        try (
+            final FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+            final OutputStream outputStream = new BufferedOutputStream(Channels.newOutputStream(channel))
+        ) {
+            final XMLStreamWriter writer = xmlOutputFactory.createXMLStreamWriter(outputStream, StandardCharsets.UTF_8.name());
+
+            try {
+                writer.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+                writer.writeStartElement(ROOT_TAG);
+
+                entities.forEach(entity -> writeEntityNode(entity, writer));
+
+                writer.writeEndElement();
+                writer.writeEndDocument();
+                writer.flush();
+            } finally {
+                writer.close();
+            }
+
+            outputStream.flush();
+            channel.force(true);
+        } catch (final XMLStreamException | IOException exception) {
             throw new XmlException(exception);
         }
+
+        try {
+            Files.move(temporaryFile, Paths.get(fileName), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (final IOException ioException) {
+            throw new XmlException(ioException);
+        }
+    }
+
+    /**
+     * Rewrite the file if there are pending mutations.
+     * <p>
+     * The entities are copied while holding the write lock, so the mutations are only blocked for the duration of the
+     * copy, not of the rewrite.
+     *
+     * @throws XmlException if an I/O error occurs during the process of saving the data; the mutations remain pending.
+     */
+    public void flush() throws XmlException {
+        flushLock.lock();
+        try {
+            withWriteLock(() -> Optional
+                .of(pendingMutations.getAndSet(0))
+                .filter(numberOfMutations -> numberOfMutations > 0)
+                .map(unused -> IterableUtils.asSet(super.findAll()))
+            ).ifPresent(entities -> {
+                try {
+                    saveData(entities);
+                } catch (final XmlException xmlException) {
+                    pendingMutations.incrementAndGet();
+                    throw xmlException;
+                }
+            });
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * @return the most recent failure to flush the pending mutations in the background, if any.
+     */
+    public Optional<XmlException> getLastFlushFailure() {
+        return Optional.ofNullable(lastFlushFailure.get());
+    }
+
+    /**
+     * Stop the periodic flushes and persist the pending mutations.
+     *
+     * @throws XmlException if an I/O error occurs during the process of saving the data.
+     */
+    @Override
+    public void close() throws XmlException {
+        Optional
+            .ofNullable(flushScheduler)
+            .ifPresent(ScheduledExecutorService::shutdown);
+        flush();
+    }
+
+    /**
+     * Record a mutation as pending and rewrite the file if the flush batch size has been reached.
+     *
+     * @throws XmlException if an I/O error occurs during the process of saving the data.
+     */
+    private void markDirty() throws XmlException {
+        Optional
+            .of(pendingMutations.incrementAndGet())
+            .filter(numberOfMutations -> numberOfMutations >= flushBatchSize)
+            .ifPresent(unused -> flush());
     }
 
     @Override
     public Optional<T> save(final T entity) throws ValidatorException {
-        final Optional<T> optional = super.save(entity);
+        final Optional<T> optional = withWriteLock(() -> super.save(entity));
 
         Optional
             .of(optional)
             .filter(Optional::isEmpty)
-            .ifPresent(unused -> saveData());
+            .ifPresent(unused -> markDirty());
 
         return optional;
     }
 
     @Override
     public Optional<T> delete(final ID id) {
-        final Optional<T> optional = super.delete(id);
+        final Optional<T> optional = withWriteLock(() -> super.delete(id));
 
         Optional
             .of(optional)
             .filter(Optional::isPresent)
-            .ifPresent(unused -> saveData());
+            .ifPresent(unused -> markDirty());
 
         return optional;
     }
 
     @Override
     public Optional<T> update(final T entity) throws ValidatorException {
-        final Optional<T> optional = super.update(entity);
+        final Optional<T> optional = withWriteLock(() -> super.update(entity));
 
         Optional
             .of(optional)
             .filter(Optional::isPresent)
-            .ifPresent(unused -> saveData());
+            .ifPresent(unused -> markDirty());
 
         return optional;
     }
 
+    /**
+     * Removes the entities with the given ids, counting the removal of all of them as a single pending mutation, so it
+     * causes at most one rewrite of the file.
+     */
+    @Override
+    public List<T> deleteAll(final Collection<ID> ids) {
+        Validator.validateNonNull(ids);
+        ids.forEach(Validator::validateNonNull);
+
+        final List<T> removedEntities = withWriteLock(() -> ids
+            .stream()
+            .map(super::delete)
+            .flatMap(Optional::stream)
+            .collect(Collectors.toList()));
+
+        Optional
+            .of(removedEntities)
+            .filter(entities -> !entities.isEmpty())
+            .ifPresent(unused -> markDirty());
+
+        return removedEntities;
+    }
+
 }
\ No newline at end of file
@@ -1,13 +1,13 @@
 package ro.ubb.olympics.repository.xml.impl;
 
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
 import ro.ubb.olympics.domain.Athlete;
 import ro.ubb.olympics.domain.validators.Validator;
 import ro.ubb.olympics.domain.validators.ValidatorException;
 import ro.ubb.olympics.repository.xml.AbstractXmlRepository;
 
+import javax.xml.stream.XMLStreamWriter;
+import java.time.Duration;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -25,62 +25,74 @@ public class AthleteXmlRepository extends AbstractXmlRepository<Long, Athlete> {
         super(validator, fileName);
     }
 
+    /**
+     * Initializes the repository with the given validator, filename and write-behind settings.
+     *
+     * @param validator      the validator used to validate the stored entities.
+     * @param fileName       the name of the file in which the data is persisted.
+     * @param flushBatchSize the number of pending mutations which triggers a rewrite of the file.
+     * @param flushInterval  the time between two periodic rewrites of the file, or zero to disable periodic rewrites.
+     */
+    public AthleteXmlRepository(final Validator<Athlete> validator, final String fileName, final int flushBatchSize, final Duration flushInterval) {
+        super(validator, fileName, flushBatchSize, flushInterval);
+    }
+
     @Override
-    protected Athlete createEntityFromNode(final Element element) {
-        validateEntityNode(element);
+    protected Athlete createEntityFromNode(final Map<String, String> node) {
+        validateEntityNode(node);
 
         return new Athlete(
-            Long.parseLong(getTextContentOfTag(element, AthleteXmlRepository.EntityFieldTags.ID.getTag())),
-            getTextContentOfTag(element, AthleteXmlRepository.EntityFieldTags.FIRST_NAME.getTag()),
-            getTextContentOfTag(element, AthleteXmlRepository.EntityFieldTags.LAST_NAME.getTag()),
-            getTextContentOfTag(element, AthleteXmlRepository.EntityFieldTags.COUNTRY.getTag()),
-            Integer.parseInt(getTextContentOfTag(element, AthleteXmlRepository.EntityFieldTags.AGE.getTag()))
+            Long.parseLong(getTextContentOfTag(node, AthleteXmlRepository.EntityFieldTags.ID.getTag())),
+            getTextContentOfTag(node, AthleteXmlRepository.EntityFieldTags.FIRST_NAME.getTag()),
+            getTextContentOfTag(node, AthleteXmlRepository.EntityFieldTags.LAST_NAME.getTag()),
+            getTextContentOfTag(node, AthleteXmlRepository.EntityFieldTags.COUNTRY.getTag()),
+            Integer.parseInt(getTextContentOfTag(node, AthleteXmlRepository.EntityFieldTags.AGE.getTag()))
         );
     }
 
     @Override
-    protected Node createNodeFromEntity(final Athlete entity, final Document document) {
-        final Element element = document.createElement(AthleteXmlRepository.EntityFieldTags.ROOT.getTag());
+    protected void writeEntityNode(final Athlete entity, final XMLStreamWriter writer) {
+        writeStartElement(writer, AthleteXmlRepository.EntityFieldTags.ROOT.getTag());
 
-        addChildWithTextContent(document, element, AthleteXmlRepository.EntityFieldTags.ID.getTag(), entity.getId().toString());
-        addChildWithTextContent(document, element, AthleteXmlRepository.EntityFieldTags.FIRST_NAME.getTag(), entity.getFirstName());
-        addChildWithTextContent(document, element, AthleteXmlRepository.EntityFieldTags.LAST_NAME.getTag(), entity.getLastName());
-        addChildWithTextContent(document, element, AthleteXmlRepository.EntityFieldTags.COUNTRY.getTag(), entity.getCountry());
-        addChildWithTextContent(document, element, AthleteXmlRepository.EntityFieldTags.AGE.getTag(), Integer.toString(entity.getAge()));
+        writeChildWithTextContent(writer, AthleteXmlRepository.EntityFieldTags.ID.getTag(), entity.getId().toString());
+        writeChildWithTextContent(writer, AthleteXmlRepository.EntityFieldTags.FIRST_NAME.getTag(), entity.getFirstName());
+        writeChildWithTextContent(writer, AthleteXmlRepository.EntityFieldTags.LAST_NAME.getTag(), entity.getLastName());
+        writeChildWithTextContent(writer, AthleteXmlRepository.EntityFieldTags.COUNTRY.getTag(), entity.getCountry());
+        writeChildWithTextContent(writer, AthleteXmlRepository.EntityFieldTags.AGE.getTag(), Integer.toString(entity.getAge()));
 
-        return element;
+        writeEndElement(writer);
     }
 
     @Override
-    protected void validateEntityNode(final Element element) throws ValidatorException {
+    protected void validateEntityNode(final Map<String, String> node) throws ValidatorException {
         final StringBuilder errorMessageBuilder = new StringBuilder();
 
         Validator.validateDoesNotThrowException(
-            () -> Long.parseLong(getTextContentOfTag(element, AthleteXmlRepository.EntityFieldTags.ID.getTag())),
+            () -> Long.parseLong(getTextContentOfTag(node, AthleteXmlRepository.EntityFieldTags.ID.getTag())),
             "The ID is a mandatory XML node and it should be a parsable Long value.",
             errorMessageBuilder
         );
 
         Validator.validateDoesNotThrowException(
-            () -> getTextContentOfTag(element, AthleteXmlRepository.EntityFieldTags.FIRST_NAME.getTag()),
+            () -> getTextContentOfTag(node, AthleteXmlRepository.EntityFieldTags.FIRST_NAME.getTag()),
             "The first name is a mandatory XML node and it should be a string.",
             errorMessageBuilder
         );
 
         Validator.validateDoesNotThrowException(
-            () -> getTextContentOfTag(element, AthleteXmlRepository.EntityFieldTags.LAST_NAME.getTag()),
+            () -> getTextContentOfTag(node, AthleteXmlRepository.EntityFieldTags.LAST_NAME.getTag()),
             "The last name is a mandatory XML node and it should be a string.",
             errorMessageBuilder
         );
 
         Validator.validateDoesNotThrowException(
-            () -> getTextContentOfTag(element, AthleteXmlRepository.EntityFieldTags.COUNTRY.getTag()),
+            () -> getTextContentOfTag(node, AthleteXmlRepository.EntityFieldTags.COUNTRY.getTag()),
             "The country is a mandatory XML node and it should be a string.",
             errorMessageBuilder
         );
 
         Validator.validateDoesNotThrowException(
-            () -> Integer.parseInt(getTextContentOfTag(element, AthleteXmlRepository.EntityFieldTags.AGE.getTag())),
+            () -> Integer.parseInt(getTextContentOfTag(node, AthleteXmlRepository.EntityFieldTags.AGE.getTag())),
             "The age is a mandatory XML node and it should be a parsable int value.",
             errorMessageBuilder
         );
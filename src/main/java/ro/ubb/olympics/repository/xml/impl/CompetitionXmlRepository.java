@@ -1,17 +1,17 @@
 package ro.ubb.olympics.repository.xml.impl;
 
 import lombok.SneakyThrows;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
 import ro.ubb.olympics.domain.Competition;
 import ro.ubb.olympics.domain.validators.Validator;
 import ro.ubb.olympics.domain.validators.ValidatorException;
 import ro.ubb.olympics.repository.xml.AbstractXmlRepository;
 
+import javax.xml.stream.XMLStreamWriter;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.time.Duration;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -29,39 +29,51 @@ public class CompetitionXmlRepository extends AbstractXmlRepository<Long, Compet
         super(validator, fileName);
     }
 
+    /**
+     * Initializes the repository with the given validator, filename and write-behind settings.
+     *
+     * @param validator      the validator used to validate the stored entities.
+     * @param fileName       the name of the file in which the data is persisted.
+     * @param flushBatchSize the number of pending mutations which triggers a rewrite of the file.
+     * @param flushInterval  the time between two periodic rewrites of the file, or zero to disable periodic rewrites.
+     */
+    public CompetitionXmlRepository(final Validator<Competition> validator, final String fileName, final int flushBatchSize, final Duration flushInterval) {
+        super(validator, fileName, flushBatchSize, flushInterval);
+    }
+
     @SneakyThrows
     @Override
-    protected Competition createEntityFromNode(final Element element) {
-        validateEntityNode(element);
+    protected Competition createEntityFromNode(final Map<String, String> node) {
+        validateEntityNode(node);
 
         return new Competition(
-            Long.parseLong(getTextContentOfTag(element, EntityFieldTags.ID.getTag())),
-            new SimpleDateFormat("dd-MM-yyyy", Locale.ENGLISH).parse(getTextContentOfTag(element, EntityFieldTags.DATE.getTag())),
-            getTextContentOfTag(element, EntityFieldTags.LOCATION.getTag()),
-            getTextContentOfTag(element, EntityFieldTags.NAME.getTag()),
-            getTextContentOfTag(element, EntityFieldTags.DESCRIPTION.getTag())
+            Long.parseLong(getTextContentOfTag(node, EntityFieldTags.ID.getTag())),
+            new SimpleDateFormat("dd-MM-yyyy", Locale.ENGLISH).parse(getTextContentOfTag(node, EntityFieldTags.DATE.getTag())),
+            getTextContentOfTag(node, EntityFieldTags.LOCATION.getTag()),
+            getTextContentOfTag(node, EntityFieldTags.NAME.getTag()),
+            getTextContentOfTag(node, EntityFieldTags.DESCRIPTION.getTag())
         );
     }
 
     @Override
-    protected Node createNodeFromEntity(final Competition entity, final Document document) {
-        final Element element = document.createElement(EntityFieldTags.ROOT.getTag());
+    protected void writeEntityNode(final Competition entity, final XMLStreamWriter writer) {
+        writeStartElement(writer, EntityFieldTags.ROOT.getTag());
 
-        addChildWithTextContent(document, element, EntityFieldTags.ID.getTag(), entity.getId().toString());
-        addChildWithTextContent(document, element, EntityFieldTags.DATE.getTag(), new SimpleDateFormat("dd-MM-yyyy", Locale.ENGLISH).format(entity.getDate()));
-        addChildWithTextContent(document, element, EntityFieldTags.LOCATION.getTag(), entity.getLocation());
-        addChildWithTextContent(document, element, EntityFieldTags.NAME.getTag(), entity.getName());
-        addChildWithTextContent(document, element, EntityFieldTags.DESCRIPTION.getTag(), entity.getDescription());
+        writeChildWithTextContent(writer, EntityFieldTags.ID.getTag(), entity.getId().toString());
+        writeChildWithTextContent(writer, EntityFieldTags.DATE.getTag(), new SimpleDateFormat("dd-MM-yyyy", Locale.ENGLISH).format(entity.getDate()));
+        writeChildWithTextContent(writer, EntityFieldTags.LOCATION.getTag(), entity.getLocation());
+        writeChildWithTextContent(writer, EntityFieldTags.NAME.getTag(), entity.getName());
+        writeChildWithTextContent(writer, EntityFieldTags.DESCRIPTION.getTag(), entity.getDescription());
 
-        return element;
+        writeEndElement(writer);
     }
 
     @Override
-    protected void validateEntityNode(final Element element) throws ValidatorException {
+    protected void validateEntityNode(final Map<String, String> node) throws ValidatorException {
         final StringBuilder errorMessageBuilder = new StringBuilder();
 
         Validator.validateDoesNotThrowException(
-            () -> Long.parseLong(getTextContentOfTag(element, EntityFieldTags.ID.getTag())),
+            () -> Long.parseLong(getTextContentOfTag(node, EntityFieldTags.ID.getTag())),
             "The ID is a mandatory XML node and it should be a parsable Long value.",
             errorMessageBuilder
         );
@@ -70,7 +82,7 @@ public class CompetitionXmlRepository extends AbstractXmlRepository<Long, Compet
             () -> {
                 try {
                     new SimpleDateFormat("dd-MM-yyyy", Locale.ENGLISH).parse(
-                        getTextContentOfTag(element, EntityFieldTags.DATE.getTag())
+                        getTextContentOfTag(node, EntityFieldTags.DATE.getTag())
                     );
                 } catch (ParseException e) {
                     throw new RuntimeException();
@@ -81,20 +93,20 @@ public class CompetitionXmlRepository extends AbstractXmlRepository<Long, Compet
         );
 
         Validator.validateDoesNotThrowException(
-            () -> getTextContentOfTag(element, EntityFieldTags.LOCATION.getTag()),
+            () -> getTextContentOfTag(node, EntityFieldTags.LOCATION.getTag()),
             "The location is a mandatory XML node and it should be a string.",
             errorMessageBuilder
         );
 
 
         Validator.validateDoesNotThrowException(
-            () -> getTextContentOfTag(element, EntityFieldTags.NAME.getTag()),
+            () -> getTextContentOfTag(node, EntityFieldTags.NAME.getTag()),
             "The name is a mandatory XML node and it should be a string.",
             errorMessageBuilder
         );
 
         Validator.validateDoesNotThrowException(
-            () -> getTextContentOfTag(element, EntityFieldTags.DESCRIPTION.getTag()),
+            () -> getTextContentOfTag(node, EntityFieldTags.DESCRIPTION.getTag()),
             "The description is a mandatory XML node and it should be a string.",
             errorMessageBuilder
         );
@@ -1,13 +1,13 @@
 package ro.ubb.olympics.repository.xml.impl;
 
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
 import ro.ubb.olympics.domain.Participation;
 import ro.ubb.olympics.domain.validators.Validator;
 import ro.ubb.olympics.domain.validators.ValidatorException;
 import ro.ubb.olympics.repository.xml.AbstractXmlRepository;
 
+import javax.xml.stream.XMLStreamWriter;
+import java.time.Duration;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -25,54 +25,66 @@ public class ParticipationXmlRepository extends AbstractXmlRepository<Long, Part
         super(validator, fileName);
     }
 
+    /**
+     * Initializes the repository with the given validator, filename and write-behind settings.
+     *
+     * @param validator      the validator used to validate the stored entities.
+     * @param fileName       the name of the file in which the data is persisted.
+     * @param flushBatchSize the number of pending mutations which triggers a rewrite of the file.
+     * @param flushInterval  the time between two periodic rewrites of the file, or zero to disable periodic rewrites.
+     */
+    public ParticipationXmlRepository(final Validator<Participation> validator, final String fileName, final int flushBatchSize, final Duration flushInterval) {
+        super(validator, fileName, flushBatchSize, flushInterval);
+    }
+
     @Override
-    protected Node createNodeFromEntity(final Participation entity, final Document document) {
-        final Element element = document.createElement(EntityFieldTags.ROOT.getTag());
+    protected void writeEntityNode(final Participation entity, final XMLStreamWriter writer) {
+        writeStartElement(writer, EntityFieldTags.ROOT.getTag());
 
-        addChildWithTextContent(document, element, EntityFieldTags.ID.getTag(), entity.getId().toString());
-        addChildWithTextContent(document, element, EntityFieldTags.ATHLETE_ID.getTag(), entity.getAthleteId().toString());
-        addChildWithTextContent(document, element, EntityFieldTags.COMPETITION_ID.getTag(), entity.getCompetitionId().toString());
-        addChildWithTextContent(document, element, EntityFieldTags.RANK.getTag(), Integer.toString(entity.getRank()));
+        writeChildWithTextContent(writer, EntityFieldTags.ID.getTag(), entity.getId().toString());
+        writeChildWithTextContent(writer, EntityFieldTags.ATHLETE_ID.getTag(), entity.getAthleteId().toString());
+        writeChildWithTextContent(writer, EntityFieldTags.COMPETITION_ID.getTag(), entity.getCompetitionId().toString());
+        writeChildWithTextContent(writer, EntityFieldTags.RANK.getTag(), Integer.toString(entity.getRank()));
 
-        return element;
+        writeEndElement(writer);
     }
 
     @Override
-    protected Participation createEntityFromNode(final Element element) {
-        validateEntityNode(element);
+    protected Participation createEntityFromNode(final Map<String, String> node) {
+        validateEntityNode(node);
 
         return new Participation(
-            Long.parseLong(getTextContentOfTag(element, EntityFieldTags.ID.getTag())),
-            Long.parseLong(getTextContentOfTag(element, EntityFieldTags.ATHLETE_ID.getTag())),
-            Long.parseLong(getTextContentOfTag(element, EntityFieldTags.COMPETITION_ID.getTag())),
-            Integer.parseInt(getTextContentOfTag(element, EntityFieldTags.RANK.getTag()))
+            Long.parseLong(getTextContentOfTag(node, EntityFieldTags.ID.getTag())),
+            Long.parseLong(getTextContentOfTag(node, EntityFieldTags.ATHLETE_ID.getTag())),
+            Long.parseLong(getTextContentOfTag(node, EntityFieldTags.COMPETITION_ID.getTag())),
+            Integer.parseInt(getTextContentOfTag(node, EntityFieldTags.RANK.getTag()))
         );
     }
 
     @Override
-    protected void validateEntityNode(final Element element) throws ValidatorException {
+    protected void validateEntityNode(final Map<String, String> node) throws ValidatorException {
         final StringBuilder errorMessageBuilder = new StringBuilder();
 
         Validator.validateDoesNotThrowException(
-            () -> Long.parseLong(getTextContentOfTag(element, EntityFieldTags.ID.getTag())),
+            () -> Long.parseLong(getTextContentOfTag(node, EntityFieldTags.ID.getTag())),
             "The ID is a mandatory XML node and it should be a parsable Long value.",
             errorMessageBuilder
         );
 
         Validator.validateDoesNotThrowException(
-            () -> Long.parseLong(getTextContentOfTag(element, EntityFieldTags.ATHLETE_ID.getTag())),
+            () -> Long.parseLong(getTextContentOfTag(node, EntityFieldTags.ATHLETE_ID.getTag())),
             "The athleteId is a mandatory XML node and it should be a parsable Long value",
             errorMessageBuilder
         );
 
         Validator.validateDoesNotThrowException(
-            () -> Long.parseLong(getTextContentOfTag(element, EntityFieldTags.COMPETITION_ID.getTag())),
+            () -> Long.parseLong(getTextContentOfTag(node, EntityFieldTags.COMPETITION_ID.getTag())),
             "The competitionId is a mandatory XML node and it should be a parsable Long value",
             errorMessageBuilder
         );
 
         Validator.validateDoesNotThrowException(
-            () -> Integer.parseInt(getTextContentOfTag(element, EntityFieldTags.RANK.getTag())),
+            () -> Integer.parseInt(getTextContentOfTag(node, EntityFieldTags.RANK.getTag())),
             "The rank is a mandatory XML node and it should be a parsable int value.",
             errorMessageBuilder
         );
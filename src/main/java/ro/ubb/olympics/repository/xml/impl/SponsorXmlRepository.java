@@ -1,13 +1,13 @@
 package ro.ubb.olympics.repository.xml.impl;
 
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
 import ro.ubb.olympics.domain.Sponsor;
 import ro.ubb.olympics.domain.validators.Validator;
 import ro.ubb.olympics.domain.validators.ValidatorException;
 import ro.ubb.olympics.repository.xml.AbstractXmlRepository;
 
+import javax.xml.stream.XMLStreamWriter;
+import java.time.Duration;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -25,46 +25,58 @@ public class SponsorXmlRepository extends AbstractXmlRepository<Long, Sponsor> {
         super(validator, fileName);
     }
 
+    /**
+     * Initializes the repository with the given validator, filename and write-behind settings.
+     *
+     * @param validator      the validator used to validate the stored entities.
+     * @param fileName       the name of the file in which the data is persisted.
+     * @param flushBatchSize the number of pending mutations which triggers a rewrite of the file.
+     * @param flushInterval  the time between two periodic rewrites of the file, or zero to disable periodic rewrites.
+     */
+    public SponsorXmlRepository(final Validator<Sponsor> validator, final String fileName, final int flushBatchSize, final Duration flushInterval) {
+        super(validator, fileName, flushBatchSize, flushInterval);
+    }
+
     @Override
-    protected Sponsor createEntityFromNode(final Element element) {
-        validateEntityNode(element);
+    protected Sponsor createEntityFromNode(final Map<String, String> node) {
+        validateEntityNode(node);
 
         return new Sponsor(
-            Long.parseLong(getTextContentOfTag(element, EntityFieldTags.ID.getTag())),
-            getTextContentOfTag(element, EntityFieldTags.NAME.getTag()),
-            getTextContentOfTag(element, EntityFieldTags.COUNTRY.getTag())
+            Long.parseLong(getTextContentOfTag(node, EntityFieldTags.ID.getTag())),
+            getTextContentOfTag(node, EntityFieldTags.NAME.getTag()),
+            getTextContentOfTag(node, EntityFieldTags.COUNTRY.getTag())
         );
     }
 
     @Override
-    protected Node createNodeFromEntity(final Sponsor entity, final Document document) {
-        final Element element = document.createElement(EntityFieldTags.ROOT.getTag());
+    protected void writeEntityNode(final Sponsor entity, final XMLStreamWriter writer) {
+        writeStartElement(writer, EntityFieldTags.ROOT.getTag());
 
-        addChildWithTextContent(document, element, EntityFieldTags.ID.getTag(), entity.getId().toString());
-        addChildWithTextContent(document, element, EntityFieldTags.NAME.getTag(), entity.getName());
-        addChildWithTextContent(document, element, EntityFieldTags.COUNTRY.getTag(), entity.getCountry());
+        writeChildWithTextContent(writer, EntityFieldTags.ID.getTag(), entity.getId().toString());
+        writeChildWithTextContent(writer, EntityFieldTags.NAME.getTag(), entity.getName());
+        writeChildWithTextContent(writer, EntityFieldTags.COUNTRY.getTag(), entity.getCountry());
 
-        return element;
+        writeEndElement(writer);
     }
 
     @Override
-    protected void validateEntityNode(final Element element) throws ValidatorException {
+    protected void validateEntityNode(final Map<String, String> node) throws ValidatorException {
         final StringBuilder errorMessageBuilder = new StringBuilder();
 
         Validator.validateDoesNotThrowException(
-            () -> Long.parseLong(getTextContentOfTag(element, EntityFieldTags.ID.getTag())),
+            () -> Long.parseLong(getTextContentOfTag(node, EntityFieldTags.ID.getTag())),
             "The ID is a mandatory XML node and it should be a parsable Long value.",
             errorMessageBuilder
         );
 
         Validator.validateDoesNotThrowException(
-            () -> getTextContentOfTag(element, EntityFieldTags.NAME.getTag()),
+            () -> getTextContentOfTag(node, EntityFieldTags.NAME.getTag()),
             "The name is a mandatory XML node and it should be a string.",
             errorMessageBuilder
         );
 
         Validator.validateDoesNotThrowException(
-            () -> getTextContentOfTag(element, EntityFieldTags.COUNTRY.getTag()),
+            () -> getTextContentOfTag(node, EntityFieldTags.COUNTRY.getTag()),
             "The country is a mandatory XML node and it should be a string.",
             errorMessageBuilder
         );
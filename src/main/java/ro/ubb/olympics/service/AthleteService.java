@@ -3,12 +3,14 @@ package ro.ubb.olympics.service;
 import ro.ubb.olympics.domain.Athlete;
 import ro.ubb.olympics.domain.validators.ValidatorException;
 import ro.ubb.olympics.repository.Repository;
+import ro.ubb.olympics.repository.index.HashIndex;
+import ro.ubb.olympics.repository.index.Index;
+import ro.ubb.olympics.utils.IterableUtils;
 
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
 
 /**
  * Service that handles repository operations with Athlete objects.
@@ -16,6 +18,8 @@ import java.util.stream.StreamSupport;
 public class AthleteService {
 
     private final Repository<Long, Athlete> repository;
+    private final Index<String, Athlete> firstNameIndex;
+    private final Index<String, Athlete> countryIndex;
 
     /**
      * Constructor for the Athlete service
@@ -24,6 +28,8 @@ public class AthleteService {
      */
     public AthleteService(final Repository<Long, Athlete> repository) {
         this.repository = repository;
+        this.firstNameIndex = HashIndex.on(repository, Athlete::getFirstName);
+        this.countryIndex = HashIndex.on(repository, Athlete::getCountry);
     }
 
     /**
@@ -49,12 +55,10 @@ public class AthleteService {
     /**
      * Get all the athletes
      *
-     * @return a set containing all the the athletes
+     * @return an unmodifiable set containing all the the athletes
      */
     public Set<Athlete> getAllAthletes() {
-        return StreamSupport
-            .stream(repository.findAll().spliterator(), false)
-            .collect(Collectors.toSet());
+        return IterableUtils.asSet(repository.findAll());
     }
 
     /**
@@ -94,10 +98,30 @@ public class AthleteService {
      * @return the filtered athletes
      */
     public Set<Athlete> filterAthletesByPredicate(final Predicate<Athlete> filter) {
-        return StreamSupport
-            .stream(repository.findAll().spliterator(), false)
+        return IterableUtils
+            .stream(repository.findAll())
             .filter(filter)
             .collect(Collectors.toSet());
     }
 
+    /**
+     * Get the athletes with a given first name, through an index on it.
+     *
+     * @param firstName ~ the first name of the athletes
+     * @return the set of athletes with the given first name
+     */
+    public Set<Athlete> getAthletesByFirstName(final String firstName) {
+        return firstNameIndex.find(firstName);
+    }
+
+    /**
+     * Get the athletes with a given provenience country, through an index on it.
+     *
+     * @param country ~ the provenience country of the athletes
+     * @return the set of athletes with the given provenience country
+     */
+    public Set<Athlete> getAthletesByCountry(final String country) {
+        return countryIndex.find(country);
+    }
+
 }
\ No newline at end of file
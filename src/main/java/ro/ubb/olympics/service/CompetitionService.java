@@ -3,12 +3,14 @@ package ro.ubb.olympics.service;
 import ro.ubb.olympics.domain.Competition;
 import ro.ubb.olympics.domain.validators.ValidatorException;
 import ro.ubb.olympics.repository.Repository;
+import ro.ubb.olympics.repository.index.HashIndex;
+import ro.ubb.olympics.repository.index.Index;
+import ro.ubb.olympics.utils.IterableUtils;
 
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
 
 /**
  * Service that handles repository operations with Competition objects.
@@ -16,6 +18,7 @@ import java.util.stream.StreamSupport;
 public class CompetitionService {
 
     private final Repository<Long, Competition> repository;
+    private final Index<String, Competition> locationIndex;
 
     /**
      * Constructor for the CompetitionService
@@ -24,6 +27,7 @@ public class CompetitionService {
      */
     public CompetitionService(final Repository<Long, Competition> repository) {
         this.repository = repository;
+        this.locationIndex = HashIndex.on(repository, Competition::getLocation);
     }
 
     /**
@@ -49,12 +53,10 @@ public class CompetitionService {
     /**
      * Get all the competitions
      *
-     * @return a set containing all the the competitions
+     * @return an unmodifiable set containing all the the competitions
      */
     public Set<Competition> getAllCompetitions() {
-        return StreamSupport
-            .stream(repository.findAll().spliterator(), false)
-            .collect(Collectors.toSet());
+        return IterableUtils.asSet(repository.findAll());
     }
 
     /**
@@ -95,10 +97,20 @@ public class CompetitionService {
      * @return the filtered competitions
      */
     public Set<Competition> filterCompetitionsByPredicate(final Predicate<Competition> filter) {
-        return StreamSupport
-            .stream(repository.findAll().spliterator(), false)
+        return IterableUtils
+            .stream(repository.findAll())
             .filter(filter)
             .collect(Collectors.toSet());
     }
 
+    /**
+     * Get the competitions with a given location, through an index on it.
+     *
+     * @param location ~ the location of the competitions
+     * @return the set of competitions with the given location
+     */
+    public Set<Competition> getCompetitionsByLocation(final String location) {
+        return locationIndex.find(location);
+    }
+
 }
\ No newline at end of file
@@ -11,6 +11,9 @@ import java.util.Set;
 
 /**
  * Service used for reports.
+ * <p>
+ * The equality and range filters are answered by the indexes maintained by the services, so their cost is proportional
+ * to the number of entities found rather than to the number of entities stored.
  */
 @AllArgsConstructor
 public class FilterService {
@@ -28,9 +31,7 @@ public class FilterService {
      * @return a set containing the required athletes.
      */
     public Set<Athlete> filterAthletesByFirstName(final String firstName) {
-        return athleteService.filterAthletesByPredicate(
-            athlete -> athlete.getFirstName().equals(firstName)
-        );
+        return athleteService.getAthletesByFirstName(firstName);
     }
 
     /**
@@ -40,9 +41,7 @@ public class FilterService {
      * @return a set containing the required athletes.
      */
     public Set<Athlete> filterAthletesByCountry(final String country) {
-        return athleteService.filterAthletesByPredicate(
-            athlete -> athlete.getCountry().equals(country)
-        );
+        return athleteService.getAthletesByCountry(country);
     }
 
     /**
@@ -52,9 +51,7 @@ public class FilterService {
      * @return a set containing the required competitions.
      */
     public Set<Competition> filterCompetitionsByLocation(final String location) {
-        return competitionService.filterCompetitionsByPredicate(
-            competition -> competition.getLocation().equals(location)
-        );
+        return competitionService.getCompetitionsByLocation(location);
     }
 
     /**
@@ -64,9 +61,7 @@ public class FilterService {
      * @return a set containing the required participations.
      */
     public Set<Participation> filterParticipationsByRank(final int rank) {
-        return participationService.filterParticipationsByPredicate(
-            participation -> participation.getRank() == rank
-        );
+        return participationService.getParticipationsByRank(rank);
     }
 
     /**
@@ -76,9 +71,7 @@ public class FilterService {
      * @return a set containing the required participations.
      */
     public Set<Participation> filterParticipationsByCompetitionId(final Long competitionId) {
-        return participationService.filterParticipationsByPredicate(
-            participation -> participation.getCompetitionId().equals(competitionId)
-        );
+        return participationService.getParticipationsByCompetitionId(competitionId);
     }
 
     /**
@@ -88,9 +81,7 @@ public class FilterService {
      * @return a set containing the required sponsors.
      */
     public Set<Sponsor> filterSponsorsByCountry(final String country) {
-        return sponsorService.filterSponsorsByPredicate(
-            sponsor -> sponsor.getCountry().equals(country)
-        );
+        return sponsorService.getSponsorsByCountry(country);
     }
 
     /**
@@ -100,9 +91,7 @@ public class FilterService {
      * @return a set containing the required sponsorships.
      */
     public Set<Sponsorship> filterSponsorshipsByMoneyContributionGreaterOrEqual(final int moneyContribution) {
-        return sponsorshipService.filterSponsorshipsByPredicate(
-            sponsorship -> sponsorship.getMoneyContribution() >= moneyContribution
-        );
+        return sponsorshipService.getSponsorshipsByMoneyContributionAtLeast(moneyContribution);
     }
 
     /**
@@ -112,9 +101,7 @@ public class FilterService {
      * @return a set containing the required sponsorships.
      */
     public Set<Sponsorship> filterSponsorshipsBySponsorId(final Long sponsorId) {
-        return sponsorshipService.filterSponsorshipsByPredicate(
-            sponsorship -> sponsorship.getSponsorId().equals(sponsorId)
-        );
+        return sponsorshipService.getSponsorshipsBySponsorId(sponsorId);
     }
 
 }
\ No newline at end of file
@@ -2,13 +2,20 @@ package ro.ubb.olympics.service;
 
 import ro.ubb.olympics.domain.Participation;
 import ro.ubb.olympics.domain.validators.ValidatorException;
+import ro.ubb.olympics.repository.BulkRepository;
 import ro.ubb.olympics.repository.Repository;
+import ro.ubb.olympics.repository.index.Index;
+import ro.ubb.olympics.repository.index.RangeIndex;
+import ro.ubb.olympics.repository.row.KeyColumn;
+import ro.ubb.olympics.repository.row.RowIndex;
+import ro.ubb.olympics.repository.row.RowRangeIndex;
+import ro.ubb.olympics.utils.IterableUtils;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
 
 /**
  * Service that handles repository operations with Participation objects.
@@ -18,6 +25,10 @@ import java.util.stream.StreamSupport;
 public class ParticipationService {
 
     private final Repository<Long, Participation> repository;
+    private final BulkRepository<Long, Participation> bulkRepository;
+    private final Index<Long, Participation> athleteIdIndex;
+    private final Index<Long, Participation> competitionIdIndex;
+    private final RangeIndex<Participation> rankIndex;
 
     /**
      * Constructor for the service
@@ -26,6 +37,10 @@ public class ParticipationService {
      */
     public ParticipationService(final Repository<Long, Participation> repository) {
         this.repository = repository;
+        this.bulkRepository = BulkRepository.of(repository);
+        this.athleteIdIndex = RowIndex.on(repository, KeyColumn.FIRST, Participation::getAthleteId);
+        this.competitionIdIndex = RowIndex.on(repository, KeyColumn.SECOND, Participation::getCompetitionId);
+        this.rankIndex = RowRangeIndex.on(repository, Participation::getRank);
     }
 
     /**
@@ -49,12 +64,10 @@ public class ParticipationService {
     }
 
     /**
-     * @return all of the participations in the service
+     * @return an unmodifiable set of all of the participations in the service
      */
     public Set<Participation> getAllParticipations() {
-        return StreamSupport
-            .stream(repository.findAll().spliterator(), false)
-            .collect(Collectors.toSet());
+        return IterableUtils.asSet(repository.findAll());
     }
 
     /**
@@ -95,11 +108,81 @@ public class ParticipationService {
      * @return the set of all participations with the given rank
      */
     public Set<Participation> filterParticipationsByPredicate(final Predicate<Participation> filter) {
-        return StreamSupport
-            .stream(repository.findAll().spliterator(), false)
+        return IterableUtils
+            .stream(repository.findAll())
             .filter(filter)
             .collect(Collectors.toSet());
     }
 
+    /**
+     * Get the participations with a given competition ID, through an index on it.
+     *
+     * @param competitionId ~ the competition ID of the participations
+     * @return the set of participations with the given competition ID
+     */
+    public Set<Participation> getParticipationsByCompetitionId(final Long competitionId) {
+        return competitionIdIndex.find(competitionId);
+    }
+
+    /**
+     * Get the participations with a given rank, through a sorted index on the rank.
+     *
+     * @param rank ~ the rank of the participations
+     * @return the set of participations with the given rank
+     */
+    public Set<Participation> getParticipationsByRank(final int rank) {
+        return rankIndex.find(rank);
+    }
+
+    /**
+     * Get the participations with a rank between two values, through a sorted index on the rank.
+     *
+     * @param minimumRank ~ the smallest rank, inclusive
+     * @param maximumRank ~ the largest rank, inclusive
+     * @return the set of participations with a rank in the given range
+     */
+    public Set<Participation> getParticipationsByRankBetween(final int minimumRank, final int maximumRank) {
+        return rankIndex.findBetween(minimumRank, maximumRank);
+    }
+
+    /**
+     * Get the participations of a given athlete, through an index on the athlete ID.
+     *
+     * @param athleteId ~ the athlete ID of the participations
+     * @return the set of participations with the given athlete ID
+     */
+    public Set<Participation> getParticipationsByAthleteId(final Long athleteId) {
+        return athleteIdIndex.find(athleteId);
+    }
+
+    /**
+     * Delete all the participations with a given athlete ID, as a single bulk operation on the repository.
+     *
+     * @param athleteId ~ the athlete ID of the participations
+     * @return the list of deleted participations
+     */
+    public List<Participation> deleteParticipationsByAthleteId(final Long athleteId) {
+        return bulkRepository.deleteAll(
+            getParticipationsByAthleteId(athleteId)
+                .stream()
+                .map(Participation::getId)
+                .collect(Collectors.toList())
+        );
+    }
+
+    /**
+     * Delete all the participations with a given competition ID, as a single bulk operation on the repository.
+     *
+     * @param competitionId ~ the competition ID of the participations
+     * @return the list of deleted participations
+     */
+    public List<Participation> deleteParticipationsByCompetitionId(final Long competitionId) {
+        return bulkRepository.deleteAll(
+            getParticipationsByCompetitionId(competitionId)
+                .stream()
+                .map(Participation::getId)
+                .collect(Collectors.toList())
+        );
+    }
 
 }
\ No newline at end of file
@@ -1,30 +1,75 @@
 package ro.ubb.olympics.service;
 
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Getter;
 import ro.ubb.olympics.domain.Athlete;
+import ro.ubb.olympics.domain.BaseEntity;
 import ro.ubb.olympics.domain.Competition;
 import ro.ubb.olympics.domain.Participation;
 import ro.ubb.olympics.domain.Sponsor;
 import ro.ubb.olympics.domain.Sponsorship;
+import ro.ubb.olympics.dto.AllReportsDTO;
 import ro.ubb.olympics.dto.AthleteParticipationReportDTO;
 import ro.ubb.olympics.dto.CompetitionParticipationReportDTO;
 import ro.ubb.olympics.dto.CompetitionSponsorshipsReportDTO;
 import ro.ubb.olympics.dto.SponsorContributionReportDTO;
 import ro.ubb.olympics.repository.Repository;
+import ro.ubb.olympics.repository.VersionClock;
+import ro.ubb.olympics.repository.row.KeyColumn;
+import ro.ubb.olympics.repository.row.mapper.ParticipationRowMapper;
+import ro.ubb.olympics.repository.row.mapper.SponsorshipRowMapper;
+import ro.ubb.olympics.service.report.FusedScan;
+import ro.ubb.olympics.service.report.MaterializedRanking;
+import ro.ubb.olympics.service.report.Ranking;
+import ro.ubb.olympics.service.report.RankingPage;
+import ro.ubb.olympics.service.report.ReportCache;
+import ro.ubb.olympics.service.report.RowMeasure;
 import ro.ubb.olympics.utils.Pair;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.Stream;
 
 /**
  * Service used for reports.
+ * <p>
+ * Each report is a {@link Ranking} of the entities of a repository by a total over the entities of another repository
+ * which reference them. When both repositories are observable, the ranking is materialized: the totals and the order
+ * are maintained as the repositories change, and a report only copies the ranking. Otherwise, the report scans the
+ * snapshots of both repositories.
+ * <p>
+ * Either way, a report reflects both repositories at the same point in time, as recorded by the shared
+ * {@link VersionClock}, so it never sees a sponsorship or a participation whose sponsor, competition or athlete was
+ * deleted by a concurrent change, and it is produced without blocking the writers. Entities with equal totals are
+ * ordered by their IDs.
+ * <p>
+ * {@link #generateAllReports()} produces every report from a single {@link FusedScan}, which reads each repository at
+ * most once, feeding all the reports which need it.
+ * <p>
+ * Every report can also be generated by pages of a given size, such as the top ten entries, followed by the pages
+ * after them: a materialized ranking seeks the first entry of the page, and a scan keeps only the entries of the page
+ * in a bounded heap.
+ * <p>
+ * The scans are partitioned across a fork/join pool of a configurable parallelism. They run as a single task by
+ * default, and give the same reports whatever the parallelism. The pool belongs to the service, and its threads are
+ * stopped when the service is closed.
+ * <p>
+ * The generated reports are kept in a {@link ReportCache} with the versions of the repositories they depend on, so
+ * asking again for a report whose repositories did not change returns the same report without generating it.
  */
 @Getter
-@AllArgsConstructor
-public class ReportService {
+public class ReportService implements AutoCloseable {
+
+    /**
+     * The number of threads scanning the repositories when none is specified.
+     */
+    public static final int DEFAULT_PARALLELISM = 1;
+
+    private static final RowMeasure<Sponsorship> SPONSOR_CONTRIBUTION = new RowMeasure<>(new SponsorshipRowMapper(), KeyColumn.SECOND, IntUnaryOperator.identity());
+    private static final RowMeasure<Sponsorship> COMPETITION_SPONSORSHIPS = new RowMeasure<>(new SponsorshipRowMapper(), KeyColumn.FIRST, moneyContribution -> 1);
+    private static final RowMeasure<Participation> ATHLETE_PARTICIPATIONS = new RowMeasure<>(new ParticipationRowMapper(), KeyColumn.FIRST, rank -> 1);
+    private static final RowMeasure<Participation> COMPETITION_PARTICIPATIONS = new RowMeasure<>(new ParticipationRowMapper(), KeyColumn.SECOND, rank -> 1);
 
     private final Repository<Long, Sponsorship> sponsorshipRepository;
     private final Repository<Long, Sponsor> sponsorRepository;
@@ -32,6 +77,117 @@ public class ReportService {
     private final Repository<Long, Participation> participationRepository;
     private final Repository<Long, Athlete> athleteRepository;
 
+    @Getter(AccessLevel.NONE)
+    private final Ranking<Sponsor> sponsorContributions;
+    @Getter(AccessLevel.NONE)
+    private final Ranking<Competition> competitionSponsorships;
+    @Getter(AccessLevel.NONE)
+    private final Ranking<Athlete> athleteParticipations;
+    @Getter(AccessLevel.NONE)
+    private final Ranking<Competition> competitionParticipations;
+    @Getter(AccessLevel.NONE)
+    private final ForkJoinPool pool;
+
+    @Getter(AccessLevel.NONE)
+    private final ReportCache<SponsorContributionReportDTO> sponsorContributionsReports;
+    @Getter(AccessLevel.NONE)
+    private final ReportCache<CompetitionSponsorshipsReportDTO> competitionSponsorshipsReports;
+    @Getter(AccessLevel.NONE)
+    private final ReportCache<AthleteParticipationReportDTO> athleteParticipationReports;
+    @Getter(AccessLevel.NONE)
+    private final ReportCache<CompetitionParticipationReportDTO> competitionParticipationReports;
+    @Getter(AccessLevel.NONE)
+    private final ReportCache<AllReportsDTO> allReports;
+
+    /**
+     * Initializes the service, building the rankings of the reports over the given repositories, which are scanned by a
+     * single thread.
+     *
+     * @param sponsorshipRepository   the repository of the sponsorships.
+     * @param sponsorRepository       the repository of the sponsors.
+     * @param competitionRepository   the repository of the competitions.
+     * @param participationRepository the repository of the participations.
+     * @param athleteRepository       the repository of the athletes.
+     */
+    public ReportService(
+        final Repository<Long, Sponsorship> sponsorshipRepository,
+        final Repository<Long, Sponsor> sponsorRepository,
+        final Repository<Long, Competition> competitionRepository,
+        final Repository<Long, Participation> participationRepository,
+        final Repository<Long, Athlete> athleteRepository
+    ) {
+        this(sponsorshipRepository, sponsorRepository, competitionRepository, participationRepository, athleteRepository, DEFAULT_PARALLELISM);
+    }
+
+    /**
+     * Initializes the service, building the rankings of the reports over the given repositories.
+     *
+     * @param sponsorshipRepository   the repository of the sponsorships.
+     * @param sponsorRepository       the repository of the sponsors.
+     * @param competitionRepository   the repository of the competitions.
+     * @param participationRepository the repository of the participations.
+     * @param athleteRepository       the repository of the athletes.
+     * @param parallelism             the number of threads scanning the repositories.
+     */
+    public ReportService(
+        final Repository<Long, Sponsorship> sponsorshipRepository,
+        final Repository<Long, Sponsor> sponsorRepository,
+        final Repository<Long, Competition> competitionRepository,
+        final Repository<Long, Participation> participationRepository,
+        final Repository<Long, Athlete> athleteRepository,
+        final int parallelism
+    ) {
+        this.sponsorshipRepository = sponsorshipRepository;
+        this.sponsorRepository = sponsorRepository;
+        this.competitionRepository = competitionRepository;
+        this.participationRepository = participationRepository;
+        this.athleteRepository = athleteRepository;
+        this.sponsorContributions = MaterializedRanking.on(sponsorRepository, sponsorshipRepository, SPONSOR_CONTRIBUTION);
+        this.competitionSponsorships = MaterializedRanking.on(competitionRepository, sponsorshipRepository, COMPETITION_SPONSORSHIPS);
+        this.athleteParticipations = MaterializedRanking.on(athleteRepository, participationRepository, ATHLETE_PARTICIPATIONS);
+        this.competitionParticipations = MaterializedRanking.on(competitionRepository, participationRepository, COMPETITION_PARTICIPATIONS);
+        this.pool = new ForkJoinPool(parallelism);
+        this.sponsorContributionsReports = new ReportCache<>(List.of(sponsorRepository, sponsorshipRepository));
+        this.competitionSponsorshipsReports = new ReportCache<>(List.of(competitionRepository, sponsorshipRepository));
+        this.athleteParticipationReports = new ReportCache<>(List.of(athleteRepository, participationRepository));
+        this.competitionParticipationReports = new ReportCache<>(List.of(competitionRepository, participationRepository));
+        this.allReports = new ReportCache<>(List.of(sponsorRepository, sponsorshipRepository, competitionRepository, participationRepository, athleteRepository));
+    }
+
+    /**
+     * @return the caches of the reports.
+     */
+    private Stream<ReportCache<?>> reportCaches() {
+        return Stream.of(sponsorContributionsReports, competitionSponsorshipsReports, athleteParticipationReports, competitionParticipationReports, allReports);
+    }
+
+    /**
+     * @return the number of reports served from the caches so far.
+     */
+    public long getReportCacheHits() {
+        return reportCaches().mapToLong(ReportCache::getHits).sum();
+    }
+
+    /**
+     * @return the number of reports generated so far, as they were not cached for the current versions of their
+     * repositories.
+     */
+    public long getReportCacheMisses() {
+        return reportCaches().mapToLong(ReportCache::getMisses).sum();
+    }
+
+    /**
+     * Compute a page of a ranking, running its scan, if any, in the pool of the service.
+     *
+     * @param ranking the ranking.
+     * @param page    the page.
+     * @param <P>     the type of the ranked entities
+     * @return the entries of the page.
+     */
+    private <P extends BaseEntity<Long>> List<Pair<P, Integer>> rank(final Ranking<P> ranking, final RankingPage page) {
+        return FusedScan.of(List.of(ranking), page, pool).getRanking(ranking);
+    }
+
     /**
      * Generate a report containing the amount of money contributed by each sponsor,
      * sorted decreasingly by the amount of money contributed.
@@ -39,28 +195,18 @@ public class ReportService {
      * @return the required report
      */
     public SponsorContributionReportDTO generateSponsorContributionsReport() {
-        final Map<Long, Integer> sponsorContributions = new HashMap<>();
-
-        sponsorRepository
-            .findAll()
-            .forEach(sponsor -> sponsorContributions.putIfAbsent(sponsor.getId(), 0));
-
-        sponsorshipRepository
-            .findAll()
-            .forEach(sponsorship -> sponsorContributions.put(
-                sponsorship.getSponsorId(),
-                sponsorContributions.get(sponsorship.getSponsorId()) + sponsorship.getMoneyContribution()
-            ));
-
-        final List<Pair<Sponsor, Integer>> sponsorContributionsPairs =
-            sponsorContributions
-                .entrySet()
-                .stream()
-                .map(entry -> new Pair<>(sponsorRepository.findOne(entry.getKey()).orElseThrow(), entry.getValue()))
-                .sorted((a, b) -> b.getSecond().compareTo(a.getSecond()))
-                .collect(Collectors.toList());
+        return generateSponsorContributionsReport(RankingPage.all());
+    }
 
-        return new SponsorContributionReportDTO(sponsorContributionsPairs);
+    /**
+     * Generate a page of the report containing the amount of money contributed by each sponsor, keeping only the sponsors
+     * of the page while the repositories are scanned, instead of sorting all of them.
+     *
+     * @param page the page, the first one or the one following the entries of a previous page
+     * @return the required page of the report
+     */
+    public SponsorContributionReportDTO generateSponsorContributionsReport(final RankingPage page) {
+        return sponsorContributionsReports.get(page, reportPage -> new SponsorContributionReportDTO(rank(sponsorContributions, reportPage)));
     }
 
     /**
@@ -70,28 +216,18 @@ public class ReportService {
      * @return the required report
      */
     public CompetitionSponsorshipsReportDTO generateCompetitionSponsorshipsReport() {
-        final Map<Long, Integer> competitionSponsorships = new HashMap<>();
-
-        competitionRepository
-            .findAll()
-            .forEach(competition -> competitionSponsorships.putIfAbsent(competition.getId(), 0));
-
-        sponsorshipRepository
-            .findAll()
-            .forEach(sponsorship -> competitionSponsorships.put(
-                sponsorship.getCompetitionId(),
-                competitionSponsorships.get(sponsorship.getCompetitionId()) + 1
-            ));
-
-        final List<Pair<Competition, Integer>> competitionSponsorshipsPairs =
-            competitionSponsorships
-                .entrySet()
-                .stream()
-                .map(entry -> new Pair<>(competitionRepository.findOne(entry.getKey()).orElseThrow(), entry.getValue()))
-                .sorted((a, b) -> b.getSecond().compareTo(a.getSecond()))
-                .collect(Collectors.toList());
+        return generateCompetitionSponsorshipsReport(RankingPage.all());
+    }
 
-        return new CompetitionSponsorshipsReportDTO(competitionSponsorshipsPairs);
+    /**
+     * Generate a page of the report containing the amount of sponsorships for each competition, keeping only the competitions
+     * of the page while the repositories are scanned, instead of sorting all of them.
+     *
+     * @param page the page, the first one or the one following the entries of a previous page
+     * @return the required page of the report
+     */
+    public CompetitionSponsorshipsReportDTO generateCompetitionSponsorshipsReport(final RankingPage page) {
+        return competitionSponsorshipsReports.get(page, reportPage -> new CompetitionSponsorshipsReportDTO(rank(competitionSponsorships, reportPage)));
     }
 
     /**
@@ -101,28 +237,18 @@ public class ReportService {
      * @return the required report
      */
     public AthleteParticipationReportDTO generateAthleteParticipationReport() {
-        final Map<Long, Integer> athleteParticipation = new HashMap<>();
-
-        athleteRepository
-            .findAll()
-            .forEach(athlete -> athleteParticipation.putIfAbsent(athlete.getId(), 0));
-
-        participationRepository
-            .findAll()
-            .forEach(participation -> athleteParticipation.put(
-                participation.getAthleteId(),
-                athleteParticipation.get(participation.getAthleteId()) + 1
-            ));
-
-        final List<Pair<Athlete, Integer>> athleteParticipationPairs =
-            athleteParticipation
-                .entrySet()
-                .stream()
-                .map(entry -> new Pair<>(athleteRepository.findOne(entry.getKey()).orElseThrow(), entry.getValue()))
-                .sorted((a, b) -> b.getSecond().compareTo(a.getSecond()))
-                .collect(Collectors.toList());
+        return generateAthleteParticipationReport(RankingPage.all());
+    }
 
-        return new AthleteParticipationReportDTO(athleteParticipationPairs);
+    /**
+     * Generate a page of the report containing the number of participations for each athlete, keeping only the athletes
+     * of the page while the repositories are scanned, instead of sorting all of them.
+     *
+     * @param page the page, the first one or the one following the entries of a previous page
+     * @return the required page of the report
+     */
+    public AthleteParticipationReportDTO generateAthleteParticipationReport(final RankingPage page) {
+        return athleteParticipationReports.get(page, reportPage -> new AthleteParticipationReportDTO(rank(athleteParticipations, reportPage)));
     }
 
     /**
@@ -132,28 +258,55 @@ public class ReportService {
      * @return the required report
      */
     public CompetitionParticipationReportDTO generateCompetitionParticipationReport() {
-        final Map<Long, Integer> competitionParticipation = new HashMap<>();
+        return generateCompetitionParticipationReport(RankingPage.all());
+    }
 
-        competitionRepository
-            .findAll()
-            .forEach(competition -> competitionParticipation.putIfAbsent(competition.getId(), 0));
+    /**
+     * Generate a page of the report containing the number of athletes for each competition, keeping only the competitions
+     * of the page while the repositories are scanned, instead of sorting all of them.
+     *
+     * @param page the page, the first one or the one following the entries of a previous page
+     * @return the required page of the report
+     */
+    public CompetitionParticipationReportDTO generateCompetitionParticipationReport(final RankingPage page) {
+        return competitionParticipationReports.get(page, reportPage -> new CompetitionParticipationReportDTO(rank(competitionParticipations, reportPage)));
+    }
 
-        participationRepository
-            .findAll()
-            .forEach(participation -> competitionParticipation.put(
-                participation.getCompetitionId(),
-                competitionParticipation.get(participation.getCompetitionId()) + 1
-            ));
+    /**
+     * Generate all the reports at the same point in time, scanning each repository at most once.
+     *
+     * @return the reports
+     */
+    public AllReportsDTO generateAllReports() {
+        return generateAllReports(RankingPage.all());
+    }
+
+    /**
+     * Generate the same page of all the reports at the same point in time, scanning each repository at most once.
+     *
+     * @param page the page, usually the first one, which holds the entries with the largest totals
+     * @return the required page of every report
+     */
+    public AllReportsDTO generateAllReports(final RankingPage page) {
+        return allReports.get(page, reportPage -> {
+            final FusedScan scan = FusedScan.of(List.of(sponsorContributions, competitionSponsorships, athleteParticipations, competitionParticipations), reportPage, pool);
 
-        final List<Pair<Competition, Integer>> competitionParticipationPairs =
-            competitionParticipation
-                .entrySet()
-                .stream()
-                .map(entry -> new Pair<>(competitionRepository.findOne(entry.getKey()).orElseThrow(), entry.getValue()))
-                .sorted((a, b) -> b.getSecond().compareTo(a.getSecond()))
-                .collect(Collectors.toList());
+            return new AllReportsDTO(
+                new SponsorContributionReportDTO(scan.getRanking(sponsorContributions)),
+                new CompetitionSponsorshipsReportDTO(scan.getRanking(competitionSponsorships)),
+                new AthleteParticipationReportDTO(scan.getRanking(athleteParticipations)),
+                new CompetitionParticipationReportDTO(scan.getRanking(competitionParticipations))
+            );
+        });
+    }
 
-        return new CompetitionParticipationReportDTO(competitionParticipationPairs);
+    /**
+     * Stop the threads of the pool scanning the repositories. The reports which need a scan cannot be generated
+     * afterwards.
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
     }
 
-}
\ No newline at end of file
+}
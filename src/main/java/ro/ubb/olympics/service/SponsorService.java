@@ -4,12 +4,14 @@ package ro.ubb.olympics.service;
 import ro.ubb.olympics.domain.Sponsor;
 import ro.ubb.olympics.domain.validators.ValidatorException;
 import ro.ubb.olympics.repository.Repository;
+import ro.ubb.olympics.repository.index.HashIndex;
+import ro.ubb.olympics.repository.index.Index;
+import ro.ubb.olympics.utils.IterableUtils;
 
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
 
 /**
  * Service that handles repository operations with Sponsor objects.
@@ -17,6 +19,7 @@ import java.util.stream.StreamSupport;
 public class SponsorService {
 
     private final Repository<Long, Sponsor> repository;
+    private final Index<String, Sponsor> countryIndex;
 
 
     /**
@@ -26,6 +29,7 @@ public class SponsorService {
      */
     public SponsorService(Repository<Long, Sponsor> repository) {
         this.repository = repository;
+        this.countryIndex = HashIndex.on(repository, Sponsor::getCountry);
     }
 
     /**
@@ -51,11 +55,10 @@ public class SponsorService {
     /**
      * Get all the sponsors
      *
-     * @return a set containing all the the sponsors
+     * @return an unmodifiable set containing all the the sponsors
      */
     public Set<Sponsor> getAllSponsors() {
-        return StreamSupport.stream(repository.findAll().spliterator(), false)
-            .collect(Collectors.toSet());
+        return IterableUtils.asSet(repository.findAll());
     }
 
     /**
@@ -96,10 +99,20 @@ public class SponsorService {
      * @return the filtered sponsors
      */
     public Set<Sponsor> filterSponsorsByPredicate(final Predicate<Sponsor> filter) {
-        return StreamSupport
-            .stream(repository.findAll().spliterator(), false)
+        return IterableUtils
+            .stream(repository.findAll())
             .filter(filter)
             .collect(Collectors.toSet());
     }
 
-}
+    /**
+     * Get the sponsors with a given provenience country, through an index on it.
+     *
+     * @param country ~ the provenience country of the sponsors
+     * @return the set of sponsors with the given provenience country
+     */
+    public Set<Sponsor> getSponsorsByCountry(final String country) {
+        return countryIndex.find(country);
+    }
+
+}
\ No newline at end of file
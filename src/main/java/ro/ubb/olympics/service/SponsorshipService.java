@@ -3,13 +3,20 @@ package ro.ubb.olympics.service;
 
 import ro.ubb.olympics.domain.Sponsorship;
 import ro.ubb.olympics.domain.validators.ValidatorException;
+import ro.ubb.olympics.repository.BulkRepository;
 import ro.ubb.olympics.repository.Repository;
+import ro.ubb.olympics.repository.index.Index;
+import ro.ubb.olympics.repository.index.RangeIndex;
+import ro.ubb.olympics.repository.row.KeyColumn;
+import ro.ubb.olympics.repository.row.RowIndex;
+import ro.ubb.olympics.repository.row.RowRangeIndex;
+import ro.ubb.olympics.utils.IterableUtils;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
 
 /**
  * Service that handles repository operations with Sponsorship objects.
@@ -17,6 +24,10 @@ import java.util.stream.StreamSupport;
 public class SponsorshipService {
 
     private final Repository<Long, Sponsorship> repository;
+    private final BulkRepository<Long, Sponsorship> bulkRepository;
+    private final Index<Long, Sponsorship> competitionIdIndex;
+    private final Index<Long, Sponsorship> sponsorIdIndex;
+    private final RangeIndex<Sponsorship> moneyContributionIndex;
 
     /**
      * Constructor for the Sponsorship service
@@ -25,6 +36,10 @@ public class SponsorshipService {
      */
     public SponsorshipService(Repository<Long, Sponsorship> repository) {
         this.repository = repository;
+        this.bulkRepository = BulkRepository.of(repository);
+        this.competitionIdIndex = RowIndex.on(repository, KeyColumn.FIRST, Sponsorship::getCompetitionId);
+        this.sponsorIdIndex = RowIndex.on(repository, KeyColumn.SECOND, Sponsorship::getSponsorId);
+        this.moneyContributionIndex = RowRangeIndex.on(repository, Sponsorship::getMoneyContribution);
     }
 
     /**
@@ -50,12 +65,10 @@ public class SponsorshipService {
     /**
      * Get all the sponsorships
      *
-     * @return a set containing all sponsorships
+     * @return an unmodifiable set containing all sponsorships
      */
     public Set<Sponsorship> getAllSponsorships() {
-        return StreamSupport
-            .stream(repository.findAll().spliterator(), false)
-            .collect(Collectors.toSet());
+        return IterableUtils.asSet(repository.findAll());
     }
 
     /**
@@ -96,10 +109,93 @@ public class SponsorshipService {
      * @return the filtered sponsorships
      */
     public Set<Sponsorship> filterSponsorshipsByPredicate(final Predicate<Sponsorship> filter) {
-        return StreamSupport
-            .stream(repository.findAll().spliterator(), false)
+        return IterableUtils
+            .stream(repository.findAll())
             .filter(filter)
             .collect(Collectors.toSet());
     }
 
+    /**
+     * Get the sponsorships with a given sponsor ID, through an index on it.
+     *
+     * @param sponsorId ~ the sponsor ID of the sponsorships
+     * @return the set of sponsorships with the given sponsor ID
+     */
+    public Set<Sponsorship> getSponsorshipsBySponsorId(final Long sponsorId) {
+        return sponsorIdIndex.find(sponsorId);
+    }
+
+    /**
+     * Get the sponsorships with a money contribution greater than or equal to a given value, through a sorted index on
+     * the money contribution.
+     *
+     * @param moneyContribution ~ the smallest money contribution, inclusive
+     * @return the set of sponsorships contributing at least the given money
+     */
+    public Set<Sponsorship> getSponsorshipsByMoneyContributionAtLeast(final int moneyContribution) {
+        return moneyContributionIndex.findAtLeast(moneyContribution);
+    }
+
+    /**
+     * Get the sponsorships with a money contribution between two values, through a sorted index on the money
+     * contribution.
+     *
+     * @param minimumMoneyContribution ~ the smallest money contribution, inclusive
+     * @param maximumMoneyContribution ~ the largest money contribution, inclusive
+     * @return the set of sponsorships contributing money in the given range
+     */
+    public Set<Sponsorship> getSponsorshipsByMoneyContributionBetween(final int minimumMoneyContribution, final int maximumMoneyContribution) {
+        return moneyContributionIndex.findBetween(minimumMoneyContribution, maximumMoneyContribution);
+    }
+
+    /**
+     * Get the sponsorships with the largest money contributions, through a sorted index on the money contribution.
+     *
+     * @param count ~ the maximum number of sponsorships
+     * @return the list of sponsorships, from the largest money contribution down
+     */
+    public List<Sponsorship> getTopSponsorshipsByMoneyContribution(final int count) {
+        return moneyContributionIndex.findTop(count);
+    }
+
+    /**
+     * Get the sponsorships of a given competition, through an index on the competition ID.
+     *
+     * @param competitionId ~ the competition ID of the sponsorships
+     * @return the set of sponsorships with the given competition ID
+     */
+    public Set<Sponsorship> getSponsorshipsByCompetitionId(final Long competitionId) {
+        return competitionIdIndex.find(competitionId);
+    }
+
+    /**
+     * Delete all the sponsorships with a given competition ID, as a single bulk operation on the repository.
+     *
+     * @param competitionId ~ the competition ID of the sponsorships
+     * @return the list of deleted sponsorships
+     */
+    public List<Sponsorship> deleteSponsorshipsByCompetitionId(final Long competitionId) {
+        return bulkRepository.deleteAll(
+            getSponsorshipsByCompetitionId(competitionId)
+                .stream()
+                .map(Sponsorship::getId)
+                .collect(Collectors.toList())
+        );
+    }
+
+    /**
+     * Delete all the sponsorships with a given sponsor ID, as a single bulk operation on the repository.
+     *
+     * @param sponsorId ~ the sponsor ID of the sponsorships
+     * @return the list of deleted sponsorships
+     */
+    public List<Sponsorship> deleteSponsorshipsBySponsorId(final Long sponsorId) {
+        return bulkRepository.deleteAll(
+            getSponsorshipsBySponsorId(sponsorId)
+                .stream()
+                .map(Sponsorship::getId)
+                .collect(Collectors.toList())
+        );
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,86 @@
+package ro.ubb.olympics.service.report;
+
+import ro.ubb.olympics.domain.BaseEntity;
+import ro.ubb.olympics.repository.RepositorySnapshot;
+import ro.ubb.olympics.repository.row.LongIntHashMap;
+import ro.ubb.olympics.repository.row.RowVisitor;
+import ro.ubb.olympics.utils.IterableUtils;
+import ro.ubb.olympics.utils.Pair;
+import ro.ubb.olympics.utils.SelectionUtils;
+
+import java.util.List;
+
+/**
+ * Aggregation of a {@link RowMeasure} over the rows of child entities, fed by a scan, into the ranking of the parent
+ * entities of a snapshot.
+ * <p>
+ * The totals are accumulated by parent ID in a primitive map while the rows are visited, and joined with the parent
+ * entities by scanning the parent snapshot once, when the ranking is finished, so no parent entity is looked up by its
+ * ID.
+ * <p>
+ * An aggregation is not thread-safe. To aggregate the rows in parallel, every part of the rows is visited by its own
+ * fork of the aggregation, and the forks are then merged, which gives the same totals as a single sequential pass.
+ *
+ * @param <P> the type of the parent entities
+ */
+public class Aggregation<P extends BaseEntity<Long>> implements RowVisitor {
+
+    private static final int EXPECTED_NUMBER_OF_PARENTS = 16;
+
+    private final RepositorySnapshot<Long, P> parents;
+    private final RowMeasure<?> measure;
+    private final LongIntHashMap totals = new LongIntHashMap(EXPECTED_NUMBER_OF_PARENTS);
+
+    /**
+     * Initializes an empty aggregation.
+     *
+     * @param parents the snapshot of the ranked entities.
+     * @param measure the amount each child row adds to the total of its parent.
+     */
+    public Aggregation(final RepositorySnapshot<Long, P> parents, final RowMeasure<?> measure) {
+        this.parents = parents;
+        this.measure = measure;
+    }
+
+    @Override
+    public void visit(final long id, final long firstKey, final long secondKey, final int value) {
+        totals.add(measure.getParentId(firstKey, secondKey), measure.getAmount(value));
+    }
+
+    /**
+     * @return a new empty aggregation of the same measure into the same parents.
+     */
+    public Aggregation<P> fork() {
+        return new Aggregation<>(parents, measure);
+    }
+
+    /**
+     * Add the totals of another aggregation to the totals of this one.
+     *
+     * @param other a fork of this aggregation.
+     */
+    public void merge(final Aggregation<?> other) {
+        other.totals
+            .keys()
+            .forEach(parentId -> totals.add(parentId, other.totals.get(parentId)));
+    }
+
+    /**
+     * Rank the parent entities by the totals of the visited rows, keeping only the entries of a page in a bounded heap
+     * while the parent snapshot is scanned. The rows referencing no parent of the snapshot are ignored.
+     *
+     * @param page the page of the ranking required.
+     * @return a new list of the entries of the page, in the order given by {@link Ranking#order()}.
+     */
+    public List<Pair<P, Integer>> finish(final RankingPage page) {
+        return SelectionUtils.first(
+            IterableUtils
+                .stream(parents.findAll())
+                .map(parent -> new Pair<>(parent, totals.getOrDefault(parent.getId(), 0)))
+                .filter(entry -> page.follows(entry.getSecond(), entry.getFirst().getId())),
+            Ranking.order(),
+            page.getSize()
+        );
+    }
+
+}
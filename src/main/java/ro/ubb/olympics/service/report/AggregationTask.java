@@ -0,0 +1,94 @@
+package ro.ubb.olympics.service.report;
+
+import ro.ubb.olympics.repository.row.SplittableRowSource;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Fork/join task feeding the rows of a range of positions to forks of several aggregations.
+ * <p>
+ * A range longer than the partition size is split in two halves, aggregated by two tasks, and the forks of the second
+ * half are merged into the forks of the first one. Every part thus accumulates into its own primitive maps, without any
+ * sharing between the threads, and the merged totals equal the totals of a sequential pass.
+ */
+public class AggregationTask extends RecursiveTask<List<Aggregation<?>>> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final SplittableRowSource rows;
+    private final int from;
+    private final int to;
+    private final int partitionSize;
+    private final List<Aggregation<?>> aggregations;
+
+    /**
+     * Initializes the task.
+     *
+     * @param rows          the rows.
+     * @param from          the first position of the range.
+     * @param to            the position after the last position of the range.
+     * @param partitionSize the number of positions up to which a range is not split.
+     * @param aggregations  the aggregations fed by the rows, which are forked and not changed.
+     */
+    public AggregationTask(final SplittableRowSource rows, final int from, final int to, final int partitionSize, final List<Aggregation<?>> aggregations) {
+        this.rows = rows;
+        this.from = from;
+        this.to = to;
+        this.partitionSize = partitionSize;
+        this.aggregations = aggregations;
+    }
+
+    /**
+     * @return the forks of the aggregations, holding the totals of the rows of the range.
+     */
+    @Override
+    protected List<Aggregation<?>> compute() {
+        return Optional
+            .of(to - from)
+            .filter(length -> length > partitionSize)
+            .map(length -> splitAndAggregate())
+            .orElseGet(this::aggregate);
+    }
+
+    /**
+     * Feed the rows of the range to new forks of the aggregations.
+     *
+     * @return the forks.
+     */
+    private List<Aggregation<?>> aggregate() {
+        final List<Aggregation<?>> forks = aggregations
+            .stream()
+            .map(Aggregation::fork)
+            .collect(Collectors.toList());
+
+        rows.forEachRow(from, to, (id, firstKey, secondKey, value) -> forks.forEach(fork -> fork.visit(id, firstKey, secondKey, value)));
+
+        return forks;
+    }
+
+    /**
+     * Aggregate the halves of the range in parallel, then merge them.
+     *
+     * @return the merged forks.
+     */
+    private List<Aggregation<?>> splitAndAggregate() {
+        final int middle = from + (to - from) / 2;
+        final AggregationTask firstHalf = new AggregationTask(rows, from, middle, partitionSize, aggregations);
+        final AggregationTask secondHalf = new AggregationTask(rows, middle, to, partitionSize, aggregations);
+
+        firstHalf.fork();
+        final List<Aggregation<?>> secondForks = secondHalf.compute();
+        final List<Aggregation<?>> firstForks = firstHalf.join();
+
+        IntStream
+            .range(0, firstForks.size())
+            .forEach(aggregation -> firstForks.get(aggregation).merge(secondForks.get(aggregation)));
+
+        return firstForks;
+    }
+
+}
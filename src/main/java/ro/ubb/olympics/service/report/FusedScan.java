@@ -0,0 +1,160 @@
+package ro.ubb.olympics.service.report;
+
+import ro.ubb.olympics.domain.BaseEntity;
+import ro.ubb.olympics.repository.Repository;
+import ro.ubb.olympics.repository.RepositorySnapshot;
+import ro.ubb.olympics.repository.VersionClock;
+import ro.ubb.olympics.repository.row.RowMapper;
+import ro.ubb.olympics.repository.row.SplittableRowSource;
+import ro.ubb.olympics.utils.Pair;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Computation of several rankings at the same point in time, scanning every repository at most once.
+ * <p>
+ * The scan is built inside {@link VersionClock#readConsistently}, where every ranking is started: the materialized
+ * rankings are copied, and the other ones take the snapshots of their repositories, sharing the snapshot of a
+ * repository with the rankings started before them, and register their aggregations on the scan of the rows of their
+ * child repository. Then, outside the consistent read, the rows of each child repository are visited once, each row
+ * feeding all the aggregations registered on it.
+ * <p>
+ * Each pass is partitioned by ranges of rows into {@link AggregationTask}s run by a fork/join pool, which accumulate
+ * into primitive maps of their own, merged once the pass is over. As the rankings are ordered by total and then by ID,
+ * the result does not depend on the parallelism of the pool.
+ */
+public class FusedScan {
+
+    /**
+     * The number of positions under which the rows are not partitioned further.
+     */
+    private static final int MINIMUM_PARTITION_SIZE = 1024;
+
+    /**
+     * The number of partitions given to each thread, so that the threads which finish early can take over the work of
+     * the others.
+     */
+    private static final int PARTITIONS_PER_THREAD = 4;
+
+    private final Map<Repository<Long, ?>, RepositorySnapshot<Long, ?>> snapshots = new IdentityHashMap<>();
+    private final Map<Repository<Long, ?>, RowScan<?>> rowScans = new IdentityHashMap<>();
+    private final Map<Ranking<?>, Supplier<? extends List<? extends Pair<?, Integer>>>> rankings = new IdentityHashMap<>();
+
+    /**
+     * Starts the given rankings. Must be called inside {@link VersionClock#readConsistently}.
+     *
+     * @param rankings the rankings.
+     * @param page     the page required from every ranking.
+     */
+    public FusedScan(final Collection<? extends Ranking<?>> rankings, final RankingPage page) {
+        rankings.forEach(ranking -> this.rankings.put(ranking, ranking.start(this, page)));
+    }
+
+    /**
+     * Compute several rankings at the same point in time.
+     *
+     * @param rankings the rankings.
+     * @param page     the page required from every ranking.
+     * @param pool     the pool running the passes over the rows.
+     * @return the finished scan, holding the page of every ranking.
+     */
+    public static FusedScan of(final Collection<? extends Ranking<?>> rankings, final RankingPage page, final ForkJoinPool pool) {
+        return VersionClock
+            .getDefault()
+            .readConsistently(() -> new FusedScan(rankings, page))
+            .run(pool);
+    }
+
+    /**
+     * Take the snapshot of a repository, or return the one already taken by this scan.
+     *
+     * @param repository the repository.
+     * @param <T>        the type of the entities
+     * @return the snapshot of the repository.
+     */
+    @SuppressWarnings("unchecked")
+    <T extends BaseEntity<Long>> RepositorySnapshot<Long, T> snapshot(final Repository<Long, T> repository) {
+        return (RepositorySnapshot<Long, T>) snapshots.computeIfAbsent(repository, unused -> RepositorySnapshot.of(repository));
+    }
+
+    /**
+     * Register an aggregation of the rows of a repository, which will be fed by the same pass as the other aggregations
+     * of the repository.
+     *
+     * @param repository  the repository.
+     * @param mapper      the mapping between the entities of the repository and the rows.
+     * @param aggregation the aggregation.
+     * @param <T>         the type of the entities
+     */
+    @SuppressWarnings("unchecked")
+    <T extends BaseEntity<Long>> void aggregateRows(final Repository<Long, T> repository, final RowMapper<T> mapper, final Aggregation<?> aggregation) {
+        ((RowScan<T>) rowScans.computeIfAbsent(repository, unused -> new RowScan<>(snapshot(repository), mapper)))
+            .aggregations
+            .add(aggregation);
+    }
+
+    /**
+     * Visit the rows of every scanned repository once, partitioning each pass across the threads of a pool.
+     *
+     * @param pool the pool running the passes; a pool with a parallelism of one runs each pass as a single task.
+     * @return this scan.
+     */
+    public FusedScan run(final ForkJoinPool pool) {
+        rowScans.values().forEach(rowScan -> rowScan.run(pool));
+        return this;
+    }
+
+    /**
+     * @param ranking one of the rankings of the scan.
+     * @param <P>     the type of the ranked entities
+     * @return an unmodifiable list of the entries of the page of the ranking, once the scan was run.
+     */
+    @SuppressWarnings("unchecked")
+    public <P extends BaseEntity<Long>> List<Pair<P, Integer>> getRanking(final Ranking<P> ranking) {
+        return Collections.unmodifiableList((List<Pair<P, Integer>>) rankings.get(ranking).get());
+    }
+
+    /**
+     * Pass over the rows of the snapshot of a repository, feeding several aggregations.
+     *
+     * @param <T> the type of the entities
+     */
+    private static final class RowScan<T extends BaseEntity<Long>> {
+
+        private final RepositorySnapshot<Long, T> snapshot;
+        private final RowMapper<T> mapper;
+        private final List<Aggregation<?>> aggregations = new ArrayList<>();
+
+        private RowScan(final RepositorySnapshot<Long, T> snapshot, final RowMapper<T> mapper) {
+            this.snapshot = snapshot;
+            this.mapper = mapper;
+        }
+
+        private void run(final ForkJoinPool pool) {
+            final SplittableRowSource rows = mapper.rowsOf(snapshot);
+            final int positions = rows.getPositionCount();
+            final int partitionSize = Optional
+                .of(pool.getParallelism())
+                .filter(parallelism -> parallelism > 1)
+                .map(parallelism -> Math.max(MINIMUM_PARTITION_SIZE, (positions + PARTITIONS_PER_THREAD * parallelism - 1) / (PARTITIONS_PER_THREAD * parallelism)))
+                .orElse(positions);
+
+            final List<Aggregation<?>> totals = pool.invoke(new AggregationTask(rows, 0, positions, partitionSize, aggregations));
+
+            IntStream
+                .range(0, aggregations.size())
+                .forEach(aggregation -> aggregations.get(aggregation).merge(totals.get(aggregation)));
+        }
+
+    }
+
+}
@@ -0,0 +1,201 @@
+package ro.ubb.olympics.service.report;
+
+import ro.ubb.olympics.domain.BaseEntity;
+import ro.ubb.olympics.repository.EntityListener;
+import ro.ubb.olympics.repository.ObservableRepository;
+import ro.ubb.olympics.repository.Repository;
+import ro.ubb.olympics.repository.VersionClock;
+import ro.ubb.olympics.utils.Pair;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Ranking kept up to date as the entities of an observable parent repository and an observable child repository are
+ * saved, updated and removed, so that it is never recomputed from the repositories.
+ * <p>
+ * The total of every parent ID is maintained from the changes of the child entities, and the IDs of the stored parent
+ * entities are kept sorted by their totals. A change costs a logarithmic time in the number of parent entities, and
+ * producing a page of the ranking costs a logarithmic time to find its first entry, then a time in proportion to its
+ * length.
+ * <p>
+ * The ranking is changed by the listeners, which run inside the changes recorded by the shared {@link VersionClock},
+ * and it is copied when it is started, inside {@link VersionClock#readConsistently}, so the copy reflects both
+ * repositories at the same point in time.
+ *
+ * @param <P> the type of the parent entities
+ * @param <C> the type of the child entities
+ */
+public class MaterializedRanking<P extends BaseEntity<Long>, C extends BaseEntity<Long>> implements Ranking<P> {
+
+    private static final Comparator<Pair<Long, Integer>> ENTRY_ORDER = Comparator
+        .<Pair<Long, Integer>, Integer>comparing(Pair::getSecond)
+        .reversed()
+        .thenComparing(Pair::getFirst);
+
+    private final RowMeasure<C> measure;
+    private final Map<Long, P> parents = new HashMap<>();
+    private final Map<Long, Integer> totals = new HashMap<>();
+    private final NavigableSet<Pair<Long, Integer>> entries = new TreeSet<>(ENTRY_ORDER);
+
+    /**
+     * Initializes an empty ranking, which must then be registered as a listener of both repositories.
+     *
+     * @param measure the amount each child entity adds to the total of its parent.
+     */
+    public MaterializedRanking(final RowMeasure<C> measure) {
+        this.measure = measure;
+    }
+
+    /**
+     * Build a ranking over two repositories: a materialized ranking registered as a listener of both repositories if
+     * both are observable, a ranking scanning the repositories otherwise.
+     *
+     * @param parentRepository the repository of the ranked entities.
+     * @param childRepository  the repository of the entities which reference the ranked entities.
+     * @param measure          the amount each child entity adds to the total of its parent.
+     * @param <P>              the type of the parent entities
+     * @param <C>              the type of the child entities
+     * @return the ranking.
+     */
+    @SuppressWarnings("unchecked")
+    public static <P extends BaseEntity<Long>, C extends BaseEntity<Long>> Ranking<P> on(
+        final Repository<Long, P> parentRepository, final Repository<Long, C> childRepository, final RowMeasure<C> measure
+    ) {
+        return Optional
+            .of(parentRepository)
+            .filter(ObservableRepository.class::isInstance)
+            .filter(unused -> childRepository instanceof ObservableRepository)
+            .map(observableRepository -> {
+                final MaterializedRanking<P, C> ranking = new MaterializedRanking<>(measure);
+                ((ObservableRepository<Long, P>) observableRepository).addListener(ranking.getParentListener());
+                ((ObservableRepository<Long, C>) childRepository).addListener(ranking.getChildListener());
+                return (Ranking<P>) ranking;
+            })
+            .orElseGet(() -> new ScanRanking<>(parentRepository, childRepository, measure));
+    }
+
+    /**
+     * @return the listener to be registered on the parent repository.
+     */
+    public EntityListener<Long, P> getParentListener() {
+        return new EntityListener<>() {
+            @Override
+            public void onSave(final P entity) {
+                saveParent(entity);
+            }
+
+            @Override
+            public void onUpdate(final P oldEntity, final P newEntity) {
+                saveParent(newEntity);
+            }
+
+            @Override
+            public void onDelete(final P entity) {
+                deleteParent(entity.getId());
+            }
+        };
+    }
+
+    /**
+     * @return the listener to be registered on the child repository.
+     */
+    public EntityListener<Long, C> getChildListener() {
+        return new EntityListener<>() {
+            @Override
+            public void onSave(final C entity) {
+                add(measure.getParentId(entity), measure.getAmount(entity));
+            }
+
+            @Override
+            public void onUpdate(final C oldEntity, final C newEntity) {
+                onDelete(oldEntity);
+                onSave(newEntity);
+            }
+
+            @Override
+            public void onDelete(final C entity) {
+                add(measure.getParentId(entity), -measure.getAmount(entity));
+            }
+        };
+    }
+
+    /**
+     * @param parentId the ID of a parent entity.
+     * @return the entry of the parent entity, holding its current total.
+     */
+    private Pair<Long, Integer> entryOf(final long parentId) {
+        return new Pair<>(parentId, totals.getOrDefault(parentId, 0));
+    }
+
+    /**
+     * Store a saved or updated parent entity, ranking it if it is new.
+     *
+     * @param parent the parent entity.
+     */
+    private synchronized void saveParent(final P parent) {
+        Optional
+            .of(parent.getId())
+            .filter(parentId -> parents.put(parentId, parent) == null)
+            .ifPresent(parentId -> entries.add(entryOf(parentId)));
+    }
+
+    /**
+     * Remove a parent entity from the ranking. Its total is kept, as its child entities may still be removed later.
+     *
+     * @param parentId the ID of the parent entity.
+     */
+    private synchronized void deleteParent(final long parentId) {
+        Optional
+            .ofNullable(parents.remove(parentId))
+            .ifPresent(parent -> entries.remove(entryOf(parentId)));
+    }
+
+    /**
+     * Add an amount to the total of a parent ID, moving the parent entity in the ranking if it is stored.
+     *
+     * @param parentId the ID of the parent entity.
+     * @param amount   the amount, negative if a child entity was removed.
+     */
+    private synchronized void add(final long parentId, final int amount) {
+        final Optional<Long> rankedParentId = Optional
+            .of(parentId)
+            .filter(parents::containsKey);
+
+        rankedParentId.ifPresent(id -> entries.remove(entryOf(id)));
+        totals.merge(parentId, amount, (total, addedAmount) -> Optional
+            .of(total + addedAmount)
+            .filter(newTotal -> newTotal != 0)
+            .orElse(null));
+        rankedParentId.ifPresent(id -> entries.add(entryOf(id)));
+    }
+
+    /**
+     * Copy a page of the ranking, finding its first entry in logarithmic time.
+     *
+     * @param page the page.
+     * @return a copy of the entries of the page.
+     */
+    private synchronized List<Pair<P, Integer>> copy(final RankingPage page) {
+        return entries
+            .tailSet(new Pair<>(page.getAfterParentId(), page.getAfterTotal()), false)
+            .stream()
+            .limit(page.getSize())
+            .map(entry -> new Pair<>(parents.get(entry.getFirst()), entry.getSecond()))
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public Supplier<List<Pair<P, Integer>>> start(final FusedScan scan, final RankingPage page) {
+        final List<Pair<P, Integer>> ranking = copy(page);
+        return () -> ranking;
+    }
+
+}
@@ -0,0 +1,61 @@
+package ro.ubb.olympics.service.report;
+
+import ro.ubb.olympics.domain.BaseEntity;
+import ro.ubb.olympics.utils.Pair;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+/**
+ * Ranking of the entities of a parent repository by the total of a {@link RowMeasure} over the entities of a child
+ * repository which reference them.
+ *
+ * @param <P> the type of the parent entities
+ */
+public interface Ranking<P extends BaseEntity<Long>> {
+
+    /**
+     * Rank the parent entities. Every parent entity is ranked, with a total of zero if no child entity references it.
+     * The ranking reflects the parent and the child repositories at the same point in time, and any scan is run by the
+     * common fork/join pool.
+     *
+     * @return a new list of the parent entities paired with their totals, in the order given by {@link #order()}.
+     */
+    default List<Pair<P, Integer>> rank() {
+        return rank(RankingPage.all());
+    }
+
+    /**
+     * Get a page of the ranking of the parent entities, as {@link #rank()} does.
+     *
+     * @param page the page.
+     * @return a new list of the entries of the page, in the order given by {@link #order()}.
+     */
+    default List<Pair<P, Integer>> rank(final RankingPage page) {
+        return FusedScan.of(List.of(this), page, ForkJoinPool.commonPool()).getRanking(this);
+    }
+
+    /**
+     * Start the ranking as part of a fused scan, reading what it needs at the point in time of the scan. Called by the
+     * scan, inside {@link ro.ubb.olympics.repository.VersionClock#readConsistently}.
+     *
+     * @param scan the scan.
+     * @param page the page of the ranking required.
+     * @return the function finishing the page of the ranking, called once the scan was run.
+     */
+    Supplier<List<Pair<P, Integer>>> start(final FusedScan scan, final RankingPage page);
+
+    /**
+     * @param <P> the type of the parent entities
+     * @return the order of a ranking: decreasing by total, then increasing by the ID of the parent entity.
+     */
+    static <P extends BaseEntity<Long>> Comparator<Pair<P, Integer>> order() {
+        return Comparator
+            .<Pair<P, Integer>, Integer>comparing(Pair::getSecond)
+            .reversed()
+            .thenComparing(pair -> pair.getFirst().getId());
+    }
+
+}
@@ -0,0 +1,83 @@
+package ro.ubb.olympics.service.report;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import ro.ubb.olympics.domain.BaseEntity;
+import ro.ubb.olympics.utils.Pair;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Page of a ranking: the entries following a cursor, up to a maximum number of entries.
+ * <p>
+ * The cursor is the key of the last entry of the previous page, its total and the ID of its parent entity, so the next
+ * page starts right after that entry, even if entries were added or removed before it in the meantime, and is found
+ * without counting the entries which precede it.
+ * <p>
+ * Two pages with the same size and cursor are equal, so a page can key the reports generated for it.
+ */
+@Getter
+@EqualsAndHashCode
+public class RankingPage {
+
+    private final int size;
+    private final int afterTotal;
+    private final long afterParentId;
+
+    /**
+     * Initializes the page.
+     *
+     * @param size          the maximum number of entries of the page.
+     * @param afterTotal    the total of the entry preceding the page.
+     * @param afterParentId the ID of the parent entity of the entry preceding the page.
+     * @throws IllegalArgumentException if the size is not positive.
+     */
+    private RankingPage(final int size, final int afterTotal, final long afterParentId) {
+        this.size = Optional
+            .of(size)
+            .filter(pageSize -> pageSize > 0)
+            .orElseThrow(() -> new IllegalArgumentException(String.format("The size of a page must be positive, but it is %d.", size)));
+        this.afterTotal = afterTotal;
+        this.afterParentId = afterParentId;
+    }
+
+    /**
+     * @param size the maximum number of entries of the page.
+     * @return the first page of a ranking: the entries with the largest totals.
+     * @throws IllegalArgumentException if the size is not positive.
+     */
+    public static RankingPage first(final int size) {
+        return new RankingPage(size, Integer.MAX_VALUE, Long.MIN_VALUE);
+    }
+
+    /**
+     * @return the page holding the whole ranking.
+     */
+    public static RankingPage all() {
+        return first(Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param entries the entries of this page.
+     * @return the page of the same size following the given entries, or this page if they are empty.
+     */
+    public RankingPage next(final List<? extends Pair<? extends BaseEntity<Long>, Integer>> entries) {
+        return Optional
+            .of(entries)
+            .filter(pageEntries -> !pageEntries.isEmpty())
+            .map(pageEntries -> pageEntries.get(pageEntries.size() - 1))
+            .map(lastEntry -> new RankingPage(size, lastEntry.getSecond(), lastEntry.getFirst().getId()))
+            .orElse(this);
+    }
+
+    /**
+     * @param total    the total of an entry.
+     * @param parentId the ID of the parent entity of the entry.
+     * @return whether the entry follows the cursor of the page, in the order given by {@link Ranking#order()}.
+     */
+    public boolean follows(final int total, final long parentId) {
+        return total < afterTotal || (total == afterTotal && parentId > afterParentId);
+    }
+
+}
@@ -0,0 +1,126 @@
+package ro.ubb.olympics.service.report;
+
+import ro.ubb.olympics.repository.Repository;
+import ro.ubb.olympics.repository.VersionedRepository;
+import ro.ubb.olympics.utils.Pair;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Cache of the pages of a report, each one kept with the versions of the repositories the report was generated from.
+ * <p>
+ * A page is served from the cache while none of the repositories the report depends on has changed since the page was
+ * generated, which only costs reading their versions. Otherwise, the page is generated again and replaces the cached
+ * one, so a change invalidates the cached pages without the repositories having to notify the cache. The least
+ * recently used pages are evicted once the cache holds more pages than its capacity.
+ * <p>
+ * The versions are read before a page is generated, so a page generated while a repository changes is kept with the
+ * versions preceding the change, and is never served once the change is done.
+ * <p>
+ * Only the {@link VersionedRepository versioned repositories} tell whether they changed, so if any of the repositories
+ * the report depends on is not versioned, nothing is cached and every page is generated again.
+ *
+ * @param <R> the type of the report
+ */
+public class ReportCache<R> {
+
+    /**
+     * The number of pages kept in the cache when none is specified.
+     */
+    public static final int DEFAULT_CAPACITY = 64;
+
+    private final Optional<List<VersionedRepository<Long, ?>>> versionedRepositories;
+    private final Map<RankingPage, Pair<List<Long>, R>> reports;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Initializes an empty cache of the default capacity.
+     *
+     * @param repositories the repositories the report depends on.
+     */
+    public ReportCache(final List<Repository<Long, ?>> repositories) {
+        this(repositories, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Initializes an empty cache.
+     *
+     * @param repositories the repositories the report depends on.
+     * @param capacity     the maximum number of pages kept in the cache.
+     */
+    public ReportCache(final List<Repository<Long, ?>> repositories, final int capacity) {
+        this.versionedRepositories = Optional
+            .of(repositories)
+            .filter(dependencies -> dependencies.stream().allMatch(VersionedRepository.class::isInstance))
+            .map(dependencies -> dependencies
+                .stream()
+                .<VersionedRepository<Long, ?>>map(repository -> (VersionedRepository<Long, ?>) repository)
+                .collect(Collectors.toUnmodifiableList()));
+        this.reports = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<RankingPage, Pair<List<Long>, R>> eldest) {
+                return size() > capacity;
+            }
+        });
+    }
+
+    /**
+     * @return the current versions of the repositories the report depends on, or an empty optional if some of them are
+     * not versioned.
+     */
+    private Optional<List<Long>> versions() {
+        return versionedRepositories.map(repositories -> repositories
+            .stream()
+            .map(VersionedRepository::getVersion)
+            .collect(Collectors.toUnmodifiableList()));
+    }
+
+    /**
+     * Get a page of the report, generating it only if it is not cached for the current versions of the repositories.
+     *
+     * @param page      the page.
+     * @param generator the generator of the pages of the report.
+     * @return the page of the report.
+     */
+    public R get(final RankingPage page, final Function<RankingPage, R> generator) {
+        final Optional<List<Long>> versions = versions();
+
+        return versions
+            .flatMap(currentVersions -> Optional
+                .ofNullable(reports.get(page))
+                .filter(cachedReport -> cachedReport.getFirst().equals(currentVersions)))
+            .map(cachedReport -> {
+                hits.incrementAndGet();
+                return cachedReport.getSecond();
+            })
+            .orElseGet(() -> {
+                misses.incrementAndGet();
+                final R report = generator.apply(page);
+                versions.ifPresent(currentVersions -> reports.put(page, new Pair<>(currentVersions, report)));
+                return report;
+            });
+    }
+
+    /**
+     * @return the number of pages served from the cache so far.
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of pages generated so far.
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+}
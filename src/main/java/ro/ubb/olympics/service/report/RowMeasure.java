@@ -0,0 +1,70 @@
+package ro.ubb.olympics.service.report;
+
+import lombok.Getter;
+import ro.ubb.olympics.domain.BaseEntity;
+import ro.ubb.olympics.repository.row.KeyColumn;
+import ro.ubb.olympics.repository.row.RowMapper;
+
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Definition of the amount which each entity of a child repository adds to the total of the parent entity it
+ * references, expressed over the rows of the child entities so that it can be computed from the entities or directly
+ * from the rows.
+ *
+ * @param <C> the type of the child entities
+ */
+public class RowMeasure<C extends BaseEntity<Long>> {
+
+    @Getter
+    private final RowMapper<C> mapper;
+    private final KeyColumn parentColumn;
+    private final IntUnaryOperator amountOfValue;
+
+    /**
+     * Initializes the measure.
+     *
+     * @param mapper        the mapping between the child entities and the rows.
+     * @param parentColumn  the key column holding the ID of the parent entity.
+     * @param amountOfValue the function deriving the amount added by a row from its value, which must not be negative.
+     */
+    public RowMeasure(final RowMapper<C> mapper, final KeyColumn parentColumn, final IntUnaryOperator amountOfValue) {
+        this.mapper = mapper;
+        this.parentColumn = parentColumn;
+        this.amountOfValue = amountOfValue;
+    }
+
+    /**
+     * @param firstKey  the first key of a row.
+     * @param secondKey the second key of a row.
+     * @return the ID of the parent entity referenced by the row.
+     */
+    public long getParentId(final long firstKey, final long secondKey) {
+        return parentColumn.of(firstKey, secondKey);
+    }
+
+    /**
+     * @param value the value of a row.
+     * @return the amount added by the row to the total of its parent.
+     */
+    public int getAmount(final int value) {
+        return amountOfValue.applyAsInt(value);
+    }
+
+    /**
+     * @param entity a child entity.
+     * @return the ID of the parent entity referenced by the child entity.
+     */
+    public long getParentId(final C entity) {
+        return getParentId(mapper.getFirstKey(entity), mapper.getSecondKey(entity));
+    }
+
+    /**
+     * @param entity a child entity.
+     * @return the amount added by the child entity to the total of its parent.
+     */
+    public int getAmount(final C entity) {
+        return getAmount(mapper.getValue(entity));
+    }
+
+}
@@ -0,0 +1,48 @@
+package ro.ubb.olympics.service.report;
+
+import ro.ubb.olympics.domain.BaseEntity;
+import ro.ubb.olympics.repository.Repository;
+import ro.ubb.olympics.repository.VersionClock;
+import ro.ubb.olympics.utils.Pair;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Ranking computed by scanning the repositories every time it is required.
+ * <p>
+ * It is the fallback for repositories which do not notify the changes made to their entities, and thus cannot have a
+ * maintained ranking. The snapshots of both repositories are taken together inside
+ * {@link VersionClock#readConsistently}, and the child entities are scanned as rows by a {@link FusedScan}, so the
+ * snapshots of the columnar and memory-mapped repositories are aggregated without building their entities.
+ *
+ * @param <P> the type of the parent entities
+ * @param <C> the type of the child entities
+ */
+public class ScanRanking<P extends BaseEntity<Long>, C extends BaseEntity<Long>> implements Ranking<P> {
+
+    private final Repository<Long, P> parentRepository;
+    private final Repository<Long, C> childRepository;
+    private final RowMeasure<C> measure;
+
+    /**
+     * Initializes the ranking over the given repositories.
+     *
+     * @param parentRepository the repository of the ranked entities.
+     * @param childRepository  the repository of the entities which reference the ranked entities.
+     * @param measure          the amount each child entity adds to the total of its parent.
+     */
+    public ScanRanking(final Repository<Long, P> parentRepository, final Repository<Long, C> childRepository, final RowMeasure<C> measure) {
+        this.parentRepository = parentRepository;
+        this.childRepository = childRepository;
+        this.measure = measure;
+    }
+
+    @Override
+    public Supplier<List<Pair<P, Integer>>> start(final FusedScan scan, final RankingPage page) {
+        final Aggregation<P> aggregation = new Aggregation<>(scan.snapshot(parentRepository), measure);
+        scan.aggregateRows(childRepository, measure.getMapper(), aggregation);
+        return () -> aggregation.finish(page);
+    }
+
+}
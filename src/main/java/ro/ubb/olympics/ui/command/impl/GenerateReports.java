@@ -2,6 +2,7 @@ package ro.ubb.olympics.ui.command.impl;
 
 import ro.ubb.olympics.controller.Controller;
 import ro.ubb.olympics.ui.command.Command;
+import ro.ubb.olympics.ui.command.impl.reports.AllReports;
 import ro.ubb.olympics.ui.command.impl.reports.AthleteParticipationReport;
 import ro.ubb.olympics.ui.command.impl.reports.CompetitionParticipationReport;
 import ro.ubb.olympics.ui.command.impl.reports.CompetitionSponsorshipsReport;
@@ -46,6 +47,7 @@ public class GenerateReports extends Command {
         ConsoleUtils.addCommand(new AthleteParticipationReport("2", "Generate athlete participations report.", controller), commands);
         ConsoleUtils.addCommand(new CompetitionParticipationReport("3", "Generate competition participations report.", controller), commands);
         ConsoleUtils.addCommand(new CompetitionSponsorshipsReport("4", "Generate competition sponsorships report.", controller), commands);
+        ConsoleUtils.addCommand(new AllReports("5", "Generate all reports.", controller), commands);
     }
 
     @Override
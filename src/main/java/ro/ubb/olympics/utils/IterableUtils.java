@@ -0,0 +1,43 @@
+package ro.ubb.olympics.utils;
+
+import java.util.Collections;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Utility class containing utility methods operating with iterables, such as the results of the repositories.
+ */
+public class IterableUtils {
+
+    /**
+     * Build a sequential stream over an iterable, which reads its elements lazily.
+     *
+     * @param iterable the iterable.
+     * @param <T>      the type of the elements.
+     * @return the stream of the elements of the iterable.
+     */
+    public static <T> Stream<T> stream(final Iterable<T> iterable) {
+        return StreamSupport.stream(iterable.spliterator(), false);
+    }
+
+    /**
+     * View an iterable as an unmodifiable set: the iterable itself if it is already a set, a copy of its elements
+     * otherwise.
+     *
+     * @param iterable the iterable.
+     * @param <T>      the type of the elements.
+     * @return the unmodifiable set of the elements of the iterable.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Set<T> asSet(final Iterable<T> iterable) {
+        return Optional
+            .of(iterable)
+            .filter(Set.class::isInstance)
+            .map(set -> Collections.unmodifiableSet((Set<T>) set))
+            .orElseGet(() -> stream(iterable).collect(Collectors.toUnmodifiableSet()));
+    }
+
+}
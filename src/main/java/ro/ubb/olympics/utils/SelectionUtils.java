@@ -0,0 +1,44 @@
+package ro.ubb.olympics.utils;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Utility class containing utility methods selecting the first elements of a stream in a given order.
+ */
+public class SelectionUtils {
+
+    /**
+     * Select the first elements of a stream in a given order, keeping the best elements found so far in a bounded heap,
+     * so the selection costs memory in proportion to the number of elements selected and a time logarithmic in it for
+     * each element scanned, instead of sorting all the elements.
+     *
+     * @param elements the elements.
+     * @param order    the order.
+     * @param count    the maximum number of elements selected.
+     * @param <T>      the type of the elements.
+     * @return a new list of at most {@code count} elements, the first ones in the given order, sorted in that order.
+     */
+    public static <T> List<T> first(final Stream<T> elements, final Comparator<? super T> order, final int count) {
+        final PriorityQueue<T> firstElements = new PriorityQueue<>(Collections.reverseOrder(order));
+
+        elements.forEach(element -> {
+            firstElements.add(element);
+            Optional
+                .of(firstElements)
+                .filter(heap -> heap.size() > count)
+                .ifPresent(PriorityQueue::poll);
+        });
+
+        return firstElements
+            .stream()
+            .sorted(order)
+            .collect(Collectors.toList());
+    }
+
+}
@@ -2,6 +2,7 @@ package olympics.controller;
 
 import olympics.domain.AthleteTest;
 import olympics.domain.CompetitionTest;
+import olympics.domain.SponsorTest;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -18,6 +19,7 @@ import ro.ubb.olympics.domain.validators.SponsorValidator;
 import ro.ubb.olympics.domain.validators.SponsorshipValidator;
 import ro.ubb.olympics.domain.validators.Validator;
 import ro.ubb.olympics.domain.validators.ValidatorException;
+import ro.ubb.olympics.exception.UnknownIdException;
 import ro.ubb.olympics.repository.Repository;
 import ro.ubb.olympics.repository.inmemory.InMemoryRepository;
 import ro.ubb.olympics.service.AthleteService;
@@ -29,8 +31,10 @@ import ro.ubb.olympics.service.SponsorService;
 import ro.ubb.olympics.service.SponsorshipService;
 
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 
@@ -65,6 +69,36 @@ public class ControllerTest {
         CompetitionTest.DESCRIPTION
     );
 
+    private static final Long OTHER_ID = 2L;
+    private static final int MONEY_CONTRIBUTION = 1000;
+
+    private static final Athlete OTHER_ATHLETE = new Athlete(
+        OTHER_ID,
+        AthleteTest.FIRST_NAME,
+        AthleteTest.LAST_NAME,
+        AthleteTest.COUNTRY,
+        AthleteTest.AGE
+    );
+
+    private static final Competition OTHER_COMPETITION = new Competition(
+        OTHER_ID,
+        CompetitionTest.DATE,
+        CompetitionTest.LOCATION,
+        CompetitionTest.NAME,
+        CompetitionTest.DESCRIPTION
+    );
+
+    private static final Sponsor SPONSOR = new Sponsor(SponsorTest.ID, SponsorTest.NAME, SponsorTest.COUNTRY);
+    private static final Sponsor OTHER_SPONSOR = new Sponsor(OTHER_ID, SponsorTest.NAME, SponsorTest.COUNTRY);
+
+    private static final Participation PARTICIPATION = new Participation(1L, VALID_ATHLETE_ID, VALID_COMPETITION_ID, VALID_RANK);
+    private static final Participation OTHER_ATHLETE_PARTICIPATION = new Participation(2L, OTHER_ID, VALID_COMPETITION_ID, NEW_VALID_RANK);
+    private static final Participation OTHER_COMPETITION_PARTICIPATION = new Participation(3L, VALID_ATHLETE_ID, OTHER_ID, VALID_RANK);
+
+    private static final Sponsorship SPONSORSHIP = new Sponsorship(1L, VALID_COMPETITION_ID, SponsorTest.ID, MONEY_CONTRIBUTION);
+    private static final Sponsorship OTHER_SPONSOR_SPONSORSHIP = new Sponsorship(2L, VALID_COMPETITION_ID, OTHER_ID, MONEY_CONTRIBUTION);
+    private static final Sponsorship OTHER_COMPETITION_SPONSORSHIP = new Sponsorship(3L, OTHER_ID, SponsorTest.ID, MONEY_CONTRIBUTION);
+
     private final Validator<Athlete> athleteValidator = new AthleteValidator();
     private final Validator<Competition> competitionValidator = new CompetitionValidator();
     private final Validator<Participation> participationValidator = new ParticipationValidator();
@@ -113,6 +147,8 @@ public class ControllerTest {
 
     @After
     public void tearDown() {
+        reportService.close();
+
         athleteRepository = null;
         competitionRepository = null;
         participationRepository = null;
@@ -233,4 +269,95 @@ public class ControllerTest {
         );
     }
 
-}
\ No newline at end of file
+    /**
+     * Save two athletes, competitions and sponsors, each pair linked by participations and sponsorships.
+     */
+    private void saveDependentEntities() {
+        athleteRepository.save(OTHER_ATHLETE);
+        competitionRepository.save(OTHER_COMPETITION);
+        sponsorRepository.save(SPONSOR);
+        sponsorRepository.save(OTHER_SPONSOR);
+
+        participationRepository.save(PARTICIPATION);
+        participationRepository.save(OTHER_ATHLETE_PARTICIPATION);
+        participationRepository.save(OTHER_COMPETITION_PARTICIPATION);
+
+        sponsorshipRepository.save(SPONSORSHIP);
+        sponsorshipRepository.save(OTHER_SPONSOR_SPONSORSHIP);
+        sponsorshipRepository.save(OTHER_COMPETITION_SPONSORSHIP);
+    }
+
+    @Test
+    public void testDeleteAthleteCascadesToParticipations() {
+        saveDependentEntities();
+
+        assertEquals("The deleted athlete should be returned", Optional.of(ATHLETE), controller.deleteAthlete(VALID_ATHLETE_ID));
+
+        assertFalse("The athlete should be deleted", athleteRepository.findOne(VALID_ATHLETE_ID).isPresent());
+        assertEquals(
+            "Only the participations of the deleted athlete should be deleted",
+            Set.of(OTHER_ATHLETE_PARTICIPATION),
+            participationService.getAllParticipations()
+        );
+        assertEquals(
+            "The sponsorships should not be affected",
+            Set.of(SPONSORSHIP, OTHER_SPONSOR_SPONSORSHIP, OTHER_COMPETITION_SPONSORSHIP),
+            sponsorshipService.getAllSponsorships()
+        );
+    }
+
+    @Test
+    public void testDeleteCompetitionCascadesToParticipationsAndSponsorships() {
+        saveDependentEntities();
+
+        assertEquals("The deleted competition should be returned", Optional.of(COMPETITION), controller.deleteCompetition(VALID_COMPETITION_ID));
+
+        assertFalse("The competition should be deleted", competitionRepository.findOne(VALID_COMPETITION_ID).isPresent());
+        assertEquals(
+            "Only the participations in the deleted competition should be deleted",
+            Set.of(OTHER_COMPETITION_PARTICIPATION),
+            participationService.getAllParticipations()
+        );
+        assertEquals(
+            "Only the sponsorships of the deleted competition should be deleted",
+            Set.of(OTHER_COMPETITION_SPONSORSHIP),
+            sponsorshipService.getAllSponsorships()
+        );
+        assertEquals("The athletes should not be affected", Set.of(ATHLETE, OTHER_ATHLETE), athleteService.getAllAthletes());
+        assertEquals("The sponsors should not be affected", Set.of(SPONSOR, OTHER_SPONSOR), sponsorService.getAllSponsors());
+    }
+
+    @Test
+    public void testDeleteSponsorCascadesToSponsorships() {
+        saveDependentEntities();
+
+        assertEquals("The deleted sponsor should be returned", Optional.of(SPONSOR), controller.deleteSponsor(SponsorTest.ID));
+
+        assertFalse("The sponsor should be deleted", sponsorRepository.findOne(SponsorTest.ID).isPresent());
+        assertEquals(
+            "Only the sponsorships of the deleted sponsor should be deleted",
+            Set.of(OTHER_SPONSOR_SPONSORSHIP),
+            sponsorshipService.getAllSponsorships()
+        );
+        assertEquals(
+            "The competitions should not be affected",
+            Set.of(COMPETITION, OTHER_COMPETITION),
+            competitionService.getAllCompetitions()
+        );
+    }
+
+    @Test
+    public void testDeleteNonExistentCompetitionDeletesNothing() {
+        saveDependentEntities();
+
+        assertThrows(
+            "An exception should be signaled when trying to delete a non-existent competition",
+            UnknownIdException.class,
+            () -> controller.deleteCompetition(INVALID_COMPETITION_ID)
+        );
+
+        assertEquals("No participation should be deleted", 3, participationService.getAllParticipations().size());
+        assertEquals("No sponsorship should be deleted", 3, sponsorshipService.getAllSponsorships().size());
+    }
+
+}
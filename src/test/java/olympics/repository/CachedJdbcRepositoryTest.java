@@ -0,0 +1,405 @@
+package olympics.repository;
+
+import olympics.domain.AthleteTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import ro.ubb.olympics.domain.Athlete;
+import ro.ubb.olympics.domain.validators.AthleteValidator;
+import ro.ubb.olympics.exception.SqlException;
+import ro.ubb.olympics.repository.jdbc.CachedJdbcRepository;
+import ro.ubb.olympics.repository.jdbc.DatabaseProvider;
+import ro.ubb.olympics.repository.jdbc.mapper.AthleteJdbcMapper;
+import ro.ubb.olympics.utils.Pair;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CachedJdbcRepositoryTest {
+
+    private static final String TABLE_NAME = "athletes";
+    private static final int CACHE_SIZE = 100;
+    private static final int NUMBER_OF_SAVERS = 8;
+    private static final int NUMBER_OF_CONTENDED_IDS = 20;
+    private static final int NUMBER_OF_ROWS = 2500;
+    private static final long SELECT_DELAY_MILLIS = 2;
+    private static final long WAIT_TIMEOUT_MILLIS = 10000;
+    private static final long WAIT_STEP_MILLIS = 10;
+
+    private static final Athlete FIRST_ATHLETE = athlete(1L, 20);
+
+    private final AthleteJdbcMapper mapper = new AthleteJdbcMapper();
+    private StubDatabaseProvider databaseProvider;
+    private CachedJdbcRepository<Long, Athlete> repository;
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        databaseProvider = new StubDatabaseProvider(mapper);
+        repository = new CachedJdbcRepository<>(new AthleteValidator(), databaseProvider, TABLE_NAME, mapper, CACHE_SIZE);
+        executor = Executors.newFixedThreadPool(NUMBER_OF_SAVERS);
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+        databaseProvider.close();
+        executor = null;
+        repository = null;
+        databaseProvider = null;
+    }
+
+    private static Athlete athlete(final long id, final int age) {
+        return new Athlete(id, AthleteTest.FIRST_NAME, AthleteTest.LAST_NAME, AthleteTest.COUNTRY, age);
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(WAIT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+        } catch (final InterruptedException interruptedException) {
+            throw new IllegalStateException(interruptedException);
+        }
+    }
+
+    /**
+     * Wait until a condition holds, failing if it does not hold in time.
+     */
+    private static void await(final BooleanSupplier condition) {
+        final long deadline = System.currentTimeMillis() + WAIT_TIMEOUT_MILLIS;
+
+        Stream
+            .generate(() -> {
+                try {
+                    Thread.sleep(WAIT_STEP_MILLIS);
+                } catch (final InterruptedException interruptedException) {
+                    throw new IllegalStateException(interruptedException);
+                }
+                return condition.getAsBoolean();
+            })
+            .takeWhile(holds -> !holds && System.currentTimeMillis() < deadline)
+            .forEach(unused -> {
+            });
+
+        assertTrue(condition.getAsBoolean());
+    }
+
+    private static <R> R get(final Future<R> future) {
+        try {
+            return future.get(WAIT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (final Exception exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    @Test
+    public void testFindOneThroughCache() {
+        databaseProvider.insertRow(FIRST_ATHLETE);
+
+        assertEquals(Optional.of(FIRST_ATHLETE), repository.findOne(FIRST_ATHLETE.getId()));
+        assertEquals(Optional.of(FIRST_ATHLETE), repository.findOne(FIRST_ATHLETE.getId()));
+        assertEquals(Optional.empty(), repository.findOne(2L));
+
+        assertEquals(1, repository.getCacheHits());
+        assertEquals(2, repository.getCacheMisses());
+        assertEquals(1, repository.getCacheSize());
+    }
+
+    /**
+     * A lookup which read the row before a concurrent delete does not put the deleted entity back in the cache.
+     */
+    @Test
+    public void testDeleteDuringCacheMiss() {
+        databaseProvider.insertRow(FIRST_ATHLETE);
+        final CountDownLatch selected = new CountDownLatch(1);
+        final CountDownLatch resumed = new CountDownLatch(1);
+        final AtomicBoolean paused = new AtomicBoolean(false);
+        databaseProvider.setOnSelect(() -> Optional
+            .of(paused.compareAndSet(false, true))
+            .filter(Boolean::booleanValue)
+            .ifPresent(unused -> {
+                selected.countDown();
+                await(resumed);
+            }));
+
+        final Future<Optional<Athlete>> lookup = executor.submit(() -> repository.findOne(FIRST_ATHLETE.getId()));
+        await(selected);
+        final Thread deleter = new Thread(() -> repository.delete(FIRST_ATHLETE.getId()));
+        deleter.start();
+        await(() -> deleter.getState() == Thread.State.WAITING || deleter.getState() == Thread.State.TERMINATED);
+        resumed.countDown();
+
+        assertEquals(Optional.of(FIRST_ATHLETE), get(lookup));
+        await(() -> deleter.getState() == Thread.State.TERMINATED);
+        assertFalse(databaseProvider.containsRow(FIRST_ATHLETE.getId()));
+        assertEquals(Optional.empty(), repository.findOne(FIRST_ATHLETE.getId()));
+        assertEquals(Optional.empty(), repository.save(FIRST_ATHLETE));
+    }
+
+    /**
+     * Concurrent saves of the same new entity insert it once, and all but one of them report it as already saved.
+     */
+    @Test
+    public void testConcurrentSavesOfSameEntity() {
+        databaseProvider.setOnSelect(() -> {
+            try {
+                Thread.sleep(SELECT_DELAY_MILLIS);
+            } catch (final InterruptedException interruptedException) {
+                throw new IllegalStateException(interruptedException);
+            }
+        });
+
+        final List<Optional<Athlete>> results = LongStream
+            .rangeClosed(1, NUMBER_OF_CONTENDED_IDS)
+            .mapToObj(id -> {
+                final CountDownLatch start = new CountDownLatch(1);
+                final List<Future<Optional<Athlete>>> saves = Stream
+                    .generate(() -> (Callable<Optional<Athlete>>) () -> {
+                        await(start);
+                        return repository.save(athlete(id, 20));
+                    })
+                    .limit(NUMBER_OF_SAVERS)
+                    .map(executor::submit)
+                    .collect(Collectors.toList());
+                start.countDown();
+
+                return saves;
+            })
+            .flatMap(List::stream)
+            .map(CachedJdbcRepositoryTest::get)
+            .collect(Collectors.toList());
+
+        assertEquals(NUMBER_OF_CONTENDED_IDS, results.stream().filter(Optional::isEmpty).count());
+        assertEquals(NUMBER_OF_CONTENDED_IDS * (NUMBER_OF_SAVERS - 1), results.stream().filter(Optional::isPresent).count());
+        assertEquals(NUMBER_OF_CONTENDED_IDS, databaseProvider.getNumberOfInserts());
+    }
+
+    @Test
+    public void testUpdateAndDeleteAll() {
+        repository.save(FIRST_ATHLETE);
+        repository.save(athlete(2L, 30));
+
+        assertEquals(Optional.of(athlete(1L, 25)), repository.update(athlete(1L, 25)));
+        assertEquals(Optional.empty(), repository.update(athlete(3L, 25)));
+        assertEquals(List.of(athlete(1L, 25)), repository.deleteAll(List.of(1L, 3L)));
+
+        assertEquals(Optional.empty(), repository.findOne(1L));
+        assertEquals(Optional.of(athlete(2L, 30)), repository.findOne(2L));
+        assertFalse(databaseProvider.containsRow(1L));
+    }
+
+    /**
+     * The action passed to forEach runs between the page queries, so it can use the repository without a second
+     * connection.
+     */
+    @Test
+    public void testForEachBetweenPages() {
+        LongStream
+            .rangeClosed(1, NUMBER_OF_ROWS)
+            .forEach(id -> databaseProvider.insertRow(athlete(id, 20)));
+        final AtomicInteger numberOfEntities = new AtomicInteger();
+
+        repository.findAll().forEach(entity -> {
+            assertFalse(databaseProvider.isQueryOpen());
+            assertEquals(Optional.of(entity), repository.findOne(entity.getId()));
+            assertEquals(numberOfEntities.incrementAndGet(), entity.getId().intValue());
+        });
+
+        assertEquals(NUMBER_OF_ROWS, numberOfEntities.get());
+        assertEquals(NUMBER_OF_ROWS / CachedJdbcRepository.PAGE_SIZE + 1, databaseProvider.getNumberOfQueries());
+    }
+
+    /**
+     * Database provider keeping the rows of a single athlete table in memory, answering the SQL built by the mapper.
+     */
+    private static class StubDatabaseProvider extends DatabaseProvider {
+
+        private final ConcurrentSkipListMap<Long, Object[]> rows = new ConcurrentSkipListMap<>();
+        private final Map<String, Function<Object[], Integer>> commands;
+        private final String selectByIdSql;
+        private final String selectFirstPageSql;
+        private final String selectNextPageSql;
+        private final AtomicReference<Runnable> onSelect = new AtomicReference<>(() -> {
+        });
+        private final AtomicInteger numberOfInserts = new AtomicInteger();
+        private final AtomicInteger numberOfQueries = new AtomicInteger();
+        private final AtomicBoolean queryOpen = new AtomicBoolean(false);
+
+        private StubDatabaseProvider(final AthleteJdbcMapper mapper) {
+            super("jdbc:stub", "", "");
+            this.selectByIdSql = mapper.buildSelectByIdSql(TABLE_NAME);
+            this.selectFirstPageSql = mapper.buildSelectFirstPageSql(TABLE_NAME);
+            this.selectNextPageSql = mapper.buildSelectNextPageSql(TABLE_NAME);
+            this.commands = Map.of(
+                mapper.buildCreateTableIfNotExistsSql(TABLE_NAME), values -> 0,
+                mapper.buildInsertSql(TABLE_NAME), this::insert,
+                mapper.buildUpdateSql(TABLE_NAME), values -> Optional
+                    .ofNullable(rows.computeIfPresent((Long) values[4], (id, row) -> new Object[]{id, values[0], values[1], values[2], values[3]}))
+                    .map(unused -> 1)
+                    .orElse(0),
+                mapper.buildDeleteSql(TABLE_NAME), values -> Optional
+                    .ofNullable(rows.remove((Long) values[0]))
+                    .map(unused -> 1)
+                    .orElse(0)
+            );
+        }
+
+        private void setOnSelect(final Runnable action) {
+            onSelect.set(action);
+        }
+
+        private void insertRow(final Athlete athlete) {
+            rows.put(athlete.getId(), new Object[]{athlete.getId(), athlete.getFirstName(), athlete.getLastName(), athlete.getCountry(), athlete.getAge()});
+        }
+
+        private boolean containsRow(final long id) {
+            return rows.containsKey(id);
+        }
+
+        private int getNumberOfInserts() {
+            return numberOfInserts.get();
+        }
+
+        private int getNumberOfQueries() {
+            return numberOfQueries.get();
+        }
+
+        private boolean isQueryOpen() {
+            return queryOpen.get();
+        }
+
+        private int insert(final Object[] values) {
+            Optional
+                .ofNullable(rows.putIfAbsent((Long) values[0], values))
+                .ifPresent(unused -> {
+                    throw new SqlException(new SQLException("Duplicate key " + values[0]));
+                });
+            numberOfInserts.incrementAndGet();
+
+            return 1;
+        }
+
+        @Override
+        public int executeUpdate(final String sql, final Object... values) throws SqlException {
+            return commands.get(sql).apply(values);
+        }
+
+        @Override
+        public void executeBatch(final String sql, final int batchSize, final List<Object[]> valuesOfEachCommand) throws SqlException {
+            valuesOfEachCommand.forEach(values -> executeUpdate(sql, values));
+        }
+
+        @Override
+        public void executeQuery(final String sql, final RowConsumer rowConsumer, final Object... values) throws SqlException {
+            final List<Object[]> page = Optional
+                .of(sql)
+                .filter(selectNextPageSql::equals)
+                .map(unused -> rows.tailMap((Long) values[0], false).values().stream())
+                .orElseGet(() -> Optional
+                    .of(sql)
+                    .filter(selectFirstPageSql::equals)
+                    .map(unused -> rows.values().stream())
+                    .orElseThrow(() -> new UnsupportedOperationException(sql)))
+                .limit((Integer) values[values.length - 1])
+                .collect(Collectors.toList());
+            final ResultSet resultSet = resultSet(page.iterator());
+            numberOfQueries.incrementAndGet();
+
+            queryOpen.set(true);
+            try {
+                page.forEach(unused -> {
+                    try {
+                        resultSet.next();
+                        rowConsumer.accept(resultSet);
+                    } catch (final SQLException sqlException) {
+                        throw new SqlException(sqlException);
+                    }
+                });
+            } finally {
+                queryOpen.set(false);
+            }
+        }
+
+        @Override
+        public Pair<Connection, PreparedStatement> createPreparedStatement(final String sql, final Object... values) {
+            Optional
+                .of(sql)
+                .filter(selectByIdSql::equals)
+                .orElseThrow(() -> new UnsupportedOperationException(sql));
+
+            final Connection connection = (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, arguments) -> null
+            );
+            final PreparedStatement preparedStatement = (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                (proxy, method, arguments) -> switch (method.getName()) {
+                    case "executeQuery" -> {
+                        final Optional<Object[]> row = Optional.ofNullable(rows.get((Long) values[0]));
+                        onSelect.get().run();
+                        yield resultSet(row.stream().iterator());
+                    }
+                    default -> null;
+                }
+            );
+
+            return new Pair<>(connection, preparedStatement);
+        }
+
+        /**
+         * @param rows the rows of the result set, each one holding the values of the columns in order.
+         * @return a result set over the rows.
+         */
+        private static ResultSet resultSet(final Iterator<Object[]> rows) {
+            final AtomicReference<Object[]> row = new AtomicReference<>();
+
+            return (ResultSet) Proxy.newProxyInstance(
+                ResultSet.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class},
+                (proxy, method, arguments) -> switch (method.getName()) {
+                    case "next" -> Optional
+                        .of(rows.hasNext())
+                        .filter(Boolean::booleanValue)
+                        .map(unused -> {
+                            row.set(rows.next());
+                            return true;
+                        })
+                        .orElse(false);
+                    case "getLong", "getInt", "getString" -> row.get()[(Integer) arguments[0] - 1];
+                    case "close" -> null;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                }
+            );
+        }
+
+    }
+
+}
@@ -0,0 +1,121 @@
+package olympics.repository;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import ro.ubb.olympics.domain.Participation;
+import ro.ubb.olympics.domain.validators.ParticipationValidator;
+import ro.ubb.olympics.repository.Repository;
+import ro.ubb.olympics.repository.RepositorySnapshot;
+import ro.ubb.olympics.repository.columnar.ColumnarRepository;
+import ro.ubb.olympics.repository.inmemory.InMemoryRepository;
+import ro.ubb.olympics.repository.row.mapper.ParticipationRowMapper;
+import ro.ubb.olympics.service.ParticipationService;
+import ro.ubb.olympics.utils.IterableUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ColumnarRepositoryTest {
+
+    private static final int NUMBER_OF_OPERATIONS = 20000;
+    private static final int ID_RANGE = 500;
+
+    private static final Participation FIRST_PARTICIPATION = new Participation(1L, 10L, 100L, 1);
+    private static final Participation SECOND_PARTICIPATION = new Participation(2L, 10L, 200L, 3);
+    private static final Participation THIRD_PARTICIPATION = new Participation(3L, 20L, 100L, 2);
+
+    private ColumnarRepository<Participation> repository;
+
+    @Before
+    public void setUp() {
+        repository = new ColumnarRepository<>(new ParticipationValidator(), new ParticipationRowMapper(), 1);
+        repository.save(FIRST_PARTICIPATION);
+        repository.save(SECOND_PARTICIPATION);
+        repository.save(THIRD_PARTICIPATION);
+    }
+
+    @After
+    public void tearDown() {
+        repository = null;
+    }
+
+    private static Participation randomParticipation(final Random random) {
+        return new Participation(1L + random.nextInt(ID_RANGE), 1L + random.nextInt(10), 1L + random.nextInt(10), 1 + random.nextInt(10));
+    }
+
+    @Test
+    public void testSaveUpdateDelete() {
+        final Participation updatedParticipation = new Participation(1L, 30L, 300L, 5);
+
+        assertEquals(FIRST_PARTICIPATION, repository.save(updatedParticipation).orElseThrow());
+        assertEquals(updatedParticipation, repository.update(updatedParticipation).orElseThrow());
+        assertEquals(updatedParticipation, repository.findOne(1L).orElseThrow());
+
+        assertEquals(updatedParticipation, repository.delete(1L).orElseThrow());
+        assertTrue(repository.delete(1L).isEmpty());
+        assertTrue(repository.findOne(1L).isEmpty());
+        assertEquals(THIRD_PARTICIPATION, repository.findOne(3L).orElseThrow());
+        assertEquals(Set.of(SECOND_PARTICIPATION, THIRD_PARTICIPATION), IterableUtils.asSet(repository.findAll()));
+    }
+
+    @Test
+    public void testBehavesLikeInMemoryRepository() {
+        final Repository<Long, Participation> expected = new InMemoryRepository<>(new ParticipationValidator());
+        IterableUtils.stream(repository.findAll()).forEach(expected::save);
+        final Random random = new Random(42);
+
+        IntStream
+            .range(0, NUMBER_OF_OPERATIONS)
+            .forEach(operation -> {
+                final Participation participation = randomParticipation(random);
+
+                switch (random.nextInt(3)) {
+                    case 0 -> assertEquals(expected.save(participation), repository.save(participation));
+                    case 1 -> assertEquals(expected.update(participation), repository.update(participation));
+                    default -> assertEquals(expected.delete(participation.getId()), repository.delete(participation.getId()));
+                }
+            });
+
+        assertEquals(IterableUtils.asSet(expected.findAll()), IterableUtils.asSet(repository.findAll()));
+        IterableUtils
+            .stream(expected.findAll())
+            .forEach(participation -> assertEquals(participation, repository.findOne(participation.getId()).orElseThrow()));
+    }
+
+    @Test
+    public void testSnapshot() {
+        final RepositorySnapshot<Long, Participation> snapshot = repository.snapshot();
+        repository.delete(1L);
+        repository.update(new Participation(2L, 10L, 200L, 4));
+
+        final List<Participation> rows = new ArrayList<>();
+        new ParticipationRowMapper().forEachRow(snapshot, (id, athleteId, competitionId, rank) -> rows.add(new Participation(id, athleteId, competitionId, rank)));
+
+        assertEquals(Set.of(FIRST_PARTICIPATION, SECOND_PARTICIPATION, THIRD_PARTICIPATION), Set.copyOf(rows));
+        assertEquals(Set.of(FIRST_PARTICIPATION, SECOND_PARTICIPATION, THIRD_PARTICIPATION), snapshot.findAll());
+        assertEquals(SECOND_PARTICIPATION, snapshot.findOne(2L).orElseThrow());
+        assertTrue(repository.snapshot().findOne(1L).isEmpty());
+    }
+
+    @Test
+    public void testColumnIndexes() {
+        final ParticipationService participationService = new ParticipationService(repository);
+
+        assertEquals(Set.of(FIRST_PARTICIPATION, SECOND_PARTICIPATION), participationService.getParticipationsByAthleteId(10L));
+        assertEquals(Set.of(FIRST_PARTICIPATION, THIRD_PARTICIPATION), participationService.getParticipationsByCompetitionId(100L));
+        assertEquals(Set.of(SECOND_PARTICIPATION, THIRD_PARTICIPATION), participationService.getParticipationsByRankBetween(2, 3));
+        assertTrue(participationService.getParticipationsByRankBetween(3, 2).isEmpty());
+
+        assertEquals(List.of(SECOND_PARTICIPATION, THIRD_PARTICIPATION), repository.findTopRows(2));
+        assertEquals(Set.of(FIRST_PARTICIPATION, THIRD_PARTICIPATION), Set.copyOf(participationService.deleteParticipationsByCompetitionId(100L)));
+        assertEquals(Set.of(SECOND_PARTICIPATION), participationService.getAllParticipations());
+    }
+
+}
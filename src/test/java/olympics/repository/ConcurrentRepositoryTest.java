@@ -0,0 +1,230 @@
+package olympics.repository;
+
+import olympics.domain.AthleteTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import ro.ubb.olympics.domain.Athlete;
+import ro.ubb.olympics.domain.Participation;
+import ro.ubb.olympics.domain.validators.AthleteValidator;
+import ro.ubb.olympics.domain.validators.ParticipationValidator;
+import ro.ubb.olympics.repository.Repository;
+import ro.ubb.olympics.repository.RepositorySnapshot;
+import ro.ubb.olympics.repository.SnapshotRepository;
+import ro.ubb.olympics.repository.VersionClock;
+import ro.ubb.olympics.repository.columnar.ColumnarRepository;
+import ro.ubb.olympics.repository.file.impl.AthleteFileRepository;
+import ro.ubb.olympics.repository.index.HashIndex;
+import ro.ubb.olympics.repository.index.Index;
+import ro.ubb.olympics.repository.inmemory.InMemoryRepository;
+import ro.ubb.olympics.repository.inmemory.LongKeyedInMemoryRepository;
+import ro.ubb.olympics.repository.mmap.MappedRepository;
+import ro.ubb.olympics.repository.row.mapper.ParticipationRowMapper;
+import ro.ubb.olympics.utils.IterableUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ConcurrentRepositoryTest {
+
+    private static final int NUMBER_OF_WRITERS = 8;
+    private static final int NUMBER_OF_READERS = 4;
+    private static final int ENTITIES_PER_WRITER = 1000;
+    private static final int ENTITIES_PER_FILE_WRITER = 25;
+    private static final int ENTITIES_PER_LOG_WRITER = 100;
+    private static final int EXCLUSIVE_READ_CHANGES = 20000;
+    private static final long EXCLUSIVE_READ_TIMEOUT_SECONDS = 60;
+
+    private static final int SAVED_AGE = 1;
+    private static final int UPDATED_AGE = 2;
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final AthleteValidator athleteValidator = new AthleteValidator();
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(NUMBER_OF_WRITERS + NUMBER_OF_READERS);
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+        executor = null;
+    }
+
+    private static Athlete athlete(final long id, final int age) {
+        return new Athlete(id, AthleteTest.FIRST_NAME, AthleteTest.LAST_NAME, AthleteTest.COUNTRY, age);
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (final InterruptedException interruptedException) {
+            throw new IllegalStateException(interruptedException);
+        }
+    }
+
+    private static void join(final List<Future<?>> futures) {
+        futures.forEach(future -> {
+            try {
+                future.get();
+            } catch (final Exception exception) {
+                throw new AssertionError(exception);
+            }
+        });
+    }
+
+    /**
+     * A writer keeps saving and deleting participations while a reader keeps taking snapshots of the repository inside
+     * consistent reads, which also record a change so that every optimistic attempt is rejected and each read ends up
+     * holding the changes back. Neither of them may wait for the other forever.
+     */
+    private void readExclusivelyWhileWriting(final SnapshotRepository<Long, Participation> repository) throws Exception {
+        final VersionClock clock = VersionClock.getDefault();
+        final AtomicBoolean writing = new AtomicBoolean(true);
+
+        final Future<?> writer = executor.submit(() -> {
+            LongStream
+                .rangeClosed(1, EXCLUSIVE_READ_CHANGES)
+                .forEach(id -> {
+                    assertTrue(repository.save(new Participation(id, 1L, 1L, 1)).isEmpty());
+                    assertTrue(repository.delete(id).isPresent());
+                });
+            writing.set(false);
+        });
+
+        final Future<?> reader = executor.submit(() -> Stream
+            .generate(() -> clock.readConsistently(() -> {
+                final RepositorySnapshot<Long, Participation> snapshot = repository.snapshot();
+                clock.change(() -> null);
+                return snapshot;
+            }))
+            .takeWhile(unused -> writing.get())
+            .forEach(snapshot -> assertTrue(IterableUtils.asSet(snapshot.findAll()).size() <= 1)));
+
+        writer.get(EXCLUSIVE_READ_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        reader.get(EXCLUSIVE_READ_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertTrue(IterableUtils.asSet(repository.findAll()).isEmpty());
+    }
+
+    /**
+     * Every writer saves its own athletes, updates each of them and deletes every other one, while the readers keep
+     * scanning the repository, looking athletes up and searching an index, until the writers are done.
+     *
+     * @return the athletes expected to remain in the repository.
+     */
+    private Set<Athlete> writeAndReadConcurrently(final Repository<Long, Athlete> repository, final int entitiesPerWriter) {
+        final Index<Integer, Athlete> ageIndex = HashIndex.on(repository, Athlete::getAge);
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicBoolean writing = new AtomicBoolean(true);
+
+        final List<Future<?>> writers = IntStream
+            .range(0, NUMBER_OF_WRITERS)
+            .mapToObj(writer -> executor.submit(() -> {
+                await(start);
+                LongStream
+                    .rangeClosed(1, entitiesPerWriter)
+                    .map(count -> (long) writer * entitiesPerWriter + count)
+                    .forEach(id -> {
+                        assertTrue(repository.save(athlete(id, SAVED_AGE)).isEmpty());
+                        assertTrue(repository.update(athlete(id, UPDATED_AGE)).isPresent());
+                        Optional
+                            .of(id)
+                            .filter(evenId -> evenId % 2 == 0)
+                            .ifPresent(evenId -> assertTrue(repository.delete(evenId).isPresent()));
+                    });
+            }))
+            .collect(Collectors.toList());
+
+        final List<Future<?>> readers = IntStream
+            .range(0, NUMBER_OF_READERS)
+            .mapToObj(reader -> executor.submit(() -> {
+                await(start);
+                Stream
+                    .generate(repository::findAll)
+                    .takeWhile(unused -> writing.get())
+                    .forEach(athletes -> {
+                        athletes.forEach(athlete -> assertTrue(athlete.getAge() == SAVED_AGE || athlete.getAge() == UPDATED_AGE));
+                        ageIndex.find(UPDATED_AGE).forEach(athlete -> assertEquals(UPDATED_AGE, athlete.getAge()));
+                        repository.findOne(1L).ifPresent(athlete -> assertEquals(1L, (long) athlete.getId()));
+                    });
+            }))
+            .collect(Collectors.toList());
+
+        start.countDown();
+        join(writers);
+        writing.set(false);
+        join(readers);
+
+        final Set<Athlete> expectedAthletes = LongStream
+            .rangeClosed(1, (long) NUMBER_OF_WRITERS * entitiesPerWriter)
+            .filter(id -> id % 2 == 1)
+            .mapToObj(id -> athlete(id, UPDATED_AGE))
+            .collect(Collectors.toSet());
+
+        assertEquals(expectedAthletes, IterableUtils.asSet(repository.findAll()));
+        assertEquals(expectedAthletes, ageIndex.find(UPDATED_AGE));
+        assertTrue(ageIndex.find(SAVED_AGE).isEmpty());
+
+        return expectedAthletes;
+    }
+
+    @Test
+    public void testInMemoryRepository() {
+        writeAndReadConcurrently(new InMemoryRepository<>(athleteValidator), ENTITIES_PER_WRITER);
+    }
+
+    @Test
+    public void testLongKeyedInMemoryRepository() {
+        writeAndReadConcurrently(new LongKeyedInMemoryRepository<>(athleteValidator), ENTITIES_PER_WRITER);
+    }
+
+    @Test
+    public void testColumnarRepositoryExclusiveReads() throws Exception {
+        readExclusivelyWhileWriting(new ColumnarRepository<>(new ParticipationValidator(), new ParticipationRowMapper()));
+    }
+
+    @Test
+    public void testMappedRepositoryExclusiveReads() throws Exception {
+        try (final MappedRepository<Participation> repository = new MappedRepository<>(new ParticipationValidator(), new ParticipationRowMapper(), temporaryFolder.newFile().getPath())) {
+            readExclusivelyWhileWriting(repository);
+        }
+    }
+
+    @Test
+    public void testFileRepository() throws Exception {
+        final String fileName = temporaryFolder.newFile().getPath();
+        final Set<Athlete> expectedAthletes = writeAndReadConcurrently(new AthleteFileRepository(athleteValidator, fileName), ENTITIES_PER_FILE_WRITER);
+
+        assertEquals(expectedAthletes, IterableUtils.asSet(new AthleteFileRepository(athleteValidator, fileName).findAll()));
+    }
+
+    @Test
+    public void testAppendOnlyLogFileRepository() throws Exception {
+        final String fileName = temporaryFolder.newFile().getPath();
+        final Set<Athlete> expectedAthletes = writeAndReadConcurrently(new AthleteFileRepository(athleteValidator, fileName, true), ENTITIES_PER_LOG_WRITER);
+
+        assertEquals(expectedAthletes, IterableUtils.asSet(new AthleteFileRepository(athleteValidator, fileName, true).findAll()));
+    }
+
+}
@@ -0,0 +1,625 @@
+package olympics.repository;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import ro.ubb.olympics.exception.SqlException;
+import ro.ubb.olympics.repository.jdbc.ConnectionPool;
+import ro.ubb.olympics.repository.jdbc.ConnectionPoolMetrics;
+import ro.ubb.olympics.repository.jdbc.ConnectionPoolSettings;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class ConnectionPoolTest {
+
+    private static final Duration SHORT_WAIT = Duration.ofMillis(50);
+    private static final Duration LONG_WAIT = Duration.ofSeconds(10);
+    private static final Duration NEVER = Duration.ofHours(1);
+    private static final int MAXIMUM_POOL_SIZE = 2;
+    private static final int STATEMENT_CACHE_SIZE = 4;
+    private static final long WAIT_TIMEOUT_MILLIS = 10000;
+    private static final long WAIT_STEP_MILLIS = 10;
+
+    private static final String SELECT_SQL = "SELECT 1";
+    private static final String UPDATE_SQL = "UPDATE athletes SET age = ? WHERE id = ?";
+    private static final int FETCH_SIZE = 50;
+    private static final int MAX_ROWS = 10;
+    private static final int QUERY_TIMEOUT_SECONDS = 5;
+
+    private StubConnectionFactory connectionFactory;
+    private ConnectionPool connectionPool;
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        connectionFactory = new StubConnectionFactory();
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        connectionPool.close();
+        executor.shutdownNow();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+        connectionPool = null;
+        connectionFactory = null;
+        executor = null;
+    }
+
+    private void open(final Duration maximumWait, final Duration idleTimeout, final Duration validationInterval) {
+        connectionPool = new ConnectionPool(connectionFactory, new ConnectionPoolSettings(
+            MAXIMUM_POOL_SIZE,
+            maximumWait,
+            idleTimeout,
+            validationInterval,
+            Duration.ofSeconds(1),
+            STATEMENT_CACHE_SIZE
+        ));
+    }
+
+    private void open() {
+        open(LONG_WAIT, NEVER, NEVER);
+    }
+
+    /**
+     * Wait until a condition holds, failing if it does not hold in time.
+     */
+    private static void await(final BooleanSupplier condition) {
+        final long deadline = System.currentTimeMillis() + WAIT_TIMEOUT_MILLIS;
+
+        Stream
+            .generate(() -> {
+                try {
+                    Thread.sleep(WAIT_STEP_MILLIS);
+                } catch (final InterruptedException interruptedException) {
+                    throw new IllegalStateException(interruptedException);
+                }
+                return condition.getAsBoolean();
+            })
+            .takeWhile(holds -> !holds && System.currentTimeMillis() < deadline)
+            .forEach(unused -> {
+            });
+
+        assertTrue(condition.getAsBoolean());
+    }
+
+    @Test
+    public void testReuseReturnedConnection() throws SQLException {
+        open();
+
+        connectionPool.getConnection().close();
+        final Connection connection = connectionPool.getConnection();
+
+        final ConnectionPoolMetrics metrics = connectionPool.getMetrics();
+        assertEquals(1, connectionFactory.getConnections().size());
+        assertEquals(2, metrics.getNumberOfAcquisitions());
+        assertEquals(1, metrics.getNumberOfCreatedConnections());
+        assertEquals(1, metrics.getActiveConnections());
+        assertEquals(0, metrics.getIdleConnections());
+
+        connection.close();
+
+        assertEquals(0, connectionPool.getMetrics().getActiveConnections());
+        assertEquals(1, connectionPool.getMetrics().getIdleConnections());
+        assertFalse(connectionFactory.getConnections().get(0).isClosed());
+    }
+
+    @Test
+    public void testMaximumPoolSize() throws SQLException {
+        open(SHORT_WAIT, NEVER, NEVER);
+        final Connection firstConnection = connectionPool.getConnection();
+        connectionPool.getConnection();
+
+        final long waitStart = System.nanoTime();
+        final SqlException timeout = assertThrows(SqlException.class, connectionPool::getConnection);
+
+        assertTrue(timeout.getCause() instanceof SQLTimeoutException);
+        assertTrue(Duration.ofNanos(System.nanoTime() - waitStart).compareTo(SHORT_WAIT) >= 0);
+        assertEquals(1, connectionPool.getMetrics().getNumberOfTimeouts());
+        assertEquals(MAXIMUM_POOL_SIZE, connectionFactory.getConnections().size());
+
+        firstConnection.close();
+        connectionPool.getConnection();
+
+        assertEquals(MAXIMUM_POOL_SIZE, connectionFactory.getConnections().size());
+        assertEquals(MAXIMUM_POOL_SIZE + 1, connectionPool.getMetrics().getNumberOfAcquisitions());
+    }
+
+    @Test
+    public void testWaitForReturnedConnection() throws Exception {
+        open();
+        final Connection firstConnection = connectionPool.getConnection();
+        final Connection secondConnection = connectionPool.getConnection();
+
+        final Future<Connection> waitingConnection = executor.submit(connectionPool::getConnection);
+        Thread.sleep(SHORT_WAIT.toMillis());
+        assertFalse(waitingConnection.isDone());
+        secondConnection.close();
+
+        waitingConnection.get(WAIT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS).close();
+        firstConnection.close();
+
+        final ConnectionPoolMetrics metrics = connectionPool.getMetrics();
+        assertEquals(MAXIMUM_POOL_SIZE, metrics.getNumberOfCreatedConnections());
+        assertTrue(metrics.getMaximumWaitTime().compareTo(Duration.ZERO) > 0);
+        assertTrue(metrics.getAverageWaitTime().compareTo(metrics.getMaximumWaitTime()) <= 0);
+    }
+
+    @Test
+    public void testEvictIdleConnections() throws SQLException {
+        open(LONG_WAIT, SHORT_WAIT, NEVER);
+        connectionPool.getConnection().close();
+
+        await(() -> connectionPool.getMetrics().getNumberOfEvictedConnections() == 1);
+
+        assertTrue(connectionFactory.getConnections().get(0).isClosed());
+        assertEquals(0, connectionPool.getMetrics().getIdleConnections());
+
+        connectionPool.getConnection();
+
+        assertEquals(2, connectionPool.getMetrics().getNumberOfCreatedConnections());
+    }
+
+    @Test
+    public void testDiscardBrokenIdleConnection() throws SQLException {
+        open(LONG_WAIT, NEVER, Duration.ZERO);
+        connectionPool.getConnection().close();
+        connectionFactory.getConnections().get(0).setValid(false);
+
+        connectionPool.getConnection();
+
+        assertEquals(1, connectionPool.getMetrics().getNumberOfBrokenConnections());
+        assertEquals(2, connectionPool.getMetrics().getNumberOfCreatedConnections());
+        assertTrue(connectionFactory.getConnections().get(0).isClosed());
+        assertFalse(connectionFactory.getConnections().get(1).isClosed());
+    }
+
+    @Test
+    public void testFailedConnectionReleasesPermit() throws SQLException {
+        open(SHORT_WAIT, NEVER, NEVER);
+        connectionFactory.setFailing(true);
+
+        Stream
+            .generate(() -> assertThrows(SqlException.class, connectionPool::getConnection))
+            .limit(MAXIMUM_POOL_SIZE + 1)
+            .forEach(failure -> assertFalse(failure.getCause() instanceof SQLTimeoutException));
+        connectionFactory.setFailing(false);
+        connectionPool.getConnection();
+
+        assertEquals(0, connectionPool.getMetrics().getNumberOfTimeouts());
+        assertEquals(1, connectionPool.getMetrics().getActiveConnections());
+    }
+
+    @Test
+    public void testRollBackOnReturn() throws SQLException {
+        open();
+        final Connection connection = connectionPool.getConnection();
+        connection.setAutoCommit(false);
+
+        connection.close();
+
+        final StubConnection physicalConnection = connectionFactory.getConnections().get(0);
+        assertEquals(1, physicalConnection.getNumberOfRollbacks());
+        assertTrue(physicalConnection.getProxy().getAutoCommit());
+    }
+
+    @Test
+    public void testConnectionUnusableAfterReturn() throws SQLException {
+        open();
+        final Connection connection = connectionPool.getConnection();
+
+        connection.close();
+        connection.close();
+
+        assertTrue(connection.isClosed());
+        assertThrows(SQLException.class, () -> connection.setAutoCommit(false));
+        assertThrows(SQLException.class, () -> connection.prepareStatement(SELECT_SQL));
+        assertEquals(1, connectionPool.getMetrics().getIdleConnections());
+    }
+
+    /**
+     * A statement left open when its connection is returned is taken back by the pool, and cannot be used anymore.
+     */
+    @Test
+    public void testStatementUnusableAfterReturn() throws SQLException {
+        open();
+        final Connection connection = connectionPool.getConnection();
+        final PreparedStatement statement = connection.prepareStatement(SELECT_SQL);
+
+        connection.close();
+
+        assertTrue(statement.isClosed());
+        assertThrows(SQLException.class, statement::executeQuery);
+        assertThrows(SQLException.class, () -> statement.setObject(1, 1));
+
+        final Connection nextConnection = connectionPool.getConnection();
+        nextConnection.prepareStatement(SELECT_SQL);
+
+        assertEquals(1, connectionPool.getMetrics().getNumberOfPreparedStatements());
+        assertEquals(1, connectionPool.getMetrics().getNumberOfReusedStatements());
+    }
+
+    /**
+     * Closing a statement after its connection was returned does not take it back from the next borrower.
+     */
+    @Test
+    public void testStatementClosedAfterReturn() throws SQLException {
+        open();
+        final Connection connection = connectionPool.getConnection();
+        final PreparedStatement staleStatement = connection.prepareStatement(SELECT_SQL);
+        connection.close();
+
+        final Connection nextConnection = connectionPool.getConnection();
+        final PreparedStatement statement = nextConnection.prepareStatement(SELECT_SQL);
+        staleStatement.close();
+        final PreparedStatement otherStatement = nextConnection.prepareStatement(SELECT_SQL);
+
+        assertEquals(2, connectionPool.getMetrics().getNumberOfPreparedStatements());
+        assertEquals(1, connectionPool.getMetrics().getNumberOfReusedStatements());
+        assertFalse(statement.isClosed());
+        assertFalse(otherStatement.isClosed());
+        statement.executeQuery();
+    }
+
+    /**
+     * A statement closed by its caller is reused by the next preparation of the same SQL on the same connection, while a
+     * statement still in use, or one on another connection, is prepared again.
+     */
+    @Test
+    public void testReuseStatementsPerConnection() throws SQLException {
+        open();
+        final Connection firstConnection = connectionPool.getConnection();
+        final Connection secondConnection = connectionPool.getConnection();
+
+        firstConnection.prepareStatement(SELECT_SQL).close();
+        final PreparedStatement reusedStatement = firstConnection.prepareStatement(SELECT_SQL);
+        final PreparedStatement concurrentStatement = firstConnection.prepareStatement(SELECT_SQL);
+        secondConnection.prepareStatement(SELECT_SQL);
+
+        assertNotSame(reusedStatement, concurrentStatement);
+        assertSame(firstConnection, reusedStatement.getConnection());
+        assertEquals(2, connectionFactory.getConnections().get(0).getStatements().size());
+        assertEquals(1, connectionFactory.getConnections().get(1).getStatements().size());
+        assertEquals(3, connectionPool.getMetrics().getNumberOfPreparedStatements());
+        assertEquals(1, connectionPool.getMetrics().getNumberOfReusedStatements());
+
+        concurrentStatement.close();
+
+        assertTrue(connectionFactory.getConnections().get(0).getStatements().get(1).isClosed());
+        assertFalse(connectionFactory.getConnections().get(0).getStatements().get(0).isClosed());
+    }
+
+    /**
+     * Nothing a caller did on a cached statement carries over to the next caller.
+     */
+    @Test
+    public void testResetStatementOnCheckIn() throws SQLException {
+        open();
+        final Connection connection = connectionPool.getConnection();
+        final PreparedStatement statement = connection.prepareStatement(UPDATE_SQL);
+        statement.setObject(1, 20);
+        statement.setObject(2, 1L);
+        statement.setFetchSize(FETCH_SIZE);
+        statement.setMaxRows(MAX_ROWS);
+        statement.setQueryTimeout(QUERY_TIMEOUT_SECONDS);
+        final ResultSet resultSet = statement.executeQuery();
+
+        statement.close();
+
+        final StubStatement physicalStatement = connectionFactory.getConnections().get(0).getStatements().get(0);
+        assertTrue(resultSet.isClosed());
+        assertTrue(physicalStatement.getParameters().isEmpty());
+        assertEquals(0, physicalStatement.getFetchSize());
+        assertEquals(0, physicalStatement.getMaxRows());
+        assertEquals(0, physicalStatement.getQueryTimeout());
+        assertFalse(physicalStatement.isClosed());
+        assertEquals(0, connection.prepareStatement(UPDATE_SQL).getFetchSize());
+    }
+
+    /**
+     * A statement left open when its connection is returned is reset as well, closing the result set of its caller.
+     */
+    @Test
+    public void testResetStatementOnReturn() throws SQLException {
+        open();
+        final Connection connection = connectionPool.getConnection();
+        final PreparedStatement statement = connection.prepareStatement(SELECT_SQL);
+        statement.setFetchSize(FETCH_SIZE);
+        final ResultSet resultSet = statement.executeQuery();
+
+        connection.close();
+
+        final StubStatement physicalStatement = connectionFactory.getConnections().get(0).getStatements().get(0);
+        assertTrue(resultSet.isClosed());
+        assertEquals(0, physicalStatement.getFetchSize());
+        assertFalse(physicalStatement.isClosed());
+    }
+
+    /**
+     * The least recently used statements are closed once a connection caches more statements than allowed.
+     */
+    @Test
+    public void testEvictStatements() throws SQLException {
+        open();
+        final Connection connection = connectionPool.getConnection();
+
+        IntStream
+            .rangeClosed(0, STATEMENT_CACHE_SIZE)
+            .forEach(number -> {
+                try {
+                    connection.prepareStatement(SELECT_SQL + " + " + number).close();
+                } catch (final SQLException sqlException) {
+                    throw new SqlException(sqlException);
+                }
+            });
+
+        final List<StubStatement> statements = connectionFactory.getConnections().get(0).getStatements();
+        assertEquals(STATEMENT_CACHE_SIZE + 1, statements.size());
+        assertTrue(statements.get(0).isClosed());
+        assertTrue(statements.stream().skip(1).noneMatch(StubStatement::isClosed));
+    }
+
+    @Test
+    public void testClosePool() throws SQLException {
+        open();
+        final Connection borrowedConnection = connectionPool.getConnection();
+        connectionPool.getConnection().close();
+
+        connectionPool.close();
+
+        assertTrue(connectionFactory.getConnections().get(1).isClosed());
+        assertFalse(connectionFactory.getConnections().get(0).isClosed());
+        assertThrows(SqlException.class, connectionPool::getConnection);
+
+        borrowedConnection.close();
+
+        assertTrue(connectionFactory.getConnections().get(0).isClosed());
+    }
+
+    /**
+     * Factory of stub connections, keeping each connection it opened.
+     */
+    private static class StubConnectionFactory implements ConnectionPool.ConnectionFactory {
+
+        private final List<StubConnection> connections = new CopyOnWriteArrayList<>();
+        private final AtomicBoolean failing = new AtomicBoolean(false);
+
+        @Override
+        public Connection create() throws SQLException {
+            final boolean fail = failing.get();
+            final StubConnection connection = new StubConnection();
+            connections.add(connection);
+
+            return Optional
+                .of(connection.getProxy())
+                .filter(unused -> !fail)
+                .orElseThrow(() -> new SQLException("The database is unreachable."));
+        }
+
+        private List<StubConnection> getConnections() {
+            return connections;
+        }
+
+        private void setFailing(final boolean fail) {
+            failing.set(fail);
+        }
+
+    }
+
+    /**
+     * Stub physical connection, keeping the statements prepared on it.
+     */
+    private static class StubConnection implements InvocationHandler {
+
+        private final Connection proxy = (Connection) Proxy.newProxyInstance(
+            Connection.class.getClassLoader(),
+            new Class<?>[]{Connection.class},
+            this
+        );
+        private final AtomicBoolean closed = new AtomicBoolean(false);
+        private final AtomicBoolean valid = new AtomicBoolean(true);
+        private final AtomicBoolean autoCommit = new AtomicBoolean(true);
+        private final AtomicInteger numberOfRollbacks = new AtomicInteger();
+        private final List<StubStatement> statements = new CopyOnWriteArrayList<>();
+
+        private Connection getProxy() {
+            return proxy;
+        }
+
+        private boolean isClosed() {
+            return closed.get();
+        }
+
+        private void setValid(final boolean isValid) {
+            valid.set(isValid);
+        }
+
+        private int getNumberOfRollbacks() {
+            return numberOfRollbacks.get();
+        }
+
+        private List<StubStatement> getStatements() {
+            return statements;
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] arguments) {
+            return switch (method.getName()) {
+                case "close" -> {
+                    closed.set(true);
+                    yield null;
+                }
+                case "isClosed" -> closed.get();
+                case "isValid" -> valid.get();
+                case "getAutoCommit" -> autoCommit.get();
+                case "setAutoCommit" -> {
+                    autoCommit.set((Boolean) arguments[0]);
+                    yield null;
+                }
+                case "rollback" -> {
+                    numberOfRollbacks.incrementAndGet();
+                    yield null;
+                }
+                case "prepareStatement" -> {
+                    final StubStatement statement = new StubStatement((String) arguments[0]);
+                    statements.add(statement);
+                    yield statement.getProxy();
+                }
+                case "equals" -> proxy == arguments[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "toString" -> "StubConnection";
+                default -> throw new UnsupportedOperationException(method.getName());
+            };
+        }
+
+    }
+
+    /**
+     * Stub physical prepared statement, keeping its parameters and the result set of its last query.
+     */
+    private static class StubStatement implements InvocationHandler {
+
+        private final String sql;
+        private final PreparedStatement proxy = (PreparedStatement) Proxy.newProxyInstance(
+            PreparedStatement.class.getClassLoader(),
+            new Class<?>[]{PreparedStatement.class},
+            this
+        );
+        private final AtomicBoolean closed = new AtomicBoolean(false);
+        private final Map<Integer, Object> parameters = new ConcurrentHashMap<>();
+        private final AtomicInteger fetchSize = new AtomicInteger();
+        private final AtomicInteger maxRows = new AtomicInteger();
+        private final AtomicInteger queryTimeout = new AtomicInteger();
+        private final List<AtomicBoolean> resultSets = new CopyOnWriteArrayList<>();
+        private final AtomicReference<ResultSet> currentResultSet = new AtomicReference<>();
+
+        private StubStatement(final String sql) {
+            this.sql = sql;
+        }
+
+        private PreparedStatement getProxy() {
+            return proxy;
+        }
+
+        private boolean isClosed() {
+            return closed.get();
+        }
+
+        private Map<Integer, Object> getParameters() {
+            return parameters;
+        }
+
+        private int getFetchSize() {
+            return fetchSize.get();
+        }
+
+        private int getMaxRows() {
+            return maxRows.get();
+        }
+
+        private int getQueryTimeout() {
+            return queryTimeout.get();
+        }
+
+        /**
+         * @return an empty result set, closed by the statement when it executes another query or is closed.
+         */
+        private ResultSet newResultSet() {
+            final AtomicBoolean resultSetClosed = new AtomicBoolean(false);
+            resultSets.forEach(previous -> previous.set(true));
+            resultSets.add(resultSetClosed);
+
+            final ResultSet resultSet = (ResultSet) Proxy.newProxyInstance(
+                ResultSet.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class},
+                (resultSetProxy, method, arguments) -> switch (method.getName()) {
+                    case "next" -> false;
+                    case "close" -> {
+                        resultSetClosed.set(true);
+                        yield null;
+                    }
+                    case "isClosed" -> resultSetClosed.get();
+                    default -> throw new UnsupportedOperationException(method.getName());
+                }
+            );
+            currentResultSet.set(resultSet);
+
+            return resultSet;
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] arguments) {
+            return switch (method.getName()) {
+                case "close" -> {
+                    closed.set(true);
+                    resultSets.forEach(resultSet -> resultSet.set(true));
+                    yield null;
+                }
+                case "isClosed" -> closed.get();
+                case "setObject" -> {
+                    parameters.put((Integer) arguments[0], arguments[1]);
+                    yield null;
+                }
+                case "clearParameters" -> {
+                    parameters.clear();
+                    yield null;
+                }
+                case "clearBatch" -> null;
+                case "setFetchSize" -> {
+                    fetchSize.set((Integer) arguments[0]);
+                    yield null;
+                }
+                case "getFetchSize" -> fetchSize.get();
+                case "setMaxRows" -> {
+                    maxRows.set((Integer) arguments[0]);
+                    yield null;
+                }
+                case "getMaxRows" -> maxRows.get();
+                case "setQueryTimeout" -> {
+                    queryTimeout.set((Integer) arguments[0]);
+                    yield null;
+                }
+                case "getQueryTimeout" -> queryTimeout.get();
+                case "executeQuery" -> newResultSet();
+                case "getResultSet" -> currentResultSet.get();
+                case "executeUpdate" -> 1;
+                case "equals" -> proxy == arguments[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "toString" -> "StubStatement[" + sql + "]";
+                default -> throw new UnsupportedOperationException(method.getName());
+            };
+        }
+
+    }
+
+}
@@ -0,0 +1,123 @@
+package olympics.repository;
+
+import olympics.domain.AthleteTest;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import ro.ubb.olympics.domain.Athlete;
+import ro.ubb.olympics.domain.validators.AthleteValidator;
+import ro.ubb.olympics.domain.validators.ValidatorException;
+import ro.ubb.olympics.repository.file.impl.AthleteFileRepository;
+import ro.ubb.olympics.utils.IterableUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class FileRepositoryTest {
+
+    private static final Athlete FIRST_ATHLETE = athlete(1L, 20);
+    private static final Athlete SECOND_ATHLETE = athlete(2L, 30);
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final AthleteValidator athleteValidator = new AthleteValidator();
+    private String fileName;
+    private String logFileName;
+
+    @Before
+    public void setUp() {
+        fileName = new File(temporaryFolder.getRoot(), "athletes.txt").getPath();
+        logFileName = fileName + ".log";
+    }
+
+    private static Athlete athlete(final long id, final int age) {
+        return new Athlete(id, AthleteTest.FIRST_NAME, AthleteTest.LAST_NAME, AthleteTest.COUNTRY, age);
+    }
+
+    private AthleteFileRepository open(final boolean appendOnlyLog) {
+        return new AthleteFileRepository(athleteValidator, fileName, appendOnlyLog);
+    }
+
+    private void appendToLog(final String text) throws IOException {
+        Files.writeString(Paths.get(logFileName), text, StandardOpenOption.APPEND);
+    }
+
+    private static String logRecord(final String operation, final Athlete athlete) {
+        return String.join("|", operation, athlete.getId().toString(), athlete.getId().toString(), athlete.getFirstName(), athlete.getLastName(), athlete.getCountry(), String.valueOf(athlete.getAge()));
+    }
+
+    @Test
+    public void testReplayLog() {
+        final AthleteFileRepository repository = open(true);
+        repository.save(FIRST_ATHLETE);
+        repository.save(SECOND_ATHLETE);
+        repository.update(athlete(FIRST_ATHLETE.getId(), 25));
+        repository.delete(SECOND_ATHLETE.getId());
+
+        assertTrue(repository.getLogSize() > 0);
+        assertEquals(0, repository.getDataSize());
+        assertEquals(Set.of(athlete(FIRST_ATHLETE.getId(), 25)), IterableUtils.asSet(open(true).findAll()));
+    }
+
+    @Test
+    public void testTornLogTail() throws IOException {
+        open(true).save(FIRST_ATHLETE);
+        final long logSize = Files.size(Paths.get(logFileName));
+        final String tornRecord = logRecord("UPDATE", athlete(FIRST_ATHLETE.getId(), 25));
+        appendToLog(tornRecord.substring(0, tornRecord.length() - 1));
+
+        final AthleteFileRepository repository = open(true);
+
+        assertEquals(Set.of(FIRST_ATHLETE), IterableUtils.asSet(repository.findAll()));
+        assertEquals(logSize, Files.size(Paths.get(logFileName)));
+
+        repository.save(SECOND_ATHLETE);
+
+        assertEquals(Set.of(FIRST_ATHLETE, SECOND_ATHLETE), IterableUtils.asSet(open(true).findAll()));
+    }
+
+    @Test
+    public void testUnparsableLastLogRecord() throws IOException {
+        open(true).save(FIRST_ATHLETE);
+        final long logSize = Files.size(Paths.get(logFileName));
+        appendToLog("UPDATE|1|1|First\n");
+
+        assertEquals(Set.of(FIRST_ATHLETE), IterableUtils.asSet(open(true).findAll()));
+        assertEquals(logSize, Files.size(Paths.get(logFileName)));
+    }
+
+    @Test
+    public void testCorruptedLog() throws IOException {
+        open(true).save(FIRST_ATHLETE);
+        appendToLog("UPDATE|1|1|First\n" + logRecord("SAVE", SECOND_ATHLETE) + "\n");
+
+        assertThrows(ValidatorException.class, () -> open(true));
+    }
+
+    @Test
+    public void testRewriteDeletesLog() {
+        final AthleteFileRepository logRepository = open(true);
+        logRepository.save(FIRST_ATHLETE);
+        logRepository.update(athlete(FIRST_ATHLETE.getId(), 25));
+
+        final AthleteFileRepository rewritingRepository = open(false);
+        rewritingRepository.update(athlete(FIRST_ATHLETE.getId(), 27));
+        rewritingRepository.save(SECOND_ATHLETE);
+
+        assertFalse(Files.exists(Paths.get(logFileName)));
+        assertEquals(Set.of(athlete(FIRST_ATHLETE.getId(), 27), SECOND_ATHLETE), IterableUtils.asSet(open(false).findAll()));
+        assertEquals(Set.of(athlete(FIRST_ATHLETE.getId(), 27), SECOND_ATHLETE), IterableUtils.asSet(open(true).findAll()));
+    }
+
+}
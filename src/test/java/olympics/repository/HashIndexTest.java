@@ -0,0 +1,113 @@
+package olympics.repository;
+
+import olympics.domain.AthleteTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import ro.ubb.olympics.domain.Athlete;
+import ro.ubb.olympics.domain.validators.AthleteValidator;
+import ro.ubb.olympics.repository.Repository;
+import ro.ubb.olympics.repository.index.HashIndex;
+import ro.ubb.olympics.repository.index.Index;
+import ro.ubb.olympics.repository.index.ScanIndex;
+import ro.ubb.olympics.repository.inmemory.InMemoryRepository;
+
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class HashIndexTest {
+
+    private static final Athlete FOURTH_ATHLETE = new Athlete(
+        AthleteTest.NEW_ID + 1,
+        AthleteTest.FIRST_NAME,
+        AthleteTest.LAST_NAME,
+        AthleteTest.COUNTRY,
+        AthleteTest.AGE
+    );
+
+    private Repository<Long, Athlete> repository;
+    private Index<String, Athlete> countryIndex;
+
+    @Before
+    public void setUp() {
+        repository = new InMemoryRepository<>(new AthleteValidator());
+        repository.save(InMemoryRepositoryTest.FIRST_ATHLETE);
+        countryIndex = HashIndex.on(repository, Athlete::getCountry);
+    }
+
+    @After
+    public void tearDown() {
+        repository = null;
+        countryIndex = null;
+    }
+
+    @Test
+    public void testIndexIsMaintainedForObservableRepository() {
+        assertTrue(countryIndex instanceof HashIndex);
+    }
+
+    @Test
+    public void testFindExistingEntities() {
+        assertEquals(Set.of(InMemoryRepositoryTest.FIRST_ATHLETE), countryIndex.find(AthleteTest.COUNTRY));
+    }
+
+    @Test
+    public void testFindAfterSave() {
+        repository.save(InMemoryRepositoryTest.SECOND_ATHLETE);
+        repository.save(FOURTH_ATHLETE);
+        assertEquals(Set.of(InMemoryRepositoryTest.FIRST_ATHLETE, FOURTH_ATHLETE), countryIndex.find(AthleteTest.COUNTRY));
+        assertEquals(Set.of(InMemoryRepositoryTest.SECOND_ATHLETE), countryIndex.find(AthleteTest.NEW_COUNTRY));
+    }
+
+    @Test
+    public void testFindAfterUpdate() {
+        repository.update(InMemoryRepositoryTest.THIRD_ATHLETE);
+        assertTrue(countryIndex.find(AthleteTest.COUNTRY).isEmpty());
+        assertEquals(Set.of(InMemoryRepositoryTest.THIRD_ATHLETE), countryIndex.find(AthleteTest.NEW_COUNTRY));
+    }
+
+    @Test
+    public void testFindAfterDelete() {
+        repository.delete(InMemoryRepositoryTest.FIRST_ATHLETE.getId());
+        assertTrue(countryIndex.find(AthleteTest.COUNTRY).isEmpty());
+    }
+
+    @Test
+    public void testScanFallbackForNonObservableRepository() {
+        final Repository<Long, Athlete> nonObservableRepository = new Repository<>() {
+            @Override
+            public Optional<Athlete> findOne(final Long id) {
+                return repository.findOne(id);
+            }
+
+            @Override
+            public Iterable<Athlete> findAll() {
+                return repository.findAll();
+            }
+
+            @Override
+            public Optional<Athlete> save(final Athlete entity) {
+                return repository.save(entity);
+            }
+
+            @Override
+            public Optional<Athlete> delete(final Long id) {
+                return repository.delete(id);
+            }
+
+            @Override
+            public Optional<Athlete> update(final Athlete entity) {
+                return repository.update(entity);
+            }
+        };
+
+        final Index<String, Athlete> index = HashIndex.on(nonObservableRepository, Athlete::getCountry);
+
+        assertTrue(index instanceof ScanIndex);
+        assertEquals(Set.of(InMemoryRepositoryTest.FIRST_ATHLETE), index.find(AthleteTest.COUNTRY));
+    }
+
+}
@@ -8,6 +8,7 @@ import ro.ubb.olympics.domain.Athlete;
 import ro.ubb.olympics.domain.validators.AthleteValidator;
 import ro.ubb.olympics.domain.validators.ValidatorException;
 import ro.ubb.olympics.repository.Repository;
+import ro.ubb.olympics.repository.VersionedRepository;
 import ro.ubb.olympics.repository.inmemory.InMemoryRepository;
 
 import java.util.ArrayList;
@@ -19,6 +20,7 @@ import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 
@@ -96,6 +98,41 @@ public class InMemoryRepositoryTest {
         assertEquals(Set.of(FIRST_ATHLETE, SECOND_ATHLETE), athleteList);
     }
 
+    @Test
+    public void testVersion() {
+        final VersionedRepository<Long, Athlete> versionedRepository = new InMemoryRepository<>(athleteValidator);
+        final long initialVersion = versionedRepository.getVersion();
+
+        versionedRepository.save(FIRST_ATHLETE);
+        final long savedVersion = versionedRepository.getVersion();
+        assertTrue(savedVersion > initialVersion);
+
+        versionedRepository.save(FIRST_ATHLETE);
+        versionedRepository.delete(SECOND_ATHLETE.getId());
+        versionedRepository.update(SECOND_ATHLETE);
+        assertEquals(savedVersion, versionedRepository.getVersion());
+
+        versionedRepository.delete(FIRST_ATHLETE.getId());
+        assertTrue(versionedRepository.getVersion() > savedVersion);
+    }
+
+    @Test
+    public void testFindAllSnapshot() {
+        repository.save(FIRST_ATHLETE);
+
+        final Iterable<Athlete> snapshot = repository.findAll();
+        assertSame(snapshot, repository.findAll());
+
+        repository.save(SECOND_ATHLETE);
+
+        assertEquals(Set.of(FIRST_ATHLETE), snapshot);
+        assertEquals(Set.of(FIRST_ATHLETE, SECOND_ATHLETE), repository.findAll());
+        assertThrows(
+            UnsupportedOperationException.class,
+            () -> repository.findAll().iterator().remove()
+        );
+    }
+
     @Test
     public void testSave() {
         final List<Athlete> beforeAthleteList = new ArrayList<>();
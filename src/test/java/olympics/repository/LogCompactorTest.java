@@ -0,0 +1,162 @@
+package olympics.repository;
+
+import olympics.domain.AthleteTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import ro.ubb.olympics.domain.Athlete;
+import ro.ubb.olympics.domain.validators.AthleteValidator;
+import ro.ubb.olympics.exception.FileException;
+import ro.ubb.olympics.repository.file.LogCompactor;
+import ro.ubb.olympics.repository.file.impl.AthleteFileRepository;
+import ro.ubb.olympics.utils.IterableUtils;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LogCompactorTest {
+
+    private static final Duration NEVER = Duration.ofHours(1);
+    private static final Duration OFTEN = Duration.ofMillis(10);
+    private static final long WAIT_TIMEOUT_MILLIS = 10000;
+    private static final long WAIT_STEP_MILLIS = 10;
+    private static final int NUMBER_OF_UPDATES = 50;
+
+    private static final Athlete FIRST_ATHLETE = athlete(1L, 20);
+    private static final Athlete SECOND_ATHLETE = athlete(2L, 30);
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final AthleteValidator athleteValidator = new AthleteValidator();
+    private String fileName;
+    private LogCompactor compactor;
+
+    @Before
+    public void setUp() {
+        fileName = new File(temporaryFolder.getRoot(), "athletes.txt").getPath();
+    }
+
+    @After
+    public void tearDown() {
+        compactor.close();
+        compactor = null;
+    }
+
+    private static Athlete athlete(final long id, final int age) {
+        return new Athlete(id, AthleteTest.FIRST_NAME, AthleteTest.LAST_NAME, AthleteTest.COUNTRY, age);
+    }
+
+    private AthleteFileRepository open() {
+        return new AthleteFileRepository(athleteValidator, fileName, true);
+    }
+
+    /**
+     * Wait until a condition holds, failing if it does not hold in time.
+     */
+    private static void await(final BooleanSupplier condition) {
+        final long deadline = System.currentTimeMillis() + WAIT_TIMEOUT_MILLIS;
+
+        Stream
+            .generate(() -> {
+                try {
+                    Thread.sleep(WAIT_STEP_MILLIS);
+                } catch (final InterruptedException interruptedException) {
+                    throw new IllegalStateException(interruptedException);
+                }
+                return condition.getAsBoolean();
+            })
+            .takeWhile(holds -> !holds && System.currentTimeMillis() < deadline)
+            .forEach(unused -> {
+            });
+
+        assertTrue(condition.getAsBoolean());
+    }
+
+    @Test
+    public void testCompactRepositories() {
+        compactor = new LogCompactor(NEVER, 1, 1.0);
+        final AthleteFileRepository repository = open();
+        compactor.register(repository);
+        repository.save(FIRST_ATHLETE);
+        IntStream
+            .rangeClosed(1, NUMBER_OF_UPDATES)
+            .forEach(age -> repository.update(athlete(FIRST_ATHLETE.getId(), age)));
+
+        compactor.compactRepositories();
+
+        assertEquals(1, compactor.getNumberOfCompactions());
+        assertTrue(compactor.getTotalBytesReclaimed() > 0);
+        assertEquals(fileName, compactor.getLastCompactionResult().orElseThrow().getFileName());
+        assertEquals(0, repository.getLogSize());
+        assertEquals(Set.of(athlete(FIRST_ATHLETE.getId(), NUMBER_OF_UPDATES)), IterableUtils.asSet(open().findAll()));
+
+        compactor.compactRepositories();
+
+        assertEquals(1, compactor.getNumberOfCompactions());
+    }
+
+    @Test
+    public void testRecoverFromInterruptedCompaction() throws Exception {
+        compactor = new LogCompactor(NEVER, 1, 1.0);
+        final AthleteFileRepository repository = open();
+        repository.save(FIRST_ATHLETE);
+
+        final Path logFile = Paths.get(fileName + ".log");
+        final Path compactingLogFile = Paths.get(fileName + ".log.compacting");
+        Files.move(logFile, compactingLogFile);
+        repository.save(SECOND_ATHLETE);
+
+        final AthleteFileRepository reopenedRepository = open();
+        assertEquals(Set.of(FIRST_ATHLETE, SECOND_ATHLETE), IterableUtils.asSet(reopenedRepository.findAll()));
+
+        compactor.compact(reopenedRepository);
+
+        assertFalse(Files.exists(compactingLogFile));
+        assertEquals(Set.of(FIRST_ATHLETE, SECOND_ATHLETE), IterableUtils.asSet(open().findAll()));
+
+        compactor.compact(reopenedRepository);
+
+        assertEquals(0, reopenedRepository.getLogSize());
+        assertEquals(Set.of(FIRST_ATHLETE, SECOND_ATHLETE), IterableUtils.asSet(open().findAll()));
+    }
+
+    /**
+     * A repository which cannot be checked does not stop the periodic compaction of the other ones.
+     */
+    @Test
+    public void testFailureDoesNotStopCompaction() {
+        compactor = new LogCompactor(OFTEN, 1, 1.0);
+        final AthleteFileRepository failingRepository = new AthleteFileRepository(athleteValidator, new File(temporaryFolder.getRoot(), "failing.txt").getPath(), true) {
+            @Override
+            public long getLogSize() throws FileException {
+                throw new FileException("The log cannot be read.");
+            }
+        };
+        final AthleteFileRepository repository = open();
+        compactor.register(failingRepository);
+        compactor.register(repository);
+
+        repository.save(FIRST_ATHLETE);
+        await(() -> compactor.getNumberOfCompactions() == 1);
+        repository.save(SECOND_ATHLETE);
+        await(() -> compactor.getNumberOfCompactions() == 2);
+
+        assertTrue(compactor.getLastCompactionFailure().isPresent());
+        assertEquals(Set.of(FIRST_ATHLETE, SECOND_ATHLETE), IterableUtils.asSet(open().findAll()));
+    }
+
+}
@@ -0,0 +1,106 @@
+package olympics.repository;
+
+import olympics.domain.AthleteTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import ro.ubb.olympics.domain.Athlete;
+import ro.ubb.olympics.domain.validators.AthleteValidator;
+import ro.ubb.olympics.repository.Repository;
+import ro.ubb.olympics.repository.inmemory.LongKeyedInMemoryRepository;
+import ro.ubb.olympics.repository.inmemory.LongKeyedMap;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class LongKeyedMapTest {
+
+    private static final int NUMBER_OF_OPERATIONS = 100000;
+    private static final int KEY_RANGE = 5000;
+
+    private LongKeyedMap<String> map;
+
+    @Before
+    public void setUp() {
+        map = new LongKeyedMap<>(1);
+    }
+
+    @After
+    public void tearDown() {
+        map = null;
+    }
+
+    @Test
+    public void testPutGetRemove() {
+        assertNull(map.put(1L, "first"));
+        assertEquals("first", map.put(1L, "second"));
+        assertEquals("second", map.getValue(1L));
+        assertEquals("second", map.get(1L));
+        assertNull(map.get("1"));
+
+        assertEquals("second", map.remove(1L));
+        assertNull(map.remove(1L));
+        assertFalse(map.containsKey(1L));
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void testPutIfAbsentAndReplace() {
+        assertNull(map.replace(1L, "first"));
+        assertFalse(map.containsKey(1L));
+
+        assertNull(map.putIfAbsent(1L, "first"));
+        assertEquals("first", map.putIfAbsent(1L, "second"));
+        assertEquals("first", map.replace(1L, "third"));
+        assertEquals(Map.of(1L, "third"), map);
+    }
+
+    @Test
+    public void testBehavesLikeHashMap() {
+        final Map<Long, String> expected = new HashMap<>();
+        final Random random = new Random(42);
+
+        IntStream
+            .range(0, NUMBER_OF_OPERATIONS)
+            .forEach(operation -> {
+                final long key = random.nextInt(KEY_RANGE) - KEY_RANGE / 2L;
+                final String value = String.valueOf(operation);
+
+                switch (random.nextInt(4)) {
+                    case 0 -> assertEquals(expected.put(key, value), map.put(key, value));
+                    case 1 -> assertEquals(expected.putIfAbsent(key, value), map.putIfAbsent(key, value));
+                    case 2 -> assertEquals(expected.replace(key, value), map.replace(key, value));
+                    default -> assertEquals(expected.remove(key), map.remove(key));
+                }
+            });
+
+        assertEquals(expected.size(), map.size());
+        assertEquals(expected, map);
+        assertEquals(new HashSet<>(expected.values()), new HashSet<>(map.values()));
+    }
+
+    @Test
+    public void testLongKeyedInMemoryRepository() {
+        final Repository<Long, Athlete> repository = new LongKeyedInMemoryRepository<>(new AthleteValidator());
+        repository.save(InMemoryRepositoryTest.FIRST_ATHLETE);
+        repository.save(InMemoryRepositoryTest.SECOND_ATHLETE);
+        repository.update(InMemoryRepositoryTest.THIRD_ATHLETE);
+        repository.delete(AthleteTest.NEW_ID);
+
+        final Set<Athlete> athletes = new HashSet<>();
+        repository.findAll().forEach(athletes::add);
+
+        assertEquals(Set.of(InMemoryRepositoryTest.THIRD_ATHLETE), athletes);
+        assertEquals(InMemoryRepositoryTest.THIRD_ATHLETE, repository.findOne(AthleteTest.ID).orElseThrow());
+    }
+
+}
@@ -0,0 +1,90 @@
+package olympics.repository;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import ro.ubb.olympics.domain.Sponsorship;
+import ro.ubb.olympics.domain.validators.SponsorshipValidator;
+import ro.ubb.olympics.repository.Repository;
+import ro.ubb.olympics.repository.index.RangeIndex;
+import ro.ubb.olympics.repository.index.SortedIndex;
+import ro.ubb.olympics.repository.inmemory.InMemoryRepository;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SortedIndexTest {
+
+    private static final Long COMPETITION_ID = 1L;
+    private static final Long SPONSOR_ID = 1L;
+
+    private static final Sponsorship SMALL_SPONSORSHIP = new Sponsorship(1L, COMPETITION_ID, SPONSOR_ID, 100);
+    private static final Sponsorship MEDIUM_SPONSORSHIP = new Sponsorship(2L, COMPETITION_ID, SPONSOR_ID, 500);
+    private static final Sponsorship OTHER_MEDIUM_SPONSORSHIP = new Sponsorship(3L, COMPETITION_ID, SPONSOR_ID, 500);
+    private static final Sponsorship LARGE_SPONSORSHIP = new Sponsorship(4L, COMPETITION_ID, SPONSOR_ID, 1000);
+
+    private Repository<Long, Sponsorship> repository;
+    private RangeIndex<Sponsorship> moneyContributionIndex;
+
+    @Before
+    public void setUp() {
+        repository = new InMemoryRepository<>(new SponsorshipValidator());
+        repository.save(SMALL_SPONSORSHIP);
+        repository.save(MEDIUM_SPONSORSHIP);
+        moneyContributionIndex = SortedIndex.on(repository, Sponsorship::getMoneyContribution);
+        repository.save(OTHER_MEDIUM_SPONSORSHIP);
+        repository.save(LARGE_SPONSORSHIP);
+    }
+
+    @After
+    public void tearDown() {
+        repository = null;
+        moneyContributionIndex = null;
+    }
+
+    @Test
+    public void testFind() {
+        assertEquals(Set.of(MEDIUM_SPONSORSHIP, OTHER_MEDIUM_SPONSORSHIP), moneyContributionIndex.find(500));
+        assertTrue(moneyContributionIndex.find(200).isEmpty());
+    }
+
+    @Test
+    public void testFindAtLeast() {
+        assertEquals(Set.of(MEDIUM_SPONSORSHIP, OTHER_MEDIUM_SPONSORSHIP, LARGE_SPONSORSHIP), moneyContributionIndex.findAtLeast(500));
+        assertTrue(moneyContributionIndex.findAtLeast(1001).isEmpty());
+    }
+
+    @Test
+    public void testFindAtMost() {
+        assertEquals(Set.of(SMALL_SPONSORSHIP), moneyContributionIndex.findAtMost(499));
+    }
+
+    @Test
+    public void testFindBetween() {
+        assertEquals(Set.of(MEDIUM_SPONSORSHIP, OTHER_MEDIUM_SPONSORSHIP), moneyContributionIndex.findBetween(101, 999));
+        assertTrue(moneyContributionIndex.findBetween(999, 101).isEmpty());
+    }
+
+    @Test
+    public void testFindTop() {
+        final List<Sponsorship> top = moneyContributionIndex.findTop(2);
+        assertEquals(2, top.size());
+        assertEquals(LARGE_SPONSORSHIP, top.get(0));
+        assertEquals(500, top.get(1).getMoneyContribution());
+    }
+
+    @Test
+    public void testFindAfterUpdateAndDelete() {
+        final Sponsorship updatedSponsorship = new Sponsorship(1L, COMPETITION_ID, SPONSOR_ID, 2000);
+        repository.update(updatedSponsorship);
+        repository.delete(LARGE_SPONSORSHIP.getId());
+
+        assertTrue(moneyContributionIndex.findAtMost(499).isEmpty());
+        assertEquals(List.of(updatedSponsorship), moneyContributionIndex.findTop(1));
+        assertEquals(Set.of(updatedSponsorship), moneyContributionIndex.findAtLeast(1000));
+    }
+
+}
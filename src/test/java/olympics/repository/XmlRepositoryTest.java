@@ -0,0 +1,285 @@
+package olympics.repository;
+
+import olympics.domain.AthleteTest;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import ro.ubb.olympics.domain.Athlete;
+import ro.ubb.olympics.domain.validators.AthleteValidator;
+import ro.ubb.olympics.domain.validators.ValidatorException;
+import ro.ubb.olympics.exception.XmlException;
+import ro.ubb.olympics.repository.xml.impl.AthleteXmlRepository;
+import ro.ubb.olympics.utils.IterableUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class XmlRepositoryTest {
+
+    private static final int FLUSH_BATCH_SIZE = 3;
+    private static final int NEVER_FLUSHED = 100;
+    private static final Duration FLUSH_INTERVAL = Duration.ofMillis(10);
+    private static final long WAIT_TIMEOUT_MILLIS = 10000;
+    private static final long WAIT_STEP_MILLIS = 10;
+
+    private static final Athlete FIRST_ATHLETE = athlete(1L, 20);
+    private static final Athlete SECOND_ATHLETE = athlete(2L, 30);
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final AthleteValidator athleteValidator = new AthleteValidator();
+    private String fileName;
+
+    @Before
+    public void setUp() {
+        fileName = new File(temporaryFolder.getRoot(), "athletes.xml").getPath();
+    }
+
+    private static Athlete athlete(final long id, final int age) {
+        return new Athlete(id, AthleteTest.FIRST_NAME, AthleteTest.LAST_NAME, AthleteTest.COUNTRY, age);
+    }
+
+    private AthleteXmlRepository open(final int flushBatchSize, final Duration flushInterval) {
+        return new AthleteXmlRepository(athleteValidator, fileName, flushBatchSize, flushInterval);
+    }
+
+    /**
+     * @return the entities currently persisted in the file.
+     */
+    private Set<Athlete> persistedEntities() {
+        return IterableUtils.asSet(new AthleteXmlRepository(athleteValidator, fileName).findAll());
+    }
+
+    /**
+     * Write the given content to the file, wrapped in the root element.
+     */
+    private void writeFile(final String entities) throws IOException {
+        Files.writeString(Paths.get(fileName), String.format("<?xml version=\"1.0\" encoding=\"UTF-8\"?><entities>%s</entities>", entities));
+    }
+
+    /**
+     * Wait until a condition holds, failing if it does not hold in time.
+     */
+    private static void await(final BooleanSupplier condition) {
+        final long deadline = System.currentTimeMillis() + WAIT_TIMEOUT_MILLIS;
+
+        Stream
+            .generate(() -> {
+                try {
+                    Thread.sleep(WAIT_STEP_MILLIS);
+                } catch (final InterruptedException interruptedException) {
+                    throw new IllegalStateException(interruptedException);
+                }
+                return condition.getAsBoolean();
+            })
+            .takeWhile(holds -> !holds && System.currentTimeMillis() < deadline)
+            .forEach(unused -> {
+            });
+
+        assertTrue(condition.getAsBoolean());
+    }
+
+    @Test
+    public void testWriteEveryMutationByDefault() {
+        final AthleteXmlRepository repository = new AthleteXmlRepository(athleteValidator, fileName);
+
+        repository.save(FIRST_ATHLETE);
+
+        assertEquals(Set.of(FIRST_ATHLETE), persistedEntities());
+
+        repository.update(athlete(FIRST_ATHLETE.getId(), 25));
+
+        assertEquals(Set.of(athlete(FIRST_ATHLETE.getId(), 25)), persistedEntities());
+    }
+
+    @Test
+    public void testCoalesceMutationsUntilBatchSize() {
+        final AthleteXmlRepository repository = open(FLUSH_BATCH_SIZE, Duration.ZERO);
+
+        repository.save(FIRST_ATHLETE);
+        repository.update(athlete(FIRST_ATHLETE.getId(), 25));
+
+        assertTrue(persistedEntities().isEmpty());
+
+        repository.save(SECOND_ATHLETE);
+
+        assertEquals(Set.of(athlete(FIRST_ATHLETE.getId(), 25), SECOND_ATHLETE), persistedEntities());
+    }
+
+    @Test
+    public void testIgnoreFailedMutations() {
+        final AthleteXmlRepository repository = open(2, Duration.ZERO);
+        repository.save(FIRST_ATHLETE);
+
+        repository.save(FIRST_ATHLETE);
+        repository.update(SECOND_ATHLETE);
+        repository.delete(SECOND_ATHLETE.getId());
+
+        assertTrue(persistedEntities().isEmpty());
+    }
+
+    @Test
+    public void testDeleteAllIsSingleMutation() {
+        final AthleteXmlRepository repository = open(2, Duration.ZERO);
+        repository.save(FIRST_ATHLETE);
+        repository.save(SECOND_ATHLETE);
+
+        assertEquals(List.of(FIRST_ATHLETE, SECOND_ATHLETE), repository.deleteAll(List.of(FIRST_ATHLETE.getId(), SECOND_ATHLETE.getId())));
+        assertEquals(Set.of(FIRST_ATHLETE, SECOND_ATHLETE), persistedEntities());
+
+        repository.flush();
+
+        assertTrue(persistedEntities().isEmpty());
+    }
+
+    @Test
+    public void testPeriodicFlush() {
+        final AthleteXmlRepository repository = open(NEVER_FLUSHED, FLUSH_INTERVAL);
+
+        repository.save(FIRST_ATHLETE);
+
+        await(() -> persistedEntities().equals(Set.of(FIRST_ATHLETE)));
+        repository.close();
+    }
+
+    @Test
+    public void testFlushAndClosePersistPendingMutations() {
+        final AthleteXmlRepository repository = open(NEVER_FLUSHED, Duration.ZERO);
+        repository.save(FIRST_ATHLETE);
+
+        repository.flush();
+
+        assertEquals(Set.of(FIRST_ATHLETE), persistedEntities());
+
+        repository.save(SECOND_ATHLETE);
+        repository.close();
+
+        assertEquals(Set.of(FIRST_ATHLETE, SECOND_ATHLETE), persistedEntities());
+    }
+
+    /**
+     * The mutations a flush failed to persist are persisted by the next flush.
+     */
+    @Test
+    public void testKeepPendingMutationsAfterFailedFlush() throws IOException {
+        final AthleteXmlRepository repository = open(NEVER_FLUSHED, Duration.ZERO);
+        repository.save(FIRST_ATHLETE);
+        final Path blockingDirectory = Files.createDirectory(Paths.get(fileName + ".tmp"));
+
+        assertThrows(XmlException.class, repository::flush);
+        assertTrue(persistedEntities().isEmpty());
+
+        Files.delete(blockingDirectory);
+        repository.flush();
+
+        assertEquals(Set.of(FIRST_ATHLETE), persistedEntities());
+    }
+
+    /**
+     * A periodic flush which fails is recorded, and the mutations are persisted once the file can be written again.
+     */
+    @Test
+    public void testRecordFailedPeriodicFlush() throws IOException {
+        final Path blockingDirectory = Files.createDirectory(Paths.get(fileName + ".tmp"));
+        final AthleteXmlRepository repository = open(NEVER_FLUSHED, FLUSH_INTERVAL);
+        repository.save(FIRST_ATHLETE);
+
+        await(() -> repository.getLastFlushFailure().isPresent());
+        assertTrue(persistedEntities().isEmpty());
+
+        Files.delete(blockingDirectory);
+
+        await(() -> persistedEntities().equals(Set.of(FIRST_ATHLETE)));
+        repository.close();
+    }
+
+    /**
+     * Entities written through the XMLStreamWriter are read back unchanged, including markup characters and
+     * non-ASCII text, and the temporary file is moved over the file.
+     */
+    @Test
+    public void testSaveThenReload() {
+        final Athlete escapedAthlete = new Athlete(3L, "<Ana & \"Maria\">", "O'Brien ]]>", "Rom\u00e2nia \u0218", 25);
+        final AthleteXmlRepository repository = new AthleteXmlRepository(athleteValidator, fileName);
+
+        repository.save(FIRST_ATHLETE);
+        repository.save(escapedAthlete);
+        repository.save(SECOND_ATHLETE);
+        repository.delete(SECOND_ATHLETE.getId());
+
+        assertEquals(Set.of(FIRST_ATHLETE, escapedAthlete), persistedEntities());
+        assertTrue(Files.notExists(Paths.get(fileName + ".tmp")));
+    }
+
+    @Test
+    public void testLoadIgnoresWhitespaceAndComments() throws IOException {
+        writeFile("\n  <!-- first -->\n  <athlete>\n    <id>1</id>\n    <firstName>" + AthleteTest.FIRST_NAME + "</firstName>\n"
+            + "    <lastName>" + AthleteTest.LAST_NAME + "</lastName>\n    <!-- inside -->\n    <country>" + AthleteTest.COUNTRY + "</country>\n"
+            + "    <age>20</age>\n  </athlete>\n");
+
+        assertEquals(Set.of(FIRST_ATHLETE), persistedEntities());
+    }
+
+    @Test
+    public void testLoadRejectsMissingTag() throws IOException {
+        writeFile("<athlete><id>1</id><firstName>a</firstName><lastName>b</lastName><country>c</country></athlete>");
+
+        assertThrows(ValidatorException.class, () -> new AthleteXmlRepository(athleteValidator, fileName));
+    }
+
+    @Test
+    public void testLoadRejectsUnparsableValue() throws IOException {
+        writeFile("<athlete><id>1</id><firstName>a</firstName><lastName>b</lastName><country>c</country><age>old</age></athlete>");
+
+        assertThrows(ValidatorException.class, () -> new AthleteXmlRepository(athleteValidator, fileName));
+    }
+
+    @Test
+    public void testLoadRejectsNestedElement() throws IOException {
+        writeFile("<athlete><id>1</id><firstName><name>a</name></firstName><lastName>b</lastName><country>c</country><age>20</age></athlete>");
+
+        assertThrows(XmlException.class, () -> new AthleteXmlRepository(athleteValidator, fileName));
+    }
+
+    @Test
+    public void testLoadRejectsMalformedFile() throws IOException {
+        Files.writeString(Paths.get(fileName), "<entities><athlete><id>1</id><firstName>a</lastName></athlete></entities>");
+
+        assertThrows(XmlException.class, () -> new AthleteXmlRepository(athleteValidator, fileName));
+    }
+
+    @Test
+    public void testLoadRejectsTruncatedFile() throws IOException {
+        Files.writeString(Paths.get(fileName), "<entities><athlete><id>1</id><firstName>a</firstName>");
+
+        assertThrows(XmlException.class, () -> new AthleteXmlRepository(athleteValidator, fileName));
+    }
+
+    @Test
+    public void testLoadRejectsExternalEntities() throws IOException {
+        final Path secret = temporaryFolder.newFile("secret.txt").toPath();
+        Files.writeString(secret, "secret");
+        Files.writeString(Paths.get(fileName), String.format(
+            "<?xml version=\"1.0\"?><!DOCTYPE entities [<!ENTITY secret SYSTEM \"%s\">]><entities><athlete><id>1</id>"
+                + "<firstName>&secret;</firstName><lastName>b</lastName><country>c</country><age>20</age></athlete></entities>",
+            secret.toUri()
+        ));
+
+        assertThrows(XmlException.class, () -> new AthleteXmlRepository(athleteValidator, fileName));
+    }
+
+}
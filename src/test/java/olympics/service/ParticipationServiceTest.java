@@ -15,6 +15,7 @@ import ro.ubb.olympics.repository.Repository;
 import ro.ubb.olympics.repository.inmemory.InMemoryRepository;
 import ro.ubb.olympics.service.ParticipationService;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
@@ -162,6 +163,27 @@ public class ParticipationServiceTest {
         assertFalse("The deleted participation should not be present in the repository", deletedParticipation.isPresent());
     }
 
+    @Test
+    public void testDeleteParticipationsByCompetitionId() {
+        participationService.addParticipation(FIRST_PARTICIPATION);
+        participationService.addParticipation(SECOND_PARTICIPATION);
+
+        assertEquals(
+            "Only the participations of the given competition should be deleted",
+            List.of(FIRST_PARTICIPATION),
+            participationService.deleteParticipationsByCompetitionId(FIRST_COMPETITION.getId())
+        );
+        assertEquals(
+            "The participations of the other competitions should remain in the repository",
+            Set.of(SECOND_PARTICIPATION),
+            participationService.getAllParticipations()
+        );
+        assertTrue(
+            "The index on the competition ID should no longer find the deleted participations",
+            participationService.getParticipationsByCompetitionId(FIRST_COMPETITION.getId()).isEmpty()
+        );
+    }
+
     @Test
     public void testFilterParticipationsByFirstName() {
         participationService.addParticipation(FIRST_PARTICIPATION);
@@ -0,0 +1,169 @@
+package olympics.service;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import ro.ubb.olympics.domain.Sponsor;
+import ro.ubb.olympics.domain.Sponsorship;
+import ro.ubb.olympics.domain.validators.SponsorValidator;
+import ro.ubb.olympics.domain.validators.SponsorshipValidator;
+import ro.ubb.olympics.repository.Repository;
+import ro.ubb.olympics.repository.columnar.ColumnarRepository;
+import ro.ubb.olympics.repository.inmemory.InMemoryRepository;
+import ro.ubb.olympics.repository.row.KeyColumn;
+import ro.ubb.olympics.repository.row.mapper.SponsorshipRowMapper;
+import ro.ubb.olympics.service.report.MaterializedRanking;
+import ro.ubb.olympics.service.report.Ranking;
+import ro.ubb.olympics.service.report.RankingPage;
+import ro.ubb.olympics.service.report.RowMeasure;
+import ro.ubb.olympics.service.report.ScanRanking;
+import ro.ubb.olympics.utils.Pair;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RankingTest {
+
+    private static final int NUMBER_OF_OPERATIONS = 5000;
+    private static final int SPONSOR_ID_RANGE = 20;
+    private static final int SPONSORSHIP_ID_RANGE = 200;
+
+    private static final RowMeasure<Sponsorship> SPONSOR_CONTRIBUTION = new RowMeasure<>(new SponsorshipRowMapper(), KeyColumn.SECOND, IntUnaryOperator.identity());
+
+    private Repository<Long, Sponsor> sponsorRepository;
+    private Repository<Long, Sponsorship> sponsorshipRepository;
+
+    @Before
+    public void setUp() {
+        sponsorRepository = new InMemoryRepository<>(new SponsorValidator());
+        sponsorshipRepository = new InMemoryRepository<>(new SponsorshipValidator());
+    }
+
+    @After
+    public void tearDown() {
+        sponsorRepository = null;
+        sponsorshipRepository = null;
+    }
+
+    private static Sponsor sponsor(final long id) {
+        return new Sponsor(id, "Sponsor" + id, "Country");
+    }
+
+    private static List<String> asStrings(final List<Pair<Sponsor, Integer>> ranking) {
+        return ranking
+            .stream()
+            .map(pair -> pair.getFirst().getId() + ":" + pair.getSecond())
+            .collect(Collectors.toList());
+    }
+
+    @Test
+    public void testOn() {
+        assertTrue(MaterializedRanking.on(sponsorRepository, sponsorshipRepository, SPONSOR_CONTRIBUTION) instanceof MaterializedRanking);
+        assertTrue(MaterializedRanking.on(sponsorRepository, new ColumnarRepository<>(new SponsorshipValidator(), new SponsorshipRowMapper()), SPONSOR_CONTRIBUTION) instanceof ScanRanking);
+    }
+
+    @Test
+    public void testRankingOrder() {
+        sponsorRepository.save(sponsor(1L));
+        sponsorRepository.save(sponsor(2L));
+        sponsorRepository.save(sponsor(3L));
+        final Ranking<Sponsor> ranking = MaterializedRanking.on(sponsorRepository, sponsorshipRepository, SPONSOR_CONTRIBUTION);
+
+        sponsorshipRepository.save(new Sponsorship(1L, 1L, 3L, 100));
+        sponsorshipRepository.save(new Sponsorship(2L, 1L, 2L, 100));
+        assertEquals(List.of("2:100", "3:100", "1:0"), asStrings(ranking.rank()));
+
+        sponsorshipRepository.update(new Sponsorship(2L, 1L, 1L, 50));
+        sponsorRepository.delete(3L);
+        assertEquals(List.of("1:50", "2:0"), asStrings(ranking.rank()));
+
+        sponsorRepository.save(sponsor(3L));
+        sponsorshipRepository.delete(2L);
+        assertEquals(List.of("3:100", "1:0", "2:0"), asStrings(ranking.rank()));
+    }
+
+    /**
+     * Collect a ranking page by page.
+     */
+    private static List<Pair<Sponsor, Integer>> rankByPages(final Ranking<Sponsor> ranking, final int pageSize) {
+        final List<Pair<Sponsor, Integer>> entries = new ArrayList<>();
+        final AtomicReference<RankingPage> page = new AtomicReference<>(RankingPage.first(pageSize));
+
+        Stream
+            .generate(() -> ranking.rank(page.get()))
+            .takeWhile(pageEntries -> !pageEntries.isEmpty())
+            .forEach(pageEntries -> {
+                assertTrue(pageEntries.size() <= pageSize);
+                entries.addAll(pageEntries);
+                page.set(page.get().next(pageEntries));
+            });
+
+        return entries;
+    }
+
+    @Test
+    public void testRankingPages() {
+        final Ranking<Sponsor> materializedRanking = MaterializedRanking.on(sponsorRepository, sponsorshipRepository, SPONSOR_CONTRIBUTION);
+        final Ranking<Sponsor> scanRanking = new ScanRanking<>(sponsorRepository, sponsorshipRepository, SPONSOR_CONTRIBUTION);
+        final Random random = new Random(42);
+
+        LongStream
+            .rangeClosed(1, SPONSOR_ID_RANGE)
+            .forEach(id -> sponsorRepository.save(sponsor(id)));
+        LongStream
+            .rangeClosed(1, SPONSORSHIP_ID_RANGE)
+            .forEach(id -> sponsorshipRepository.save(new Sponsorship(id, 1L, 1L + random.nextInt(SPONSOR_ID_RANGE), 1 + random.nextInt(3))));
+
+        final List<String> ranking = asStrings(scanRanking.rank());
+        assertEquals(SPONSOR_ID_RANGE, ranking.size());
+        assertEquals(ranking, asStrings(materializedRanking.rank()));
+        assertEquals(ranking.subList(0, 3), asStrings(materializedRanking.rank(RankingPage.first(3))));
+        assertEquals(ranking.subList(0, 3), asStrings(scanRanking.rank(RankingPage.first(3))));
+        IntStream
+            .rangeClosed(1, SPONSOR_ID_RANGE + 1)
+            .forEach(pageSize -> {
+                assertEquals(ranking, asStrings(rankByPages(materializedRanking, pageSize)));
+                assertEquals(ranking, asStrings(rankByPages(scanRanking, pageSize)));
+            });
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptyRankingPage() {
+        RankingPage.first(0);
+    }
+
+    @Test
+    public void testMaterializedRankingMatchesScanRanking() {
+        final Ranking<Sponsor> materializedRanking = MaterializedRanking.on(sponsorRepository, sponsorshipRepository, SPONSOR_CONTRIBUTION);
+        final Ranking<Sponsor> scanRanking = new ScanRanking<>(sponsorRepository, sponsorshipRepository, SPONSOR_CONTRIBUTION);
+        final Random random = new Random(42);
+
+        IntStream
+            .range(0, NUMBER_OF_OPERATIONS)
+            .forEach(operation -> {
+                final long sponsorId = 1L + random.nextInt(SPONSOR_ID_RANGE);
+                final Sponsorship sponsorship = new Sponsorship(1L + random.nextInt(SPONSORSHIP_ID_RANGE), 1L, sponsorId, 1 + random.nextInt(100));
+
+                switch (random.nextInt(5)) {
+                    case 0 -> sponsorRepository.save(sponsor(sponsorId));
+                    case 1 -> sponsorRepository.delete(sponsorId);
+                    case 2 -> sponsorshipRepository.save(sponsorship);
+                    case 3 -> sponsorshipRepository.update(sponsorship);
+                    default -> sponsorshipRepository.delete(sponsorship.getId());
+                }
+
+                assertEquals(asStrings(scanRanking.rank()), asStrings(materializedRanking.rank()));
+            });
+    }
+
+}
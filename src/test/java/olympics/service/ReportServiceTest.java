@@ -0,0 +1,344 @@
+package olympics.service;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import ro.ubb.olympics.domain.Athlete;
+import ro.ubb.olympics.domain.BaseEntity;
+import ro.ubb.olympics.domain.Competition;
+import ro.ubb.olympics.domain.Participation;
+import ro.ubb.olympics.domain.Sponsor;
+import ro.ubb.olympics.domain.Sponsorship;
+import ro.ubb.olympics.domain.validators.AthleteValidator;
+import ro.ubb.olympics.domain.validators.CompetitionValidator;
+import ro.ubb.olympics.domain.validators.ParticipationValidator;
+import ro.ubb.olympics.domain.validators.SponsorValidator;
+import ro.ubb.olympics.domain.validators.SponsorshipValidator;
+import ro.ubb.olympics.repository.Repository;
+import ro.ubb.olympics.repository.columnar.ColumnarRepository;
+import ro.ubb.olympics.repository.inmemory.InMemoryRepository;
+import ro.ubb.olympics.repository.row.mapper.ParticipationRowMapper;
+import ro.ubb.olympics.repository.row.mapper.SponsorshipRowMapper;
+import ro.ubb.olympics.dto.AllReportsDTO;
+import ro.ubb.olympics.dto.AthleteParticipationReportDTO;
+import ro.ubb.olympics.dto.SponsorContributionReportDTO;
+import ro.ubb.olympics.service.ReportService;
+import ro.ubb.olympics.service.report.RankingPage;
+import ro.ubb.olympics.utils.IterableUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class ReportServiceTest {
+
+    private static final int NUMBER_OF_CHANGES = 2000;
+    private static final int SPONSORSHIPS_PER_SPONSOR = 5;
+    private static final int MONEY_CONTRIBUTION = 100;
+    private static final int NUMBER_OF_ROWS = 20000;
+    private static final int NUMBER_OF_PARENTS = 50;
+    private static final int PARALLELISM = 8;
+
+    private static final Sponsor SPONSOR = SponsorshipServiceTest.FIRST_SPONSOR;
+    private static final Sponsorship SPONSORSHIP = SponsorshipServiceTest.FIRST_SPONSORSHIP;
+    private static final Sponsor TEMPORARY_SPONSOR = SponsorshipServiceTest.SECOND_SPONSOR;
+
+    private Repository<Long, Sponsorship> sponsorshipRepository;
+    private Repository<Long, Sponsor> sponsorRepository;
+    private ReportService reportService;
+
+    @Before
+    public void setUp() {
+        sponsorshipRepository = new InMemoryRepository<>(new SponsorshipValidator());
+        sponsorRepository = new InMemoryRepository<>(new SponsorValidator());
+        final Repository<Long, Competition> competitionRepository = new InMemoryRepository<>(new CompetitionValidator());
+        final Repository<Long, Participation> participationRepository = new InMemoryRepository<>(new ParticipationValidator());
+        final Repository<Long, Athlete> athleteRepository = new InMemoryRepository<>(new AthleteValidator());
+        reportService = new ReportService(sponsorshipRepository, sponsorRepository, competitionRepository, participationRepository, athleteRepository);
+
+        sponsorRepository.save(SPONSOR);
+        sponsorshipRepository.save(SPONSORSHIP);
+        competitionRepository.save(SponsorshipServiceTest.FIRST_COMPETITION);
+        competitionRepository.save(SponsorshipServiceTest.SECOND_COMPETITION);
+        athleteRepository.save(ParticipationServiceTest.FIRST_ATHLETE);
+        athleteRepository.save(ParticipationServiceTest.SECOND_ATHLETE);
+        participationRepository.save(ParticipationServiceTest.FIRST_PARTICIPATION);
+        participationRepository.save(ParticipationServiceTest.SECOND_PARTICIPATION);
+    }
+
+    @After
+    public void tearDown() {
+        reportService.close();
+
+        sponsorshipRepository = null;
+        sponsorRepository = null;
+        reportService = null;
+    }
+
+    /**
+     * Wrap a repository, counting the scans of its entities.
+     */
+    private static <T extends BaseEntity<Long>> Repository<Long, T> countingScans(final Repository<Long, T> repository, final AtomicInteger scans) {
+        return new Repository<>() {
+            @Override
+            public Optional<T> findOne(final Long id) {
+                return repository.findOne(id);
+            }
+
+            @Override
+            public Iterable<T> findAll() {
+                scans.incrementAndGet();
+                return repository.findAll();
+            }
+
+            @Override
+            public Optional<T> save(final T entity) {
+                return repository.save(entity);
+            }
+
+            @Override
+            public Optional<T> delete(final Long id) {
+                return repository.delete(id);
+            }
+
+            @Override
+            public Optional<T> update(final T entity) {
+                return repository.update(entity);
+            }
+        };
+    }
+
+    private static String generateEachReport(final ReportService reportService) {
+        return String.join(
+            "\n\n",
+            reportService.generateSponsorContributionsReport().toString(),
+            reportService.generateCompetitionSponsorshipsReport().toString(),
+            reportService.generateAthleteParticipationReport().toString(),
+            reportService.generateCompetitionParticipationReport().toString()
+        );
+    }
+
+    @Test
+    public void testGenerateAllReports() {
+        final AllReportsDTO allReports = reportService.generateAllReports();
+
+        assertEquals(generateEachReport(reportService), allReports.toString());
+        assertEquals(reportService.generateAthleteParticipationReport().toString(), allReports.getAthleteParticipationReport().toString());
+    }
+
+    /**
+     * A report is generated again only after a change of one of the repositories it depends on.
+     */
+    @Test
+    public void testReportCache() {
+        final SponsorContributionReportDTO sponsorContributions = reportService.generateSponsorContributionsReport();
+        final AthleteParticipationReportDTO athleteParticipations = reportService.generateAthleteParticipationReport();
+        assertEquals(0, reportService.getReportCacheHits());
+        assertEquals(2, reportService.getReportCacheMisses());
+
+        assertSame(sponsorContributions, reportService.generateSponsorContributionsReport());
+        assertSame(athleteParticipations, reportService.generateAthleteParticipationReport());
+        assertEquals(2, reportService.getReportCacheHits());
+
+        final SponsorContributionReportDTO firstSponsorContribution = reportService.generateSponsorContributionsReport(RankingPage.first(1));
+        assertNotSame(sponsorContributions, firstSponsorContribution);
+        assertSame(firstSponsorContribution, reportService.generateSponsorContributionsReport(RankingPage.first(1)));
+        assertEquals(3, reportService.getReportCacheHits());
+        assertEquals(3, reportService.getReportCacheMisses());
+
+        sponsorRepository.save(TEMPORARY_SPONSOR);
+
+        final SponsorContributionReportDTO changedSponsorContributions = reportService.generateSponsorContributionsReport();
+        assertNotSame(sponsorContributions, changedSponsorContributions);
+        assertTrue(changedSponsorContributions.toString().contains(TEMPORARY_SPONSOR.toString()));
+        assertSame(athleteParticipations, reportService.generateAthleteParticipationReport());
+        assertEquals(4, reportService.getReportCacheHits());
+        assertEquals(4, reportService.getReportCacheMisses());
+    }
+
+    /**
+     * A report depending on a repository which is not versioned is generated again on every request.
+     */
+    @Test
+    public void testReportCacheWithUnversionedRepository() {
+        final AtomicInteger sponsorScans = new AtomicInteger();
+        try (final ReportService unversionedReportService = new ReportService(
+            sponsorshipRepository,
+            countingScans(sponsorRepository, sponsorScans),
+            reportService.getCompetitionRepository(),
+            reportService.getParticipationRepository(),
+            reportService.getAthleteRepository()
+        )) {
+            final SponsorContributionReportDTO sponsorContributions = unversionedReportService.generateSponsorContributionsReport();
+            assertNotSame(sponsorContributions, unversionedReportService.generateSponsorContributionsReport());
+            assertSame(
+                unversionedReportService.generateAthleteParticipationReport(),
+                unversionedReportService.generateAthleteParticipationReport()
+            );
+            assertEquals(1, unversionedReportService.getReportCacheHits());
+            assertEquals(3, unversionedReportService.getReportCacheMisses());
+        }
+    }
+
+    @Test
+    public void testGenerateAllReportsScansEachRepositoryOnce() {
+        final List<AtomicInteger> scans = Stream.generate(AtomicInteger::new).limit(5).collect(Collectors.toList());
+        try (final ReportService scanningReportService = new ReportService(
+            countingScans(sponsorshipRepository, scans.get(0)),
+            countingScans(sponsorRepository, scans.get(1)),
+            countingScans(reportService.getCompetitionRepository(), scans.get(2)),
+            countingScans(reportService.getParticipationRepository(), scans.get(3)),
+            countingScans(reportService.getAthleteRepository(), scans.get(4))
+        )) {
+            final String allReports = scanningReportService.generateAllReports().toString();
+
+            scans.forEach(repositoryScans -> assertEquals(1, repositoryScans.get()));
+            assertEquals(generateEachReport(reportService), allReports);
+            assertEquals(generateEachReport(scanningReportService), allReports);
+        }
+    }
+
+    /**
+     * Once the service is closed, the reports which need a scan are rejected by its pool.
+     */
+    @Test
+    public void testCloseStopsScans() {
+        final ReportService scanningReportService = new ReportService(
+            countingScans(sponsorshipRepository, new AtomicInteger()),
+            countingScans(sponsorRepository, new AtomicInteger()),
+            reportService.getCompetitionRepository(),
+            reportService.getParticipationRepository(),
+            reportService.getAthleteRepository()
+        );
+        scanningReportService.generateSponsorContributionsReport();
+
+        scanningReportService.close();
+
+        assertThrows(RejectedExecutionException.class, scanningReportService::generateCompetitionSponsorshipsReport);
+    }
+
+    /**
+     * The parallel scans of the columnar repositories give the same reports as the sequential ones, and as the
+     * materialized rankings over the same entities.
+     */
+    @Test
+    public void testGenerateAllReportsInParallel() {
+        final Repository<Long, Sponsorship> columnarSponsorshipRepository = new ColumnarRepository<>(new SponsorshipValidator(), new SponsorshipRowMapper());
+        final Repository<Long, Participation> columnarParticipationRepository = new ColumnarRepository<>(new ParticipationValidator(), new ParticipationRowMapper());
+        final Repository<Long, Participation> participationRepository = reportService.getParticipationRepository();
+        final Random random = new Random(42);
+
+        LongStream
+            .rangeClosed(1, NUMBER_OF_PARENTS)
+            .forEach(id -> {
+                sponsorRepository.save(new Sponsor(id, SPONSOR.getName(), SPONSOR.getCountry()));
+                reportService.getCompetitionRepository().save(new Competition(id, ParticipationServiceTest.FIRST_COMPETITION.getDate(), "Location", "Name", "Description"));
+                reportService.getAthleteRepository().save(new Athlete(id, "First", "Last", "Country", 20));
+            });
+        LongStream
+            .rangeClosed(SPONSORSHIP.getId() + 1, NUMBER_OF_ROWS)
+            .forEach(id -> {
+                final long firstKey = 1 + random.nextInt(NUMBER_OF_PARENTS);
+                final long secondKey = 1 + random.nextInt(NUMBER_OF_PARENTS);
+                sponsorshipRepository.save(new Sponsorship(id, firstKey, secondKey, 1 + random.nextInt(MONEY_CONTRIBUTION)));
+                participationRepository.save(new Participation(id, firstKey, secondKey, 1 + random.nextInt(10)));
+            });
+        IterableUtils.stream(sponsorshipRepository.findAll()).forEach(columnarSponsorshipRepository::save);
+        IterableUtils.stream(participationRepository.findAll()).forEach(columnarParticipationRepository::save);
+
+        try (
+            final ReportService sequentialReportService = new ReportService(
+                columnarSponsorshipRepository,
+                sponsorRepository,
+                reportService.getCompetitionRepository(),
+                columnarParticipationRepository,
+                reportService.getAthleteRepository()
+            );
+            final ReportService parallelReportService = new ReportService(
+                columnarSponsorshipRepository,
+                sponsorRepository,
+                reportService.getCompetitionRepository(),
+                columnarParticipationRepository,
+                reportService.getAthleteRepository(),
+                PARALLELISM
+            )
+        ) {
+            final String sequentialReports = sequentialReportService.generateAllReports().toString();
+
+            assertEquals(reportService.generateAllReports().toString(), sequentialReports);
+            assertEquals(sequentialReports, parallelReportService.generateAllReports().toString());
+            assertEquals(generateEachReport(reportService), generateEachReport(parallelReportService));
+        }
+    }
+
+    @Test
+    public void testGenerateSponsorContributionsReport() {
+        assertEquals(
+            String.format("%s: %d (USD)", SPONSOR, SPONSORSHIP.getMoneyContribution()),
+            reportService.generateSponsorContributionsReport().toString()
+        );
+    }
+
+    @Test
+    public void testGenerateSponsorContributionsReportOverColumns() {
+        final Repository<Long, Sponsorship> columnarSponsorshipRepository = new ColumnarRepository<>(new SponsorshipValidator(), new SponsorshipRowMapper());
+        columnarSponsorshipRepository.save(SPONSORSHIP);
+        columnarSponsorshipRepository.save(new Sponsorship(SPONSORSHIP.getId() + 1, SPONSORSHIP.getCompetitionId(), SPONSOR.getId(), MONEY_CONTRIBUTION));
+        final ReportService inMemoryReportService = reportService;
+        reportService = new ReportService(columnarSponsorshipRepository, sponsorRepository, inMemoryReportService.getCompetitionRepository(), inMemoryReportService.getParticipationRepository(), inMemoryReportService.getAthleteRepository());
+        inMemoryReportService.close();
+
+        assertEquals(
+            String.format("%s: %d (USD)", SPONSOR, SPONSORSHIP.getMoneyContribution() + MONEY_CONTRIBUTION),
+            reportService.generateSponsorContributionsReport().toString()
+        );
+    }
+
+    /**
+     * A writer keeps adding a sponsor with its sponsorships and deleting them again, the sponsorships first, while a
+     * reader keeps generating the report, which must never see a sponsorship without its sponsor.
+     */
+    @Test
+    public void testGenerateSponsorContributionsReportDuringChanges() {
+        final AtomicBoolean writing = new AtomicBoolean(true);
+        final List<Sponsorship> temporarySponsorships = LongStream
+            .rangeClosed(1, SPONSORSHIPS_PER_SPONSOR)
+            .mapToObj(count -> new Sponsorship(SPONSORSHIP.getId() + count, SPONSORSHIP.getCompetitionId(), TEMPORARY_SPONSOR.getId(), MONEY_CONTRIBUTION))
+            .collect(Collectors.toList());
+
+        final CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> {
+            IntStream
+                .range(0, NUMBER_OF_CHANGES)
+                .forEach(change -> {
+                    sponsorRepository.save(TEMPORARY_SPONSOR);
+                    temporarySponsorships.forEach(sponsorshipRepository::save);
+                    temporarySponsorships.forEach(sponsorship -> sponsorshipRepository.delete(sponsorship.getId()));
+                    sponsorRepository.delete(TEMPORARY_SPONSOR.getId());
+                });
+            writing.set(false);
+        });
+
+        final CompletableFuture<Void> reader = CompletableFuture.runAsync(() -> Stream
+            .generate(reportService::generateSponsorContributionsReport)
+            .takeWhile(unused -> writing.get())
+            .forEach(report -> assertTrue(report.toString().contains(SPONSOR.toString()))));
+
+        writer.join();
+        reader.join();
+    }
+
+}